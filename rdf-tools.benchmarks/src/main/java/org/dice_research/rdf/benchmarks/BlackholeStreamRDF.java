@@ -0,0 +1,32 @@
+package org.dice_research.rdf.benchmarks;
+
+import org.apache.jena.graph.Triple;
+import org.apache.jena.riot.system.StreamRDFBase;
+import org.apache.jena.sparql.core.Quad;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * A sink that hands all received triples and quads to a JMH {@link Blackhole}
+ * to prevent the JIT compiler from removing the benchmarked code.
+ *
+ * @author Michael R&ouml;der (michael.roeder@uni-paderborn.de)
+ *
+ */
+public class BlackholeStreamRDF extends StreamRDFBase {
+
+    protected Blackhole blackhole;
+
+    public BlackholeStreamRDF(Blackhole blackhole) {
+        this.blackhole = blackhole;
+    }
+
+    @Override
+    public void triple(Triple triple) {
+        blackhole.consume(triple);
+    }
+
+    @Override
+    public void quad(Quad quad) {
+        blackhole.consume(quad);
+    }
+}
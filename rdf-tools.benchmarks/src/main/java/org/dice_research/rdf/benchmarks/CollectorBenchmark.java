@@ -0,0 +1,60 @@
+package org.dice_research.rdf.benchmarks;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.Triple;
+import org.dice_research.rdf.stream.collect.RDFStreamCollector;
+import org.dice_research.rdf.stream.collect.RDFStreamGroupByCollector;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks for the collectors. The collectors store their data in sets,
+ * i.e., the size of the collected data is bounded by the number of distinct
+ * values in the data although the data is streamed several times. The
+ * collectors are recreated for every iteration.
+ *
+ * @author Michael R&ouml;der (michael.roeder@uni-paderborn.de)
+ *
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class CollectorBenchmark {
+
+    protected RDFStreamCollector<Node> collector;
+    protected RDFStreamGroupByCollector<Node, Node, Set<Node>> groupByCollector;
+
+    @Setup(Level.Iteration)
+    public void setup() {
+        // Collect all subjects
+        collector = new RDFStreamCollector<>(Triple::getSubject, new HashSet<>());
+        // Collect the objects of every predicate
+        groupByCollector = new RDFStreamGroupByCollector<>(Triple::getPredicate, Triple::getObject, HashSet::new);
+    }
+
+    @Benchmark
+    public void collector(TripleData data) {
+        collector.triple(data.next());
+    }
+
+    @Benchmark
+    public void groupByCollector(TripleData data) {
+        groupByCollector.triple(data.next());
+    }
+}
@@ -0,0 +1,105 @@
+package org.dice_research.rdf.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.apache.jena.graph.NodeFactory;
+import org.apache.jena.riot.system.StreamRDF;
+import org.apache.jena.vocabulary.RDF;
+import org.dice_research.rdf.stream.filter.NodeFilterBasedTripleFilter;
+import org.dice_research.rdf.stream.filter.RDFStreamTripleFilter;
+import org.dice_research.rdf.stream.filter.node.EqualityNodeFilter;
+import org.dice_research.rdf.stream.filter.node.StringBasedNamespaceNodeFilter;
+import org.dice_research.rdf.stream.filter.node.TrieBasedNamespaceNodeFilter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmarks for the triple and node filters.
+ *
+ * @author Michael R&ouml;der (michael.roeder@uni-paderborn.de)
+ *
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class FilterBenchmark {
+
+    /**
+     * The number of name spaces the namespace filters check. Only the last two
+     * of them occur in the synthetic data.
+     */
+    @Param({ "2", "50" })
+    public int namespaces;
+
+    protected StreamRDF equalityFilter;
+    protected StreamRDF stringNamespaceFilter;
+    protected StreamRDF trieNamespaceFilter;
+    protected StreamRDF filterChain;
+
+    @Setup
+    public void setup(Blackhole blackhole) {
+        StreamRDF sink = new BlackholeStreamRDF(blackhole);
+        String[] namespaceArray = createNamespaces(namespaces);
+        equalityFilter = new RDFStreamTripleFilter(
+                new NodeFilterBasedTripleFilter(null, new EqualityNodeFilter(RDF.type.asNode()), null), sink);
+        stringNamespaceFilter = new RDFStreamTripleFilter(
+                new NodeFilterBasedTripleFilter(new StringBasedNamespaceNodeFilter(namespaceArray), null, null), sink);
+        trieNamespaceFilter = new RDFStreamTripleFilter(
+                new NodeFilterBasedTripleFilter(new TrieBasedNamespaceNodeFilter(namespaceArray), null, null), sink);
+        // A chain similar to the one of the Wikidata preprocessing
+        filterChain = new RDFStreamTripleFilter(
+                new NodeFilterBasedTripleFilter(null, new EqualityNodeFilter(RDF.type.asNode(), false), null),
+                new RDFStreamTripleFilter(
+                        new NodeFilterBasedTripleFilter(null, null,
+                                new EqualityNodeFilter(NodeFactory.createURI(TripleData.WD_NAMESPACE + "Q5"), false)),
+                        new RDFStreamTripleFilter(new NodeFilterBasedTripleFilter(
+                                new StringBasedNamespaceNodeFilter(namespaceArray), null, null), sink)));
+    }
+
+    /**
+     * Creates name spaces of which the last two are the DBpedia resource and the
+     * Wikidata entity name spaces, i.e., a linear search has to check all of them.
+     */
+    protected static String[] createNamespaces(int count) {
+        String[] namespaces = new String[count];
+        for (int i = 0; i < count - 2; ++i) {
+            namespaces[i] = "http://example" + i + ".org/resource/";
+        }
+        namespaces[count - 2] = TripleData.DBR_NAMESPACE;
+        namespaces[count - 1] = TripleData.WD_NAMESPACE;
+        return namespaces;
+    }
+
+    @Benchmark
+    public void equalityFilter(TripleData data) {
+        equalityFilter.triple(data.next());
+    }
+
+    @Benchmark
+    public void stringNamespaceFilter(TripleData data) {
+        stringNamespaceFilter.triple(data.next());
+    }
+
+    @Benchmark
+    public void trieNamespaceFilter(TripleData data) {
+        trieNamespaceFilter.triple(data.next());
+    }
+
+    @Benchmark
+    public void filterChain(TripleData data) {
+        filterChain.triple(data.next());
+    }
+}
@@ -0,0 +1,65 @@
+package org.dice_research.rdf.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.Triple;
+import org.apache.jena.riot.system.StreamRDF;
+import org.apache.jena.vocabulary.RDF;
+import org.dice_research.rdf.stream.map.RDFStreamTripleFlatMapper;
+import org.dice_research.rdf.stream.map.RDFStreamTripleMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmarks for the triple mappers.
+ *
+ * @author Michael R&ouml;der (michael.roeder@uni-paderborn.de)
+ *
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class MapperBenchmark {
+
+    private static final Node RDF_TYPE_NODE = RDF.type.asNode();
+
+    protected StreamRDF mapper;
+    protected StreamRDF flatMapper;
+
+    @Setup
+    public void setup(Blackhole blackhole) {
+        StreamRDF sink = new BlackholeStreamRDF(blackhole);
+        // Replace the predicate (as it is done for wdt:P31 triples)
+        mapper = new RDFStreamTripleMapper(t -> Triple.create(t.getSubject(), RDF_TYPE_NODE, t.getObject()), sink);
+        // Add the inverse of every triple with a resource as object
+        flatMapper = new RDFStreamTripleFlatMapper(
+                t -> t.getObject().isURI()
+                        ? Stream.of(t, Triple.create(t.getObject(), t.getPredicate(), t.getSubject()))
+                        : Stream.of(t),
+                sink);
+    }
+
+    @Benchmark
+    public void mapper(TripleData data) {
+        mapper.triple(data.next());
+    }
+
+    @Benchmark
+    public void flatMapper(TripleData data) {
+        flatMapper.triple(data.next());
+    }
+}
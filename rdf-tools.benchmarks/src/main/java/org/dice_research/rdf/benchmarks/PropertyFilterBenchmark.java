@@ -0,0 +1,69 @@
+package org.dice_research.rdf.benchmarks;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+import org.apache.jena.graph.Triple;
+import org.dice_research.rdf.stream.filter.PropertyBasedTripleFilter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares the node-based {@link PropertyBasedTripleFilter} with a filter
+ * that looks up the IRI String of the predicate (the former implementation of
+ * the filter). The synthetic data contains a large share of wdt:P31 triples.
+ *
+ * @author Michael R&ouml;der (michael.roeder@uni-paderborn.de)
+ *
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class PropertyFilterBenchmark {
+
+    /**
+     * The number of accepted properties.
+     */
+    @Param({ "1", "10" })
+    public int properties;
+
+    protected Predicate<Triple> nodeFilter;
+    protected Predicate<Triple> stringFilter;
+
+    @Setup
+    public void setup() {
+        Set<String> accepted = new HashSet<>();
+        accepted.add(TripleData.WDT_P31_IRI);
+        for (int i = 1; i < properties; ++i) {
+            accepted.add(TripleData.WDT_NAMESPACE + "P" + (2 * i + 1));
+        }
+        Set<String> stringSet = Collections.unmodifiableSet(new HashSet<>(accepted));
+        stringFilter = t -> stringSet.contains(t.getPredicate().getURI());
+        nodeFilter = new PropertyBasedTripleFilter(accepted);
+    }
+
+    @Benchmark
+    public boolean nodeFilter(TripleData data) {
+        return nodeFilter.test(data.next());
+    }
+
+    @Benchmark
+    public boolean stringFilter(TripleData data) {
+        return stringFilter.test(data.next());
+    }
+}
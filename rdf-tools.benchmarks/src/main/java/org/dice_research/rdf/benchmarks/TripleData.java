@@ -0,0 +1,183 @@
+package org.dice_research.rdf.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.NodeFactory;
+import org.apache.jena.graph.Triple;
+import org.apache.jena.datatypes.xsd.XSDDatatype;
+import org.apache.jena.riot.RDFParser;
+import org.apache.jena.riot.system.StreamRDFBase;
+import org.apache.jena.vocabulary.RDF;
+import org.apache.jena.vocabulary.RDFS;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * The triples that are streamed through the benchmarked classes. By default,
+ * synthetic triples are generated that mimic a mix of DBpedia and Wikidata
+ * data. Alternatively, the path to an N-Triples file can be given with
+ * {@code -p data=/path/to/file.nt}. In that case, a uniform random sample of
+ * {@link #size} triples is drawn from the file (reservoir sampling with the
+ * given {@link #seed}), i.e., every run uses the same triples.
+ *
+ * <p>
+ * All triples are held in memory before the measurement starts. Hence,
+ * parsing is not part of the measured time. A benchmark operation processes a
+ * single triple, which is taken from the data with {@link #next()}. Hence, the
+ * throughput reported by JMH is the number of triples per second and the
+ * normalized allocation rate of the GC profiler is the number of bytes
+ * allocated per triple.
+ * </p>
+ *
+ * @author Michael R&ouml;der (michael.roeder@uni-paderborn.de)
+ *
+ */
+@State(Scope.Thread)
+public class TripleData {
+
+    public static final String SYNTHETIC = "synthetic";
+
+    public static final String DBR_NAMESPACE = "http://dbpedia.org/resource/";
+    public static final String DBO_NAMESPACE = "http://dbpedia.org/ontology/";
+    public static final String WD_NAMESPACE = "http://www.wikidata.org/entity/";
+    public static final String WDT_NAMESPACE = "http://www.wikidata.org/prop/direct/";
+    public static final String WDT_P31_IRI = WDT_NAMESPACE + "P31";
+
+    /**
+     * Either {@value #SYNTHETIC} or the path to an N-Triples file.
+     */
+    @Param(SYNTHETIC)
+    public String data;
+    /**
+     * The number of triples.
+     */
+    @Param("100000")
+    public int size;
+    /**
+     * The seed for generating or sampling triples.
+     */
+    @Param("42")
+    public long seed;
+
+    /**
+     * The triples.
+     */
+    public Triple[] triples;
+    /**
+     * The position of the next triple.
+     */
+    protected int position = 0;
+
+    @Setup
+    public void setup() {
+        if (SYNTHETIC.equals(data)) {
+            triples = generate(size, seed);
+        } else {
+            triples = sample(data, size, seed);
+        }
+    }
+
+    /**
+     * @return the next triple (the data is repeated if all triples have been
+     *         returned)
+     */
+    public Triple next() {
+        Triple triple = triples[position];
+        ++position;
+        if (position == triples.length) {
+            position = 0;
+        }
+        return triple;
+    }
+
+    /**
+     * Generates synthetic triples. 30% of them are wdt:P31 triples, 20% are
+     * rdf:type triples, 20% have literal objects (half of them rdfs:label) and the
+     * remaining triples connect resources with one of 1000 properties. Subjects
+     * and properties are taken from the DBpedia and Wikidata namespaces.
+     *
+     * @param size the number of triples
+     * @param seed the seed of the random number generator
+     * @return the generated triples
+     */
+    public static Triple[] generate(int size, long seed) {
+        Random random = new Random(seed);
+        Node[] properties = new Node[1000];
+        for (int i = 0; i < properties.length; ++i) {
+            properties[i] = NodeFactory
+                    .createURI(((i & 1) == 0) ? (DBO_NAMESPACE + "property" + i) : (WDT_NAMESPACE + "P" + i));
+        }
+        Node[] classes = new Node[100];
+        for (int i = 0; i < classes.length; ++i) {
+            classes[i] = NodeFactory.createURI(DBO_NAMESPACE + "Class" + i);
+        }
+        Node p31 = NodeFactory.createURI(WDT_P31_IRI);
+        Node type = RDF.type.asNode();
+        Node label = RDFS.label.asNode();
+        Triple[] triples = new Triple[size];
+        int entities = Math.max(1, size / 10);
+        for (int i = 0; i < size; ++i) {
+            boolean wikidata = random.nextBoolean();
+            Node subject = entity(wikidata, random.nextInt(entities));
+            int kind = random.nextInt(10);
+            if (kind < 3) {
+                triples[i] = Triple.create(entity(true, random.nextInt(entities)), p31,
+                        entity(true, random.nextInt(100)));
+            } else if (kind < 5) {
+                triples[i] = Triple.create(subject, type, classes[random.nextInt(classes.length)]);
+            } else if (kind < 6) {
+                triples[i] = Triple.create(subject, label,
+                        NodeFactory.createLiteral("label " + i, random.nextBoolean() ? "en" : "de"));
+            } else if (kind < 7) {
+                triples[i] = Triple.create(subject, properties[random.nextInt(properties.length)],
+                        NodeFactory.createLiteral(Integer.toString(random.nextInt()), XSDDatatype.XSDint));
+            } else {
+                triples[i] = Triple.create(subject, properties[random.nextInt(properties.length)],
+                        entity(random.nextBoolean(), random.nextInt(entities)));
+            }
+        }
+        return triples;
+    }
+
+    protected static Node entity(boolean wikidata, int id) {
+        return NodeFactory.createURI(wikidata ? (WD_NAMESPACE + "Q" + id) : (DBR_NAMESPACE + "Entity_" + id));
+    }
+
+    /**
+     * Draws a uniform sample of triples from the given file.
+     *
+     * @param file the file that should be parsed
+     * @param size the number of triples
+     * @param seed the seed of the random number generator
+     * @return the sampled triples (less than size if the file is smaller)
+     */
+    public static Triple[] sample(String file, int size, long seed) {
+        Random random = new Random(seed);
+        List<Triple> sample = new ArrayList<>(size);
+        RDFParser.source(file).parse(new StreamRDFBase() {
+            private long seen = 0;
+
+            @Override
+            public void triple(Triple triple) {
+                ++seen;
+                if (sample.size() < size) {
+                    sample.add(triple);
+                } else {
+                    long index = (long) (random.nextDouble() * seen);
+                    if (index < size) {
+                        sample.set((int) index, triple);
+                    }
+                }
+            }
+        });
+        if (sample.isEmpty()) {
+            throw new IllegalArgumentException("The given file \"" + file + "\" does not contain any triples.");
+        }
+        return sample.toArray(new Triple[sample.size()]);
+    }
+}
@@ -0,0 +1,15 @@
+/**
+ * JMH benchmarks for the classes of the rdf-tools.stream module. A single
+ * benchmark operation streams a single triple of the
+ * {@link org.dice_research.rdf.benchmarks.TripleData} through the benchmarked
+ * chain. Hence, the reported throughput is the number of triples per second.
+ * The allocations per triple can be measured with the GC profiler. Its value
+ * {@code gc.alloc.rate.norm} is the number of allocated bytes per triple.
+ *
+ * <pre>
+ * mvn -pl rdf-tools.benchmarks -am package -DskipTests
+ * java -jar rdf-tools.benchmarks/target/benchmarks.jar -prof gc
+ * java -jar rdf-tools.benchmarks/target/benchmarks.jar FilterBenchmark -p data=/path/to/file.nt
+ * </pre>
+ */
+package org.dice_research.rdf.benchmarks;
@@ -22,9 +22,8 @@ import org.apache.jena.system.progress.ProgressMonitor;
 import org.apache.jena.system.progress.ProgressMonitorOutput;
 import org.apache.jena.system.progress.ProgressStreamRDF;
 import org.apache.jena.vocabulary.RDF;
+import org.dice_research.rdf.stream.RoutingStreamRDF;
 import org.dice_research.rdf.stream.consume.RDFStreamTripleConsumer;
-import org.dice_research.rdf.stream.filter.NodeFilterBasedTripleFilter;
-import org.dice_research.rdf.stream.filter.RDFStreamTripleFilter;
 import org.dice_research.rdf.stream.util.StreamUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -111,14 +110,9 @@ public class CSV2FCDatasetConverter {
                 t -> putOrAdd(stmt2TripleIris, t.getSubject().getURI(), t.getObject().getURI(), 0));
 
         // Split the stream based on the predicate
-        StreamRDF stream = new RDFStreamTripleFilter(
-                new NodeFilterBasedTripleFilter(null, p -> RDF.object.getURI().equals(p.getURI()), null), objStream);
-        stream = new RDFStreamTripleFilter(
-                new NodeFilterBasedTripleFilter(null, p -> RDF.predicate.getURI().equals(p.getURI()), null), predStream,
-                stream);
-        stream = new RDFStreamTripleFilter(
-                new NodeFilterBasedTripleFilter(null, p -> RDF.subject.getURI().equals(p.getURI()), null), subStream,
-                stream);
+        StreamRDF stream = RoutingStreamRDF.byPredicate(StreamRDFLib.sinkNull())
+                .addRoute(RDF.subject.asNode(), subStream).addRoute(RDF.predicate.asNode(), predStream)
+                .addRoute(RDF.object.asNode(), objStream);
 
         // Add monitor at the beginning of the stream
         ProgressMonitor monitorS = new ProgressMonitorOutput("Processed triples", 1000, 10,
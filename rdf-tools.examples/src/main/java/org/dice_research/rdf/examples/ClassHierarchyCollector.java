@@ -1,11 +1,7 @@
 package org.dice_research.rdf.examples;
 
 import java.io.File;
-import java.util.Collections;
 import java.util.HashMap;
-import java.util.HashSet;
-import java.util.Map;
-import java.util.Set;
 
 import org.apache.jena.riot.Lang;
 import org.apache.jena.riot.RDFParser;
@@ -15,12 +11,16 @@ import org.apache.jena.system.progress.ProgressMonitor;
 import org.apache.jena.system.progress.ProgressMonitorOutput;
 import org.apache.jena.system.progress.ProgressStreamRDF;
 import org.apache.jena.vocabulary.RDFS;
-import org.dice_research.rdf.stream.collect.RDFStreamGroupByCollector;
+import org.dice_research.rdf.stream.collect.IntGroupByCollector;
+import org.dice_research.rdf.stream.dict.NodeDictionary;
 import org.dice_research.rdf.stream.filter.RDFStreamTripleFilter;
 import org.dice_research.serial.maps.ComplexMapSerializer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.carrotsearch.hppc.IntObjectOpenHashMap;
+import com.carrotsearch.hppc.IntOpenHashSet;
+import com.carrotsearch.hppc.cursors.IntCursor;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.module.SimpleModule;
 
@@ -28,44 +28,55 @@ public class ClassHierarchyCollector {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(ClassHierarchyCollector.class);
 
-    public static StreamRDF createStream(Map<String, Set<String>> classHierarchy) {
-        // We collect the IRI of the subject and object and assume that the object is
+    /**
+     * The (never modified) set that is returned for classes without super
+     * classes.
+     */
+    private static final IntOpenHashSet EMPTY_SET = new IntOpenHashSet();
+
+    public static StreamRDF createStream(NodeDictionary dictionary,
+            IntObjectOpenHashMap<IntOpenHashSet> classHierarchy) {
+        // We collect the IDs of the subject and object and assume that the object is
         // the super class of the subject.
-        StreamRDF stream = new RDFStreamGroupByCollector<>(t -> t.getSubject().getURI(), t -> t.getObject().getURI(),
-                HashSet::new, classHierarchy);
+        StreamRDF stream = new IntGroupByCollector<>(t -> dictionary.getOrAddId(t.getSubject()),
+                t -> dictionary.getOrAddId(t.getObject()), IntOpenHashSet::new, IntOpenHashSet::add,
+                classHierarchy);
         // Hence, we should make sure that we only have rdfs:subClassOf triples
         final String RDFS_SUB_CLASS_OF = RDFS.subClassOf.getURI();
         stream = new RDFStreamTripleFilter(t -> RDFS_SUB_CLASS_OF.equals(t.getPredicate().getURI()), stream);
         return stream;
     }
 
-    @SuppressWarnings("unchecked")
-    public static void propagateClasses(Map<String, Set<String>> classHierarchy) {
-        Set<String> visitedElements = new HashSet<>();
-        for (String key : classHierarchy.keySet()) {
-            propagate(classHierarchy, key, visitedElements);
+    public static void propagateClasses(IntObjectOpenHashMap<IntOpenHashSet> classHierarchy) {
+        IntOpenHashSet visitedElements = new IntOpenHashSet();
+        int[] keys = classHierarchy.keys().toArray();
+        for (int i = 0; i < keys.length; ++i) {
+            propagate(classHierarchy, keys[i], visitedElements);
         }
         // If we have visited more classes, then we have in the map ...
         if (visitedElements.size() > classHierarchy.size()) {
             // ... add all classes that are missing so far
-            visitedElements.stream().filter(s -> !classHierarchy.containsKey(s))
-                    .forEach(s -> classHierarchy.put(s, (Set<String>) Collections.EMPTY_SET));
+            for (IntCursor element : visitedElements) {
+                if (!classHierarchy.containsKey(element.value)) {
+                    classHierarchy.put(element.value, new IntOpenHashSet());
+                }
+            }
         }
     }
 
-    @SuppressWarnings("unchecked")
-    protected static Set<String> propagate(Map<String, Set<String>> classHierarchy, String element,
-            Set<String> visitedElements) {
+    protected static IntOpenHashSet propagate(IntObjectOpenHashMap<IntOpenHashSet> classHierarchy, int element,
+            IntOpenHashSet visitedElements) {
         visitedElements.add(element);
         if (classHierarchy.containsKey(element)) {
-            Set<String> superClasses = classHierarchy.get(element);
-            Set<String> derivedSuperClasses;
-            Set<String> classesToAdd = null;
-            for (String key : superClasses) {
-                derivedSuperClasses = propagate(classHierarchy, key, visitedElements);
+            // Get the set before the recursion changes the last slot of the map
+            IntOpenHashSet superClasses = classHierarchy.lget();
+            IntOpenHashSet derivedSuperClasses;
+            IntOpenHashSet classesToAdd = null;
+            for (IntCursor key : superClasses) {
+                derivedSuperClasses = propagate(classHierarchy, key.value, visitedElements);
                 if (derivedSuperClasses.size() > 0) {
                     if (classesToAdd == null) {
-                        classesToAdd = new HashSet<>();
+                        classesToAdd = new IntOpenHashSet();
                     }
                     classesToAdd.addAll(derivedSuperClasses);
                 }
@@ -76,7 +87,7 @@ public class ClassHierarchyCollector {
             }
             return superClasses;
         } else {
-            return (Set<String>) Collections.EMPTY_SET;
+            return EMPTY_SET;
         }
     }
 
@@ -88,11 +99,12 @@ public class ClassHierarchyCollector {
         String inputFile = args[0];
         String outputFile = args[1];
 
-        // Create the map
-        Map<String, Set<String>> classHierarchy = new HashMap<>();
+        // Create the dictionary and the map
+        NodeDictionary dictionary = new NodeDictionary();
+        IntObjectOpenHashMap<IntOpenHashSet> classHierarchy = new IntObjectOpenHashMap<>();
 
         // Create stream starting from the end!
-        StreamRDF stream = createStream(classHierarchy);
+        StreamRDF stream = createStream(dictionary, classHierarchy);
 
         // Add monitor at the beginning of the stream
         ProgressMonitor monitorS = new ProgressMonitorOutput("Processed triples", 100000, 10,
@@ -115,7 +127,7 @@ public class ClassHierarchyCollector {
         module.addSerializer(HashMap.class, new ComplexMapSerializer());
         ObjectMapper mapper = new ObjectMapper().registerModule(module);
         try {
-            mapper.writeValue(new File(outputFile), classHierarchy);
+            mapper.writeValue(new File(outputFile), dictionary.decodeGroups(classHierarchy));
         } catch (Exception e) {
             LOGGER.error("Error while writing class hierarchy file.");
         }
@@ -1,27 +1,30 @@
 package org.dice_research.rdf.examples;
 
-import java.io.FileInputStream;
-import java.io.FileWriter;
+import java.io.BufferedOutputStream;
+import java.io.FileOutputStream;
 import java.io.IOException;
-import java.io.Writer;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Paths;
 import java.util.Arrays;
 import java.util.HashSet;
 import java.util.Set;
 
-import org.apache.commons.compress.compressors.bzip2.BZip2CompressorInputStream;
 import org.apache.jena.riot.Lang;
-import org.apache.jena.riot.RDFParser;
 import org.apache.jena.riot.system.StreamRDF;
-import org.apache.jena.riot.system.StreamRDFLib;
 import org.apache.jena.system.progress.MonitorOutputs;
 import org.apache.jena.system.progress.ProgressMonitor;
 import org.apache.jena.system.progress.ProgressMonitorOutput;
 import org.apache.jena.system.progress.ProgressStreamRDF;
 import org.apache.jena.vocabulary.RDF;
 import org.apache.jena.vocabulary.RDFS;
-import org.dice_research.rdf.stream.filter.NodeFilterBasedTripleFilter;
-import org.dice_research.rdf.stream.filter.RDFStreamTripleFilter;
-import org.dice_research.rdf.stream.filter.node.StringBasedNamespaceNodeFilter;
+import org.dice_research.rdf.stream.filter.raw.RawIriEqualityFilter;
+import org.dice_research.rdf.stream.filter.raw.RawNamespaceFilter;
+import org.dice_research.rdf.stream.filter.raw.RawTripleFilter;
+import org.dice_research.rdf.stream.io.FastNTriplesWriter;
+import org.dice_research.rdf.stream.io.RDFSources;
+import org.dice_research.rdf.stream.parse.RawNTriplesReader;
+import org.dice_research.rdf.stream.parse.RawTriple;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -54,50 +57,43 @@ public class DBOPreprocessor {
 
         String outputFile = args[0];
 
-        try (Writer out1 = new FileWriter(outputFile)) {
-            // Create stream starting from the end!
-            StreamRDF outStream = StreamRDFLib.writer(out1);
+        try (OutputStream out1 = new BufferedOutputStream(new FileOutputStream(outputFile))) {
+            // The accepted triples are not changed. Hence, the writer can copy their
+            // original lines.
+            StreamRDF outStream = new FastNTriplesWriter(out1);
             ProgressMonitor monitor1 = new ProgressMonitorOutput("Added triples", 100000, 10,
                     MonitorOutputs.outputToLog(LOGGER));
             outStream = new ProgressStreamRDF(outStream, monitor1);
 
-            // From the remaining triples, take thos that have a dbo property which is not
-            // on the blacklist
-            StreamRDF stream = new RDFStreamTripleFilter(
-                    new NodeFilterBasedTripleFilter(null, p -> p.getURI().startsWith("http://dbpedia.org/ontology/")
-                            && !PROPERTY_BLACKLIST.contains(p.getURI()), null),
-                    outStream);
-
-            // Write RDF and RDFS triples to the output; forward all other triples to the
-            // next filter
-            stream = new RDFStreamTripleFilter(new NodeFilterBasedTripleFilter(null,
-                    new StringBasedNamespaceNodeFilter(RDF.getURI(), RDFS.getURI()), null), outStream, stream);
-
-            // Only use triples which have a subject of the dbo or dbr namespace. Make sure that the object is not a literal.
-            stream = new RDFStreamTripleFilter(new NodeFilterBasedTripleFilter(
-                    new StringBasedNamespaceNodeFilter("http://dbpedia.org/ontology/", "http://dbpedia.org/resource/"),
-                    null, o -> !o.isLiteral()), stream);
+            // Only use triples which have a subject of the dbo or dbr namespace. Make sure
+            // that the object is not a literal.
+            RawTripleFilter filter = new RawNamespaceFilter(RawTriple.SUBJECT, "http://dbpedia.org/ontology/",
+                    "http://dbpedia.org/resource/");
+            filter = filter.and(t -> !t.isLiteral(RawTriple.OBJECT));
+            // Accept RDF and RDFS triples as well as triples that have a dbo property which
+            // is not on the blacklist
+            filter = filter.and(new RawNamespaceFilter(RawTriple.PREDICATE, RDF.getURI(), RDFS.getURI())
+                    .or(new RawNamespaceFilter(RawTriple.PREDICATE, "http://dbpedia.org/ontology/")
+                            .and(new RawIriEqualityFilter(RawTriple.PREDICATE, false,
+                                    PROPERTY_BLACKLIST.toArray(new String[PROPERTY_BLACKLIST.size()])))));
 
             monitor1.start();
+            RDFSources sources = new RDFSources().setLang(Lang.NT);
             // For each file, stream the file
             for (int i = 1; i < args.length; ++i) {
                 String inputFile = args[i];
                 LOGGER.info("Streaming file {}.", inputFile);
-                ProgressMonitor monitorS = new ProgressMonitorOutput("Processed triples", 100000, 10,
-                        MonitorOutputs.outputToLog(LOGGER));
-                StreamRDF fileStream = new ProgressStreamRDF(stream, monitorS);
-                monitorS.start();
-                // If we have a bz2 file
-                if(inputFile.endsWith("bz2")) {
-                    try(BZip2CompressorInputStream bzIn = new BZip2CompressorInputStream(new FileInputStream(inputFile))) {
-                        RDFParser.source(bzIn).lang(Lang.NT).parse(fileStream);
-                    }
-                } else {
-                    RDFParser.source(inputFile).lang(Lang.NT).parse(fileStream);
+                // The triples are filtered before any node is created
+                RawNTriplesReader reader = new RawNTriplesReader(filter);
+                // The compression of the file is detected automatically
+                try (InputStream in = sources.openStream(sources.source(Paths.get(inputFile)))) {
+                    reader.read(in, outStream);
                 }
+                LOGGER.info("Accepted {} of {} triples from {}.", reader.getTriplesAccepted(),
+                        reader.getTriplesRead(), inputFile);
             }
             monitor1.finish();
-            stream.finish();
+            outStream.finish();
             LOGGER.info("Finished");
         }
     }
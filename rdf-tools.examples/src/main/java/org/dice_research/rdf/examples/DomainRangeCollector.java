@@ -16,12 +16,15 @@ import org.apache.jena.system.progress.ProgressMonitor;
 import org.apache.jena.system.progress.ProgressMonitorOutput;
 import org.apache.jena.system.progress.ProgressStreamRDF;
 import org.apache.jena.vocabulary.RDFS;
-import org.dice_research.rdf.stream.collect.RDFStreamGroupByCollector;
+import org.dice_research.rdf.stream.collect.IntGroupByCollector;
+import org.dice_research.rdf.stream.dict.NodeDictionary;
 import org.dice_research.rdf.stream.filter.RDFStreamTripleFilter;
 import org.dice_research.serial.maps.ComplexMapSerializer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.carrotsearch.hppc.IntObjectOpenHashMap;
+import com.carrotsearch.hppc.IntOpenHashSet;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.module.SimpleModule;
 
@@ -29,19 +32,20 @@ public class DomainRangeCollector extends StreamRDFBase {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(ClassHierarchyCollector.class);
 
-    public static StreamRDF createStream(Map<String, Set<String>> domains, Map<String, Set<String>> ranges) {
-        // We collect the IRI of the subject and object and assume that the object is
+    public static StreamRDF createStream(NodeDictionary dictionary, IntObjectOpenHashMap<IntOpenHashSet> domains,
+            IntObjectOpenHashMap<IntOpenHashSet> ranges) {
+        // We collect the IDs of the subject and object and assume that the object is
         // the range of the subject
-        StreamRDF stream1 = new RDFStreamGroupByCollector<>(t -> t.getSubject().getURI(), t -> t.getObject().getURI(),
-                HashSet::new, ranges);
+        StreamRDF stream1 = new IntGroupByCollector<>(t -> dictionary.getOrAddId(t.getSubject()),
+                t -> dictionary.getOrAddId(t.getObject()), IntOpenHashSet::new, IntOpenHashSet::add, ranges);
         // Hence, we should make sure that we only have rdfs:range triples
         final String RDFS_RANGE = RDFS.range.getURI();
         stream1 = new RDFStreamTripleFilter(t -> RDFS_RANGE.equals(t.getPredicate().getURI()), stream1);
 
-        // We collect the IRI of the subject and object and assume that the object is
+        // We collect the IDs of the subject and object and assume that the object is
         // the domain of the subject
-        StreamRDF stream2 = new RDFStreamGroupByCollector<>(t -> t.getSubject().getURI(), t -> t.getObject().getURI(),
-                HashSet::new, domains);
+        StreamRDF stream2 = new IntGroupByCollector<>(t -> dictionary.getOrAddId(t.getSubject()),
+                t -> dictionary.getOrAddId(t.getObject()), IntOpenHashSet::new, IntOpenHashSet::add, domains);
         // Hence, we should make sure that we only have rdfs:domain triples; we should also forward all neglected triples to stream1
         final String RDFS_DOMAIN = RDFS.domain.getURI();
         stream2 = new RDFStreamTripleFilter(t -> RDFS_DOMAIN.equals(t.getPredicate().getURI()), stream2, stream1);
@@ -83,12 +87,13 @@ public class DomainRangeCollector extends StreamRDFBase {
         String inputFile = args[0];
         String outputFile = args[1];
 
-        // Create the maps
-        HashMap<String, Set<String>> domains = new HashMap<>();
-        HashMap<String, Set<String>> ranges = new HashMap<>();
+        // Create the dictionary and the maps
+        NodeDictionary dictionary = new NodeDictionary();
+        IntObjectOpenHashMap<IntOpenHashSet> domains = new IntObjectOpenHashMap<>();
+        IntObjectOpenHashMap<IntOpenHashSet> ranges = new IntObjectOpenHashMap<>();
 
         // Create stream starting from the end!
-        StreamRDF stream = createStream(domains, ranges);
+        StreamRDF stream = createStream(dictionary, domains, ranges);
 
         // Add monitor at the beginning of the stream
         ProgressMonitor monitorS = new ProgressMonitorOutput("Processed triples", 100000, 10,
@@ -109,7 +114,8 @@ public class DomainRangeCollector extends StreamRDFBase {
         module.addSerializer(Map.class, new ComplexMapSerializer());
         ObjectMapper mapper = new ObjectMapper().registerModule(module);
         try {
-            mapper.writeValue(new File(outputFile), new HashMap[] {domains, ranges});
+            mapper.writeValue(new File(outputFile), new HashMap[] { dictionary.decodeGroups(domains),
+                    dictionary.decodeGroups(ranges) });
         } catch (Exception e) {
             LOGGER.error("Error while writing domains and ranges to file.");
         }
@@ -1,11 +1,15 @@
 package org.dice_research.rdf.examples;
 
+import java.io.File;
 import java.io.FileWriter;
 import java.io.IOException;
 import java.io.Writer;
 import java.util.HashSet;
 import java.util.Set;
+import java.util.function.Predicate;
 
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.Triple;
 import org.apache.jena.riot.Lang;
 import org.apache.jena.riot.RDFDataMgr;
 import org.apache.jena.riot.RDFParser;
@@ -15,9 +19,14 @@ import org.apache.jena.system.progress.MonitorOutputs;
 import org.apache.jena.system.progress.ProgressMonitor;
 import org.apache.jena.system.progress.ProgressMonitorOutput;
 import org.apache.jena.system.progress.ProgressStreamRDF;
+import org.dice_research.java.sketch.BlockedBloomFilter;
+import org.dice_research.rdf.stream.collect.BloomFilterCollector;
+import org.dice_research.rdf.stream.collect.DistinctCountCollector;
 import org.dice_research.rdf.stream.collect.RDFStreamCollector;
+import org.dice_research.rdf.stream.dict.SortedIriTable;
 import org.dice_research.rdf.stream.filter.NodeFilterBasedTripleFilter;
 import org.dice_research.rdf.stream.filter.RDFStreamTripleFilter;
+import org.dice_research.rdf.stream.filter.node.BloomFilterNodeFilter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -29,6 +38,15 @@ import org.slf4j.LoggerFactory;
  * statements into its original parts (based on the old versions of these part
  * files).
  * 
+ * <p>
+ * If a false positive probability is given, the statement IRIs are not kept in
+ * a set. Instead, they are added to a Bloom filter in a separate pass, which
+ * needs considerably less memory. Statements that are not part of the first
+ * file may then be part of the result with the given probability unless a file
+ * with the sorted statement IRIs is given, which is used to confirm the
+ * results of the Bloom filter.
+ * </p>
+ * 
  * @author Michael R&ouml;der (michael.roeder@uni-paderborn.de)
  *
  */
@@ -39,7 +57,7 @@ public class FCDatasetFilter {
     public static void main(String[] args) throws IOException {
         if (args.length < 3) {
             System.err.println(
-                    "Error: wrong usage. FCTrainTestSplitter <correct-stmt-file> <large-stmt-file> <filtered-file>");
+                    "Error: wrong usage. FCTrainTestSplitter <correct-stmt-file> <large-stmt-file> <filtered-file> [<false-positive-probability> [<sorted-stmt-IRI-file>]]");
             return;
         }
         String correctFile = args[0];
@@ -47,7 +65,15 @@ public class FCDatasetFilter {
         String outputFile = args[2];
 
         // Get statement IRIs
-        Set<String> selectedStmts = selectStmtsIRIs(correctFile);
+        Predicate<Node> subjectFilter;
+        if (args.length > 3) {
+            SortedIriTable exactTable = (args.length > 4) ? SortedIriTable.load(new File(args[4])) : null;
+            subjectFilter = new BloomFilterNodeFilter(createStmtsBloomFilter(correctFile, Double.parseDouble(args[3])),
+                    exactTable, true);
+        } else {
+            Set<String> selectedStmts = selectStmtsIRIs(correctFile);
+            subjectFilter = s -> s.isURI() && selectedStmts.contains(s.getURI());
+        }
 
         try (Writer outSelected = new FileWriter(outputFile)) {
             // Create stream starting from the end!
@@ -56,7 +82,7 @@ public class FCDatasetFilter {
             // Split stream based on whether a statement (i.e., the subject) has been
             // selected or not
             StreamRDF stream = new RDFStreamTripleFilter(
-                    new NodeFilterBasedTripleFilter(s -> s.isURI() && selectedStmts.contains(s.getURI()), null, null),
+                    new NodeFilterBasedTripleFilter(subjectFilter, null, null),
                     selectedStream);
 
             // Add monitor at the beginning of the stream
@@ -97,4 +123,41 @@ public class FCDatasetFilter {
         return trueStmts;
     }
 
+    /**
+     * Creates a Bloom filter containing the statement IRIs of the given file. The
+     * file is streamed twice. The first pass estimates the number of statement
+     * IRIs while the second pass adds them to the filter.
+     * 
+     * @param inputFile the file containing the statements
+     * @param fpp       the false positive probability of the filter
+     * @return the Bloom filter containing the statement IRIs
+     */
+    public static BlockedBloomFilter createStmtsBloomFilter(String inputFile, double fpp) {
+        DistinctCountCollector<Boolean> counter = new DistinctCountCollector<>(t -> Boolean.TRUE, Triple::getSubject);
+        streamFile(inputFile, counter, "Streaming data to count statement IRIs...");
+        // Add a margin for the estimation error of the counter
+        long expectedStmts = (long) (counter.getEstimate(Boolean.TRUE) * 1.1);
+        LOGGER.info("Expecting {} statements.", expectedStmts);
+
+        BlockedBloomFilter filter = BlockedBloomFilter.create(expectedStmts, fpp);
+        streamFile(inputFile, new BloomFilterCollector(Triple::getSubject, filter),
+                "Streaming data to add statement IRIs to the Bloom filter...");
+        return filter;
+    }
+
+    protected static void streamFile(String inputFile, StreamRDF stream, String message) {
+        // Add monitor at the beginning of the stream
+        ProgressMonitor monitorS = new ProgressMonitorOutput("Processed triples", 1000, 10,
+                MonitorOutputs.outputToLog(LOGGER));
+        stream = new ProgressStreamRDF(stream, monitorS);
+
+        LOGGER.info(message);
+        // Start reading triples from the input file
+        monitorS.start();
+        stream.start();
+        RDFParser.source(inputFile).lang(Lang.NT).parse(stream);
+        monitorS.finish();
+        stream.finish();
+    }
+
 }
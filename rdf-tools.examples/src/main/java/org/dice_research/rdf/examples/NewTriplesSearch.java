@@ -2,27 +2,23 @@ package org.dice_research.rdf.examples;
 
 import java.io.BufferedOutputStream;
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.net.http.HttpClient;
+import java.nio.file.Paths;
 import java.util.function.Predicate;
-import java.util.zip.GZIPInputStream;
 import java.util.zip.GZIPOutputStream;
 
 import org.aksw.jena_sparql_api.delay.core.QueryExecutionFactoryDelay;
 import org.aksw.jena_sparql_api.http.QueryExecutionFactoryHttp;
 import org.aksw.jenax.arq.connection.core.QueryExecutionFactory;
-import org.apache.commons.compress.compressors.bzip2.BZip2CompressorInputStream;
 import org.apache.jena.graph.Node;
 import org.apache.jena.graph.NodeFactory;
 import org.apache.jena.graph.Triple;
 import org.apache.jena.graph.impl.LiteralLabel;
 import org.apache.jena.riot.Lang;
-import org.apache.jena.riot.RDFParser;
 import org.apache.jena.riot.system.StreamRDF;
-import org.apache.jena.riot.system.StreamRDFLib;
 import org.apache.jena.sparql.core.DatasetDescription;
 import org.apache.jena.sys.JenaSystem;
 import org.apache.jena.system.progress.MonitorOutputs;
@@ -32,6 +28,8 @@ import org.apache.jena.system.progress.ProgressStreamRDF;
 import org.dice_research.rdf.stream.filter.NodeFilterBasedTripleFilter;
 import org.dice_research.rdf.stream.filter.RDFStreamTripleFilter;
 import org.dice_research.rdf.stream.filter.node.StringBasedNamespaceNodeFilter;
+import org.dice_research.rdf.stream.io.FastNTriplesWriter;
+import org.dice_research.rdf.stream.io.RDFSources;
 import org.dice_research.rdf.stream.map.RDFStreamTripleMapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -64,7 +62,7 @@ public class NewTriplesSearch implements AutoCloseable, Predicate<Triple> {
     public void run(String inputFile, String outputFile) throws Exception {
         try (OutputStream out1 = openStream(outputFile)) {
             // Create stream starting from the end!
-            StreamRDF stream = StreamRDFLib.writer(out1);
+            StreamRDF stream = new FastNTriplesWriter(out1);
             ProgressMonitor monitor1 = new ProgressMonitorOutput("Added triples", 1000, 10,
                     MonitorOutputs.outputToLog(LOGGER));
             stream = new ProgressStreamRDF(stream, monitor1);
@@ -132,18 +130,9 @@ public class NewTriplesSearch implements AutoCloseable, Predicate<Triple> {
                     MonitorOutputs.outputToLog(LOGGER));
             StreamRDF fileStream = new ProgressStreamRDF(stream, monitorS);
             monitorS.start();
-            // If we have a bz2 file
-            if (inputFile.endsWith("bz2")) {
-                try (BZip2CompressorInputStream bzIn = new BZip2CompressorInputStream(new FileInputStream(inputFile))) {
-                    RDFParser.source(bzIn).lang(Lang.NT).parse(fileStream);
-                }
-            } else if (inputFile.endsWith("gz")) {
-                try (GZIPInputStream gzIn = new GZIPInputStream(new FileInputStream(inputFile))) {
-                    RDFParser.source(gzIn).lang(Lang.NT).parse(fileStream);
-                }
-            } else {
-                RDFParser.source(inputFile).lang(Lang.NT).parse(fileStream);
-            }
+            // The compression of the file is detected automatically
+            RDFSources sources = new RDFSources().setLang(Lang.NT);
+            sources.parse(sources.source(Paths.get(inputFile)), fileStream);
             monitor1.finish();
             stream.finish();
             LOGGER.info("Finished");
@@ -1,14 +1,11 @@
 package org.dice_research.rdf.examples;
 
-import java.io.BufferedInputStream;
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.HashSet;
 import java.util.Set;
 
-import org.apache.commons.compress.compressors.bzip2.BZip2CompressorInputStream;
 import org.apache.commons.io.FileUtils;
 import org.apache.jena.riot.Lang;
 import org.apache.jena.riot.RDFParser;
@@ -20,6 +17,7 @@ import org.apache.jena.system.progress.ProgressMonitorOutput;
 import org.apache.jena.system.progress.ProgressStreamRDF;
 import org.dice_research.rdf.stream.collect.RDFStreamCollector;
 import org.dice_research.rdf.stream.filter.RDFStreamTripleFilter;
+import org.dice_research.rdf.stream.io.RDFSources;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -35,6 +33,7 @@ public class NumericalPropertyCollector {
     private static final Logger LOGGER = LoggerFactory.getLogger(NumericalPropertyCollector.class);
 
     protected Set<String> collectedProperties = new HashSet<String>();
+    protected RDFSources sources = new RDFSources();
 
     public void collectFromDirectory(File input) throws IOException {
         if (input.isDirectory()) {
@@ -64,25 +63,8 @@ public class NumericalPropertyCollector {
     }
 
     private InputStream openStream(File input) throws IOException {
-        String fileName = input.getName();
-        InputStream is = null;
-        try {
-            is = new BufferedInputStream(new FileInputStream(input));
-            if (fileName.endsWith(".bz2")) {
-                is = new BZip2CompressorInputStream(is);
-            }
-            return is;
-        } catch (IOException e) {
-            // just make sure that we close the stream, in case it is already open
-            if (is != null) {
-                try {
-                    is.close();
-                } catch (IOException e2) {
-                    // Nothing to do
-                }
-            }
-            throw e;
-        }
+        // The compression of the file is detected automatically
+        return sources.openStream(sources.source(input.toPath()));
     }
 
     private void collectFromStream(InputStream is) {
@@ -2,21 +2,18 @@ package org.dice_research.rdf.examples;
 
 import java.io.BufferedOutputStream;
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.FileNotFoundException;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.OutputStream;
-import java.util.zip.GZIPInputStream;
+import java.nio.file.Paths;
 import java.util.zip.GZIPOutputStream;
 
-import org.apache.commons.compress.compressors.bzip2.BZip2CompressorInputStream;
 import org.apache.jena.graph.Node;
 import org.apache.jena.graph.Triple;
 import org.apache.jena.riot.Lang;
-import org.apache.jena.riot.RDFParser;
 import org.apache.jena.riot.system.StreamRDF;
-import org.apache.jena.riot.system.StreamRDFLib;
 import org.apache.jena.system.progress.MonitorOutputs;
 import org.apache.jena.system.progress.ProgressMonitor;
 import org.apache.jena.system.progress.ProgressMonitorOutput;
@@ -27,7 +24,12 @@ import org.dice_research.rdf.stream.filter.NodeFilterBasedTripleFilter;
 import org.dice_research.rdf.stream.filter.PropertyBasedTripleFilter;
 import org.dice_research.rdf.stream.filter.RDFStreamTripleFilter;
 import org.dice_research.rdf.stream.filter.node.StringBasedNamespaceNodeFilter;
+import org.dice_research.rdf.stream.filter.raw.RawNamespaceFilter;
+import org.dice_research.rdf.stream.io.FastNTriplesWriter;
+import org.dice_research.rdf.stream.io.RDFSources;
 import org.dice_research.rdf.stream.map.RDFStreamTripleMapper;
+import org.dice_research.rdf.stream.parse.RawNTriplesReader;
+import org.dice_research.rdf.stream.parse.RawTriple;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -53,7 +55,7 @@ public class WikidataPreprocessing {
     public void run(String inputFile, String outputFile) throws FileNotFoundException, IOException {
         try (OutputStream out1 = openStream(outputFile)) {
             // Create stream starting from the end!
-            StreamRDF outStream = StreamRDFLib.writer(out1);
+            StreamRDF outStream = new FastNTriplesWriter(out1);
             ProgressMonitor monitor1 = new ProgressMonitorOutput("Added triples", 100000, 10,
                     MonitorOutputs.outputToLog(LOGGER));
             outStream = new ProgressStreamRDF(outStream, monitor1);
@@ -84,28 +86,23 @@ public class WikidataPreprocessing {
                             null, n -> n.isURI()),
                     stream, labelStream);
 
-            // Only use triples which have a subject of the wd namespace
-            stream = new RDFStreamTripleFilter(new NodeFilterBasedTripleFilter(
-                    new StringBasedNamespaceNodeFilter(ACCEPTED_ENTITY_NAMESPACES), null, null), stream);
-
             monitor1.start();
             LOGGER.info("Streaming file {}.", inputFile);
             ProgressMonitor monitorS = new ProgressMonitorOutput("Processed triples", 100000, 10,
                     MonitorOutputs.outputToLog(LOGGER));
             StreamRDF fileStream = new ProgressStreamRDF(stream, monitorS);
             monitorS.start();
-            // If we have a bz2 file
-            if (inputFile.endsWith("bz2")) {
-                try (BZip2CompressorInputStream bzIn = new BZip2CompressorInputStream(new FileInputStream(inputFile))) {
-                    RDFParser.source(bzIn).lang(Lang.NT).parse(fileStream);
-                }
-            } else if (inputFile.endsWith("gz")) {
-                try (GZIPInputStream gzIn = new GZIPInputStream(new FileInputStream(inputFile))) {
-                    RDFParser.source(gzIn).lang(Lang.NT).parse(fileStream);
-                }
-            } else {
-                RDFParser.source(inputFile).lang(Lang.NT).parse(fileStream);
+            // Only use triples which have a subject of the wd namespace. They are
+            // filtered before any node is created.
+            RawNTriplesReader reader = new RawNTriplesReader(
+                    new RawNamespaceFilter(RawTriple.SUBJECT, ACCEPTED_ENTITY_NAMESPACES));
+            // The compression of the file is detected automatically
+            RDFSources sources = new RDFSources().setLang(Lang.NT);
+            try (InputStream in = sources.openStream(sources.source(Paths.get(inputFile)))) {
+                reader.read(in, fileStream);
             }
+            LOGGER.info("{} of {} triples have a subject of the wd namespace.", reader.getTriplesAccepted(),
+                    reader.getTriplesRead());
             monitor1.finish();
             stream.finish();
             LOGGER.info("Finished");
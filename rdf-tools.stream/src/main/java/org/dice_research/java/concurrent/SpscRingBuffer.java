@@ -0,0 +1,125 @@
+package org.dice_research.java.concurrent;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A bounded, lock-free ring buffer for exactly one producer thread and exactly
+ * one consumer thread. The producer calls {@link #offer(Object)} while the
+ * consumer calls {@link #poll()}. Neither of the two methods blocks. It is up
+ * to the caller to decide how to wait in case the buffer is full or empty.
+ *
+ * <p>
+ * <b>Note</b> that the buffer is not safe to be used by several producers or
+ * several consumers at the same time.
+ * </p>
+ *
+ * @author Michael R&ouml;der (michael.roeder@uni-paderborn.de)
+ *
+ * @param <T> the type of the elements in the buffer
+ */
+public class SpscRingBuffer<T> {
+
+    /**
+     * The array that stores the elements.
+     */
+    protected final Object[] elements;
+    /**
+     * The mask that is used to map positions to indexes of the array.
+     */
+    protected final int mask;
+    /**
+     * The position of the next element that will be read by the consumer.
+     */
+    protected final AtomicLong head = new AtomicLong();
+    /**
+     * The position at which the producer will write the next element.
+     */
+    protected final AtomicLong tail = new AtomicLong();
+
+    /**
+     * Constructor. The capacity is rounded up to the next power of two.
+     *
+     * @param capacity the minimum number of elements the buffer can hold
+     */
+    public SpscRingBuffer(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException(
+                    "The given capacity (" + capacity + ") is smaller than 1. This is not allowed.");
+        }
+        if (capacity > (1 << 30)) {
+            throw new IllegalArgumentException(
+                    "The given capacity (" + capacity + ") is larger than 2^30. This is not allowed.");
+        }
+        int size = Integer.highestOneBit(capacity);
+        if (size < capacity) {
+            size <<= 1;
+        }
+        elements = new Object[size];
+        mask = size - 1;
+    }
+
+    /**
+     * Adds the given element to the buffer. Must only be called by the producer
+     * thread.
+     *
+     * @param element the element that should be added (must not be {@code null})
+     * @return {@code true} if the element has been added or {@code false} if the
+     *         buffer is full
+     */
+    public boolean offer(T element) {
+        if (element == null) {
+            throw new NullPointerException("Null elements are not supported.");
+        }
+        long currentTail = tail.get();
+        if ((currentTail - head.get()) >= elements.length) {
+            return false;
+        }
+        elements[(int) (currentTail & mask)] = element;
+        // Publish the element to the consumer
+        tail.lazySet(currentTail + 1);
+        return true;
+    }
+
+    /**
+     * Removes and returns the oldest element of the buffer. Must only be called by
+     * the consumer thread.
+     *
+     * @return the oldest element or {@code null} if the buffer is empty
+     */
+    @SuppressWarnings("unchecked")
+    public T poll() {
+        long currentHead = head.get();
+        if (currentHead >= tail.get()) {
+            return null;
+        }
+        int index = (int) (currentHead & mask);
+        T element = (T) elements[index];
+        elements[index] = null;
+        // Release the slot to the producer
+        head.lazySet(currentHead + 1);
+        return element;
+    }
+
+    /**
+     * @return the (approximate) number of elements in the buffer
+     */
+    public int size() {
+        // Read the head first to make sure that it is not larger than the tail
+        long currentHead = head.get();
+        return (int) (tail.get() - currentHead);
+    }
+
+    /**
+     * @return {@code true} if the buffer is (approximately) empty
+     */
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    /**
+     * @return the maximum number of elements the buffer can hold
+     */
+    public int capacity() {
+        return elements.length;
+    }
+}
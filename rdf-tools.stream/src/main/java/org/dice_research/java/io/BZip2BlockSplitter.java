@@ -0,0 +1,385 @@
+package org.dice_research.java.io;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+
+/**
+ * Splits bzip2 compressed data into its blocks without decompressing them. Each
+ * block is returned as a complete, standalone bzip2 stream that contains only
+ * this block. Hence, the blocks can be decompressed independently from each
+ * other (e.g., in parallel).
+ *
+ * <p>
+ * bzip2 blocks are not aligned to byte boundaries. The splitter searches the
+ * bits of the data for the 48-bit magic numbers that mark the start of a block
+ * and the end of a stream. Since these magic numbers might occur within the
+ * compressed data by chance, a candidate for a block start is only accepted if
+ * the header of the block is valid, and a candidate for the end of a stream is
+ * only accepted if it is followed by the combined CRC of the blocks of the
+ * stream. Data that comprises several concatenated bzip2 streams (as created,
+ * e.g., by pbzip2) is supported.
+ * </p>
+ *
+ * <p>
+ * <b>Note</b> that this class is not thread-safe.
+ * </p>
+ *
+ * @author Michael R&ouml;der (michael.roeder@uni-paderborn.de)
+ *
+ */
+public class BZip2BlockSplitter {
+
+    /**
+     * The magic number at the beginning of a block (the BCD of pi).
+     */
+    public static final long BLOCK_MAGIC = 0x314159265359L;
+    /**
+     * The magic number at the end of a stream (the BCD of sqrt(pi)).
+     */
+    public static final long END_OF_STREAM_MAGIC = 0x177245385090L;
+
+    protected static final long MASK_48 = (1L << 48) - 1;
+    /**
+     * The values the third byte of the search window can have if the window
+     * contains one of the magic numbers at any of the eight bit offsets. It is
+     * used as a fast pre-filter before the eight offsets are checked.
+     */
+    protected static final boolean[] CANDIDATE_BYTES = new boolean[256];
+
+    static {
+        for (int shift = 0; shift < 8; ++shift) {
+            CANDIDATE_BYTES[(int) ((BLOCK_MAGIC >>> (16 - shift)) & 0xFF)] = true;
+            CANDIDATE_BYTES[(int) ((END_OF_STREAM_MAGIC >>> (16 - shift)) & 0xFF)] = true;
+        }
+    }
+    /**
+     * The number of bits of a block header that are needed to validate a block
+     * start (magic, CRC, randomized flag and origPtr).
+     */
+    protected static final int BLOCK_HEADER_BITS = 48 + 32 + 1 + 24;
+    /**
+     * The number of bits of the end of a stream (magic and combined CRC).
+     */
+    protected static final int END_OF_STREAM_BITS = 48 + 32;
+
+    /**
+     * The stream from which the compressed data is read.
+     */
+    protected InputStream in;
+    /**
+     * The buffer containing the compressed data that has not been processed, yet.
+     */
+    protected byte[] buffer;
+    /**
+     * The number of bytes in the {@link #buffer}.
+     */
+    protected int length = 0;
+    /**
+     * Flag indicating whether the end of the input has been reached.
+     */
+    protected boolean endOfInput = false;
+    /**
+     * Flag indicating whether the splitter is within a stream (i.e., the next
+     * element is a block) or between two streams (i.e., the next element is a
+     * stream header).
+     */
+    protected boolean withinStream = false;
+    /**
+     * The bit position (relative to the {@link #buffer}) of the current block or
+     * the next stream header.
+     */
+    protected long position = 0;
+    /**
+     * The bit position from which the search for the end of the current block is
+     * continued.
+     */
+    protected long scanPosition = 0;
+    /**
+     * The block size level (1-9) of the current stream.
+     */
+    protected int level;
+    /**
+     * The combined CRC of the blocks of the current stream that have been
+     * returned.
+     */
+    protected int combinedCrc;
+
+    /**
+     * Constructor.
+     *
+     * @param in the stream from which the compressed data is read
+     */
+    public BZip2BlockSplitter(InputStream in) {
+        this.in = in;
+        this.buffer = new byte[1 << 20];
+    }
+
+    /**
+     * Returns the next block as a standalone bzip2 stream.
+     *
+     * @return the next block or {@code null} if the end of the data has been
+     *         reached
+     * @throws IOException if the data can not be read or is not valid bzip2 data
+     */
+    public byte[] nextBlock() throws IOException {
+        while (!withinStream) {
+            if (!readStreamHeader()) {
+                return null;
+            }
+        }
+        int expectedCrc = Integer.rotateLeft(combinedCrc, 1) ^ (int) bits(position + 48, 32);
+        long end = findBlockEnd(expectedCrc);
+        byte[] block = createStandaloneStream(position, end);
+        combinedCrc = expectedCrc;
+        if (bits(end, 48) == END_OF_STREAM_MAGIC) {
+            withinStream = false;
+            position = alignToByte(end + END_OF_STREAM_BITS);
+        } else {
+            position = end;
+            scanPosition = end + 48;
+        }
+        return block;
+    }
+
+    /**
+     * Reads the header of the next stream.
+     *
+     * @return {@code false} if the end of the data has been reached
+     */
+    protected boolean readStreamHeader() throws IOException {
+        if (!ensureAvailable(position + 32)) {
+            if (availableBits() <= position) {
+                return false;
+            }
+            throw new IOException("Unexpected end of the bzip2 data within a stream header.");
+        }
+        int start = (int) (position >>> 3);
+        if ((buffer[start] != 'B') || (buffer[start + 1] != 'Z') || (buffer[start + 2] != 'h')
+                || (buffer[start + 3] < '1') || (buffer[start + 3] > '9')) {
+            throw new IOException("Invalid bzip2 stream header at byte position " + start
+                    + " of the remaining data.");
+        }
+        level = buffer[start + 3] - '0';
+        position += 32;
+        combinedCrc = 0;
+        if (!ensureAvailable(position + 48)) {
+            throw new IOException("Unexpected end of the bzip2 data after a stream header.");
+        }
+        if ((bits(position, 48) == BLOCK_MAGIC) && !ensureAvailable(position + BLOCK_HEADER_BITS)) {
+            throw new IOException("Unexpected end of the bzip2 data within a block header.");
+        }
+        long magic = bits(position, 48);
+        if (magic == BLOCK_MAGIC) {
+            withinStream = true;
+            scanPosition = position + 48;
+        } else if (magic == END_OF_STREAM_MAGIC) {
+            // An empty stream
+            position = alignToByte(position + END_OF_STREAM_BITS);
+        } else {
+            throw new IOException("Invalid bzip2 data. Expected a block after the stream header.");
+        }
+        return true;
+    }
+
+    /**
+     * Searches for the first valid block start or stream end after the current
+     * block.
+     *
+     * @param expectedCrc the combined CRC the stream would have if it ends after
+     *                    the current block
+     * @return the bit position of the found magic number
+     */
+    protected long findBlockEnd(int expectedCrc) throws IOException {
+        while (true) {
+            long available = availableBits();
+            boolean needMoreData = false;
+            // The window contains the last 7 bytes. After adding byte b, it contains the
+            // candidates starting at the bit positions ((b-6)*8, (b-5)*8].
+            int b = (int) ((scanPosition - 1) >>> 3);
+            long window = 0;
+            for (int i = 0; (i < 6) && (b < length); ++i, ++b) {
+                window = (window << 8) | (buffer[b] & 0xFF);
+            }
+            long candidate;
+            long value;
+            scan: for (; b < length; ++b) {
+                window = (window << 8) | (buffer[b] & 0xFF);
+                if (!CANDIDATE_BYTES[(int) (window >>> 16) & 0xFF]) {
+                    continue;
+                }
+                for (int shift = 7; shift >= 0; --shift) {
+                    value = (window >>> shift) & MASK_48;
+                    if ((value == BLOCK_MAGIC) || (value == END_OF_STREAM_MAGIC)) {
+                        candidate = (((long) b + 1) << 3) - 48 - shift;
+                        if (candidate < scanPosition) {
+                            continue;
+                        }
+                        int requiredBits = (value == BLOCK_MAGIC) ? BLOCK_HEADER_BITS : END_OF_STREAM_BITS;
+                        if ((candidate + requiredBits > available) && !endOfInput) {
+                            // We need more data to validate the candidate
+                            scanPosition = candidate;
+                            needMoreData = true;
+                            break scan;
+                        }
+                        if ((value == BLOCK_MAGIC) ? isValidBlockStart(candidate)
+                                : isValidEndOfStream(candidate, expectedCrc)) {
+                            return candidate;
+                        }
+                    }
+                }
+            }
+            if (!needMoreData) {
+                // Continue after the last candidate that has been checked
+                scanPosition = Math.max(scanPosition, available - 47);
+            }
+            // If the end of the input has been reached, the candidates that needed more
+            // data are checked again before we give up
+            if (!fillBuffer() && !needMoreData) {
+                throw new IOException("Unexpected end of the bzip2 data within a block.");
+            }
+        }
+    }
+
+    protected boolean isValidBlockStart(long candidate) {
+        long available = availableBits();
+        if (candidate + BLOCK_HEADER_BITS > available) {
+            return false;
+        }
+        // The origPtr has to be smaller than the block size
+        long origPtr = bits(candidate + 48 + 32 + 1, 24);
+        return origPtr < level * 100000L;
+    }
+
+    protected boolean isValidEndOfStream(long candidate, int expectedCrc) {
+        if (candidate + END_OF_STREAM_BITS > availableBits()) {
+            return false;
+        }
+        return ((int) bits(candidate + 48, 32)) == expectedCrc;
+    }
+
+    /**
+     * Creates a bzip2 stream containing only the block between the two given bit
+     * positions.
+     */
+    protected byte[] createStandaloneStream(long start, long end) {
+        long blockBits = end - start;
+        byte[] stream = new byte[(int) (4 + ((blockBits + END_OF_STREAM_BITS + 7) >>> 3))];
+        stream[0] = 'B';
+        stream[1] = 'Z';
+        stream[2] = 'h';
+        stream[3] = (byte) ('0' + level);
+        int out = 4;
+        int shift = (int) (start & 7);
+        int in = (int) (start >>> 3);
+        long fullBytes = blockBits >>> 3;
+        if (shift == 0) {
+            System.arraycopy(buffer, in, stream, out, (int) fullBytes);
+        } else {
+            for (long i = 0; i < fullBytes; ++i, ++in) {
+                stream[out + (int) i] = (byte) ((buffer[in] << shift) | ((buffer[in + 1] & 0xFF) >>> (8 - shift)));
+            }
+        }
+        out += (int) fullBytes;
+        // Append the remaining bits of the block, the end of stream magic and the
+        // combined CRC, which is the CRC of the single block
+        int remainingBits = (int) (blockBits & 7);
+        long tail = (remainingBits > 0) ? bits(end - remainingBits, remainingBits) : 0;
+        long blockCrc = bits(start + 48, 32);
+        writeBits(stream, out, tail, remainingBits, END_OF_STREAM_MAGIC, blockCrc);
+        return stream;
+    }
+
+    private static void writeBits(byte[] stream, int out, long tail, int tailBits, long magic, long crc) {
+        // At most 7 + 48 + 32 = 87 bits are written, i.e., we need two longs
+        long high = (tail << 48) | magic;
+        int highBits = tailBits + 48;
+        long pending = 0;
+        int pendingBits = 0;
+        long[] values = { high, crc };
+        int[] lengths = { highBits, 32 };
+        for (int v = 0; v < values.length; ++v) {
+            for (int i = lengths[v] - 1; i >= 0; --i) {
+                pending = (pending << 1) | ((values[v] >>> i) & 1);
+                ++pendingBits;
+                if (pendingBits == 8) {
+                    stream[out++] = (byte) pending;
+                    pending = 0;
+                    pendingBits = 0;
+                }
+            }
+        }
+        if (pendingBits > 0) {
+            stream[out] = (byte) (pending << (8 - pendingBits));
+        }
+    }
+
+    /**
+     * Reads the given number of bits (at most 57) starting at the given bit
+     * position. The bits have to be available in the buffer.
+     */
+    protected long bits(long bitPosition, int count) {
+        int first = (int) (bitPosition >>> 3);
+        int last = (int) ((bitPosition + count - 1) >>> 3);
+        long value = 0;
+        for (int i = first; i <= last; ++i) {
+            value = (value << 8) | (buffer[i] & 0xFF);
+        }
+        int trailingBits = (int) (((long) (last + 1) << 3) - (bitPosition + count));
+        return (value >>> trailingBits) & ((1L << count) - 1);
+    }
+
+    protected long availableBits() {
+        return ((long) length) << 3;
+    }
+
+    protected static long alignToByte(long bitPosition) {
+        return (bitPosition + 7) & ~7L;
+    }
+
+    /**
+     * Makes sure that the buffer contains the data up to the given bit position.
+     *
+     * @return {@code false} if the end of the input has been reached before
+     */
+    protected boolean ensureAvailable(long bitPosition) throws IOException {
+        while (availableBits() < bitPosition) {
+            long offset = position;
+            if (!fillBuffer()) {
+                return false;
+            }
+            // The buffer might have been compacted
+            bitPosition -= offset - position;
+        }
+        return true;
+    }
+
+    /**
+     * Removes the processed data from the buffer and reads more data.
+     *
+     * @return {@code false} if the end of the input has been reached
+     */
+    protected boolean fillBuffer() throws IOException {
+        if (endOfInput) {
+            return false;
+        }
+        // Remove the bytes before the current position
+        int discard = (int) (position >>> 3);
+        if (discard > 0) {
+            System.arraycopy(buffer, discard, buffer, 0, length - discard);
+            length -= discard;
+            position -= ((long) discard) << 3;
+            scanPosition -= ((long) discard) << 3;
+        }
+        if (length == buffer.length) {
+            buffer = Arrays.copyOf(buffer, buffer.length << 1);
+        }
+        int read = in.read(buffer, length, buffer.length - length);
+        if (read < 0) {
+            endOfInput = true;
+            return false;
+        }
+        length += read;
+        return true;
+    }
+}
@@ -0,0 +1,60 @@
+package org.dice_research.java.io;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.apache.commons.compress.compressors.bzip2.BZip2CompressorOutputStream;
+
+/**
+ * Compression formats in which a block of data can be compressed independently
+ * from other blocks. The concatenation of several compressed blocks is still a
+ * valid file of the format (several gzip members or several bzip2 streams),
+ * which can be read by the standard tools.
+ *
+ * @author Michael R&ouml;der (michael.roeder@uni-paderborn.de)
+ *
+ */
+public enum BlockCompression {
+    /**
+     * Each block is compressed as a single gzip member.
+     */
+    GZIP {
+        @Override
+        protected OutputStream wrap(OutputStream out) throws IOException {
+            return new GZIPOutputStream(out, 1 << 16);
+        }
+    },
+    /**
+     * Each block is compressed as a single bzip2 stream (like pbzip2 does).
+     */
+    BZIP2 {
+        @Override
+        protected OutputStream wrap(OutputStream out) throws IOException {
+            return new BZip2CompressorOutputStream(out);
+        }
+    };
+
+    /**
+     * Compresses the given data.
+     *
+     * @param data   the array containing the data
+     * @param offset the position of the first byte within the array
+     * @param length the number of bytes that should be compressed
+     * @return the compressed data
+     * @throws IOException if the compression fails
+     */
+    public byte[] compress(byte[] data, int offset, int length) throws IOException {
+        ByteArrayOutputStream result = new ByteArrayOutputStream(Math.max(64, length >>> 2));
+        try (OutputStream out = wrap(result)) {
+            out.write(data, offset, length);
+        }
+        return result.toByteArray();
+    }
+
+    /**
+     * Creates a compressing stream that writes to the given stream.
+     */
+    protected abstract OutputStream wrap(OutputStream out) throws IOException;
+}
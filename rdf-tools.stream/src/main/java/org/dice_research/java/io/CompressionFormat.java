@@ -0,0 +1,231 @@
+package org.dice_research.java.io;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.apache.commons.compress.compressors.bzip2.BZip2CompressorInputStream;
+import org.apache.commons.compress.compressors.bzip2.BZip2CompressorOutputStream;
+import org.apache.commons.compress.compressors.xz.XZCompressorInputStream;
+import org.apache.commons.compress.compressors.xz.XZCompressorOutputStream;
+import org.apache.commons.compress.compressors.zstandard.ZstdCompressorInputStream;
+import org.apache.commons.compress.compressors.zstandard.ZstdCompressorOutputStream;
+
+/**
+ * The compression formats of files that can be read and written. The format of
+ * a file can be detected based on its first bytes (see {@link #detect(byte[])}
+ * and {@link #detect(InputStream)}) or based on its file name (see
+ * {@link #fromFileName(String)}).
+ *
+ * <p>
+ * All formats can read concatenated members or streams, e.g., the output of
+ * {@link ParallelCompressingOutputStream}.
+ * </p>
+ *
+ * @author Michael R&ouml;der (michael.roeder@uni-paderborn.de)
+ *
+ */
+public enum CompressionFormat {
+    /**
+     * Uncompressed data.
+     */
+    NONE(null, new byte[0]),
+    /**
+     * gzip compressed data.
+     */
+    GZIP(".gz", new byte[] { 0x1F, (byte) 0x8B }),
+    /**
+     * bzip2 compressed data.
+     */
+    BZIP2(".bz2", new byte[] { 'B', 'Z', 'h' }),
+    /**
+     * xz compressed data.
+     */
+    XZ(".xz", new byte[] { (byte) 0xFD, '7', 'z', 'X', 'Z', 0x00 }),
+    /**
+     * Zstandard compressed data.
+     */
+    ZSTD(".zst", new byte[] { 0x28, (byte) 0xB5, 0x2F, (byte) 0xFD });
+
+    /**
+     * The number of bytes that are needed to detect all formats.
+     */
+    public static final int MAX_MAGIC_LENGTH = 6;
+
+    /**
+     * The usual file name suffix of the format.
+     */
+    private final String suffix;
+    /**
+     * The bytes a stream of the format starts with.
+     */
+    private final byte[] magic;
+
+    private CompressionFormat(String suffix, byte[] magic) {
+        this.suffix = suffix;
+        this.magic = magic;
+    }
+
+    /**
+     * @return the usual file name suffix of the format (including the dot) or
+     *         {@code null} for {@link #NONE}
+     */
+    public String getSuffix() {
+        return suffix;
+    }
+
+    /**
+     * Checks whether the given bytes start with the magic bytes of this format.
+     */
+    protected boolean matches(byte[] header, int length) {
+        if ((magic.length == 0) || (length < magic.length)) {
+            return false;
+        }
+        for (int i = 0; i < magic.length; ++i) {
+            if (header[i] != magic[i]) {
+                return false;
+            }
+        }
+        // bzip2 additionally needs a valid block size
+        return (this != BZIP2) || ((length > 3) && (header[3] >= '1') && (header[3] <= '9'));
+    }
+
+    /**
+     * Wraps the given stream with a stream that decompresses the data. Several
+     * concatenated members or streams are read as a single stream.
+     *
+     * @param in the stream containing the compressed data
+     * @return the stream with the decompressed data
+     * @throws IOException if the header of the compressed data can not be read
+     */
+    public InputStream decompress(InputStream in) throws IOException {
+        switch (this) {
+        case GZIP:
+            return new GZIPInputStream(in, 1 << 16);
+        case BZIP2:
+            return new BZip2CompressorInputStream(in, true);
+        case XZ:
+            return new XZCompressorInputStream(in, true);
+        case ZSTD:
+            return new ZstdCompressorInputStream(in);
+        default:
+            return in;
+        }
+    }
+
+    /**
+     * Wraps the given stream with a stream that compresses the written data.
+     *
+     * @param out the stream to which the compressed data is written
+     * @return the stream to which the uncompressed data can be written
+     * @throws IOException if the header of the compressed data can not be
+     *                     written
+     */
+    public OutputStream compress(OutputStream out) throws IOException {
+        switch (this) {
+        case GZIP:
+            return new GZIPOutputStream(out, 1 << 16);
+        case BZIP2:
+            return new BZip2CompressorOutputStream(out);
+        case XZ:
+            return new XZCompressorOutputStream(out);
+        case ZSTD:
+            return new ZstdCompressorOutputStream(out);
+        default:
+            return out;
+        }
+    }
+
+    /**
+     * Detects the compression format based on the given first bytes of a file.
+     *
+     * @param header the first bytes of the file (at least
+     *               {@link #MAX_MAGIC_LENGTH} bytes if the file is long enough)
+     * @return the detected format or {@link #NONE} if the data does not start
+     *         with the magic bytes of a known format
+     */
+    public static CompressionFormat detect(byte[] header) {
+        return detect(header, header.length);
+    }
+
+    /**
+     * Detects the compression format based on the given first bytes of a file.
+     *
+     * @param header the array containing the first bytes of the file
+     * @param length the number of valid bytes in the array
+     * @return the detected format or {@link #NONE} if the data does not start
+     *         with the magic bytes of a known format
+     */
+    public static CompressionFormat detect(byte[] header, int length) {
+        for (CompressionFormat format : values()) {
+            if (format.matches(header, length)) {
+                return format;
+            }
+        }
+        return NONE;
+    }
+
+    /**
+     * Detects the compression format based on the first bytes of the given
+     * stream. The stream has to support {@link InputStream#mark(int)} (e.g., a
+     * {@link BufferedInputStream}). It is reset to its current position
+     * afterwards.
+     *
+     * @param in the stream
+     * @return the detected format or {@link #NONE} if the data does not start
+     *         with the magic bytes of a known format
+     * @throws IOException if the stream can not be read
+     */
+    public static CompressionFormat detect(InputStream in) throws IOException {
+        if (!in.markSupported()) {
+            throw new IllegalArgumentException("The given stream does not support marking. This is not allowed.");
+        }
+        in.mark(MAX_MAGIC_LENGTH);
+        try {
+            return detect(in.readNBytes(MAX_MAGIC_LENGTH));
+        } finally {
+            in.reset();
+        }
+    }
+
+    /**
+     * Determines the compression format based on the suffix of the given file
+     * name.
+     *
+     * @param fileName the name of the file
+     * @return the format that is typically used for files with the suffix of the
+     *         given name or {@link #NONE}
+     */
+    public static CompressionFormat fromFileName(String fileName) {
+        String lowerCaseName = fileName.toLowerCase();
+        for (CompressionFormat format : values()) {
+            if ((format.suffix != null) && lowerCaseName.endsWith(format.suffix)) {
+                return format;
+            }
+        }
+        if (lowerCaseName.endsWith(".gzip")) {
+            return GZIP;
+        } else if (lowerCaseName.endsWith(".zstd")) {
+            return ZSTD;
+        }
+        return NONE;
+    }
+
+    /**
+     * Removes the suffix of a compression format from the given file name, e.g.,
+     * {@code "dump.nt.gz"} becomes {@code "dump.nt"}.
+     *
+     * @param fileName the name of the file
+     * @return the name without the suffix of the compression format
+     */
+    public static String removeSuffix(String fileName) {
+        int pos = fileName.lastIndexOf('.');
+        if ((pos > 0) && (fromFileName(fileName) != NONE)) {
+            return fileName.substring(0, pos);
+        }
+        return fileName;
+    }
+}
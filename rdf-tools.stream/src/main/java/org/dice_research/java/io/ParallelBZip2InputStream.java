@@ -0,0 +1,215 @@
+package org.dice_research.java.io;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.apache.commons.compress.compressors.bzip2.BZip2CompressorInputStream;
+
+/**
+ * An input stream that decompresses bzip2 data using several threads. The
+ * compressed data is split into its blocks by a {@link BZip2BlockSplitter}
+ * and the blocks are decompressed in parallel by a thread pool. The
+ * decompressed blocks are returned in their original order. Data that
+ * comprises several concatenated bzip2 streams (as created, e.g., by pbzip2) is
+ * decompressed completely.
+ *
+ * <p>
+ * The splitting happens in the thread that reads from this stream while the
+ * decompression happens in the worker threads. The number of blocks that are
+ * decompressed or waiting to be read is limited to twice the number of
+ * threads. The stream can be used as input for the
+ * {@link org.dice_research.rdf.stream.parse.ParallelNTriplesParser}.
+ * </p>
+ *
+ * <p>
+ * <b>Note</b> that this class is not thread-safe, i.e., it should only be read
+ * by a single thread. It has to be closed to stop the worker threads.
+ * </p>
+ *
+ * @author Michael R&ouml;der (michael.roeder@uni-paderborn.de)
+ *
+ */
+public class ParallelBZip2InputStream extends InputStream {
+
+    /**
+     * The default number of threads, i.e., the number of available processors.
+     */
+    public static final int DEFAULT_NUMBER_OF_THREADS = Runtime.getRuntime().availableProcessors();
+
+    private static final byte[] EMPTY = new byte[0];
+
+    /**
+     * The stream from which the compressed data is read.
+     */
+    protected InputStream in;
+    /**
+     * The splitter that extracts the blocks from the compressed data.
+     */
+    protected BZip2BlockSplitter splitter;
+    /**
+     * The thread pool that decompresses the blocks.
+     */
+    protected ExecutorService executor;
+    /**
+     * The maximum number of blocks that are decompressed or waiting to be read.
+     */
+    protected int maxBlocksInFlight;
+    /**
+     * The blocks that are decompressed or waiting to be read in their original
+     * order.
+     */
+    protected Deque<Future<byte[]>> pending = new ArrayDeque<>();
+    /**
+     * Flag indicating whether the splitter has reached the end of the compressed
+     * data.
+     */
+    protected boolean allBlocksSubmitted = false;
+    /**
+     * The decompressed block that is currently read.
+     */
+    protected byte[] current = EMPTY;
+    /**
+     * The position of the next byte within the {@link #current} block.
+     */
+    protected int currentPosition = 0;
+
+    /**
+     * Constructor using the {@link #DEFAULT_NUMBER_OF_THREADS}.
+     *
+     * @param in the stream from which the compressed data is read
+     */
+    public ParallelBZip2InputStream(InputStream in) {
+        this(in, DEFAULT_NUMBER_OF_THREADS);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param in              the stream from which the compressed data is read
+     * @param numberOfThreads the number of threads that decompress blocks
+     */
+    public ParallelBZip2InputStream(InputStream in, int numberOfThreads) {
+        if (numberOfThreads <= 0) {
+            throw new IllegalArgumentException(
+                    "The given number of threads (" + numberOfThreads + ") is smaller than 1. This is not allowed.");
+        }
+        this.in = in;
+        this.splitter = new BZip2BlockSplitter(in);
+        this.maxBlocksInFlight = numberOfThreads << 1;
+        this.executor = Executors.newFixedThreadPool(numberOfThreads, r -> {
+            Thread thread = new Thread(r, "bzip2-decompressor");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @Override
+    public int read() throws IOException {
+        if (!ensureData()) {
+            return -1;
+        }
+        return current[currentPosition++] & 0xFF;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        if (len == 0) {
+            return 0;
+        }
+        if (!ensureData()) {
+            return -1;
+        }
+        int count = Math.min(len, current.length - currentPosition);
+        System.arraycopy(current, currentPosition, b, off, count);
+        currentPosition += count;
+        return count;
+    }
+
+    @Override
+    public int available() {
+        return current.length - currentPosition;
+    }
+
+    /**
+     * Makes sure that the current block contains data that has not been read.
+     *
+     * @return {@code false} if the end of the data has been reached
+     */
+    protected boolean ensureData() throws IOException {
+        while (currentPosition >= current.length) {
+            submitBlocks();
+            Future<byte[]> next = pending.poll();
+            if (next == null) {
+                return false;
+            }
+            current = getResult(next);
+            currentPosition = 0;
+        }
+        return true;
+    }
+
+    /**
+     * Submits blocks to the thread pool until the maximum number of blocks in
+     * flight is reached.
+     */
+    protected void submitBlocks() throws IOException {
+        byte[] block;
+        while (!allBlocksSubmitted && (pending.size() < maxBlocksInFlight)) {
+            block = splitter.nextBlock();
+            if (block == null) {
+                allBlocksSubmitted = true;
+            } else {
+                final byte[] compressed = block;
+                pending.add(executor.submit(() -> decompress(compressed)));
+            }
+        }
+    }
+
+    /**
+     * Decompresses a single block that has been transformed into a standalone
+     * bzip2 stream.
+     *
+     * @param block the block
+     * @return the decompressed data
+     * @throws IOException if the block can not be decompressed
+     */
+    protected static byte[] decompress(byte[] block) throws IOException {
+        try (InputStream blockIn = new BZip2CompressorInputStream(new ByteArrayInputStream(block))) {
+            return blockIn.readAllBytes();
+        }
+    }
+
+    protected byte[] getResult(Future<byte[]> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for a decompressed block.", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            } else {
+                throw new IOException("Got an exception while decompressing a block.", cause);
+            }
+        }
+    }
+
+    /**
+     * Stops the worker threads and closes the underlying stream.
+     */
+    @Override
+    public void close() throws IOException {
+        executor.shutdownNow();
+        pending.clear();
+        current = EMPTY;
+        in.close();
+    }
+}
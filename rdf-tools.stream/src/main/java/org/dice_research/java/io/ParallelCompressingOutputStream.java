@@ -0,0 +1,249 @@
+package org.dice_research.java.io;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * An output stream that compresses the written data using several threads. The
+ * data is collected in blocks of a fixed size and each block is compressed
+ * independently (see {@link BlockCompression}) by a thread pool. The
+ * compressed blocks are written to the underlying stream in their original
+ * order. The result is a valid gzip or bzip2 file comprising several members
+ * or streams, respectively.
+ *
+ * <p>
+ * The number of blocks that are compressed or waiting to be written is limited
+ * to twice the number of threads. If this limit is reached, the writing thread
+ * waits for the oldest block. Hence, the memory consumption is bounded by the
+ * block size and the number of threads.
+ * </p>
+ *
+ * <p>
+ * <b>Note</b> that a call of {@link #flush()} ends the current block. Hence,
+ * frequent flushing leads to small blocks and a worse compression ratio.
+ * {@link #finish()} or {@link #close()} have to be called to write the last
+ * block and stop the worker threads. This class is not thread-safe.
+ * </p>
+ *
+ * @author Michael R&ouml;der (michael.roeder@uni-paderborn.de)
+ *
+ */
+public class ParallelCompressingOutputStream extends OutputStream {
+
+    /**
+     * The default size of a block (4 MiB).
+     */
+    public static final int DEFAULT_BLOCK_SIZE = 1 << 22;
+    /**
+     * The default number of threads, i.e., the number of available processors.
+     */
+    public static final int DEFAULT_NUMBER_OF_THREADS = Runtime.getRuntime().availableProcessors();
+
+    /**
+     * The stream to which the compressed data is written.
+     */
+    protected OutputStream out;
+    /**
+     * The compression format.
+     */
+    protected BlockCompression compression;
+    /**
+     * The size of a single block in bytes.
+     */
+    protected int blockSize;
+    /**
+     * The thread pool that compresses the blocks.
+     */
+    protected ExecutorService executor;
+    /**
+     * The maximum number of blocks that are compressed or waiting to be written.
+     */
+    protected int maxBlocksInFlight;
+    /**
+     * The blocks that are compressed or waiting to be written in their original
+     * order.
+     */
+    protected Deque<Future<byte[]>> pending = new ArrayDeque<>();
+    /**
+     * The block that is currently filled.
+     */
+    protected byte[] block;
+    /**
+     * The number of bytes in the current {@link #block}.
+     */
+    protected int blockLength = 0;
+    /**
+     * Flag indicating whether at least one block has been written.
+     */
+    protected boolean blockWritten = false;
+    /**
+     * Flag indicating whether {@link #finish()} has been called.
+     */
+    protected boolean finished = false;
+
+    /**
+     * Constructor using the {@link #DEFAULT_NUMBER_OF_THREADS} and the
+     * {@link #DEFAULT_BLOCK_SIZE}.
+     *
+     * @param out         the stream to which the compressed data is written
+     * @param compression the compression format
+     */
+    public ParallelCompressingOutputStream(OutputStream out, BlockCompression compression) {
+        this(out, compression, DEFAULT_NUMBER_OF_THREADS, DEFAULT_BLOCK_SIZE);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param out             the stream to which the compressed data is written
+     * @param compression     the compression format
+     * @param numberOfThreads the number of threads that compress blocks
+     * @param blockSize       the size of a single block in bytes
+     */
+    public ParallelCompressingOutputStream(OutputStream out, BlockCompression compression, int numberOfThreads,
+            int blockSize) {
+        if (numberOfThreads <= 0) {
+            throw new IllegalArgumentException(
+                    "The given number of threads (" + numberOfThreads + ") is smaller than 1. This is not allowed.");
+        }
+        if (blockSize <= 0) {
+            throw new IllegalArgumentException(
+                    "The given block size (" + blockSize + ") is smaller than 1. This is not allowed.");
+        }
+        this.out = out;
+        this.compression = compression;
+        this.blockSize = blockSize;
+        this.block = new byte[blockSize];
+        this.maxBlocksInFlight = numberOfThreads << 1;
+        this.executor = Executors.newFixedThreadPool(numberOfThreads, r -> {
+            Thread thread = new Thread(r, compression.name().toLowerCase() + "-compressor");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        checkNotFinished();
+        block[blockLength++] = (byte) b;
+        if (blockLength == blockSize) {
+            submitBlock();
+        }
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        checkNotFinished();
+        int count;
+        while (len > 0) {
+            count = Math.min(len, blockSize - blockLength);
+            System.arraycopy(b, off, block, blockLength, count);
+            blockLength += count;
+            off += count;
+            len -= count;
+            if (blockLength == blockSize) {
+                submitBlock();
+            }
+        }
+    }
+
+    /**
+     * Hands the current block over to the thread pool. Waits for the oldest block
+     * if the maximum number of blocks in flight is reached.
+     */
+    protected void submitBlock() throws IOException {
+        if (blockLength == 0) {
+            return;
+        }
+        final byte[] data = block;
+        final int length = blockLength;
+        pending.add(executor.submit(() -> compression.compress(data, 0, length)));
+        block = new byte[blockSize];
+        blockLength = 0;
+        while (pending.size() >= maxBlocksInFlight) {
+            writeNextBlock();
+        }
+    }
+
+    /**
+     * Waits for the oldest block and writes it to the underlying stream.
+     */
+    protected void writeNextBlock() throws IOException {
+        try {
+            out.write(pending.poll().get());
+            blockWritten = true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for a compressed block.", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            } else {
+                throw new IOException("Got an exception while compressing a block.", cause);
+            }
+        }
+    }
+
+    /**
+     * Ends the current block, writes all blocks to the underlying stream and
+     * flushes it.
+     */
+    @Override
+    public void flush() throws IOException {
+        if (finished) {
+            return;
+        }
+        submitBlock();
+        while (!pending.isEmpty()) {
+            writeNextBlock();
+        }
+        out.flush();
+    }
+
+    /**
+     * Writes all remaining data and stops the worker threads without closing the
+     * underlying stream. No data can be written afterwards.
+     *
+     * @throws IOException if the data can not be compressed or written
+     */
+    public void finish() throws IOException {
+        if (finished) {
+            return;
+        }
+        try {
+            flush();
+            if (!blockWritten) {
+                // Make sure that the result is a valid (empty) file of the format
+                out.write(compression.compress(block, 0, 0));
+                out.flush();
+            }
+        } finally {
+            finished = true;
+            block = null;
+            pending.clear();
+            executor.shutdownNow();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            finish();
+        } finally {
+            out.close();
+        }
+    }
+
+    protected void checkNotFinished() throws IOException {
+        if (finished) {
+            throw new IOException("The stream has already been finished.");
+        }
+    }
+}
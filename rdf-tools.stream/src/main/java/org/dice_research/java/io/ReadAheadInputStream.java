@@ -0,0 +1,258 @@
+package org.dice_research.java.io;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * An input stream that reads the data of the wrapped stream ahead in a
+ * background thread. The data is read into a fixed number of buffers that are
+ * handed over to the reading thread and reused afterwards. This decouples
+ * slow reads (e.g., reads from a disk or reads that include the decompression
+ * of the data) from the processing of the data. The memory consumption is
+ * bounded by the number of buffers times the buffer size.
+ *
+ * <p>
+ * <b>Note</b> that this class is not thread-safe. It has to be read by a
+ * single thread.
+ * </p>
+ *
+ * @author Michael R&ouml;der (michael.roeder@uni-paderborn.de)
+ *
+ */
+public class ReadAheadInputStream extends InputStream {
+
+    /**
+     * The default size of a single buffer (1 MiB).
+     */
+    public static final int DEFAULT_BUFFER_SIZE = 1 << 20;
+    /**
+     * The default number of buffers.
+     */
+    public static final int DEFAULT_NUMBER_OF_BUFFERS = 4;
+
+    /**
+     * A buffer that has been filled by the background thread.
+     */
+    protected static class Chunk {
+        protected final byte[] data;
+        protected int length;
+        protected IOException error;
+
+        protected Chunk(byte[] data) {
+            this.data = data;
+        }
+    }
+
+    /**
+     * Marker for the end of the wrapped stream.
+     */
+    protected static final Chunk END = new Chunk(new byte[0]);
+
+    /**
+     * The wrapped stream.
+     */
+    protected InputStream in;
+    /**
+     * The buffers that have been filled and can be read.
+     */
+    protected BlockingQueue<Chunk> filled;
+    /**
+     * The buffers that can be filled by the background thread.
+     */
+    protected BlockingQueue<Chunk> free;
+    /**
+     * The thread that reads the wrapped stream.
+     */
+    protected Thread reader;
+    /**
+     * The buffer that is currently read.
+     */
+    protected Chunk current = null;
+    /**
+     * The position within the {@link #current} buffer.
+     */
+    protected int position = 0;
+    /**
+     * Flag indicating whether the end of the stream has been reached.
+     */
+    protected boolean eof = false;
+    /**
+     * The error that occurred while reading the wrapped stream or {@code null}
+     * if no error occurred.
+     */
+    protected IOException error = null;
+    /**
+     * Flag indicating whether the stream has been closed.
+     */
+    protected volatile boolean closed = false;
+
+    /**
+     * Constructor using the {@link #DEFAULT_BUFFER_SIZE} and the
+     * {@link #DEFAULT_NUMBER_OF_BUFFERS}.
+     *
+     * @param in the stream that should be read ahead
+     */
+    public ReadAheadInputStream(InputStream in) {
+        this(in, DEFAULT_BUFFER_SIZE, DEFAULT_NUMBER_OF_BUFFERS);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param in              the stream that should be read ahead
+     * @param bufferSize      the size of a single buffer in bytes
+     * @param numberOfBuffers the number of buffers that can be filled ahead
+     */
+    public ReadAheadInputStream(InputStream in, int bufferSize, int numberOfBuffers) {
+        if (bufferSize <= 0) {
+            throw new IllegalArgumentException(
+                    "The given buffer size (" + bufferSize + ") is smaller than 1. This is not allowed.");
+        }
+        if (numberOfBuffers <= 0) {
+            throw new IllegalArgumentException("The given number of buffers (" + numberOfBuffers
+                    + ") is smaller than 1. This is not allowed.");
+        }
+        this.in = in;
+        // One additional slot for the end marker
+        filled = new ArrayBlockingQueue<>(numberOfBuffers + 1);
+        free = new ArrayBlockingQueue<>(numberOfBuffers);
+        for (int i = 0; i < numberOfBuffers; ++i) {
+            free.add(new Chunk(new byte[bufferSize]));
+        }
+        reader = new Thread(this::readAhead, "ReadAheadInputStream-reader");
+        reader.setDaemon(true);
+        reader.start();
+    }
+
+    /**
+     * The method executed by the background thread. It always ends with the
+     * {@link #END} marker. Otherwise, the reading thread would wait forever if
+     * the wrapped stream fails with an unchecked exception or an error.
+     */
+    protected void readAhead() {
+        try {
+            Chunk chunk;
+            int length;
+            int count;
+            while (!closed) {
+                chunk = free.take();
+                length = 0;
+                // Fill the buffer as far as possible
+                try {
+                    while (length < chunk.data.length
+                            && (count = in.read(chunk.data, length, chunk.data.length - length)) >= 0) {
+                        length += count;
+                    }
+                } catch (IOException e) {
+                    chunk.error = e;
+                } catch (Throwable e) {
+                    // e.g., a failing decompressor or a missing native library
+                    chunk.error = new IOException("Error while reading the wrapped stream.", e);
+                }
+                chunk.length = length;
+                if (length > 0 || chunk.error != null) {
+                    filled.put(chunk);
+                }
+                if (length < chunk.data.length || chunk.error != null) {
+                    return;
+                }
+            }
+        } catch (InterruptedException e) {
+            // The stream has been closed
+        } finally {
+            // The queue has a free slot for the end marker
+            filled.offer(END);
+        }
+    }
+
+    /**
+     * Makes sure that {@link #current} contains unread data. Data that has been
+     * read before an error occurred is returned before the error is thrown.
+     * After that, every further call throws the error again.
+     *
+     * @return {@code false} if the end of the stream has been reached
+     * @throws IOException if the stream has been closed or reading the wrapped
+     *                     stream failed
+     */
+    protected boolean ensureData() throws IOException {
+        if (closed) {
+            throw new IOException("The stream has been closed.");
+        }
+        if ((current != null) && (position < current.length)) {
+            return true;
+        }
+        if (error != null) {
+            throw error;
+        }
+        if (eof) {
+            return false;
+        }
+        if (current != null) {
+            free.add(current);
+            current = null;
+        }
+        Chunk chunk;
+        try {
+            chunk = filled.take();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for data.");
+        }
+        if (chunk == END) {
+            eof = true;
+            return false;
+        }
+        current = chunk;
+        position = 0;
+        if (chunk.error != null) {
+            eof = true;
+            error = chunk.error;
+            if (chunk.length == 0) {
+                throw error;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public int read() throws IOException {
+        if (!ensureData()) {
+            return -1;
+        }
+        return current.data[position++] & 0xFF;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        if (len == 0) {
+            return 0;
+        }
+        if (!ensureData()) {
+            return -1;
+        }
+        int count = Math.min(len, current.length - position);
+        System.arraycopy(current.data, position, b, off, count);
+        position += count;
+        return count;
+    }
+
+    @Override
+    public int available() throws IOException {
+        return (current == null || closed) ? 0 : current.length - position;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        // Closing the wrapped stream also ends a blocking read of the background
+        // thread
+        reader.interrupt();
+        in.close();
+    }
+}
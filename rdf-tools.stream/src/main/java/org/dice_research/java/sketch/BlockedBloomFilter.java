@@ -0,0 +1,203 @@
+package org.dice_research.java.sketch;
+
+/**
+ * A blocked Bloom filter for 64-bit hash values (see {@link Hashing}). The bit
+ * array is divided into blocks of 512 bits (i.e., a typical cache line) and all
+ * bits of an element are set within a single block. Hence, a lookup touches
+ * only one cache line, independent of the number of hash functions. In return,
+ * the false positive rate is slightly higher than the rate of a standard Bloom
+ * filter with the same size.
+ *
+ * <p>
+ * An element that has been added is always reported as (possibly) contained.
+ * An element that has not been added is reported with (roughly) the
+ * configured false positive probability. Two filters with the same size and
+ * number of hash functions can be merged.
+ * </p>
+ *
+ * <p>
+ * <b>Note</b> that the filter is not thread-safe while elements are added.
+ * After that, it can be read by several threads.
+ * </p>
+ *
+ * @author Michael R&ouml;der (michael.roeder@uni-paderborn.de)
+ *
+ */
+public class BlockedBloomFilter {
+
+    /**
+     * The number of bits of a block.
+     */
+    public static final int BLOCK_SIZE = 512;
+    /**
+     * The number of longs of a block.
+     */
+    protected static final int LONGS_PER_BLOCK = BLOCK_SIZE / 64;
+
+    /**
+     * The bits of the filter.
+     */
+    protected final long[] bits;
+    /**
+     * The number of blocks.
+     */
+    protected final int numberOfBlocks;
+    /**
+     * The number of bits that are set per element.
+     */
+    protected final int numberOfHashFunctions;
+
+    /**
+     * Constructor.
+     *
+     * @param numberOfBits          the (minimum) number of bits of the filter. It
+     *                              is rounded up to a multiple of
+     *                              {@link #BLOCK_SIZE}.
+     * @param numberOfHashFunctions the number of bits that are set per element
+     */
+    public BlockedBloomFilter(long numberOfBits, int numberOfHashFunctions) {
+        long blocks = (numberOfBits + BLOCK_SIZE - 1) / BLOCK_SIZE;
+        if ((blocks <= 0) || (blocks > (Integer.MAX_VALUE / LONGS_PER_BLOCK))) {
+            throw new IllegalArgumentException("The given number of bits (" + numberOfBits
+                    + ") is not supported. It has to be within [1, " + (Integer.MAX_VALUE / 64L * 64) + "].");
+        }
+        if ((numberOfHashFunctions <= 0) || (numberOfHashFunctions > 32)) {
+            throw new IllegalArgumentException(
+                    "The given number of hash functions (" + numberOfHashFunctions + ") is not within [1, 32].");
+        }
+        this.numberOfBlocks = (int) blocks;
+        this.numberOfHashFunctions = numberOfHashFunctions;
+        this.bits = new long[numberOfBlocks * LONGS_PER_BLOCK];
+    }
+
+    /**
+     * Creates a filter for the given number of elements and the given false
+     * positive probability.
+     *
+     * @param expectedElements the number of elements that are expected to be
+     *                         added
+     * @param fpp              the false positive probability (0 &lt; fpp &lt; 1)
+     * @return the created filter
+     */
+    public static BlockedBloomFilter create(long expectedElements, double fpp) {
+        if ((fpp <= 0) || (fpp >= 1)) {
+            throw new IllegalArgumentException("The given false positive probability (" + fpp
+                    + ") is not within (0, 1).");
+        }
+        long n = Math.max(1, expectedElements);
+        double ln2 = Math.log(2);
+        // Start with the size of a standard Bloom filter and increase it until the
+        // uneven load of the blocks is compensated
+        long m = (long) Math.ceil(-n * Math.log(fpp) / (ln2 * ln2));
+        int k = Math.max(1, Math.min(32, (int) Math.round((double) m / n * ln2)));
+        while (estimateFalsePositiveProbability(m, k, n) > fpp) {
+            m += (m >> 4) + 1;
+        }
+        return new BlockedBloomFilter(m, k);
+    }
+
+    /**
+     * Estimates the false positive probability of a filter with the given
+     * parameters. The number of elements per block is modeled with a Poisson
+     * distribution.
+     *
+     * @param numberOfBits          the number of bits of the filter
+     * @param numberOfHashFunctions the number of bits that are set per element
+     * @param numberOfElements      the number of elements in the filter
+     * @return the estimated false positive probability
+     */
+    public static double estimateFalsePositiveProbability(long numberOfBits, int numberOfHashFunctions,
+            long numberOfElements) {
+        double lambda = (double) numberOfElements * BLOCK_SIZE / numberOfBits;
+        double bitUnset = 1.0 - (1.0 / BLOCK_SIZE);
+        double probability = Math.exp(-lambda);
+        double fpp = 0;
+        double sum = 0;
+        // Sum up the probabilities until the remaining mass is negligible
+        for (int i = 0; (i < 10 * lambda + 100) && (sum < 1 - 1E-12); ++i) {
+            fpp += probability * Math.pow(1.0 - Math.pow(bitUnset, (double) numberOfHashFunctions * i),
+                    numberOfHashFunctions);
+            sum += probability;
+            probability *= lambda / (i + 1);
+        }
+        return fpp;
+    }
+
+    /**
+     * Adds the element with the given hash value.
+     *
+     * @param hash the 64-bit hash value of the element
+     */
+    public void put(long hash) {
+        int offset = blockOffset(hash);
+        // Double hashing on the lower bits determines the bits within the block
+        int h1 = (int) hash;
+        int h2 = (((int) hash) >>> 9) | 1;
+        int bit;
+        for (int i = 0; i < numberOfHashFunctions; ++i) {
+            bit = (h1 + i * h2) & (BLOCK_SIZE - 1);
+            bits[offset + (bit >>> 6)] |= 1L << bit;
+        }
+    }
+
+    /**
+     * Checks whether the element with the given hash value might have been added.
+     *
+     * @param hash the 64-bit hash value of the element
+     * @return {@code false} if the element has definitely not been added
+     */
+    public boolean mightContain(long hash) {
+        int offset = blockOffset(hash);
+        int h1 = (int) hash;
+        int h2 = (((int) hash) >>> 9) | 1;
+        int bit;
+        for (int i = 0; i < numberOfHashFunctions; ++i) {
+            bit = (h1 + i * h2) & (BLOCK_SIZE - 1);
+            if ((bits[offset + (bit >>> 6)] & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Determines the position of the first long of the block of the given hash
+     * value.
+     */
+    protected int blockOffset(long hash) {
+        // Map the upper 32 bits to [0, numberOfBlocks) without a modulo operation.
+        // The bit positions within the block are derived from the lower bits.
+        return (int) (((hash >>> 32) * numberOfBlocks) >>> 32) * LONGS_PER_BLOCK;
+    }
+
+    /**
+     * Merges the given filter into this filter. Afterwards, this filter contains
+     * the elements of both filters.
+     *
+     * @param other the filter that should be merged into this filter
+     * @throws IllegalArgumentException if the filters have different sizes or
+     *                                  numbers of hash functions
+     */
+    public void merge(BlockedBloomFilter other) {
+        if ((other.bits.length != bits.length) || (other.numberOfHashFunctions != numberOfHashFunctions)) {
+            throw new IllegalArgumentException("Can not merge filters with different parameters.");
+        }
+        for (int i = 0; i < bits.length; ++i) {
+            bits[i] |= other.bits[i];
+        }
+    }
+
+    /**
+     * @return the number of bits of the filter
+     */
+    public long getNumberOfBits() {
+        return (long) bits.length * 64;
+    }
+
+    /**
+     * @return the number of bits that are set per element
+     */
+    public int getNumberOfHashFunctions() {
+        return numberOfHashFunctions;
+    }
+}
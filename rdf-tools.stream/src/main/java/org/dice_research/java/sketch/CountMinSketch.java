@@ -0,0 +1,176 @@
+package org.dice_research.java.sketch;
+
+/**
+ * A Count-Min sketch that estimates the frequencies of elements in a stream.
+ * The elements are given as 64-bit hash values (see {@link Hashing}). The
+ * sketch consists of {@code depth} rows of {@code width} counters. An estimate
+ * is never smaller than the true frequency. With a width of {@code e/epsilon}
+ * and a depth of {@code ln(1/delta)}, it overestimates the frequency by more
+ * than {@code epsilon} times the total count with a probability of at most
+ * {@code delta}.
+ *
+ * <p>
+ * Two sketches with the same dimensions can be merged.
+ * </p>
+ *
+ * <p>
+ * <b>Note</b> that the sketch is not thread-safe.
+ * </p>
+ *
+ * @author Michael R&ouml;der (michael.roeder@uni-paderborn.de)
+ *
+ */
+public class CountMinSketch {
+
+    /**
+     * The maximum number of counters (depth times width), which is limited by the
+     * maximum size of an array.
+     */
+    public static final int MAX_NUMBER_OF_COUNTERS = Integer.MAX_VALUE - 8;
+
+    /**
+     * The number of rows.
+     */
+    protected final int depth;
+    /**
+     * The number of counters per row (a power of two).
+     */
+    protected final int width;
+    /**
+     * The mask that is used to map hash values to counters of a row.
+     */
+    protected final int mask;
+    /**
+     * The counters of all rows.
+     */
+    protected final long[] counters;
+    /**
+     * The sum of all counts that have been added.
+     */
+    protected long totalCount = 0;
+
+    /**
+     * Constructor. The width is rounded up to the next power of two.
+     *
+     * @param depth the number of rows
+     * @param width the number of counters per row
+     * @throws IllegalArgumentException if depth times the rounded width exceeds
+     *                                  {@link #MAX_NUMBER_OF_COUNTERS}
+     */
+    public CountMinSketch(int depth, int width) {
+        if (depth <= 0) {
+            throw new IllegalArgumentException(
+                    "The given depth (" + depth + ") is smaller than 1. This is not allowed.");
+        }
+        if ((width <= 0) || (width > (1 << 30))) {
+            throw new IllegalArgumentException("The given width (" + width + ") is not within [1, 2^30].");
+        }
+        int size = Integer.highestOneBit(width);
+        if (size < width) {
+            size <<= 1;
+        }
+        long numberOfCounters = (long) depth * size;
+        if (numberOfCounters > MAX_NUMBER_OF_COUNTERS) {
+            throw new IllegalArgumentException("The given depth (" + depth + ") and width (" + width + ") lead to "
+                    + numberOfCounters + " counters, which is more than the maximum array size ("
+                    + MAX_NUMBER_OF_COUNTERS + "). This is not allowed.");
+        }
+        this.depth = depth;
+        this.width = size;
+        this.mask = size - 1;
+        this.counters = new long[(int) numberOfCounters];
+    }
+
+    /**
+     * Creates a sketch with the given error guarantees.
+     *
+     * @param epsilon the maximum overestimation relative to the total count
+     * @param delta   the probability with which the estimation error may be larger
+     *                than epsilon
+     * @return the created sketch
+     */
+    public static CountMinSketch create(double epsilon, double delta) {
+        return new CountMinSketch((int) Math.ceil(Math.log(1 / delta)), (int) Math.ceil(Math.E / epsilon));
+    }
+
+    /**
+     * Adds the given count for the element with the given hash value.
+     *
+     * @param hash  the 64-bit hash value of the element
+     * @param count the count that should be added
+     * @return the estimated frequency of the element after the update
+     */
+    public long add(long hash, long count) {
+        // Derive the row hashes from the two halves of the hash value
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        long min = Long.MAX_VALUE;
+        int index;
+        for (int i = 0; i < depth; ++i) {
+            index = i * width + ((h1 + i * h2) & mask);
+            counters[index] += count;
+            if (counters[index] < min) {
+                min = counters[index];
+            }
+        }
+        totalCount += count;
+        return min;
+    }
+
+    /**
+     * Estimates the frequency of the element with the given hash value.
+     *
+     * @param hash the 64-bit hash value of the element
+     * @return the estimated frequency
+     */
+    public long estimate(long hash) {
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        long min = Long.MAX_VALUE;
+        int index;
+        for (int i = 0; i < depth; ++i) {
+            index = i * width + ((h1 + i * h2) & mask);
+            if (counters[index] < min) {
+                min = counters[index];
+            }
+        }
+        return min;
+    }
+
+    /**
+     * Merges the given sketch into this sketch.
+     *
+     * @param other the sketch that should be merged into this sketch
+     * @throws IllegalArgumentException if the sketches have different dimensions
+     */
+    public void merge(CountMinSketch other) {
+        if ((other.depth != depth) || (other.width != width)) {
+            throw new IllegalArgumentException("Can not merge sketches with different dimensions.");
+        }
+        for (int i = 0; i < counters.length; ++i) {
+            counters[i] += other.counters[i];
+        }
+        totalCount += other.totalCount;
+    }
+
+    /**
+     * @return the sum of all counts that have been added
+     */
+    public long getTotalCount() {
+        return totalCount;
+    }
+
+    /**
+     * @return the number of rows
+     */
+    public int getDepth() {
+        return depth;
+    }
+
+    /**
+     * @return the number of counters per row
+     */
+    public int getWidth() {
+        return width;
+    }
+}
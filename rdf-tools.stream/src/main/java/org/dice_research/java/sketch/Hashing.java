@@ -0,0 +1,69 @@
+package org.dice_research.java.sketch;
+
+/**
+ * Simple 64-bit hash functions that are used by the sketches of this package.
+ * In contrast to {@link Object#hashCode()}, they produce 64 bits which are
+ * well-distributed enough for cardinality estimations of billions of elements.
+ *
+ * @author Michael R&ouml;der (michael.roeder@uni-paderborn.de)
+ *
+ */
+public class Hashing {
+
+    private static final long FNV_OFFSET_BASIS = 0xCBF29CE484222325L;
+    private static final long FNV_PRIME = 0x100000001B3L;
+
+    /**
+     * Hashes the characters of the given sequence.
+     *
+     * @param s the sequence that should be hashed
+     * @return the 64-bit hash value
+     */
+    public static long hash64(CharSequence s) {
+        return hash64(s, FNV_OFFSET_BASIS);
+    }
+
+    /**
+     * Hashes the characters of the given sequence starting with the given seed.
+     * This can be used to combine the hash values of several sequences.
+     *
+     * @param s    the sequence that should be hashed
+     * @param seed the seed of the hash value
+     * @return the 64-bit hash value
+     */
+    public static long hash64(CharSequence s, long seed) {
+        // FNV-1a followed by the finalization step of MurmurHash3
+        long h = seed;
+        int length = s.length();
+        for (int i = 0; i < length; ++i) {
+            h = (h ^ s.charAt(i)) * FNV_PRIME;
+        }
+        return mix64(h);
+    }
+
+    /**
+     * Hashes the given long value.
+     *
+     * @param value the value that should be hashed
+     * @return the 64-bit hash value
+     */
+    public static long hash64(long value) {
+        return mix64(value + 0x9E3779B97F4A7C15L);
+    }
+
+    /**
+     * The finalization step of MurmurHash3 which spreads the bits of the given
+     * value.
+     *
+     * @param h the value that should be mixed
+     * @return the mixed value
+     */
+    public static long mix64(long h) {
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        h *= 0xC4CEB9FE1A85EC53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
@@ -0,0 +1,253 @@
+package org.dice_research.java.sketch;
+
+import java.util.AbstractMap.SimpleEntry;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.function.ToLongFunction;
+
+/**
+ * Determines the (approximately) most frequent elements of a stream. The
+ * frequencies are estimated with a {@link CountMinSketch} while the k elements
+ * with the highest estimates are kept as candidates. Hence, the memory
+ * consumption is determined by the dimensions of the sketch and k and does not
+ * depend on the number of distinct elements. The candidates are kept in an
+ * indexed min-heap, i.e., an update of a candidate takes O(log k) time.
+ *
+ * <p>
+ * Two instances with the same k and sketch dimensions can be merged. After
+ * merging, the candidates of both instances are ranked based on the merged
+ * sketch.
+ * </p>
+ *
+ * <p>
+ * <b>Note</b> that this class is not thread-safe.
+ * </p>
+ *
+ * @author Michael R&ouml;der (michael.roeder@uni-paderborn.de)
+ *
+ * @param <T> the type of the counted elements
+ */
+public class HeavyHitters<T> {
+
+    /**
+     * The number of elements that are kept as candidates.
+     */
+    protected final int k;
+    /**
+     * The sketch that is used to estimate the frequencies.
+     */
+    protected final CountMinSketch sketch;
+    /**
+     * The function that is used to hash the elements.
+     */
+    protected final ToLongFunction<T> hashFunction;
+    /**
+     * The candidates organized as binary min-heap ordered by their estimates.
+     * Hence, the candidate with the smallest estimate is always at position 0.
+     */
+    protected Object[] heap;
+    /**
+     * The estimates of the candidates in the {@link #heap}.
+     */
+    protected long[] heapCounts;
+    /**
+     * The positions of the candidates within the {@link #heap}.
+     */
+    protected Map<T, Integer> positions = new HashMap<>();
+    /**
+     * The number of candidates in the {@link #heap}.
+     */
+    protected int size = 0;
+
+    /**
+     * Constructor.
+     *
+     * @param k            the number of most frequent elements that should be
+     *                     determined
+     * @param sketch       the (empty) sketch that is used to estimate the
+     *                     frequencies
+     * @param hashFunction the function that is used to hash the elements
+     */
+    public HeavyHitters(int k, CountMinSketch sketch, ToLongFunction<T> hashFunction) {
+        if (k <= 0) {
+            throw new IllegalArgumentException("The given k (" + k + ") is smaller than 1. This is not allowed.");
+        }
+        this.k = k;
+        this.sketch = sketch;
+        this.hashFunction = hashFunction;
+        this.heap = new Object[k];
+        this.heapCounts = new long[k];
+    }
+
+    /**
+     * Adds the given element.
+     *
+     * @param element the element that should be counted
+     */
+    public void add(T element) {
+        add(element, 1);
+    }
+
+    /**
+     * Adds the given count for the given element.
+     *
+     * @param element the element that should be counted
+     * @param count   the count that should be added
+     */
+    public void add(T element, long count) {
+        offer(element, sketch.add(hashFunction.applyAsLong(element), count));
+    }
+
+    protected void offer(T element, long estimate) {
+        Integer position = positions.get(element);
+        if (position != null) {
+            int pos = position;
+            long oldEstimate = heapCounts[pos];
+            heapCounts[pos] = estimate;
+            if (estimate > oldEstimate) {
+                siftDown(pos);
+            } else if (estimate < oldEstimate) {
+                siftUp(pos);
+            }
+        } else if (size < k) {
+            heap[size] = element;
+            heapCounts[size] = estimate;
+            positions.put(element, size);
+            ++size;
+            siftUp(size - 1);
+        } else if (estimate > heapCounts[0]) {
+            positions.remove(heap[0]);
+            heap[0] = element;
+            heapCounts[0] = estimate;
+            positions.put(element, 0);
+            siftDown(0);
+        }
+    }
+
+    /**
+     * Moves the candidate at the given position towards the root of the heap
+     * until its parent has a smaller or equal estimate.
+     *
+     * @param pos the position of the candidate
+     */
+    protected void siftUp(int pos) {
+        Object element = heap[pos];
+        long count = heapCounts[pos];
+        while (pos > 0) {
+            int parent = (pos - 1) >>> 1;
+            if (heapCounts[parent] <= count) {
+                break;
+            }
+            moveTo(parent, pos);
+            pos = parent;
+        }
+        place(element, count, pos);
+    }
+
+    /**
+     * Moves the candidate at the given position towards the leaves of the heap
+     * until its children have larger or equal estimates.
+     *
+     * @param pos the position of the candidate
+     */
+    protected void siftDown(int pos) {
+        Object element = heap[pos];
+        long count = heapCounts[pos];
+        int half = size >>> 1;
+        while (pos < half) {
+            int child = (pos << 1) + 1;
+            int right = child + 1;
+            if ((right < size) && (heapCounts[right] < heapCounts[child])) {
+                child = right;
+            }
+            if (count <= heapCounts[child]) {
+                break;
+            }
+            moveTo(child, pos);
+            pos = child;
+        }
+        place(element, count, pos);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void moveTo(int from, int to) {
+        heap[to] = heap[from];
+        heapCounts[to] = heapCounts[from];
+        positions.put((T) heap[to], to);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void place(Object element, long count, int pos) {
+        heap[pos] = element;
+        heapCounts[pos] = count;
+        positions.put((T) element, pos);
+    }
+
+    /**
+     * Returns the (at most k) most frequent elements together with their
+     * estimated frequencies sorted by descending frequency.
+     *
+     * @return the most frequent elements
+     */
+    public List<Entry<T, Long>> getTopK() {
+        List<Entry<T, Long>> result = new ArrayList<>(size);
+        for (T candidate : positions.keySet()) {
+            result.add(new SimpleEntry<>(candidate, sketch.estimate(hashFunction.applyAsLong(candidate))));
+        }
+        result.sort((e1, e2) -> Long.compare(e2.getValue(), e1.getValue()));
+        return result;
+    }
+
+    /**
+     * Estimates the frequency of the given element.
+     *
+     * @param element the element
+     * @return the estimated frequency
+     */
+    public long estimate(T element) {
+        return sketch.estimate(hashFunction.applyAsLong(element));
+    }
+
+    /**
+     * Merges the given instance into this instance.
+     *
+     * @param other the instance that should be merged into this instance
+     * @throws IllegalArgumentException if the instances have different k values
+     *                                  or sketch dimensions
+     */
+    public void merge(HeavyHitters<T> other) {
+        if (other.k != k) {
+            throw new IllegalArgumentException(
+                    "Can not merge instances with different k values (" + k + " and " + other.k + ").");
+        }
+        sketch.merge(other.sketch);
+        Set<T> union = new HashSet<>(positions.keySet());
+        union.addAll(other.positions.keySet());
+        positions.clear();
+        Arrays.fill(heap, null);
+        size = 0;
+        for (T candidate : union) {
+            offer(candidate, sketch.estimate(hashFunction.applyAsLong(candidate)));
+        }
+    }
+
+    /**
+     * @return the sketch that is used to estimate the frequencies
+     */
+    public CountMinSketch getSketch() {
+        return sketch;
+    }
+
+    /**
+     * @return the number of elements that are kept as candidates
+     */
+    public int getK() {
+        return k;
+    }
+}
@@ -0,0 +1,173 @@
+package org.dice_research.java.sketch;
+
+import java.util.Arrays;
+
+/**
+ * A HyperLogLog sketch that estimates the number of distinct elements it has
+ * seen. The elements are given as 64-bit hash values (see {@link Hashing}). The
+ * sketch has a fixed size of {@code 2^precision} bytes and a relative standard
+ * error of about {@code 1.04 / sqrt(2^precision)}, e.g., 4 KiB and 1.6% for the
+ * {@link #DEFAULT_PRECISION}. Small cardinalities are estimated with linear
+ * counting.
+ *
+ * <p>
+ * Two sketches with the same precision can be merged. The merged sketch is
+ * equal to a sketch that has seen the elements of both sketches. Hence,
+ * several threads can use their own sketches which are merged at the end.
+ * </p>
+ *
+ * <p>
+ * <b>Note</b> that the sketch is not thread-safe.
+ * </p>
+ *
+ * @author Michael R&ouml;der (michael.roeder@uni-paderborn.de)
+ *
+ */
+public class HyperLogLog {
+
+    /**
+     * The default precision (2^12 registers).
+     */
+    public static final int DEFAULT_PRECISION = 12;
+    public static final int MIN_PRECISION = 4;
+    public static final int MAX_PRECISION = 18;
+
+    /**
+     * The number of bits of a hash value that are used to select a register.
+     */
+    protected final int precision;
+    /**
+     * The registers. Each register stores the maximum rank of the hash values
+     * that have been mapped to it.
+     */
+    protected final byte[] registers;
+
+    /**
+     * Constructor using the {@link #DEFAULT_PRECISION}.
+     */
+    public HyperLogLog() {
+        this(DEFAULT_PRECISION);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param precision the number of bits that are used to select a register
+     *                  ({@link #MIN_PRECISION} to {@link #MAX_PRECISION})
+     */
+    public HyperLogLog(int precision) {
+        if ((precision < MIN_PRECISION) || (precision > MAX_PRECISION)) {
+            throw new IllegalArgumentException("The given precision (" + precision + ") is not within ["
+                    + MIN_PRECISION + ", " + MAX_PRECISION + "].");
+        }
+        this.precision = precision;
+        this.registers = new byte[1 << precision];
+    }
+
+    /**
+     * Adds the element with the given hash value.
+     *
+     * @param hash the 64-bit hash value of the element
+     */
+    public void add(long hash) {
+        int index = (int) (hash >>> (64 - precision));
+        // The guard bit limits the rank to 64 - precision + 1
+        long w = (hash << precision) | (1L << (precision - 1));
+        byte rank = (byte) (Long.numberOfLeadingZeros(w) + 1);
+        if (rank > registers[index]) {
+            registers[index] = rank;
+        }
+    }
+
+    /**
+     * Adds the given String.
+     *
+     * @param s the String that should be added
+     */
+    public void add(CharSequence s) {
+        add(Hashing.hash64(s));
+    }
+
+    /**
+     * @return the estimated number of distinct elements
+     */
+    public long estimate() {
+        int m = registers.length;
+        double sum = 0;
+        int zeros = 0;
+        for (int i = 0; i < m; ++i) {
+            sum += Double.longBitsToDouble((1023L - registers[i]) << 52);
+            if (registers[i] == 0) {
+                ++zeros;
+            }
+        }
+        double estimate = alpha(m) * m * m / sum;
+        if ((estimate <= 2.5 * m) && (zeros > 0)) {
+            // Linear counting
+            estimate = m * Math.log((double) m / zeros);
+        }
+        return Math.round(estimate);
+    }
+
+    protected static double alpha(int m) {
+        switch (m) {
+        case 16:
+            return 0.673;
+        case 32:
+            return 0.697;
+        case 64:
+            return 0.709;
+        default:
+            return 0.7213 / (1 + 1.079 / m);
+        }
+    }
+
+    /**
+     * Merges the given sketch into this sketch.
+     *
+     * @param other the sketch that should be merged into this sketch
+     * @throws IllegalArgumentException if the sketches have different precisions
+     */
+    public void merge(HyperLogLog other) {
+        if (other.precision != precision) {
+            throw new IllegalArgumentException("Can not merge sketches with different precisions (" + precision
+                    + " and " + other.precision + ").");
+        }
+        for (int i = 0; i < registers.length; ++i) {
+            if (other.registers[i] > registers[i]) {
+                registers[i] = other.registers[i];
+            }
+        }
+    }
+
+    /**
+     * @return the precision of this sketch
+     */
+    public int getPrecision() {
+        return precision;
+    }
+
+    /**
+     * @return the size of the sketch in bytes (without the object header)
+     */
+    public int getSizeInBytes() {
+        return registers.length;
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * precision + Arrays.hashCode(registers);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof HyperLogLog)) {
+            return false;
+        }
+        HyperLogLog other = (HyperLogLog) obj;
+        return (precision == other.precision) && Arrays.equals(registers, other.registers);
+    }
+}
@@ -0,0 +1,267 @@
+package org.dice_research.java.sketch;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * A uniform or weighted random sample of (at most) k elements of a stream with
+ * an unknown length. The sample is determined in a single pass and needs O(k)
+ * memory. The internal arrays start small and grow with the sample up to k, so
+ * that a large number of small samples (e.g., one per group) is cheap.
+ *
+ * <p>
+ * Every element receives a random key and the k elements with the largest
+ * keys form the sample. For an element with the weight w, the key is
+ * u<sup>1/w</sup> with u being uniformly drawn from (0, 1] (Efraimidis and
+ * Spirakis, "Weighted random sampling with a reservoir", 2006). If all elements
+ * have the same weight, this is a uniform sample without replacement.
+ * Internally, the logarithm of the key is used for numerical stability.
+ * </p>
+ *
+ * <p>
+ * Since the sample is defined by the keys, two samples of disjoint parts of a
+ * stream (e.g., created by different threads) can be merged and the result is
+ * a sample of the complete stream. If the random number generator is seeded,
+ * the sample is reproducible for the same order (and partitioning) of the
+ * stream.
+ * </p>
+ *
+ * <p>
+ * <b>Note</b> that this class is not thread-safe.
+ * </p>
+ *
+ * @author Michael R&ouml;der (michael.roeder@uni-paderborn.de)
+ *
+ * @param <T> the type of the sampled elements
+ */
+public class ReservoirSample<T> {
+
+    /**
+     * The initial capacity of the internal arrays if k is larger.
+     */
+    protected static final int INITIAL_CAPACITY = 8;
+
+    /**
+     * The maximum number of elements in the sample.
+     */
+    protected final int k;
+    /**
+     * The random number generator that is used to create the keys.
+     */
+    protected final SplittableRandom random;
+    /**
+     * The keys of the elements in the sample, organized as min-heap.
+     */
+    protected double[] keys;
+    /**
+     * The elements of the sample in the same order as their {@link #keys}.
+     */
+    protected Object[] elements;
+    /**
+     * The number of elements in the sample.
+     */
+    protected int size = 0;
+    /**
+     * The number of elements that have been offered to the sample.
+     */
+    protected long count = 0;
+    /**
+     * The sum of the weights of all elements that have been offered to the
+     * sample.
+     */
+    protected double totalWeight = 0;
+
+    /**
+     * Constructor.
+     *
+     * @param k    the maximum number of elements in the sample
+     * @param seed the seed of the random number generator
+     */
+    public ReservoirSample(int k, long seed) {
+        this(k, new SplittableRandom(seed));
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param k      the maximum number of elements in the sample
+     * @param random the random number generator that is used to create the keys
+     *               (it can be shared by several samples used by the same
+     *               thread)
+     */
+    public ReservoirSample(int k, SplittableRandom random) {
+        if (k <= 0) {
+            throw new IllegalArgumentException("The given k (" + k + ") is smaller than 1. This is not allowed.");
+        }
+        this.k = k;
+        this.random = random;
+        int capacity = Math.min(k, INITIAL_CAPACITY);
+        this.keys = new double[capacity];
+        this.elements = new Object[capacity];
+    }
+
+    /**
+     * Offers the given element to the sample.
+     *
+     * @param element the element
+     */
+    public void add(T element) {
+        ++count;
+        totalWeight += 1;
+        // log(u) with u in (0, 1]
+        offer(element, Math.log(1.0 - random.nextDouble()));
+    }
+
+    /**
+     * Offers the given element with the given weight to the sample. The
+     * probability of the element to be part of the sample grows with its weight.
+     * Elements with a weight of 0 are never part of the sample.
+     *
+     * @param element the element
+     * @param weight  the weight of the element (&gt;= 0)
+     */
+    public void add(T element, double weight) {
+        if (!(weight >= 0)) {
+            throw new IllegalArgumentException(
+                    "The given weight (" + weight + ") is smaller than 0. This is not allowed.");
+        }
+        ++count;
+        totalWeight += weight;
+        if (weight > 0) {
+            // log(u^(1/w)) = log(u) / w
+            offer(element, Math.log(1.0 - random.nextDouble()) / weight);
+        }
+    }
+
+    protected void offer(Object element, double key) {
+        if (size < k) {
+            if (size == keys.length) {
+                grow();
+            }
+            keys[size] = key;
+            elements[size] = element;
+            siftUp(size);
+            ++size;
+        } else if (key > keys[0]) {
+            // Replace the element with the smallest key
+            keys[0] = key;
+            elements[0] = element;
+            siftDown(0);
+        }
+    }
+
+    /**
+     * Doubles the capacity of the internal arrays without exceeding k.
+     */
+    protected void grow() {
+        int capacity = (int) Math.min(k, 2L * keys.length);
+        keys = Arrays.copyOf(keys, capacity);
+        elements = Arrays.copyOf(elements, capacity);
+    }
+
+    protected void siftUp(int pos) {
+        double key = keys[pos];
+        Object element = elements[pos];
+        int parent;
+        while (pos > 0) {
+            parent = (pos - 1) >>> 1;
+            if (keys[parent] <= key) {
+                break;
+            }
+            keys[pos] = keys[parent];
+            elements[pos] = elements[parent];
+            pos = parent;
+        }
+        keys[pos] = key;
+        elements[pos] = element;
+    }
+
+    protected void siftDown(int pos) {
+        double key = keys[pos];
+        Object element = elements[pos];
+        int child;
+        while ((child = (pos << 1) + 1) < size) {
+            if ((child + 1 < size) && (keys[child + 1] < keys[child])) {
+                ++child;
+            }
+            if (key <= keys[child]) {
+                break;
+            }
+            keys[pos] = keys[child];
+            elements[pos] = elements[child];
+            pos = child;
+        }
+        keys[pos] = key;
+        elements[pos] = element;
+    }
+
+    /**
+     * Merges the given sample into this sample. Afterwards, this sample is a
+     * sample of the elements offered to both samples.
+     *
+     * @param other the sample that should be merged into this sample
+     * @throws IllegalArgumentException if the samples have different k values
+     */
+    public void merge(ReservoirSample<T> other) {
+        if (other.k != k) {
+            throw new IllegalArgumentException(
+                    "Can not merge samples with different k values (" + k + " and " + other.k + ").");
+        }
+        for (int i = 0; i < other.size; ++i) {
+            offer(other.elements[i], other.keys[i]);
+        }
+        count += other.count;
+        totalWeight += other.totalWeight;
+    }
+
+    /**
+     * Returns the elements of the sample sorted by their keys in descending order.
+     * For a uniform sample, this is a random order.
+     *
+     * @return the elements of the sample
+     */
+    @SuppressWarnings("unchecked")
+    public List<T> getSample() {
+        Integer[] order = new Integer[size];
+        for (int i = 0; i < size; ++i) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (i1, i2) -> Double.compare(keys[i2], keys[i1]));
+        List<T> sample = new ArrayList<>(size);
+        for (int i = 0; i < size; ++i) {
+            sample.add((T) elements[order[i]]);
+        }
+        return sample;
+    }
+
+    /**
+     * @return the number of elements in the sample
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return the number of elements that have been offered to the sample
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * @return the sum of the weights of all elements that have been offered to
+     *         the sample
+     */
+    public double getTotalWeight() {
+        return totalWeight;
+    }
+
+    /**
+     * @return the maximum number of elements in the sample
+     */
+    public int getK() {
+        return k;
+    }
+}
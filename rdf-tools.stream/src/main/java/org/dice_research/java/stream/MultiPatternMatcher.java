@@ -0,0 +1,204 @@
+package org.dice_research.java.stream;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * A matcher that searches for several patterns in a String in a single pass
+ * using the Aho-Corasick automaton. The time needed to check a String depends
+ * on its length but not on the number of patterns.
+ *
+ * <p>
+ * The matcher is immutable and can be used by several threads at the same
+ * time.
+ * </p>
+ *
+ * @author Michael R&ouml;der (michael.roeder@uni-paderborn.de)
+ *
+ */
+public class MultiPatternMatcher {
+
+    /**
+     * The first characters of the transitions of each state (sorted).
+     */
+    protected char[][] keys;
+    /**
+     * The target states of the transitions of each state.
+     */
+    protected int[][] targets;
+    /**
+     * The failure link of each state.
+     */
+    protected int[] failure;
+    /**
+     * The IDs of the patterns that end in each state (including the patterns
+     * reachable via failure links).
+     */
+    protected int[][] outputs;
+    /**
+     * The number of distinct patterns.
+     */
+    protected int numberOfPatterns;
+
+    /**
+     * Constructor.
+     *
+     * @param patterns the patterns that should be searched for
+     */
+    public MultiPatternMatcher(String... patterns) {
+        Set<String> distinct = new LinkedHashSet<>(Arrays.asList(patterns));
+        numberOfPatterns = distinct.size();
+        // Build the trie
+        List<TreeMap<Character, Integer>> transitions = new ArrayList<>();
+        List<List<Integer>> patternEnds = new ArrayList<>();
+        transitions.add(new TreeMap<>());
+        patternEnds.add(new ArrayList<>());
+        int patternId = 0;
+        for (String pattern : distinct) {
+            int state = 0;
+            for (int i = 0; i < pattern.length(); ++i) {
+                Integer next = transitions.get(state).get(pattern.charAt(i));
+                if (next == null) {
+                    next = transitions.size();
+                    transitions.add(new TreeMap<>());
+                    patternEnds.add(new ArrayList<>());
+                    transitions.get(state).put(pattern.charAt(i), next);
+                }
+                state = next;
+            }
+            patternEnds.get(state).add(patternId);
+            ++patternId;
+        }
+        int numberOfStates = transitions.size();
+        keys = new char[numberOfStates][];
+        targets = new int[numberOfStates][];
+        for (int s = 0; s < numberOfStates; ++s) {
+            TreeMap<Character, Integer> map = transitions.get(s);
+            keys[s] = new char[map.size()];
+            targets[s] = new int[map.size()];
+            int i = 0;
+            for (Character c : map.keySet()) {
+                keys[s][i] = c;
+                targets[s][i] = map.get(c);
+                ++i;
+            }
+        }
+        // Determine the failure links in breadth-first order
+        failure = new int[numberOfStates];
+        outputs = new int[numberOfStates][];
+        outputs[0] = toArray(patternEnds.get(0));
+        Deque<Integer> queue = new ArrayDeque<>();
+        for (int i = 0; i < targets[0].length; ++i) {
+            failure[targets[0][i]] = 0;
+            queue.add(targets[0][i]);
+        }
+        while (!queue.isEmpty()) {
+            int state = queue.poll();
+            List<Integer> stateOutputs = patternEnds.get(state);
+            for (int o : outputs[failure[state]]) {
+                stateOutputs.add(o);
+            }
+            outputs[state] = toArray(stateOutputs);
+            for (int i = 0; i < keys[state].length; ++i) {
+                int child = targets[state][i];
+                failure[child] = (state == 0) ? 0 : next(failure[state], keys[state][i]);
+                queue.add(child);
+            }
+        }
+    }
+
+    protected static int[] toArray(List<Integer> list) {
+        int[] array = new int[list.size()];
+        for (int i = 0; i < array.length; ++i) {
+            array[i] = list.get(i);
+        }
+        return array;
+    }
+
+    /**
+     * Determines the state that is reached from the given state with the given
+     * character.
+     *
+     * @param state the current state
+     * @param c     the next character
+     * @return the next state
+     */
+    protected int next(int state, char c) {
+        while (true) {
+            int index = Arrays.binarySearch(keys[state], c);
+            if (index >= 0) {
+                return targets[state][index];
+            }
+            if (state == 0) {
+                return 0;
+            }
+            state = failure[state];
+        }
+    }
+
+    /**
+     * Checks whether the given String contains any of the patterns.
+     *
+     * @param s the String that should be checked
+     * @return {@code true} if at least one of the patterns occurs in s
+     */
+    public boolean containsAny(String s) {
+        if (numberOfPatterns == 0) {
+            return false;
+        }
+        int state = 0;
+        if (outputs[state].length > 0) {
+            // the empty String is a pattern
+            return true;
+        }
+        for (int i = 0; i < s.length(); ++i) {
+            state = next(state, s.charAt(i));
+            if (outputs[state].length > 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Checks whether the given String contains all of the patterns.
+     *
+     * @param s the String that should be checked
+     * @return {@code true} if all patterns occur in s
+     */
+    public boolean containsAll(String s) {
+        boolean[] found = new boolean[numberOfPatterns];
+        int missing = numberOfPatterns;
+        int state = 0;
+        int i = 0;
+        while (true) {
+            for (int o : outputs[state]) {
+                if (!found[o]) {
+                    found[o] = true;
+                    --missing;
+                }
+            }
+            if (missing == 0) {
+                return true;
+            }
+            if (i >= s.length()) {
+                return false;
+            }
+            state = next(state, s.charAt(i));
+            ++i;
+        }
+    }
+
+    /**
+     * @return the number of distinct patterns
+     */
+    public int getNumberOfPatterns() {
+        return numberOfPatterns;
+    }
+}
@@ -1,5 +1,7 @@
 package org.dice_research.java.stream;
 
+import java.util.function.Predicate;
+
 public class PredicateHelper {
 
     /**
@@ -55,4 +57,50 @@ public class PredicateHelper {
         }
         return true;
     }
+
+    /**
+     * Creates a predicate that returns {@code true} if the tested String starts
+     * with any of the given prefixes. In contrast to
+     * {@link #startsWithAny(String, String...)}, the prefixes are organized in a
+     * {@link PrefixTrie}, i.e., the time needed for a single check does not grow
+     * with the number of prefixes.
+     * 
+     * @param prefixes the array of prefixes
+     * @return a predicate that is equivalent to
+     *         {@code s -> startsWithAny(s, prefixes)}
+     */
+    public static Predicate<String> startsWithAnyPredicate(String... prefixes) {
+        PrefixTrie trie = new PrefixTrie(prefixes);
+        return trie::isPrefixed;
+    }
+
+    /**
+     * Creates a predicate that returns {@code true} if the tested String contains
+     * any of the given patterns. In contrast to
+     * {@link #containsAny(String, String...)}, the String is searched for all
+     * patterns in a single pass (see {@link MultiPatternMatcher}).
+     * 
+     * @param patterns the array of patterns
+     * @return a predicate that is equivalent to
+     *         {@code s -> containsAny(s, patterns)}
+     */
+    public static Predicate<String> containsAnyPredicate(String... patterns) {
+        MultiPatternMatcher matcher = new MultiPatternMatcher(patterns);
+        return matcher::containsAny;
+    }
+
+    /**
+     * Creates a predicate that returns {@code true} if the tested String contains
+     * all of the given patterns. In contrast to
+     * {@link #containsAll(String, String...)}, the String is searched for all
+     * patterns in a single pass (see {@link MultiPatternMatcher}).
+     * 
+     * @param patterns the array of patterns
+     * @return a predicate that is equivalent to
+     *         {@code s -> containsAll(s, patterns)}
+     */
+    public static Predicate<String> containsAllPredicate(String... patterns) {
+        MultiPatternMatcher matcher = new MultiPatternMatcher(patterns);
+        return matcher::containsAll;
+    }
 }
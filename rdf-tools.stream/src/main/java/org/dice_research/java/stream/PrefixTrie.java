@@ -0,0 +1,200 @@
+package org.dice_research.java.stream;
+
+import java.util.Arrays;
+
+/**
+ * A compact prefix tree (radix tree) over the characters of a set of prefixes.
+ * Each edge of the tree is labeled with a sequence of characters and the
+ * children of a node are kept in an array that is sorted by the first character
+ * of their labels. Hence, checking whether a String starts with one of the
+ * prefixes takes time that depends on the length of the String and (only
+ * logarithmically) on the branching of the tree but not on the number of
+ * prefixes.
+ *
+ * <p>
+ * <b>Note</b> that the trie is not thread-safe while prefixes are added. After
+ * that, it can be read by several threads.
+ * </p>
+ *
+ * @author Michael R&ouml;der (michael.roeder@uni-paderborn.de)
+ *
+ */
+public class PrefixTrie {
+
+    /**
+     * The root of the tree. Its label is always empty.
+     */
+    protected TrieNode root = new TrieNode("", false);
+    /**
+     * The number of distinct prefixes in the tree.
+     */
+    protected int size = 0;
+
+    /**
+     * Constructor.
+     *
+     * @param prefixes the prefixes that should be added to the trie
+     */
+    public PrefixTrie(String... prefixes) {
+        for (int i = 0; i < prefixes.length; ++i) {
+            add(prefixes[i]);
+        }
+    }
+
+    /**
+     * Adds the given prefix.
+     *
+     * @param prefix the prefix that should be added
+     * @return {@code true} if the prefix has not been part of the trie before
+     */
+    public boolean add(String prefix) {
+        TrieNode node = root;
+        int pos = 0;
+        int length = prefix.length();
+        while (pos < length) {
+            int index = Arrays.binarySearch(node.keys, prefix.charAt(pos));
+            if (index < 0) {
+                node.addChild(-(index + 1), new TrieNode(prefix.substring(pos), true));
+                ++size;
+                return true;
+            }
+            TrieNode child = node.children[index];
+            int common = commonPrefixLength(child.label, prefix, pos);
+            if (common < child.label.length()) {
+                // Split the edge
+                TrieNode middle = new TrieNode(child.label.substring(0, common), false);
+                child.label = child.label.substring(common);
+                middle.addChild(0, child);
+                node.children[index] = middle;
+                child = middle;
+            }
+            node = child;
+            pos += common;
+        }
+        if (node.terminal) {
+            return false;
+        }
+        node.terminal = true;
+        ++size;
+        return true;
+    }
+
+    /**
+     * Determines the length of the common prefix of the given label and the
+     * substring of the given String starting at the given offset.
+     */
+    protected static int commonPrefixLength(String label, String s, int offset) {
+        int max = Math.min(label.length(), s.length() - offset);
+        int i = 0;
+        while ((i < max) && (label.charAt(i) == s.charAt(offset + i))) {
+            ++i;
+        }
+        return i;
+    }
+
+    /**
+     * Checks whether the given String starts with one of the prefixes of this
+     * trie.
+     *
+     * @param s the String that should be checked
+     * @return {@code true} if one of the prefixes is a prefix of s
+     */
+    public boolean isPrefixed(String s) {
+        return longestPrefixLength(s, true) >= 0;
+    }
+
+    /**
+     * Determines the length of the longest prefix of this trie with which the
+     * given String starts.
+     *
+     * @param s the String that should be checked
+     * @return the length of the longest prefix or -1 if none of the prefixes is a
+     *         prefix of s
+     */
+    public int longestPrefixLength(String s) {
+        return longestPrefixLength(s, false);
+    }
+
+    protected int longestPrefixLength(String s, boolean stopAtFirst) {
+        TrieNode node = root;
+        int pos = 0;
+        int length = s.length();
+        int longest = -1;
+        while (true) {
+            if (node.terminal) {
+                longest = pos;
+                if (stopAtFirst) {
+                    return longest;
+                }
+            }
+            if (pos >= length) {
+                return longest;
+            }
+            int index = Arrays.binarySearch(node.keys, s.charAt(pos));
+            if (index < 0) {
+                return longest;
+            }
+            node = node.children[index];
+            if (!s.startsWith(node.label, pos)) {
+                return longest;
+            }
+            pos += node.label.length();
+        }
+    }
+
+    /**
+     * @return the number of distinct prefixes in this trie
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * A single node of the tree.
+     *
+     * @author Michael R&ouml;der (michael.roeder@uni-paderborn.de)
+     *
+     */
+    protected static class TrieNode {
+        private static final char[] NO_KEYS = new char[0];
+        private static final TrieNode[] NO_CHILDREN = new TrieNode[0];
+
+        /**
+         * The label of the edge from the parent to this node.
+         */
+        protected String label;
+        /**
+         * Flag indicating whether the path to this node is a prefix of the trie.
+         */
+        protected boolean terminal;
+        /**
+         * The first characters of the labels of the children (sorted).
+         */
+        protected char[] keys = NO_KEYS;
+        /**
+         * The children in the order of their keys.
+         */
+        protected TrieNode[] children = NO_CHILDREN;
+
+        public TrieNode(String label, boolean terminal) {
+            this.label = label;
+            this.terminal = terminal;
+        }
+
+        /**
+         * Inserts the given child at the given position.
+         */
+        protected void addChild(int index, TrieNode child) {
+            char[] newKeys = new char[keys.length + 1];
+            TrieNode[] newChildren = new TrieNode[children.length + 1];
+            System.arraycopy(keys, 0, newKeys, 0, index);
+            System.arraycopy(children, 0, newChildren, 0, index);
+            newKeys[index] = child.label.charAt(0);
+            newChildren[index] = child;
+            System.arraycopy(keys, index, newKeys, index + 1, keys.length - index);
+            System.arraycopy(children, index, newChildren, index + 1, children.length - index);
+            keys = newKeys;
+            children = newChildren;
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package org.dice_research.rdf.stream;
+
+import org.apache.jena.graph.Triple;
+import org.apache.jena.riot.system.StreamRDF;
+import org.apache.jena.sparql.core.Quad;
+
+/**
+ * A decorator that receives and forwards batches (see {@link BatchStreamRDF}).
+ * If the decorated stream is not a {@link BatchStreamRDF}, it is wrapped with a
+ * {@link BatchStreamRDFAdapter}.
+ *
+ * @author Michael R&ouml;der (michael.roeder@uni-paderborn.de)
+ *
+ */
+public abstract class ABatchStreamRDFDecorator extends AStreamRDFDecorator implements BatchStreamRDF {
+
+    /**
+     * The decorated stream as {@link BatchStreamRDF}.
+     */
+    private BatchStreamRDF batchDecorated;
+
+    public ABatchStreamRDFDecorator(StreamRDF decorated) {
+        super(decorated);
+        batchDecorated = BatchStreamRDFAdapter.wrap(decorated);
+    }
+
+    @Override
+    public void setDecorated(StreamRDF decorated) {
+        super.setDecorated(decorated);
+        batchDecorated = BatchStreamRDFAdapter.wrap(decorated);
+    }
+
+    protected BatchStreamRDF getBatchDecorated() {
+        return batchDecorated;
+    }
+
+    @Override
+    public void triples(Triple[] batch, int length) {
+        batchDecorated.triples(batch, length);
+    }
+
+    @Override
+    public void quads(Quad[] batch, int length) {
+        batchDecorated.quads(batch, length);
+    }
+
+}
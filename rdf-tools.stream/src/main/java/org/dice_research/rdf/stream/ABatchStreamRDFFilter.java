@@ -0,0 +1,118 @@
+package org.dice_research.rdf.stream;
+
+import java.util.Arrays;
+
+import org.apache.jena.graph.Triple;
+import org.apache.jena.riot.system.StreamRDF;
+import org.apache.jena.riot.system.StreamRDFLib;
+import org.apache.jena.sparql.core.Quad;
+
+/**
+ * A filter that can process batches (see {@link BatchStreamRDF}). A received
+ * batch is split into accepted and rejected elements in a single loop. After
+ * that, the two parts are forwarded as batches to the accepted and rejected
+ * streams, respectively. Note that the order of elements is preserved within
+ * each of the two streams.
+ *
+ * @author Michael R&ouml;der (michael.roeder@uni-paderborn.de)
+ *
+ */
+public abstract class ABatchStreamRDFFilter extends AStreamRDFFilter implements BatchStreamRDF {
+
+    private BatchStreamRDF batchAccepted;
+    private BatchStreamRDF batchRejected;
+
+    /**
+     * Buffers that are reused for splitting received batches. They are cleared
+     * after each batch.
+     */
+    private Triple[] acceptedTriples = new Triple[0];
+    private Triple[] rejectedTriples = new Triple[0];
+    private Quad[] acceptedQuads = new Quad[0];
+    private Quad[] rejectedQuads = new Quad[0];
+
+    public ABatchStreamRDFFilter(StreamRDF accepted, StreamRDF rejected) {
+        super(accepted, rejected);
+        batchAccepted = BatchStreamRDFAdapter.wrap(accepted);
+        batchRejected = BatchStreamRDFAdapter.wrap(rejected);
+    }
+
+    public ABatchStreamRDFFilter(StreamRDF accepted) {
+        this(accepted, StreamRDFLib.sinkNull());
+    }
+
+    @Override
+    public void setDecorated(StreamRDF decorated) {
+        super.setDecorated(decorated);
+        batchAccepted = BatchStreamRDFAdapter.wrap(decorated);
+    }
+
+    @Override
+    public void setRejected(StreamRDF rejected) {
+        super.setRejected(rejected);
+        batchRejected = BatchStreamRDFAdapter.wrap(rejected);
+    }
+
+    @Override
+    public void triples(Triple[] batch, int length) {
+        if (acceptedTriples.length < length) {
+            acceptedTriples = new Triple[length];
+            rejectedTriples = new Triple[length];
+        }
+        int acceptedCount = 0;
+        int rejectedCount = 0;
+        Triple triple;
+        for (int i = 0; i < length; ++i) {
+            triple = batch[i];
+            if (filter(triple)) {
+                acceptedTriples[acceptedCount++] = triple;
+            } else {
+                rejectedTriples[rejectedCount++] = triple;
+            }
+        }
+        try {
+            if (acceptedCount > 0) {
+                batchAccepted.triples(acceptedTriples, acceptedCount);
+            }
+            if (rejectedCount > 0) {
+                batchRejected.triples(rejectedTriples, rejectedCount);
+            }
+        } finally {
+            // Do not keep the forwarded elements alive until the next batch
+            Arrays.fill(acceptedTriples, 0, acceptedCount, null);
+            Arrays.fill(rejectedTriples, 0, rejectedCount, null);
+        }
+    }
+
+    @Override
+    public void quads(Quad[] batch, int length) {
+        if (acceptedQuads.length < length) {
+            acceptedQuads = new Quad[length];
+            rejectedQuads = new Quad[length];
+        }
+        int acceptedCount = 0;
+        int rejectedCount = 0;
+        Quad quad;
+        for (int i = 0; i < length; ++i) {
+            quad = batch[i];
+            if (filter(quad)) {
+                acceptedQuads[acceptedCount++] = quad;
+            } else {
+                rejectedQuads[rejectedCount++] = quad;
+            }
+        }
+        try {
+            if (acceptedCount > 0) {
+                batchAccepted.quads(acceptedQuads, acceptedCount);
+            }
+            if (rejectedCount > 0) {
+                batchRejected.quads(rejectedQuads, rejectedCount);
+            }
+        } finally {
+            // Do not keep the forwarded elements alive until the next batch
+            Arrays.fill(acceptedQuads, 0, acceptedCount, null);
+            Arrays.fill(rejectedQuads, 0, rejectedCount, null);
+        }
+    }
+
+}
@@ -17,6 +17,17 @@ public abstract class AStreamRDFDecorator implements StreamRDFDecorator {
         return decorated;
     }
 
+    /**
+     * Replaces the decorated stream. This can be used to rewire an existing chain
+     * of decorators, e.g., to insert additional stages. It must not be called
+     * while the stream is processing data.
+     *
+     * @param decorated the new decorated stream
+     */
+    public void setDecorated(StreamRDF decorated) {
+        this.decorated = decorated;
+    }
+
     @Override
     public void start() {
         decorated.start();
@@ -5,7 +5,7 @@ import org.apache.jena.riot.system.StreamRDF;
 import org.apache.jena.riot.system.StreamRDFLib;
 import org.apache.jena.sparql.core.Quad;
 
-public abstract class AStreamRDFFilter extends AStreamRDFDecorator {
+public abstract class AStreamRDFFilter extends AStreamRDFDecorator implements StreamRDFFilter {
 
     private StreamRDF rejected;
 
@@ -18,10 +18,21 @@ public abstract class AStreamRDFFilter extends AStreamRDFDecorator {
         this(accepted, StreamRDFLib.sinkNull());
     }
 
-    protected StreamRDF getRejected() {
+    @Override
+    public StreamRDF getRejected() {
         return rejected;
     }
 
+    /**
+     * Replaces the stream for rejected elements. It must not be called while the
+     * stream is processing data.
+     *
+     * @param rejected the new stream for rejected elements
+     */
+    public void setRejected(StreamRDF rejected) {
+        this.rejected = rejected;
+    }
+
     protected abstract boolean filter(Triple triple);
 
     protected abstract boolean filter(Quad quad);
@@ -0,0 +1,467 @@
+package org.dice_research.rdf.stream;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import org.apache.jena.graph.Triple;
+import org.apache.jena.riot.system.StreamRDF;
+import org.apache.jena.sparql.core.Quad;
+import org.dice_research.java.concurrent.SpscRingBuffer;
+
+/**
+ * A decorator that decouples the decorated {@link StreamRDF} from the thread
+ * that feeds this decorator. The received triples, quads, prefixes and base
+ * IRIs are collected in batches of a fixed size. Complete batches are handed
+ * over to a consumer thread through a bounded, lock-free ring buffer (see
+ * {@link SpscRingBuffer}). The consumer thread forwards all elements to the
+ * decorated stream in the order in which they have been received. Hence, a
+ * slow sink (e.g., a writer with a compressing output stream) does not stall
+ * the parser.
+ *
+ * <p>
+ * The consumer thread is created with the first call of {@link #start()}. The
+ * decorator counts the calls of {@link #start()} and {@link #finish()}. All
+ * calls are forwarded to the decorated stream in their original order. When the
+ * outermost {@link #finish()} is called, the last batch is handed over and the
+ * call blocks until the consumer thread has forwarded all elements. If the
+ * consumer thread caught an exception, it is rethrown to the producer. A
+ * {@link #finish()} call without a matching {@link #start()} call is rejected.
+ * </p>
+ *
+ * <p>
+ * If the producer fails before the outermost {@link #finish()} call, the
+ * stream should be aborted with {@link #close()}. It discards the elements that
+ * haven't been handed over, terminates the consumer thread and waits for it.
+ * The pending finish events are not forwarded to the decorated stream. If the
+ * stream has been finished properly, {@link #close()} does nothing.
+ * </p>
+ *
+ * <p>
+ * The {@link BackPressure} strategy defines how the producer behaves if the
+ * ring buffer is full.
+ * </p>
+ *
+ * <p>
+ * <b>Note</b> that an instance of this class has to be fed by a single thread.
+ * </p>
+ *
+ * @author Michael R&ouml;der (michael.roeder@uni-paderborn.de)
+ *
+ */
+public class AsyncStreamRDFDecorator extends AStreamRDFDecorator implements AutoCloseable {
+
+    /**
+     * Default number of elements in a single batch.
+     */
+    public static final int DEFAULT_BATCH_SIZE = 1024;
+    /**
+     * Default number of batches that can be buffered.
+     */
+    public static final int DEFAULT_CAPACITY = 64;
+    /**
+     * Time a waiting thread parks before it checks the buffer again.
+     */
+    protected static final long PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+    /**
+     * Number of busy-waiting iterations the consumer performs before it parks
+     * (if {@link BackPressure#SPIN} is not used).
+     */
+    protected static final int CONSUMER_SPIN_TRIES = 100;
+
+    /**
+     * Strategies that define the behavior of the producer in case the buffer is
+     * full.
+     *
+     * @author Michael R&ouml;der (michael.roeder@uni-paderborn.de)
+     *
+     */
+    public static enum BackPressure {
+        /**
+         * The producer is parked until the consumer has freed a slot. This is the
+         * default strategy.
+         */
+        BLOCK,
+        /**
+         * The producer busy-waits until the consumer has freed a slot. The consumer
+         * busy-waits for new batches as well. This reduces the latency but occupies
+         * two cores.
+         */
+        SPIN,
+        /**
+         * Triples and quads of the batch are dropped and counted (see
+         * {@link AsyncStreamRDFDecorator#getNumberOfDroppedElements()}). Start,
+         * finish, prefix and base events are never dropped.
+         */
+        DROP;
+    }
+
+    /**
+     * Marker for a start event.
+     */
+    protected static final Object START_EVENT = new Object();
+    /**
+     * Marker for a finish event.
+     */
+    protected static final Object FINISH_EVENT = new Object();
+    /**
+     * Marker batch telling the consumer to terminate.
+     */
+    protected static final Object[] TERMINATE = new Object[0];
+
+    /**
+     * The number of elements in a single batch.
+     */
+    protected int batchSize;
+    /**
+     * The strategy that is used if the buffer is full.
+     */
+    protected BackPressure backPressure;
+    /**
+     * The buffer that is used to hand over batches to the consumer thread.
+     */
+    protected SpscRingBuffer<Object[]> buffer;
+    /**
+     * The current batch of the producer.
+     */
+    protected Object[] currentBatch;
+    /**
+     * The number of elements in the current batch.
+     */
+    protected int currentBatchSize = 0;
+    /**
+     * The number of {@link #start()} calls that haven't been matched with a
+     * {@link #finish()} call.
+     */
+    protected int depth = 0;
+    /**
+     * The consumer thread.
+     */
+    protected Thread consumer = null;
+    /**
+     * An error that has been caught by the consumer thread.
+     */
+    protected volatile Throwable consumerError = null;
+    /**
+     * The number of triples and quads that have been dropped.
+     */
+    protected AtomicLong droppedElements = new AtomicLong();
+
+    /**
+     * Constructor using the {@link #DEFAULT_BATCH_SIZE}, the
+     * {@link #DEFAULT_CAPACITY} and the {@link BackPressure#BLOCK} strategy.
+     *
+     * @param decorated the decorated stream
+     */
+    public AsyncStreamRDFDecorator(StreamRDF decorated) {
+        this(decorated, DEFAULT_BATCH_SIZE, DEFAULT_CAPACITY, BackPressure.BLOCK);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param decorated    the decorated stream
+     * @param batchSize    the number of elements in a single batch
+     * @param capacity     the number of batches that can be buffered
+     * @param backPressure the strategy that is used if the buffer is full
+     */
+    public AsyncStreamRDFDecorator(StreamRDF decorated, int batchSize, int capacity, BackPressure backPressure) {
+        super(decorated);
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException(
+                    "The given batch size (" + batchSize + ") is smaller than 1. This is not allowed.");
+        }
+        this.batchSize = batchSize;
+        this.backPressure = backPressure;
+        this.buffer = new SpscRingBuffer<>(capacity);
+        this.currentBatch = new Object[batchSize];
+    }
+
+    @Override
+    public void start() {
+        if (depth == 0) {
+            consumerError = null;
+            consumer = new Thread(this::consume, "AsyncStreamRDFDecorator-consumer");
+            consumer.setDaemon(true);
+            consumer.start();
+        }
+        ++depth;
+        add(START_EVENT);
+    }
+
+    @Override
+    public void triple(Triple triple) {
+        add(triple);
+    }
+
+    @Override
+    public void quad(Quad quad) {
+        add(quad);
+    }
+
+    @Override
+    public void base(String base) {
+        add(new BaseEvent(base));
+    }
+
+    @Override
+    public void prefix(String prefix, String iri) {
+        add(new PrefixEvent(prefix, iri));
+    }
+
+    @Override
+    public void finish() {
+        if (depth == 0) {
+            throw new IllegalStateException("The stream has to be started before it can be finished.");
+        }
+        add(FINISH_EVENT);
+        --depth;
+        if (depth == 0) {
+            flush();
+            enqueue(TERMINATE, true);
+            try {
+                consumer.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for the consumer thread.", e);
+            } finally {
+                consumer = null;
+            }
+            checkConsumer();
+        }
+    }
+
+    /**
+     * Aborts the stream if it has not been finished, i.e., the elements that
+     * haven't been handed over to the consumer are discarded and the consumer
+     * thread is terminated. The method blocks until the consumer thread has
+     * forwarded the batches that have already been handed over. An exception of
+     * the consumer thread is not rethrown since this method is meant to be used
+     * after a failure.
+     */
+    @Override
+    public void close() {
+        if (consumer == null) {
+            return;
+        }
+        currentBatch = new Object[batchSize];
+        currentBatchSize = 0;
+        depth = 0;
+        // If the consumer failed, it won't take the end marker anymore
+        while ((consumerError == null) && !buffer.offer(TERMINATE)) {
+            LockSupport.parkNanos(PARK_NANOS);
+        }
+        try {
+            consumer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the consumer thread.", e);
+        } finally {
+            consumer = null;
+        }
+        // Remove the batches a failed consumer left behind
+        while (buffer.poll() != null) {
+            // discard the batch
+        }
+    }
+
+    /**
+     * Adds the given element to the current batch and hands the batch over if it
+     * is full.
+     *
+     * @param element the element that should be added
+     */
+    protected void add(Object element) {
+        if (depth <= 0) {
+            throw new IllegalStateException("The stream has to be started before it can receive data.");
+        }
+        currentBatch[currentBatchSize] = element;
+        ++currentBatchSize;
+        if (currentBatchSize == batchSize) {
+            flush();
+        }
+    }
+
+    /**
+     * Hands the current batch over to the consumer.
+     */
+    protected void flush() {
+        if (currentBatchSize > 0) {
+            Object[] batch = currentBatch;
+            if (currentBatchSize < batchSize) {
+                // Mark the end of the batch
+                batch[currentBatchSize] = null;
+            }
+            currentBatch = new Object[batchSize];
+            currentBatchSize = 0;
+            enqueue(batch, false);
+        }
+    }
+
+    /**
+     * Adds the given batch to the buffer using the configured
+     * {@link BackPressure} strategy.
+     *
+     * @param batch        the batch that should be added
+     * @param neverDropped flag indicating that the batch must not be dropped
+     */
+    protected void enqueue(Object[] batch, boolean neverDropped) {
+        checkConsumer();
+        if (buffer.offer(batch)) {
+            return;
+        }
+        if ((backPressure == BackPressure.DROP) && !neverDropped) {
+            Object[] controlEvents = removeData(batch);
+            if (controlEvents == null) {
+                return;
+            }
+            batch = controlEvents;
+        }
+        while (!buffer.offer(batch)) {
+            checkConsumer();
+            if (backPressure == BackPressure.SPIN) {
+                Thread.onSpinWait();
+            } else {
+                LockSupport.parkNanos(PARK_NANOS);
+            }
+        }
+    }
+
+    /**
+     * Removes all triples and quads from the given batch and counts them as
+     * dropped.
+     *
+     * @param batch the batch that should be dropped
+     * @return a batch with the remaining control events or {@code null} if the
+     *         batch did not contain any control events
+     */
+    protected Object[] removeData(Object[] batch) {
+        Object[] controlEvents = null;
+        int count = 0;
+        for (int i = 0; (i < batch.length) && (batch[i] != null); ++i) {
+            if ((batch[i] instanceof Triple) || (batch[i] instanceof Quad)) {
+                droppedElements.incrementAndGet();
+            } else {
+                if (controlEvents == null) {
+                    controlEvents = new Object[batch.length];
+                }
+                controlEvents[count] = batch[i];
+                ++count;
+            }
+        }
+        return controlEvents;
+    }
+
+    /**
+     * Throws an exception if the consumer thread failed.
+     */
+    protected void checkConsumer() {
+        Throwable error = consumerError;
+        if (error != null) {
+            throw new IllegalStateException("The consumer thread terminated with an exception.", error);
+        }
+    }
+
+    /**
+     * The main loop of the consumer thread.
+     */
+    protected void consume() {
+        StreamRDF decorated = getDecorated();
+        int tries = 0;
+        try {
+            while (true) {
+                Object[] batch = buffer.poll();
+                if (batch == null) {
+                    if (backPressure == BackPressure.SPIN || tries < CONSUMER_SPIN_TRIES) {
+                        ++tries;
+                        Thread.onSpinWait();
+                    } else {
+                        LockSupport.parkNanos(PARK_NANOS);
+                    }
+                } else if (batch == TERMINATE) {
+                    return;
+                } else {
+                    tries = 0;
+                    forward(batch, decorated);
+                }
+            }
+        } catch (Throwable e) {
+            consumerError = e;
+        }
+    }
+
+    /**
+     * Forwards the elements of the given batch to the given stream.
+     *
+     * @param batch  the batch that should be forwarded
+     * @param stream the stream to which the elements are sent
+     */
+    protected void forward(Object[] batch, StreamRDF stream) {
+        Object element;
+        for (int i = 0; i < batch.length; ++i) {
+            element = batch[i];
+            if (element == null) {
+                return;
+            } else if (element instanceof Triple) {
+                stream.triple((Triple) element);
+            } else if (element instanceof Quad) {
+                stream.quad((Quad) element);
+            } else if (element == START_EVENT) {
+                stream.start();
+            } else if (element == FINISH_EVENT) {
+                stream.finish();
+            } else if (element instanceof PrefixEvent) {
+                PrefixEvent event = (PrefixEvent) element;
+                stream.prefix(event.prefix, event.iri);
+            } else if (element instanceof BaseEvent) {
+                stream.base(((BaseEvent) element).base);
+            }
+        }
+    }
+
+    /**
+     * @return the number of triples and quads that have been dropped because the
+     *         buffer was full (only if {@link BackPressure#DROP} is used)
+     */
+    public long getNumberOfDroppedElements() {
+        return droppedElements.get();
+    }
+
+    /**
+     * @return the batch size
+     */
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    /**
+     * @return the back pressure strategy
+     */
+    public BackPressure getBackPressure() {
+        return backPressure;
+    }
+
+    /**
+     * A prefix that has been sent to the stream.
+     */
+    protected static class PrefixEvent {
+        protected final String prefix;
+        protected final String iri;
+
+        public PrefixEvent(String prefix, String iri) {
+            this.prefix = prefix;
+            this.iri = iri;
+        }
+    }
+
+    /**
+     * A base IRI that has been sent to the stream.
+     */
+    protected static class BaseEvent {
+        protected final String base;
+
+        public BaseEvent(String base) {
+            this.base = base;
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package org.dice_research.rdf.stream;
+
+import org.apache.jena.graph.Triple;
+import org.apache.jena.riot.system.StreamRDF;
+import org.apache.jena.sparql.core.Quad;
+
+/**
+ * A {@link StreamRDF} that can receive triples and quads in batches. Handing
+ * over an array of elements with a single call avoids the chain of virtual
+ * calls that is necessary for every single triple if several decorators are
+ * chained. Implementations can process the batch in a tight loop.
+ *
+ * <p>
+ * <b>Note</b> that the given arrays are only valid during the call. The caller
+ * may reuse them afterwards, i.e., implementations must not keep a reference
+ * to a given array. Only the first {@code length} elements of an array belong
+ * to the batch.
+ * </p>
+ *
+ * <p>
+ * The default implementations simply forward every element of the batch to
+ * the single-element methods.
+ * </p>
+ *
+ * @author Michael R&ouml;der (michael.roeder@uni-paderborn.de)
+ *
+ */
+public interface BatchStreamRDF extends StreamRDF {
+
+    /**
+     * Receives a batch of triples.
+     *
+     * @param batch  the array containing the triples
+     * @param length the number of triples in the array
+     */
+    public default void triples(Triple[] batch, int length) {
+        for (int i = 0; i < length; ++i) {
+            triple(batch[i]);
+        }
+    }
+
+    /**
+     * Receives a batch of quads.
+     *
+     * @param batch  the array containing the quads
+     * @param length the number of quads in the array
+     */
+    public default void quads(Quad[] batch, int length) {
+        for (int i = 0; i < length; ++i) {
+            quad(batch[i]);
+        }
+    }
+}
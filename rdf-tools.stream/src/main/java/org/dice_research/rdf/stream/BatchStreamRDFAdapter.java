@@ -0,0 +1,38 @@
+package org.dice_research.rdf.stream;
+
+import org.apache.jena.riot.system.StreamRDF;
+
+/**
+ * An adapter that makes a plain {@link StreamRDF} usable as
+ * {@link BatchStreamRDF}. The elements of a batch are forwarded one by one to
+ * the decorated stream.
+ *
+ * @author Michael R&ouml;der (michael.roeder@uni-paderborn.de)
+ *
+ */
+public class BatchStreamRDFAdapter extends AStreamRDFDecorator implements BatchStreamRDF {
+
+    /**
+     * Constructor.
+     *
+     * @param decorated the stream to which the elements are forwarded
+     */
+    public BatchStreamRDFAdapter(StreamRDF decorated) {
+        super(decorated);
+    }
+
+    /**
+     * Returns the given stream if it already is a {@link BatchStreamRDF}.
+     * Otherwise, it is wrapped into a new adapter.
+     *
+     * @param stream the stream that should be used as {@link BatchStreamRDF}
+     * @return the given stream as {@link BatchStreamRDF}
+     */
+    public static BatchStreamRDF wrap(StreamRDF stream) {
+        if (stream instanceof BatchStreamRDF) {
+            return (BatchStreamRDF) stream;
+        } else {
+            return new BatchStreamRDFAdapter(stream);
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package org.dice_research.rdf.stream;
+
+import org.apache.jena.graph.Triple;
+import org.apache.jena.riot.system.StreamRDF;
+import org.apache.jena.sparql.core.Quad;
+
+/**
+ * An adapter that receives single triples and quads and forwards them in
+ * batches to the decorated {@link BatchStreamRDF}. The current batch is
+ * forwarded if it is full or if any other event (e.g., a prefix, a quad after a
+ * triple or the end of the stream) is received. Hence, the order of all
+ * elements is preserved.
+ *
+ * @author Michael R&ouml;der (michael.roeder@uni-paderborn.de)
+ *
+ */
+public class BatchingStreamRDF extends AStreamRDFDecorator {
+
+    /**
+     * Default number of elements in a single batch.
+     */
+    public static final int DEFAULT_BATCH_SIZE = 256;
+
+    /**
+     * The stream that receives the batches.
+     */
+    protected BatchStreamRDF batchDecorated;
+    /**
+     * The buffer for triples.
+     */
+    protected Triple[] tripleBatch;
+    /**
+     * The number of triples in {@link #tripleBatch}.
+     */
+    protected int tripleCount = 0;
+    /**
+     * The buffer for quads.
+     */
+    protected Quad[] quadBatch;
+    /**
+     * The number of quads in {@link #quadBatch}.
+     */
+    protected int quadCount = 0;
+
+    /**
+     * Constructor using the {@link #DEFAULT_BATCH_SIZE}.
+     *
+     * @param decorated the stream that receives the batches
+     */
+    public BatchingStreamRDF(BatchStreamRDF decorated) {
+        this(decorated, DEFAULT_BATCH_SIZE);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param decorated the stream that receives the batches
+     * @param batchSize the maximum number of elements in a single batch
+     */
+    public BatchingStreamRDF(BatchStreamRDF decorated, int batchSize) {
+        super(decorated);
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException(
+                    "The given batch size (" + batchSize + ") is smaller than 1. This is not allowed.");
+        }
+        this.batchDecorated = decorated;
+        this.tripleBatch = new Triple[batchSize];
+        this.quadBatch = new Quad[batchSize];
+    }
+
+    /**
+     * Replaces the decorated stream. If the new stream is not a
+     * {@link BatchStreamRDF}, the elements of a batch are forwarded one by one.
+     */
+    @Override
+    public void setDecorated(StreamRDF decorated) {
+        super.setDecorated(decorated);
+        batchDecorated = BatchStreamRDFAdapter.wrap(decorated);
+    }
+
+    @Override
+    public void start() {
+        flush();
+        super.start();
+    }
+
+    @Override
+    public void triple(Triple triple) {
+        if (quadCount > 0) {
+            flushQuads();
+        }
+        tripleBatch[tripleCount] = triple;
+        ++tripleCount;
+        if (tripleCount == tripleBatch.length) {
+            flushTriples();
+        }
+    }
+
+    @Override
+    public void quad(Quad quad) {
+        if (tripleCount > 0) {
+            flushTriples();
+        }
+        quadBatch[quadCount] = quad;
+        ++quadCount;
+        if (quadCount == quadBatch.length) {
+            flushQuads();
+        }
+    }
+
+    @Override
+    public void base(String base) {
+        flush();
+        super.base(base);
+    }
+
+    @Override
+    public void prefix(String prefix, String iri) {
+        flush();
+        super.prefix(prefix, iri);
+    }
+
+    @Override
+    public void finish() {
+        flush();
+        super.finish();
+    }
+
+    /**
+     * Forwards all buffered elements.
+     */
+    public void flush() {
+        flushTriples();
+        flushQuads();
+    }
+
+    protected void flushTriples() {
+        if (tripleCount > 0) {
+            batchDecorated.triples(tripleBatch, tripleCount);
+            tripleCount = 0;
+        }
+    }
+
+    protected void flushQuads() {
+        if (quadCount > 0) {
+            batchDecorated.quads(quadBatch, quadCount);
+            quadCount = 0;
+        }
+    }
+}
@@ -0,0 +1,192 @@
+package org.dice_research.rdf.stream;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.Triple;
+import org.apache.jena.riot.system.StreamRDF;
+import org.apache.jena.riot.system.StreamRDFLib;
+import org.apache.jena.sparql.core.Quad;
+
+/**
+ * A {@link StreamRDF} that splits the received stream into several streams. A
+ * key is derived from every triple (e.g., its predicate) and the triple is sent
+ * to the stream that has been registered for this key. Triples with a key for
+ * which no stream has been registered are sent to the default route. In
+ * contrast to a chain of {@link AStreamRDFFilter} instances, a triple is routed
+ * with a single hash lookup independent of the number of routes.
+ *
+ * <p>
+ * Quads are routed based on their triple (see {@link Quad#asTriple()}). The
+ * {@link #start()}, {@link #finish()}, {@link #base(String)} and
+ * {@link #prefix(String, String)} calls are forwarded to every distinct stream
+ * (including the default route) exactly once.
+ * </p>
+ *
+ * <p>
+ * Example:
+ * </p>
+ *
+ * <pre>
+ * StreamRDF stream = RoutingStreamRDF.byPredicate(otherStream).addRoute(RDF.subject.asNode(), subStream)
+ *         .addRoute(RDF.predicate.asNode(), predStream).addRoute(RDF.object.asNode(), objStream);
+ * </pre>
+ *
+ * @author Michael R&ouml;der (michael.roeder@uni-paderborn.de)
+ *
+ * @param <K> the type of the keys
+ */
+public class RoutingStreamRDF<K> implements StreamRDF {
+
+    /**
+     * The function that derives the key of a triple.
+     */
+    protected Function<Triple, K> keyFunction;
+    /**
+     * The registered routes.
+     */
+    protected Map<K, StreamRDF> routes = new HashMap<>();
+    /**
+     * The stream for triples without a registered route.
+     */
+    protected StreamRDF defaultRoute;
+    /**
+     * All distinct streams (including the default route).
+     */
+    protected StreamRDF[] streams;
+
+    /**
+     * Constructor. Triples without a registered route are dropped.
+     *
+     * @param keyFunction the function that derives the key of a triple
+     */
+    public RoutingStreamRDF(Function<Triple, K> keyFunction) {
+        this(keyFunction, StreamRDFLib.sinkNull());
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param keyFunction  the function that derives the key of a triple
+     * @param defaultRoute the stream for triples without a registered route
+     */
+    public RoutingStreamRDF(Function<Triple, K> keyFunction, StreamRDF defaultRoute) {
+        if (keyFunction == null) {
+            throw new IllegalArgumentException("The given key function is null. This is not allowed.");
+        }
+        if (defaultRoute == null) {
+            throw new IllegalArgumentException("The given default route is null. This is not allowed.");
+        }
+        this.keyFunction = keyFunction;
+        this.defaultRoute = defaultRoute;
+        updateStreams();
+    }
+
+    /**
+     * Creates a router that routes triples based on their predicate.
+     *
+     * @param defaultRoute the stream for triples without a registered route
+     * @return the router
+     */
+    public static RoutingStreamRDF<Node> byPredicate(StreamRDF defaultRoute) {
+        return new RoutingStreamRDF<>(Triple::getPredicate, defaultRoute);
+    }
+
+    /**
+     * Registers the given stream for the given key. A previously registered
+     * stream for the same key is replaced. Several keys may share the same
+     * stream. Routes must not be added while the stream is processing data.
+     *
+     * @param key    the key
+     * @param stream the stream to which triples with the given key are sent
+     * @return this router
+     */
+    public RoutingStreamRDF<K> addRoute(K key, StreamRDF stream) {
+        if (stream == null) {
+            throw new IllegalArgumentException("The given stream is null. This is not allowed.");
+        }
+        routes.put(key, stream);
+        updateStreams();
+        return this;
+    }
+
+    /**
+     * Updates the array of distinct streams.
+     */
+    protected void updateStreams() {
+        Set<StreamRDF> distinct = Collections.newSetFromMap(new IdentityHashMap<>());
+        distinct.addAll(routes.values());
+        distinct.add(defaultRoute);
+        streams = distinct.toArray(new StreamRDF[distinct.size()]);
+    }
+
+    /**
+     * Determines the stream for the given triple.
+     *
+     * @param triple the triple that should be routed
+     * @return the stream to which the triple should be sent
+     */
+    protected StreamRDF route(Triple triple) {
+        StreamRDF stream = routes.get(keyFunction.apply(triple));
+        return (stream == null) ? defaultRoute : stream;
+    }
+
+    @Override
+    public void start() {
+        for (int i = 0; i < streams.length; ++i) {
+            streams[i].start();
+        }
+    }
+
+    @Override
+    public void triple(Triple triple) {
+        route(triple).triple(triple);
+    }
+
+    @Override
+    public void quad(Quad quad) {
+        route(quad.asTriple()).quad(quad);
+    }
+
+    @Override
+    public void base(String base) {
+        for (int i = 0; i < streams.length; ++i) {
+            streams[i].base(base);
+        }
+    }
+
+    @Override
+    public void prefix(String prefix, String iri) {
+        for (int i = 0; i < streams.length; ++i) {
+            streams[i].prefix(prefix, iri);
+        }
+    }
+
+    @Override
+    public void finish() {
+        for (int i = 0; i < streams.length; ++i) {
+            streams[i].finish();
+        }
+    }
+
+    /**
+     * @return the stream for triples without a registered route
+     */
+    public StreamRDF getDefaultRoute() {
+        return defaultRoute;
+    }
+
+    /**
+     * @param key a key
+     * @return the stream registered for the given key or {@code null} if there is
+     *         no such route
+     */
+    public StreamRDF getRoute(K key) {
+        return routes.get(key);
+    }
+}
@@ -0,0 +1,81 @@
+package org.dice_research.rdf.stream.collect;
+
+import java.util.function.Function;
+
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.Triple;
+import org.apache.jena.riot.system.StreamRDFBase;
+import org.dice_research.java.sketch.BlockedBloomFilter;
+import org.dice_research.rdf.stream.util.NodeHashing;
+
+/**
+ * A collector that adds the nodes selected by the given {@link #nodeFunction}
+ * to a {@link BlockedBloomFilter}. It can be used to build the filter of a
+ * {@link org.dice_research.rdf.stream.filter.node.BloomFilterNodeFilter} in its
+ * own streaming pass.
+ * 
+ * @author Michael R&ouml;der (michael.roeder@uni-paderborn.de)
+ *
+ */
+public class BloomFilterCollector extends StreamRDFBase {
+
+    /**
+     * The function which is used to select the node that should be collected
+     * from a triple.
+     */
+    protected Function<Triple, Node> nodeFunction;
+    /**
+     * The filter to which the collected nodes are added.
+     */
+    protected BlockedBloomFilter filter;
+
+    /**
+     * Constructor.
+     * 
+     * @param nodeFunction the function which is used to select the node that
+     *                     should be collected from a triple.
+     * @param filter       the filter to which the collected nodes are added.
+     */
+    public BloomFilterCollector(Function<Triple, Node> nodeFunction, BlockedBloomFilter filter) {
+        super();
+        this.nodeFunction = nodeFunction;
+        this.filter = filter;
+    }
+
+    @Override
+    public void triple(Triple triple) {
+        Node node = nodeFunction.apply(triple);
+        if (node != null) {
+            filter.put(NodeHashing.hash64(node));
+        }
+    }
+
+    /**
+     * @return the nodeFunction
+     */
+    public Function<Triple, Node> getNodeFunction() {
+        return nodeFunction;
+    }
+
+    /**
+     * @param nodeFunction the nodeFunction to set
+     */
+    public void setNodeFunction(Function<Triple, Node> nodeFunction) {
+        this.nodeFunction = nodeFunction;
+    }
+
+    /**
+     * @return the filter
+     */
+    public BlockedBloomFilter getFilter() {
+        return filter;
+    }
+
+    /**
+     * @param filter the filter to set
+     */
+    public void setFilter(BlockedBloomFilter filter) {
+        this.filter = filter;
+    }
+
+}
@@ -0,0 +1,139 @@
+package org.dice_research.rdf.stream.collect;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Function;
+
+import org.apache.jena.graph.Triple;
+
+/**
+ * A thread-safe variant of the {@link RDFStreamCollector}. Each thread that
+ * calls {@link #triple(Triple)} gets its own local buffer. A full buffer is
+ * added to the (not necessarily thread-safe) collection while holding its
+ * monitor. Hence, the threads only compete for the collection once per
+ * {@link #bufferSize} elements.
+ *
+ * <p>
+ * <b>Memory/throughput trade-off:</b> every thread buffers up to
+ * {@link #bufferSize} elements, i.e., up to
+ * {@code numberOfThreads * bufferSize} elements can be held in addition to the
+ * collection. Larger buffers reduce the contention on the collection.
+ * </p>
+ *
+ * <p>
+ * The buffers are flushed when {@link #finish()} or {@link #flush()} is called.
+ * <b>Note</b> that this has to happen after all threads have stopped sending
+ * triples and the calling thread has to see their writes (e.g., by joining
+ * them or by waiting for their futures). The collection should only be read
+ * after that.
+ * </p>
+ *
+ * @author Michael R&ouml;der (michael.roeder@uni-paderborn.de)
+ *
+ * @param <T> the class of the value that should be stored in the collection
+ */
+public class ConcurrentRDFStreamCollector<T> extends RDFStreamCollector<T> {
+
+    /**
+     * The default number of elements a thread buffers before adding them to the
+     * collection.
+     */
+    public static final int DEFAULT_BUFFER_SIZE = 1024;
+
+    /**
+     * The number of elements a thread buffers before adding them to the
+     * collection.
+     */
+    protected final int bufferSize;
+    /**
+     * The local buffer of the current thread.
+     */
+    protected final ThreadLocal<List<T>> localBuffer;
+    /**
+     * All buffers that have been created so far.
+     */
+    protected final Queue<List<T>> buffers = new ConcurrentLinkedQueue<>();
+
+    /**
+     * Constructor using the {@link #DEFAULT_BUFFER_SIZE}.
+     * 
+     * @param transformFunction The function which is used to transform a triple
+     *                          into the collected data.
+     * @param collectedData     The collection that is used to store the collected
+     *                          data.
+     */
+    public ConcurrentRDFStreamCollector(Function<Triple, T> transformFunction, Collection<T> collectedData) {
+        this(transformFunction, collectedData, DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     * Constructor.
+     * 
+     * @param transformFunction The function which is used to transform a triple
+     *                          into the collected data.
+     * @param collectedData     The collection that is used to store the collected
+     *                          data.
+     * @param bufferSize        The number of elements a thread buffers before
+     *                          adding them to the collection.
+     */
+    public ConcurrentRDFStreamCollector(Function<Triple, T> transformFunction, Collection<T> collectedData,
+            int bufferSize) {
+        super(transformFunction, collectedData);
+        if (bufferSize <= 0) {
+            throw new IllegalArgumentException(
+                    "The given buffer size (" + bufferSize + ") is smaller than 1. This is not allowed.");
+        }
+        this.bufferSize = bufferSize;
+        localBuffer = ThreadLocal.withInitial(() -> {
+            List<T> buffer = new ArrayList<>(this.bufferSize);
+            buffers.add(buffer);
+            return buffer;
+        });
+    }
+
+    @Override
+    public void triple(Triple triple) {
+        List<T> buffer = localBuffer.get();
+        buffer.add(transformFunction.apply(triple));
+        if (buffer.size() >= bufferSize) {
+            addToCollection(buffer);
+        }
+    }
+
+    protected void addToCollection(List<T> buffer) {
+        Collection<T> collection = collectedData;
+        synchronized (collection) {
+            collection.addAll(buffer);
+        }
+        buffer.clear();
+    }
+
+    @Override
+    public void finish() {
+        flush();
+    }
+
+    /**
+     * Adds the content of all local buffers to the collection. It must not be
+     * called while other threads are still sending triples.
+     */
+    public void flush() {
+        for (List<T> buffer : buffers) {
+            if (!buffer.isEmpty()) {
+                addToCollection(buffer);
+            }
+        }
+    }
+
+    /**
+     * @return the number of elements a thread buffers before adding them to the
+     *         collection
+     */
+    public int getBufferSize() {
+        return bufferSize;
+    }
+
+}
@@ -0,0 +1,94 @@
+package org.dice_research.rdf.stream.collect;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import org.apache.jena.graph.Triple;
+
+/**
+ * A thread-safe variant of the {@link RDFStreamGroupByCollector}. The groups
+ * are stored in a {@link ConcurrentMap} and a value is added within
+ * {@link ConcurrentMap#compute(Object, java.util.function.BiFunction)}. For a
+ * {@link ConcurrentHashMap}, this locks only the bin of the key (i.e., the map
+ * behaves like a lock-striped map). Hence, the collections that are used to
+ * store the values do not have to be thread-safe.
+ *
+ * <p>
+ * <b>Memory/throughput trade-off:</b> the collector does not need any memory in
+ * addition to the map and the collected data can be read at any time. However,
+ * threads that add values to the same key (e.g., many triples with the same
+ * predicate) are serialized. If the data has such hot keys, the
+ * {@link ThreadLocalRDFStreamGroupByCollector} scales better.
+ * </p>
+ *
+ * @author Michael R&ouml;der (michael.roeder@uni-paderborn.de)
+ *
+ * @param <K> the class of the key
+ * @param <V> the class of the value
+ * @param <C> the class of the collection that is used to store values that
+ *            share the same key
+ */
+public class ConcurrentRDFStreamGroupByCollector<K, V, C extends Collection<V>>
+        extends RDFStreamGroupByCollector<K, V, C> {
+
+    /**
+     * Constructor. The class uses a {@link ConcurrentHashMap} to collect the data.
+     * 
+     * @param keyFunction        the function which is used to get the key from the
+     *                           given triple.
+     * @param valueFunction      the function which is used to get the value from
+     *                           the given triple.
+     * @param collectionSupplier the supplier which is used to generate new
+     *                           {@link Collection} instances.
+     */
+    public ConcurrentRDFStreamGroupByCollector(Function<Triple, K> keyFunction, Function<Triple, V> valueFunction,
+            Supplier<C> collectionSupplier) {
+        this(keyFunction, valueFunction, collectionSupplier, new ConcurrentHashMap<>());
+    }
+
+    /**
+     * Constructor.
+     * 
+     * @param keyFunction        the function which is used to get the key from the
+     *                           given triple.
+     * @param valueFunction      the function which is used to get the value from
+     *                           the given triple.
+     * @param collectionSupplier the supplier which is used to generate new
+     *                           {@link Collection} instances.
+     * @param collectedData      the concurrent map that is used to store the
+     *                           grouped data.
+     */
+    public ConcurrentRDFStreamGroupByCollector(Function<Triple, K> keyFunction, Function<Triple, V> valueFunction,
+            Supplier<C> collectionSupplier, ConcurrentMap<K, C> collectedData) {
+        super(keyFunction, valueFunction, collectionSupplier, collectedData);
+    }
+
+    @Override
+    public void triple(Triple triple) {
+        K key = keyFunction.apply(triple);
+        V value = valueFunction.apply(triple);
+        collectedData.compute(key, (k, collection) -> {
+            if (collection == null) {
+                collection = collectionSupplier.get();
+            }
+            collection.add(value);
+            return collection;
+        });
+    }
+
+    /**
+     * @param collectedData the collectedData to set. It has to be a
+     *                      {@link ConcurrentMap}.
+     */
+    @Override
+    public void setCollectedData(Map<K, C> collectedData) {
+        if (!(collectedData instanceof ConcurrentMap)) {
+            throw new IllegalArgumentException("The given map has to be a ConcurrentMap.");
+        }
+        super.setCollectedData(collectedData);
+    }
+}
@@ -0,0 +1,157 @@
+package org.dice_research.rdf.stream.collect;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.function.Function;
+
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.Triple;
+import org.apache.jena.riot.system.StreamRDFBase;
+import org.dice_research.java.sketch.HyperLogLog;
+import org.dice_research.rdf.stream.util.NodeHashing;
+
+/**
+ * This class estimates the number of distinct nodes per key (e.g., the number
+ * of distinct subjects per predicate) using one {@link HyperLogLog} sketch per
+ * key. In contrast to collecting the nodes in sets, the memory consumption per
+ * key is fixed (4 KiB with the default precision) and does not depend on the
+ * number of distinct nodes. A constant key function can be used to count the
+ * distinct nodes of the whole stream.
+ *
+ * <p>
+ * Collectors that have been fed by different threads can be merged using
+ * {@link #merge(DistinctCountCollector)}.
+ * </p>
+ *
+ * @author Michael R&ouml;der (michael.roeder@uni-paderborn.de)
+ *
+ * @param <K> the class of the key
+ */
+public class DistinctCountCollector<K> extends StreamRDFBase {
+
+    /**
+     * The function which is used to get the key from the given triple. If it
+     * returns {@code null}, the triple is ignored.
+     */
+    protected Function<Triple, K> keyFunction;
+    /**
+     * The function which is used to get the node that should be counted from the
+     * given triple.
+     */
+    protected Function<Triple, Node> nodeFunction;
+    /**
+     * The precision of the created sketches.
+     */
+    protected int precision;
+    /**
+     * The sketches of the keys.
+     */
+    protected Map<K, HyperLogLog> sketches = new HashMap<>();
+
+    /**
+     * Constructor using the {@link HyperLogLog#DEFAULT_PRECISION}.
+     * 
+     * @param keyFunction  the function which is used to get the key from the
+     *                     given triple.
+     * @param nodeFunction the function which is used to get the node that should
+     *                     be counted from the given triple.
+     */
+    public DistinctCountCollector(Function<Triple, K> keyFunction, Function<Triple, Node> nodeFunction) {
+        this(keyFunction, nodeFunction, HyperLogLog.DEFAULT_PRECISION);
+    }
+
+    /**
+     * Constructor.
+     * 
+     * @param keyFunction  the function which is used to get the key from the
+     *                     given triple.
+     * @param nodeFunction the function which is used to get the node that should
+     *                     be counted from the given triple.
+     * @param precision    the precision of the sketches (see
+     *                     {@link HyperLogLog#HyperLogLog(int)})
+     */
+    public DistinctCountCollector(Function<Triple, K> keyFunction, Function<Triple, Node> nodeFunction,
+            int precision) {
+        super();
+        this.keyFunction = keyFunction;
+        this.nodeFunction = nodeFunction;
+        this.precision = precision;
+    }
+
+    @Override
+    public void triple(Triple triple) {
+        K key = keyFunction.apply(triple);
+        if (key != null) {
+            sketches.computeIfAbsent(key, k -> new HyperLogLog(precision))
+                    .add(NodeHashing.hash64(nodeFunction.apply(triple)));
+        }
+    }
+
+    /**
+     * @param key the key
+     * @return the estimated number of distinct nodes of the given key
+     */
+    public long getEstimate(K key) {
+        HyperLogLog sketch = sketches.get(key);
+        return (sketch == null) ? 0 : sketch.estimate();
+    }
+
+    /**
+     * @return the estimated numbers of distinct nodes of all keys
+     */
+    public Map<K, Long> getEstimates() {
+        Map<K, Long> estimates = new HashMap<>();
+        for (Entry<K, HyperLogLog> entry : sketches.entrySet()) {
+            estimates.put(entry.getKey(), entry.getValue().estimate());
+        }
+        return estimates;
+    }
+
+    /**
+     * Merges the sketches of the given collector into the sketches of this
+     * collector.
+     * 
+     * @param other the collector that should be merged into this collector
+     */
+    public void merge(DistinctCountCollector<K> other) {
+        for (Entry<K, HyperLogLog> entry : other.sketches.entrySet()) {
+            sketches.computeIfAbsent(entry.getKey(), k -> new HyperLogLog(precision)).merge(entry.getValue());
+        }
+    }
+
+    /**
+     * @return the sketches of the keys
+     */
+    public Map<K, HyperLogLog> getSketches() {
+        return sketches;
+    }
+
+    /**
+     * @return the keyFunction
+     */
+    public Function<Triple, K> getKeyFunction() {
+        return keyFunction;
+    }
+
+    /**
+     * @param keyFunction the keyFunction to set
+     */
+    public void setKeyFunction(Function<Triple, K> keyFunction) {
+        this.keyFunction = keyFunction;
+    }
+
+    /**
+     * @return the nodeFunction
+     */
+    public Function<Triple, Node> getNodeFunction() {
+        return nodeFunction;
+    }
+
+    /**
+     * @param nodeFunction the nodeFunction to set
+     */
+    public void setNodeFunction(Function<Triple, Node> nodeFunction) {
+        this.nodeFunction = nodeFunction;
+    }
+}
@@ -0,0 +1,190 @@
+package org.dice_research.rdf.stream.collect;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.SplittableRandom;
+import java.util.function.Function;
+import java.util.function.ToDoubleFunction;
+
+import org.apache.jena.graph.Triple;
+import org.apache.jena.riot.system.StreamRDFBase;
+import org.dice_research.java.sketch.ReservoirSample;
+
+/**
+ * This class draws a random sample of k elements per key (e.g., k statements
+ * per predicate) from the given RDF stream in a single pass. It is the sampling
+ * counterpart of the {@link RDFStreamGroupByCollector}: instead of collecting
+ * all values of a key, it keeps one {@link ReservoirSample} per key. Hence, the
+ * memory consumption is O(k) per key, independent of the number of values. If
+ * a {@link #weightFunction} is given, the probability of a value grows with its
+ * weight.
+ *
+ * <p>
+ * Collectors that have been fed by different threads can be merged using
+ * {@link #merge(GroupedReservoirSamplingCollector)}. Each of them should use a
+ * different seed.
+ * </p>
+ *
+ * @author Michael R&ouml;der (michael.roeder@uni-paderborn.de)
+ *
+ * @param <K> the class of the key
+ * @param <T> the class of the sampled values
+ */
+public class GroupedReservoirSamplingCollector<K, T> extends StreamRDFBase {
+
+    /**
+     * The function which is used to get the key from the given triple. If it
+     * returns {@code null}, the triple is ignored.
+     */
+    protected Function<Triple, K> keyFunction;
+    /**
+     * The function which is used to get the value from the given triple.
+     */
+    protected Function<Triple, T> valueFunction;
+    /**
+     * The (optional) function which is used to determine the weight of a triple.
+     * If it is {@code null}, all triples have the same weight.
+     */
+    protected ToDoubleFunction<Triple> weightFunction;
+    /**
+     * The size of the sample of a single key.
+     */
+    protected int k;
+    /**
+     * The random number generator that is shared by the samples.
+     */
+    protected SplittableRandom random;
+    /**
+     * The samples of the keys.
+     */
+    protected Map<K, ReservoirSample<T>> samples = new HashMap<>();
+
+    /**
+     * Constructor for uniform samples.
+     * 
+     * @param keyFunction   the function which is used to get the key from the
+     *                      given triple.
+     * @param valueFunction the function which is used to get the value from the
+     *                      given triple.
+     * @param k             the size of the sample of a single key
+     * @param seed          the seed of the random number generator
+     */
+    public GroupedReservoirSamplingCollector(Function<Triple, K> keyFunction, Function<Triple, T> valueFunction,
+            int k, long seed) {
+        this(keyFunction, valueFunction, null, k, seed);
+    }
+
+    /**
+     * Constructor.
+     * 
+     * @param keyFunction    the function which is used to get the key from the
+     *                       given triple.
+     * @param valueFunction  the function which is used to get the value from the
+     *                       given triple.
+     * @param weightFunction the function which is used to determine the weight of
+     *                       a triple or {@code null} if all triples should have
+     *                       the same weight.
+     * @param k              the size of the sample of a single key
+     * @param seed           the seed of the random number generator
+     */
+    public GroupedReservoirSamplingCollector(Function<Triple, K> keyFunction, Function<Triple, T> valueFunction,
+            ToDoubleFunction<Triple> weightFunction, int k, long seed) {
+        super();
+        if (k <= 0) {
+            throw new IllegalArgumentException("The given k (" + k + ") is smaller than 1. This is not allowed.");
+        }
+        this.keyFunction = keyFunction;
+        this.valueFunction = valueFunction;
+        this.weightFunction = weightFunction;
+        this.k = k;
+        this.random = new SplittableRandom(seed);
+    }
+
+    @Override
+    public void triple(Triple triple) {
+        K key = keyFunction.apply(triple);
+        if (key != null) {
+            ReservoirSample<T> sample = samples.computeIfAbsent(key, x -> new ReservoirSample<>(k, random));
+            if (weightFunction == null) {
+                sample.add(valueFunction.apply(triple));
+            } else {
+                sample.add(valueFunction.apply(triple), weightFunction.applyAsDouble(triple));
+            }
+        }
+    }
+
+    /**
+     * Merges the samples of the given collector into the samples of this
+     * collector.
+     * 
+     * @param other the collector that should be merged into this collector
+     */
+    public void merge(GroupedReservoirSamplingCollector<K, T> other) {
+        for (Entry<K, ReservoirSample<T>> entry : other.samples.entrySet()) {
+            samples.computeIfAbsent(entry.getKey(), x -> new ReservoirSample<>(k, random)).merge(entry.getValue());
+        }
+    }
+
+    /**
+     * @return the sampled values of all keys
+     */
+    public Map<K, List<T>> getSampledValues() {
+        Map<K, List<T>> result = new HashMap<>();
+        for (Entry<K, ReservoirSample<T>> entry : samples.entrySet()) {
+            result.put(entry.getKey(), entry.getValue().getSample());
+        }
+        return result;
+    }
+
+    /**
+     * @return the samples of the keys
+     */
+    public Map<K, ReservoirSample<T>> getSamples() {
+        return samples;
+    }
+
+    /**
+     * @return the keyFunction
+     */
+    public Function<Triple, K> getKeyFunction() {
+        return keyFunction;
+    }
+
+    /**
+     * @param keyFunction the keyFunction to set
+     */
+    public void setKeyFunction(Function<Triple, K> keyFunction) {
+        this.keyFunction = keyFunction;
+    }
+
+    /**
+     * @return the valueFunction
+     */
+    public Function<Triple, T> getValueFunction() {
+        return valueFunction;
+    }
+
+    /**
+     * @param valueFunction the valueFunction to set
+     */
+    public void setValueFunction(Function<Triple, T> valueFunction) {
+        this.valueFunction = valueFunction;
+    }
+
+    /**
+     * @return the weightFunction
+     */
+    public ToDoubleFunction<Triple> getWeightFunction() {
+        return weightFunction;
+    }
+
+    /**
+     * @param weightFunction the weightFunction to set
+     */
+    public void setWeightFunction(ToDoubleFunction<Triple> weightFunction) {
+        this.weightFunction = weightFunction;
+    }
+
+}
@@ -0,0 +1,128 @@
+package org.dice_research.rdf.stream.collect;
+
+import java.util.List;
+import java.util.Map.Entry;
+import java.util.function.Function;
+
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.Triple;
+import org.apache.jena.riot.system.StreamRDFBase;
+import org.dice_research.java.sketch.CountMinSketch;
+import org.dice_research.java.sketch.HeavyHitters;
+import org.dice_research.rdf.stream.util.NodeHashing;
+
+/**
+ * This class determines the (approximately) k most frequent nodes of a stream,
+ * e.g., the most frequent predicates or, in combination with a filter for
+ * rdf:type triples, the classes with the most instances. The frequencies are
+ * estimated with a {@link CountMinSketch} (see {@link HeavyHitters}), i.e., the
+ * memory consumption is fixed and does not depend on the number of distinct
+ * nodes.
+ *
+ * <p>
+ * Collectors that have been fed by different threads can be merged using
+ * {@link #merge(HeavyHitterCollector)} if they have been created with the same
+ * parameters.
+ * </p>
+ *
+ * @author Michael R&ouml;der (michael.roeder@uni-paderborn.de)
+ *
+ */
+public class HeavyHitterCollector extends StreamRDFBase {
+
+    /**
+     * The default maximum overestimation relative to the number of triples.
+     */
+    public static final double DEFAULT_EPSILON = 0.001;
+    /**
+     * The default probability with which the estimation error may be larger than
+     * epsilon.
+     */
+    public static final double DEFAULT_DELTA = 0.01;
+
+    /**
+     * The function which is used to get the node that should be counted from the
+     * given triple. If it returns {@code null}, the triple is ignored.
+     */
+    protected Function<Triple, Node> nodeFunction;
+    /**
+     * The heavy hitters of the stream.
+     */
+    protected HeavyHitters<Node> heavyHitters;
+
+    /**
+     * Constructor using the {@link #DEFAULT_EPSILON} and {@link #DEFAULT_DELTA}.
+     * 
+     * @param nodeFunction the function which is used to get the node that should
+     *                     be counted from the given triple.
+     * @param k            the number of most frequent nodes that should be
+     *                     determined
+     */
+    public HeavyHitterCollector(Function<Triple, Node> nodeFunction, int k) {
+        this(nodeFunction, k, DEFAULT_EPSILON, DEFAULT_DELTA);
+    }
+
+    /**
+     * Constructor.
+     * 
+     * @param nodeFunction the function which is used to get the node that should
+     *                     be counted from the given triple.
+     * @param k            the number of most frequent nodes that should be
+     *                     determined
+     * @param epsilon      the maximum overestimation relative to the number of
+     *                     triples
+     * @param delta        the probability with which the estimation error may be
+     *                     larger than epsilon
+     */
+    public HeavyHitterCollector(Function<Triple, Node> nodeFunction, int k, double epsilon, double delta) {
+        super();
+        this.nodeFunction = nodeFunction;
+        this.heavyHitters = new HeavyHitters<>(k, CountMinSketch.create(epsilon, delta), NodeHashing::hash64);
+    }
+
+    @Override
+    public void triple(Triple triple) {
+        Node node = nodeFunction.apply(triple);
+        if (node != null) {
+            heavyHitters.add(node);
+        }
+    }
+
+    /**
+     * @return the (at most k) most frequent nodes together with their estimated
+     *         frequencies sorted by descending frequency
+     */
+    public List<Entry<Node, Long>> getTopK() {
+        return heavyHitters.getTopK();
+    }
+
+    /**
+     * Merges the given collector into this collector.
+     * 
+     * @param other the collector that should be merged into this collector
+     */
+    public void merge(HeavyHitterCollector other) {
+        heavyHitters.merge(other.heavyHitters);
+    }
+
+    /**
+     * @return the heavy hitters of the stream
+     */
+    public HeavyHitters<Node> getHeavyHitters() {
+        return heavyHitters;
+    }
+
+    /**
+     * @return the nodeFunction
+     */
+    public Function<Triple, Node> getNodeFunction() {
+        return nodeFunction;
+    }
+
+    /**
+     * @param nodeFunction the nodeFunction to set
+     */
+    public void setNodeFunction(Function<Triple, Node> nodeFunction) {
+        this.nodeFunction = nodeFunction;
+    }
+}
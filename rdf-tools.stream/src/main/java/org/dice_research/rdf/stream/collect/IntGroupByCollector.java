@@ -0,0 +1,210 @@
+package org.dice_research.rdf.stream.collect;
+
+import java.util.function.ObjIntConsumer;
+import java.util.function.Supplier;
+import java.util.function.ToIntFunction;
+
+import org.apache.jena.graph.Triple;
+import org.apache.jena.riot.system.StreamRDFBase;
+
+import com.carrotsearch.hppc.IntArrayList;
+import com.carrotsearch.hppc.IntContainer;
+import com.carrotsearch.hppc.IntObjectOpenHashMap;
+import com.carrotsearch.hppc.IntOpenHashSet;
+
+/**
+ * A primitive variant of the {@link RDFStreamGroupByCollector} for int keys and
+ * values (e.g., IDs of a
+ * {@link org.dice_research.rdf.stream.dict.NodeDictionary}). The groups are
+ * stored in an open-addressing {@link IntObjectOpenHashMap}. In contrast to the
+ * {@link RDFStreamGroupByCollector}, an insertion for an existing key needs a
+ * single hash lookup and no value is boxed.
+ * 
+ * <p>
+ * Use {@link #sets(ToIntFunction, ToIntFunction)} or
+ * {@link #lists(ToIntFunction, ToIntFunction)} to create a collector for the
+ * two most common collection types.
+ * </p>
+ * 
+ * @author Michael R&ouml;der (michael.roeder@uni-paderborn.de)
+ *
+ * @param <C> the class of the collection that is used to store values that
+ *            share the same key
+ */
+public class IntGroupByCollector<C extends IntContainer> extends StreamRDFBase {
+
+    /**
+     * The function which is used to get the key from the given triple.
+     */
+    protected ToIntFunction<Triple> keyFunction;
+    /**
+     * The function which is used to get the value from the given triple.
+     */
+    protected ToIntFunction<Triple> valueFunction;
+    /**
+     * The supplier which is used to generate new collection instances.
+     */
+    protected Supplier<C> collectionSupplier;
+    /**
+     * The function which adds a value to a collection.
+     */
+    protected ObjIntConsumer<C> addFunction;
+    /**
+     * The map that is used to store the grouped data.
+     */
+    protected IntObjectOpenHashMap<C> collectedData;
+
+    /**
+     * Constructor. The class uses a new {@link IntObjectOpenHashMap} to collect the
+     * data.
+     * 
+     * @param keyFunction        the function which is used to get the key from the
+     *                           given triple.
+     * @param valueFunction      the function which is used to get the value from
+     *                           the given triple.
+     * @param collectionSupplier the supplier which is used to generate new
+     *                           collection instances.
+     * @param addFunction        the function which adds a value to a collection.
+     */
+    public IntGroupByCollector(ToIntFunction<Triple> keyFunction, ToIntFunction<Triple> valueFunction,
+            Supplier<C> collectionSupplier, ObjIntConsumer<C> addFunction) {
+        this(keyFunction, valueFunction, collectionSupplier, addFunction, new IntObjectOpenHashMap<C>());
+    }
+
+    /**
+     * Constructor.
+     * 
+     * @param keyFunction        the function which is used to get the key from the
+     *                           given triple.
+     * @param valueFunction      the function which is used to get the value from
+     *                           the given triple.
+     * @param collectionSupplier the supplier which is used to generate new
+     *                           collection instances.
+     * @param addFunction        the function which adds a value to a collection.
+     * @param collectedData      the map that is used to store the grouped data.
+     */
+    public IntGroupByCollector(ToIntFunction<Triple> keyFunction, ToIntFunction<Triple> valueFunction,
+            Supplier<C> collectionSupplier, ObjIntConsumer<C> addFunction, IntObjectOpenHashMap<C> collectedData) {
+        super();
+        this.keyFunction = keyFunction;
+        this.valueFunction = valueFunction;
+        this.collectionSupplier = collectionSupplier;
+        this.addFunction = addFunction;
+        this.collectedData = collectedData;
+    }
+
+    /**
+     * Creates a collector that stores the values of a key in an
+     * {@link IntOpenHashSet}.
+     * 
+     * @param keyFunction   the function which is used to get the key from the
+     *                      given triple.
+     * @param valueFunction the function which is used to get the value from the
+     *                      given triple.
+     * @return the created collector
+     */
+    public static IntGroupByCollector<IntOpenHashSet> sets(ToIntFunction<Triple> keyFunction,
+            ToIntFunction<Triple> valueFunction) {
+        return new IntGroupByCollector<>(keyFunction, valueFunction, IntOpenHashSet::new, IntOpenHashSet::add);
+    }
+
+    /**
+     * Creates a collector that stores the values of a key in an
+     * {@link IntArrayList}.
+     * 
+     * @param keyFunction   the function which is used to get the key from the
+     *                      given triple.
+     * @param valueFunction the function which is used to get the value from the
+     *                      given triple.
+     * @return the created collector
+     */
+    public static IntGroupByCollector<IntArrayList> lists(ToIntFunction<Triple> keyFunction,
+            ToIntFunction<Triple> valueFunction) {
+        return new IntGroupByCollector<>(keyFunction, valueFunction, IntArrayList::new, IntArrayList::add);
+    }
+
+    @Override
+    public void triple(Triple triple) {
+        int key = keyFunction.applyAsInt(triple);
+        C collection;
+        // containsKey remembers the slot of the key, so lget() does not need a
+        // second lookup
+        if (collectedData.containsKey(key)) {
+            collection = collectedData.lget();
+        } else {
+            collection = collectionSupplier.get();
+            collectedData.put(key, collection);
+        }
+        addFunction.accept(collection, valueFunction.applyAsInt(triple));
+    }
+
+    /**
+     * @return the keyFunction
+     */
+    public ToIntFunction<Triple> getKeyFunction() {
+        return keyFunction;
+    }
+
+    /**
+     * @param keyFunction the keyFunction to set
+     */
+    public void setKeyFunction(ToIntFunction<Triple> keyFunction) {
+        this.keyFunction = keyFunction;
+    }
+
+    /**
+     * @return the valueFunction
+     */
+    public ToIntFunction<Triple> getValueFunction() {
+        return valueFunction;
+    }
+
+    /**
+     * @param valueFunction the valueFunction to set
+     */
+    public void setValueFunction(ToIntFunction<Triple> valueFunction) {
+        this.valueFunction = valueFunction;
+    }
+
+    /**
+     * @return the collectionSupplier
+     */
+    public Supplier<C> getCollectionSupplier() {
+        return collectionSupplier;
+    }
+
+    /**
+     * @param collectionSupplier the collectionSupplier to set
+     */
+    public void setCollectionSupplier(Supplier<C> collectionSupplier) {
+        this.collectionSupplier = collectionSupplier;
+    }
+
+    /**
+     * @return the addFunction
+     */
+    public ObjIntConsumer<C> getAddFunction() {
+        return addFunction;
+    }
+
+    /**
+     * @param addFunction the addFunction to set
+     */
+    public void setAddFunction(ObjIntConsumer<C> addFunction) {
+        this.addFunction = addFunction;
+    }
+
+    /**
+     * @return the collected data
+     */
+    public IntObjectOpenHashMap<C> getCollectedData() {
+        return collectedData;
+    }
+
+    /**
+     * @param collectedData the collectedData to set
+     */
+    public void setCollectedData(IntObjectOpenHashMap<C> collectedData) {
+        this.collectedData = collectedData;
+    }
+}
@@ -0,0 +1,208 @@
+package org.dice_research.rdf.stream.collect;
+
+import java.util.function.ObjLongConsumer;
+import java.util.function.Supplier;
+import java.util.function.ToLongFunction;
+
+import org.apache.jena.graph.Triple;
+import org.apache.jena.riot.system.StreamRDFBase;
+
+import com.carrotsearch.hppc.LongArrayList;
+import com.carrotsearch.hppc.LongContainer;
+import com.carrotsearch.hppc.LongObjectOpenHashMap;
+import com.carrotsearch.hppc.LongOpenHashSet;
+
+/**
+ * A primitive variant of the {@link RDFStreamGroupByCollector} for long keys
+ * and values. It works like the {@link IntGroupByCollector} but can be used if
+ * the key or value space does not fit into an int (e.g., addresses of entries in
+ * a {@link org.dice_research.rdf.stream.dict.ByteArena}).
+ * 
+ * <p>
+ * Use {@link #sets(ToLongFunction, ToLongFunction)} or
+ * {@link #lists(ToLongFunction, ToLongFunction)} to create a collector for the
+ * two most common collection types.
+ * </p>
+ * 
+ * @author Michael R&ouml;der (michael.roeder@uni-paderborn.de)
+ *
+ * @param <C> the class of the collection that is used to store values that
+ *            share the same key
+ */
+public class LongGroupByCollector<C extends LongContainer> extends StreamRDFBase {
+
+    /**
+     * The function which is used to get the key from the given triple.
+     */
+    protected ToLongFunction<Triple> keyFunction;
+    /**
+     * The function which is used to get the value from the given triple.
+     */
+    protected ToLongFunction<Triple> valueFunction;
+    /**
+     * The supplier which is used to generate new collection instances.
+     */
+    protected Supplier<C> collectionSupplier;
+    /**
+     * The function which adds a value to a collection.
+     */
+    protected ObjLongConsumer<C> addFunction;
+    /**
+     * The map that is used to store the grouped data.
+     */
+    protected LongObjectOpenHashMap<C> collectedData;
+
+    /**
+     * Constructor. The class uses a new {@link LongObjectOpenHashMap} to collect the
+     * data.
+     * 
+     * @param keyFunction        the function which is used to get the key from the
+     *                           given triple.
+     * @param valueFunction      the function which is used to get the value from
+     *                           the given triple.
+     * @param collectionSupplier the supplier which is used to generate new
+     *                           collection instances.
+     * @param addFunction        the function which adds a value to a collection.
+     */
+    public LongGroupByCollector(ToLongFunction<Triple> keyFunction, ToLongFunction<Triple> valueFunction,
+            Supplier<C> collectionSupplier, ObjLongConsumer<C> addFunction) {
+        this(keyFunction, valueFunction, collectionSupplier, addFunction, new LongObjectOpenHashMap<C>());
+    }
+
+    /**
+     * Constructor.
+     * 
+     * @param keyFunction        the function which is used to get the key from the
+     *                           given triple.
+     * @param valueFunction      the function which is used to get the value from
+     *                           the given triple.
+     * @param collectionSupplier the supplier which is used to generate new
+     *                           collection instances.
+     * @param addFunction        the function which adds a value to a collection.
+     * @param collectedData      the map that is used to store the grouped data.
+     */
+    public LongGroupByCollector(ToLongFunction<Triple> keyFunction, ToLongFunction<Triple> valueFunction,
+            Supplier<C> collectionSupplier, ObjLongConsumer<C> addFunction, LongObjectOpenHashMap<C> collectedData) {
+        super();
+        this.keyFunction = keyFunction;
+        this.valueFunction = valueFunction;
+        this.collectionSupplier = collectionSupplier;
+        this.addFunction = addFunction;
+        this.collectedData = collectedData;
+    }
+
+    /**
+     * Creates a collector that stores the values of a key in an
+     * {@link LongOpenHashSet}.
+     * 
+     * @param keyFunction   the function which is used to get the key from the
+     *                      given triple.
+     * @param valueFunction the function which is used to get the value from the
+     *                      given triple.
+     * @return the created collector
+     */
+    public static LongGroupByCollector<LongOpenHashSet> sets(ToLongFunction<Triple> keyFunction,
+            ToLongFunction<Triple> valueFunction) {
+        return new LongGroupByCollector<>(keyFunction, valueFunction, LongOpenHashSet::new, LongOpenHashSet::add);
+    }
+
+    /**
+     * Creates a collector that stores the values of a key in an
+     * {@link LongArrayList}.
+     * 
+     * @param keyFunction   the function which is used to get the key from the
+     *                      given triple.
+     * @param valueFunction the function which is used to get the value from the
+     *                      given triple.
+     * @return the created collector
+     */
+    public static LongGroupByCollector<LongArrayList> lists(ToLongFunction<Triple> keyFunction,
+            ToLongFunction<Triple> valueFunction) {
+        return new LongGroupByCollector<>(keyFunction, valueFunction, LongArrayList::new, LongArrayList::add);
+    }
+
+    @Override
+    public void triple(Triple triple) {
+        long key = keyFunction.applyAsLong(triple);
+        C collection;
+        // containsKey remembers the slot of the key, so lget() does not need a
+        // second lookup
+        if (collectedData.containsKey(key)) {
+            collection = collectedData.lget();
+        } else {
+            collection = collectionSupplier.get();
+            collectedData.put(key, collection);
+        }
+        addFunction.accept(collection, valueFunction.applyAsLong(triple));
+    }
+
+    /**
+     * @return the keyFunction
+     */
+    public ToLongFunction<Triple> getKeyFunction() {
+        return keyFunction;
+    }
+
+    /**
+     * @param keyFunction the keyFunction to set
+     */
+    public void setKeyFunction(ToLongFunction<Triple> keyFunction) {
+        this.keyFunction = keyFunction;
+    }
+
+    /**
+     * @return the valueFunction
+     */
+    public ToLongFunction<Triple> getValueFunction() {
+        return valueFunction;
+    }
+
+    /**
+     * @param valueFunction the valueFunction to set
+     */
+    public void setValueFunction(ToLongFunction<Triple> valueFunction) {
+        this.valueFunction = valueFunction;
+    }
+
+    /**
+     * @return the collectionSupplier
+     */
+    public Supplier<C> getCollectionSupplier() {
+        return collectionSupplier;
+    }
+
+    /**
+     * @param collectionSupplier the collectionSupplier to set
+     */
+    public void setCollectionSupplier(Supplier<C> collectionSupplier) {
+        this.collectionSupplier = collectionSupplier;
+    }
+
+    /**
+     * @return the addFunction
+     */
+    public ObjLongConsumer<C> getAddFunction() {
+        return addFunction;
+    }
+
+    /**
+     * @param addFunction the addFunction to set
+     */
+    public void setAddFunction(ObjLongConsumer<C> addFunction) {
+        this.addFunction = addFunction;
+    }
+
+    /**
+     * @return the collected data
+     */
+    public LongObjectOpenHashMap<C> getCollectedData() {
+        return collectedData;
+    }
+
+    /**
+     * @param collectedData the collectedData to set
+     */
+    public void setCollectedData(LongObjectOpenHashMap<C> collectedData) {
+        this.collectedData = collectedData;
+    }
+}
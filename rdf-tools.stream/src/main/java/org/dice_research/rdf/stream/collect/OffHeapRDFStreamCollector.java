@@ -0,0 +1,106 @@
+package org.dice_research.rdf.stream.collect;
+
+import java.util.function.Function;
+
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.Triple;
+import org.apache.jena.riot.system.StreamRDFBase;
+import org.dice_research.rdf.stream.dict.OffHeapStringArena;
+
+/**
+ * A variant of the {@link RDFStreamCollector} that stores the collected nodes
+ * in an {@link OffHeapStringArena} instead of a collection of Strings. Since
+ * the arena keeps the nodes outside of the Java heap, collecting millions of
+ * IRIs neither increases the heap size nor the garbage collection pauses. The
+ * memory is freed when the collector (or its arena) is closed.
+ * 
+ * @author Michael R&ouml;der (michael.roeder@uni-paderborn.de)
+ *
+ */
+public class OffHeapRDFStreamCollector extends StreamRDFBase implements AutoCloseable {
+
+    /**
+     * The function which is used to select the node that should be collected
+     * from a triple.
+     */
+    protected Function<Triple, Node> nodeFunction;
+    /**
+     * The arena that is used to store the collected nodes.
+     */
+    protected OffHeapStringArena arena;
+
+    /**
+     * Constructor.
+     * 
+     * @param nodeFunction the function which is used to select the node that
+     *                     should be collected from a triple.
+     */
+    public OffHeapRDFStreamCollector(Function<Triple, Node> nodeFunction) {
+        this(nodeFunction, new OffHeapStringArena());
+    }
+
+    /**
+     * Constructor.
+     * 
+     * @param nodeFunction the function which is used to select the node that
+     *                     should be collected from a triple.
+     * @param arena        the arena that is used to store the collected nodes.
+     */
+    public OffHeapRDFStreamCollector(Function<Triple, Node> nodeFunction, OffHeapStringArena arena) {
+        super();
+        this.nodeFunction = nodeFunction;
+        this.arena = arena;
+    }
+
+    @Override
+    public void triple(Triple triple) {
+        arena.getOrAddHandle(nodeFunction.apply(triple));
+    }
+
+    /**
+     * Checks whether the given node has been collected.
+     * 
+     * @param node the node that should be checked
+     * @return {@code true} if the node has been collected
+     */
+    public boolean contains(Node node) {
+        return arena.getHandle(node) != OffHeapStringArena.NO_HANDLE;
+    }
+
+    /**
+     * Frees the memory of the arena.
+     */
+    @Override
+    public void close() {
+        arena.close();
+    }
+
+    /**
+     * @return the nodeFunction
+     */
+    public Function<Triple, Node> getNodeFunction() {
+        return nodeFunction;
+    }
+
+    /**
+     * @param nodeFunction the nodeFunction to set
+     */
+    public void setNodeFunction(Function<Triple, Node> nodeFunction) {
+        this.nodeFunction = nodeFunction;
+    }
+
+    /**
+     * @return the arena
+     */
+    public OffHeapStringArena getArena() {
+        return arena;
+    }
+
+    /**
+     * @param arena the arena to set
+     */
+    public void setArena(OffHeapStringArena arena) {
+        this.arena = arena;
+    }
+
+}
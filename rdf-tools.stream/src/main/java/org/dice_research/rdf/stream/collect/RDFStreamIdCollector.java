@@ -0,0 +1,123 @@
+package org.dice_research.rdf.stream.collect;
+
+import java.util.function.Function;
+
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.Triple;
+import org.apache.jena.riot.system.StreamRDFBase;
+import org.dice_research.rdf.stream.dict.NodeDictionary;
+
+import com.carrotsearch.hppc.IntOpenHashSet;
+
+/**
+ * A variant of the {@link RDFStreamCollector} that collects the IDs of nodes
+ * instead of the nodes (or their IRIs) themselves. It uses the given
+ * {@link #nodeFunction} to select a node from a given triple, gets its ID from
+ * the given {@link NodeDictionary} and stores the ID in a primitive set.
+ * 
+ * @author Michael R&ouml;der (michael.roeder@uni-paderborn.de)
+ *
+ */
+public class RDFStreamIdCollector extends StreamRDFBase {
+
+    /**
+     * The dictionary that is used to map nodes to IDs.
+     */
+    protected NodeDictionary dictionary;
+    /**
+     * The function which is used to select the node that should be collected
+     * from a triple.
+     */
+    protected Function<Triple, Node> nodeFunction;
+    /**
+     * The set that is used to store the IDs of the collected nodes.
+     */
+    protected IntOpenHashSet collectedIds;
+
+    /**
+     * Constructor.
+     * 
+     * @param dictionary   the dictionary that is used to map nodes to IDs.
+     * @param nodeFunction the function which is used to select the node that
+     *                     should be collected from a triple.
+     */
+    public RDFStreamIdCollector(NodeDictionary dictionary, Function<Triple, Node> nodeFunction) {
+        this(dictionary, nodeFunction, new IntOpenHashSet());
+    }
+
+    /**
+     * Constructor.
+     * 
+     * @param dictionary   the dictionary that is used to map nodes to IDs.
+     * @param nodeFunction the function which is used to select the node that
+     *                     should be collected from a triple.
+     * @param collectedIds the set that is used to store the IDs of the collected
+     *                     nodes.
+     */
+    public RDFStreamIdCollector(NodeDictionary dictionary, Function<Triple, Node> nodeFunction,
+            IntOpenHashSet collectedIds) {
+        super();
+        this.dictionary = dictionary;
+        this.nodeFunction = nodeFunction;
+        this.collectedIds = collectedIds;
+    }
+
+    @Override
+    public void triple(Triple triple) {
+        collectedIds.add(dictionary.getOrAddId(nodeFunction.apply(triple)));
+    }
+
+    /**
+     * Checks whether the given node has been collected.
+     * 
+     * @param node the node that should be checked
+     * @return {@code true} if the node has been collected
+     */
+    public boolean contains(Node node) {
+        int id = dictionary.getId(node);
+        return (id != NodeDictionary.NO_ID) && collectedIds.contains(id);
+    }
+
+    /**
+     * @return the dictionary
+     */
+    public NodeDictionary getDictionary() {
+        return dictionary;
+    }
+
+    /**
+     * @param dictionary the dictionary to set
+     */
+    public void setDictionary(NodeDictionary dictionary) {
+        this.dictionary = dictionary;
+    }
+
+    /**
+     * @return the nodeFunction
+     */
+    public Function<Triple, Node> getNodeFunction() {
+        return nodeFunction;
+    }
+
+    /**
+     * @param nodeFunction the nodeFunction to set
+     */
+    public void setNodeFunction(Function<Triple, Node> nodeFunction) {
+        this.nodeFunction = nodeFunction;
+    }
+
+    /**
+     * @return the collectedIds
+     */
+    public IntOpenHashSet getCollectedIds() {
+        return collectedIds;
+    }
+
+    /**
+     * @param collectedIds the collectedIds to set
+     */
+    public void setCollectedIds(IntOpenHashSet collectedIds) {
+        this.collectedIds = collectedIds;
+    }
+
+}
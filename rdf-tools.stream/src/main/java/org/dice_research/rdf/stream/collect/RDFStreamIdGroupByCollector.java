@@ -0,0 +1,144 @@
+package org.dice_research.rdf.stream.collect;
+
+import java.util.function.Function;
+
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.Triple;
+import org.apache.jena.riot.system.StreamRDFBase;
+import org.dice_research.rdf.stream.dict.NodeDictionary;
+
+import com.carrotsearch.hppc.IntObjectOpenHashMap;
+import com.carrotsearch.hppc.IntOpenHashSet;
+
+/**
+ * A variant of the {@link RDFStreamGroupByCollector} that works on the IDs of
+ * nodes instead of the nodes (or their IRIs) themselves. The key and value
+ * nodes of a triple are mapped to IDs using the given {@link NodeDictionary}.
+ * The value IDs that share the same key ID are stored in a primitive set.
+ * 
+ * @author Michael R&ouml;der (michael.roeder@uni-paderborn.de)
+ *
+ */
+public class RDFStreamIdGroupByCollector extends StreamRDFBase {
+
+    /**
+     * The dictionary that is used to map nodes to IDs.
+     */
+    protected NodeDictionary dictionary;
+    /**
+     * The function which is used to get the key node from the given triple.
+     */
+    protected Function<Triple, Node> keyFunction;
+    /**
+     * The function which is used to get the value node from the given triple.
+     */
+    protected Function<Triple, Node> valueFunction;
+    /**
+     * The map that is used to store the grouped IDs.
+     */
+    protected IntObjectOpenHashMap<IntOpenHashSet> collectedData;
+
+    /**
+     * Constructor.
+     * 
+     * @param dictionary    the dictionary that is used to map nodes to IDs.
+     * @param keyFunction   the function which is used to get the key node from
+     *                      the given triple.
+     * @param valueFunction the function which is used to get the value node from
+     *                      the given triple.
+     */
+    public RDFStreamIdGroupByCollector(NodeDictionary dictionary, Function<Triple, Node> keyFunction,
+            Function<Triple, Node> valueFunction) {
+        this(dictionary, keyFunction, valueFunction, new IntObjectOpenHashMap<IntOpenHashSet>());
+    }
+
+    /**
+     * Constructor.
+     * 
+     * @param dictionary    the dictionary that is used to map nodes to IDs.
+     * @param keyFunction   the function which is used to get the key node from
+     *                      the given triple.
+     * @param valueFunction the function which is used to get the value node from
+     *                      the given triple.
+     * @param collectedData the map that is used to store the grouped IDs.
+     */
+    public RDFStreamIdGroupByCollector(NodeDictionary dictionary, Function<Triple, Node> keyFunction,
+            Function<Triple, Node> valueFunction, IntObjectOpenHashMap<IntOpenHashSet> collectedData) {
+        super();
+        this.dictionary = dictionary;
+        this.keyFunction = keyFunction;
+        this.valueFunction = valueFunction;
+        this.collectedData = collectedData;
+    }
+
+    @Override
+    public void triple(Triple triple) {
+        int key = dictionary.getOrAddId(keyFunction.apply(triple));
+        int value = dictionary.getOrAddId(valueFunction.apply(triple));
+        IntOpenHashSet values;
+        if (collectedData.containsKey(key)) {
+            // containsKey remembers the slot of the key
+            values = collectedData.lget();
+        } else {
+            values = new IntOpenHashSet();
+            collectedData.put(key, values);
+        }
+        values.add(value);
+    }
+
+    /**
+     * @return the dictionary
+     */
+    public NodeDictionary getDictionary() {
+        return dictionary;
+    }
+
+    /**
+     * @param dictionary the dictionary to set
+     */
+    public void setDictionary(NodeDictionary dictionary) {
+        this.dictionary = dictionary;
+    }
+
+    /**
+     * @return the keyFunction
+     */
+    public Function<Triple, Node> getKeyFunction() {
+        return keyFunction;
+    }
+
+    /**
+     * @param keyFunction the keyFunction to set
+     */
+    public void setKeyFunction(Function<Triple, Node> keyFunction) {
+        this.keyFunction = keyFunction;
+    }
+
+    /**
+     * @return the valueFunction
+     */
+    public Function<Triple, Node> getValueFunction() {
+        return valueFunction;
+    }
+
+    /**
+     * @param valueFunction the valueFunction to set
+     */
+    public void setValueFunction(Function<Triple, Node> valueFunction) {
+        this.valueFunction = valueFunction;
+    }
+
+    /**
+     * @return the collected data
+     */
+    public IntObjectOpenHashMap<IntOpenHashSet> getCollectedData() {
+        return collectedData;
+    }
+
+    /**
+     * @param collectedData the collectedData to set
+     */
+    public void setCollectedData(IntObjectOpenHashMap<IntOpenHashSet> collectedData) {
+        this.collectedData = collectedData;
+    }
+}
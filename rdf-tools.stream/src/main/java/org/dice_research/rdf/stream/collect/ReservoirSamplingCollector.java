@@ -0,0 +1,138 @@
+package org.dice_research.rdf.stream.collect;
+
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.ToDoubleFunction;
+
+import org.apache.jena.graph.Triple;
+import org.apache.jena.riot.system.StreamRDFBase;
+import org.dice_research.java.sketch.ReservoirSample;
+
+/**
+ * This class draws a random sample of exactly k elements (or all elements if
+ * the stream is shorter) from the given RDF stream in a single pass using a
+ * {@link ReservoirSample}. In contrast to the
+ * {@link org.dice_research.rdf.stream.filter.SamplingFilter}, every element of
+ * the stream has the same probability to be chosen, independent of its
+ * position in the stream. If a {@link #weightFunction} is given, the
+ * probability of an element grows with its weight.
+ *
+ * <p>
+ * Collectors that have been fed by different threads can be merged using
+ * {@link #merge(ReservoirSamplingCollector)}. Each of them should use a
+ * different seed.
+ * </p>
+ *
+ * @author Michael R&ouml;der (michael.roeder@uni-paderborn.de)
+ *
+ * @param <T> the class of the sampled elements
+ */
+public class ReservoirSamplingCollector<T> extends StreamRDFBase {
+
+    /**
+     * The function which is used to transform a triple into the sampled element.
+     */
+    protected Function<Triple, T> transformFunction;
+    /**
+     * The (optional) function which is used to determine the weight of a triple.
+     * If it is {@code null}, all triples have the same weight.
+     */
+    protected ToDoubleFunction<Triple> weightFunction;
+    /**
+     * The sample.
+     */
+    protected ReservoirSample<T> sample;
+
+    /**
+     * Constructor for a uniform sample.
+     * 
+     * @param transformFunction the function which is used to transform a triple
+     *                          into the sampled element.
+     * @param k                 the size of the sample
+     * @param seed              the seed of the random number generator
+     */
+    public ReservoirSamplingCollector(Function<Triple, T> transformFunction, int k, long seed) {
+        this(transformFunction, null, k, seed);
+    }
+
+    /**
+     * Constructor.
+     * 
+     * @param transformFunction the function which is used to transform a triple
+     *                          into the sampled element.
+     * @param weightFunction    the function which is used to determine the weight
+     *                          of a triple or {@code null} if all triples should
+     *                          have the same weight.
+     * @param k                 the size of the sample
+     * @param seed              the seed of the random number generator
+     */
+    public ReservoirSamplingCollector(Function<Triple, T> transformFunction, ToDoubleFunction<Triple> weightFunction,
+            int k, long seed) {
+        super();
+        this.transformFunction = transformFunction;
+        this.weightFunction = weightFunction;
+        this.sample = new ReservoirSample<>(k, seed);
+    }
+
+    @Override
+    public void triple(Triple triple) {
+        if (weightFunction == null) {
+            sample.add(transformFunction.apply(triple));
+        } else {
+            sample.add(transformFunction.apply(triple), weightFunction.applyAsDouble(triple));
+        }
+    }
+
+    /**
+     * Merges the sample of the given collector into the sample of this
+     * collector.
+     * 
+     * @param other the collector that should be merged into this collector
+     */
+    public void merge(ReservoirSamplingCollector<T> other) {
+        sample.merge(other.sample);
+    }
+
+    /**
+     * @return the sampled elements
+     */
+    public List<T> getSampledElements() {
+        return sample.getSample();
+    }
+
+    /**
+     * @return the sample
+     */
+    public ReservoirSample<T> getSample() {
+        return sample;
+    }
+
+    /**
+     * @return the transformFunction
+     */
+    public Function<Triple, T> getTransformFunction() {
+        return transformFunction;
+    }
+
+    /**
+     * @param transformFunction the transformFunction to set
+     */
+    public void setTransformFunction(Function<Triple, T> transformFunction) {
+        this.transformFunction = transformFunction;
+    }
+
+    /**
+     * @return the weightFunction
+     */
+    public ToDoubleFunction<Triple> getWeightFunction() {
+        return weightFunction;
+    }
+
+    /**
+     * @param weightFunction the weightFunction to set
+     */
+    public void setWeightFunction(ToDoubleFunction<Triple> weightFunction) {
+        this.weightFunction = weightFunction;
+    }
+
+}
@@ -0,0 +1,652 @@
+package org.dice_research.rdf.stream.collect;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.apache.jena.graph.Triple;
+import org.apache.jena.riot.system.StreamRDFBase;
+
+/**
+ * A variant of the {@link RDFStreamGroupByCollector} for data that does not
+ * fit into the heap. The (key, value) pairs are buffered in memory until the
+ * estimated size of the buffer exceeds the given memory budget. After that,
+ * the buffer is sorted and written to a compressed temporary file (a "run").
+ * When the outermost {@link #finish()} is called, the runs are merged (k-way)
+ * and the groups are handed to the given {@link GroupConsumer} ordered by
+ * their keys. The values of a group are streamed from the runs, i.e., even a
+ * group that is larger than the memory budget can be processed. Hence, the
+ * memory consumption is bounded by the budget and the buffers of the merged
+ * runs, regardless of the size of the input.
+ *
+ * <p>
+ * By default, the values of a group are distinct (as if they would have been
+ * collected in a {@link java.util.Set}). The groups can be merged several times
+ * using {@link #merge(GroupConsumer)}. The temporary files are deleted when
+ * {@link #close()} is called.
+ * </p>
+ *
+ * <p>
+ * <b>Note</b> that the collector has to be fed by a single thread.
+ * </p>
+ *
+ * @author Michael R&ouml;der (michael.roeder@uni-paderborn.de)
+ *
+ */
+public class SpillingGroupByCollector extends StreamRDFBase implements Closeable {
+
+    /**
+     * The default memory budget (64 MiB).
+     */
+    public static final long DEFAULT_MEMORY_BUDGET = 64L << 20;
+    /**
+     * The default maximum number of runs that are merged at once.
+     */
+    public static final int DEFAULT_MAX_FAN_IN = 64;
+    /**
+     * The estimated number of bytes a buffered pair occupies in addition to the
+     * characters of its key and value (pair object, two String objects, their
+     * arrays and the reference in the buffer).
+     */
+    protected static final int ESTIMATED_PAIR_OVERHEAD = 120;
+    /**
+     * The size of the buffers of the streams that read and write runs.
+     */
+    protected static final int IO_BUFFER_SIZE = 1 << 16;
+    /**
+     * The marker that is written instead of a key length if the key is the same
+     * as the key of the previous pair.
+     */
+    protected static final int SAME_KEY = -1;
+
+    /**
+     * Consumer of the merged groups.
+     *
+     * @author Michael R&ouml;der (michael.roeder@uni-paderborn.de)
+     *
+     */
+    public static interface GroupConsumer {
+        /**
+         * Consumes a single group. The iterator is only valid during this call.
+         * Values that are not consumed are skipped.
+         *
+         * @param key    the key of the group
+         * @param values the values of the group in ascending order
+         */
+        public void group(String key, Iterator<String> values);
+    }
+
+    /**
+     * The function which is used to get the key from the given triple.
+     */
+    protected Function<Triple, String> keyFunction;
+    /**
+     * The function which is used to get the value from the given triple.
+     */
+    protected Function<Triple, String> valueFunction;
+    /**
+     * The consumer that gets the groups when the outermost {@link #finish()} is
+     * called. Can be {@code null}.
+     */
+    protected GroupConsumer groupConsumer;
+    /**
+     * The memory budget of the in-memory buffer in bytes.
+     */
+    protected long memoryBudget;
+    /**
+     * The maximum number of runs that are merged at once.
+     */
+    protected int maxFanIn = DEFAULT_MAX_FAN_IN;
+    /**
+     * Flag indicating whether duplicate values of a group are removed.
+     */
+    protected boolean distinctValues = true;
+    /**
+     * The directory in which the runs are created. If it is {@code null}, the
+     * default temporary directory is used.
+     */
+    protected File tempDirectory = null;
+    /**
+     * The buffered pairs.
+     */
+    protected Pair[] buffer = new Pair[1024];
+    /**
+     * The number of buffered pairs.
+     */
+    protected int bufferSize = 0;
+    /**
+     * The estimated size of the buffered pairs in bytes.
+     */
+    protected long bufferBytes = 0;
+    /**
+     * The runs that have been written so far.
+     */
+    protected List<File> runs = new ArrayList<>();
+    /**
+     * The number of {@link #start()} calls that haven't been matched with a
+     * {@link #finish()} call.
+     */
+    protected int openStarts = 0;
+
+    /**
+     * Constructor using the {@link #DEFAULT_MEMORY_BUDGET}.
+     *
+     * @param keyFunction   the function which is used to get the key from the
+     *                      given triple.
+     * @param valueFunction the function which is used to get the value from the
+     *                      given triple.
+     * @param groupConsumer the consumer that gets the groups when the outermost
+     *                      {@link #finish()} is called. Can be {@code null} if
+     *                      {@link #merge(GroupConsumer)} is called explicitly.
+     */
+    public SpillingGroupByCollector(Function<Triple, String> keyFunction, Function<Triple, String> valueFunction,
+            GroupConsumer groupConsumer) {
+        this(keyFunction, valueFunction, groupConsumer, DEFAULT_MEMORY_BUDGET);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param keyFunction   the function which is used to get the key from the
+     *                      given triple.
+     * @param valueFunction the function which is used to get the value from the
+     *                      given triple.
+     * @param groupConsumer the consumer that gets the groups when the outermost
+     *                      {@link #finish()} is called. Can be {@code null} if
+     *                      {@link #merge(GroupConsumer)} is called explicitly.
+     * @param memoryBudget  the (estimated) number of bytes the buffered pairs may
+     *                      occupy before they are written to disk
+     */
+    public SpillingGroupByCollector(Function<Triple, String> keyFunction, Function<Triple, String> valueFunction,
+            GroupConsumer groupConsumer, long memoryBudget) {
+        super();
+        if (memoryBudget <= 0) {
+            throw new IllegalArgumentException(
+                    "The given memory budget (" + memoryBudget + ") is smaller than 1. This is not allowed.");
+        }
+        this.keyFunction = keyFunction;
+        this.valueFunction = valueFunction;
+        this.groupConsumer = groupConsumer;
+        this.memoryBudget = memoryBudget;
+    }
+
+    @Override
+    public void start() {
+        ++openStarts;
+    }
+
+    @Override
+    public void triple(Triple triple) {
+        add(keyFunction.apply(triple), valueFunction.apply(triple));
+    }
+
+    /**
+     * Adds the given pair.
+     *
+     * @param key   the key of the pair
+     * @param value the value of the pair
+     */
+    public void add(String key, String value) {
+        if (bufferSize == buffer.length) {
+            buffer = Arrays.copyOf(buffer, buffer.length << 1);
+        }
+        buffer[bufferSize] = new Pair(key, value);
+        ++bufferSize;
+        // Strings use (at least) one byte per character
+        bufferBytes += ESTIMATED_PAIR_OVERHEAD + key.length() + value.length();
+        if (bufferBytes > memoryBudget) {
+            try {
+                spill();
+            } catch (IOException e) {
+                throw new UncheckedIOException("Couldn't write the buffered pairs to disk.", e);
+            }
+        }
+    }
+
+    @Override
+    public void finish() {
+        if (openStarts > 0) {
+            --openStarts;
+        }
+        if ((openStarts == 0) && (groupConsumer != null)) {
+            merge(groupConsumer);
+        }
+    }
+
+    /**
+     * Sorts the buffered pairs and writes them as new run to disk.
+     *
+     * @throws IOException if the run couldn't be written
+     */
+    protected void spill() throws IOException {
+        if (bufferSize == 0) {
+            return;
+        }
+        Arrays.sort(buffer, 0, bufferSize);
+        File run = createRunFile();
+        try (RunWriter writer = new RunWriter(run)) {
+            for (int i = 0; i < bufferSize; ++i) {
+                writer.write(buffer[i].key, buffer[i].value);
+            }
+        } catch (IOException | RuntimeException e) {
+            // The incomplete run is not registered, i.e., close() wouldn't delete it
+            run.delete();
+            throw e;
+        }
+        runs.add(run);
+        // Free the buffer
+        Arrays.fill(buffer, 0, bufferSize, null);
+        bufferSize = 0;
+        bufferBytes = 0;
+    }
+
+    protected File createRunFile() throws IOException {
+        if (tempDirectory != null) {
+            return Files.createTempFile(tempDirectory.toPath(), "groupby-run-", ".gz").toFile();
+        } else {
+            return Files.createTempFile("groupby-run-", ".gz").toFile();
+        }
+    }
+
+    /**
+     * Merges all collected pairs and hands the groups to the given consumer
+     * ordered by their keys. Buffered pairs are written to disk before the
+     * merge, so this method can be called several times.
+     *
+     * @param consumer the consumer of the groups
+     */
+    public void merge(GroupConsumer consumer) {
+        try {
+            spill();
+            // Reduce the number of runs until they can be merged at once
+            while (runs.size() > maxFanIn) {
+                List<File> inputRuns = new ArrayList<>(runs.subList(0, maxFanIn));
+                File run = createRunFile();
+                try (MergeIterator iterator = new MergeIterator(inputRuns); RunWriter writer = new RunWriter(run)) {
+                    while (iterator.hasNext()) {
+                        RunReader next = iterator.peek();
+                        writer.write(next.key, next.value);
+                        iterator.advance();
+                    }
+                } catch (IOException | RuntimeException e) {
+                    run.delete();
+                    throw e;
+                }
+                runs.removeAll(inputRuns);
+                runs.add(run);
+                deleteFiles(inputRuns);
+            }
+            try (MergeIterator iterator = new MergeIterator(runs)) {
+                while (iterator.hasNext()) {
+                    GroupIterator values = new GroupIterator(iterator, iterator.peek().key);
+                    consumer.group(values.key, values);
+                    values.skipRemaining();
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Couldn't merge the runs.", e);
+        }
+    }
+
+    /**
+     * Merges all collected pairs and hands the groups as lists to the given
+     * consumer. <b>Note</b> that a single group has to fit into memory.
+     *
+     * @param consumer the consumer of the groups
+     */
+    public void forEachGroup(BiConsumer<String, List<String>> consumer) {
+        merge((key, values) -> {
+            List<String> list = new ArrayList<>();
+            values.forEachRemaining(list::add);
+            consumer.accept(key, list);
+        });
+    }
+
+    /**
+     * Deletes all temporary files of this collector and clears its buffer.
+     */
+    @Override
+    public void close() {
+        deleteFiles(runs);
+        runs.clear();
+        Arrays.fill(buffer, 0, bufferSize, null);
+        bufferSize = 0;
+        bufferBytes = 0;
+    }
+
+    protected static void deleteFiles(List<File> files) {
+        for (File file : files) {
+            file.delete();
+        }
+    }
+
+    /**
+     * @return the number of runs that have been written to disk so far
+     */
+    public int getNumberOfRuns() {
+        return runs.size();
+    }
+
+    /**
+     * @return the maxFanIn
+     */
+    public int getMaxFanIn() {
+        return maxFanIn;
+    }
+
+    /**
+     * @param maxFanIn the maximum number of runs that are merged at once (has to
+     *                 be at least 2)
+     */
+    public void setMaxFanIn(int maxFanIn) {
+        if (maxFanIn < 2) {
+            throw new IllegalArgumentException(
+                    "The given fan-in (" + maxFanIn + ") is smaller than 2. This is not allowed.");
+        }
+        this.maxFanIn = maxFanIn;
+    }
+
+    /**
+     * @return whether duplicate values of a group are removed
+     */
+    public boolean isDistinctValues() {
+        return distinctValues;
+    }
+
+    /**
+     * @param distinctValues whether duplicate values of a group should be removed
+     */
+    public void setDistinctValues(boolean distinctValues) {
+        this.distinctValues = distinctValues;
+    }
+
+    /**
+     * @return the tempDirectory
+     */
+    public File getTempDirectory() {
+        return tempDirectory;
+    }
+
+    /**
+     * @param tempDirectory the directory in which the runs should be created
+     */
+    public void setTempDirectory(File tempDirectory) {
+        this.tempDirectory = tempDirectory;
+    }
+
+    /**
+     * @return the keyFunction
+     */
+    public Function<Triple, String> getKeyFunction() {
+        return keyFunction;
+    }
+
+    /**
+     * @param keyFunction the keyFunction to set
+     */
+    public void setKeyFunction(Function<Triple, String> keyFunction) {
+        this.keyFunction = keyFunction;
+    }
+
+    /**
+     * @return the valueFunction
+     */
+    public Function<Triple, String> getValueFunction() {
+        return valueFunction;
+    }
+
+    /**
+     * @param valueFunction the valueFunction to set
+     */
+    public void setValueFunction(Function<Triple, String> valueFunction) {
+        this.valueFunction = valueFunction;
+    }
+
+    /**
+     * @return the groupConsumer
+     */
+    public GroupConsumer getGroupConsumer() {
+        return groupConsumer;
+    }
+
+    /**
+     * @param groupConsumer the groupConsumer to set
+     */
+    public void setGroupConsumer(GroupConsumer groupConsumer) {
+        this.groupConsumer = groupConsumer;
+    }
+
+    /**
+     * A buffered (key, value) pair.
+     */
+    protected static class Pair implements Comparable<Pair> {
+        protected final String key;
+        protected final String value;
+
+        public Pair(String key, String value) {
+            this.key = key;
+            this.value = value;
+        }
+
+        @Override
+        public int compareTo(Pair o) {
+            int result = key.compareTo(o.key);
+            return (result != 0) ? result : value.compareTo(o.value);
+        }
+    }
+
+    /**
+     * Writes sorted pairs to a compressed run. A key that is equal to the key of
+     * the previous pair is replaced by the {@link SpillingGroupByCollector#SAME_KEY}
+     * marker.
+     */
+    protected static class RunWriter implements Closeable {
+        protected final DataOutputStream out;
+        protected String lastKey = null;
+
+        public RunWriter(File file) throws IOException {
+            out = new DataOutputStream(new BufferedOutputStream(
+                    new GZIPOutputStream(Files.newOutputStream(file.toPath()), IO_BUFFER_SIZE), IO_BUFFER_SIZE));
+        }
+
+        public void write(String key, String value) throws IOException {
+            if (key.equals(lastKey)) {
+                out.writeInt(SAME_KEY);
+            } else {
+                writeString(key);
+                lastKey = key;
+            }
+            writeString(value);
+        }
+
+        protected void writeString(String s) throws IOException {
+            byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+            out.writeInt(bytes.length);
+            out.write(bytes);
+        }
+
+        @Override
+        public void close() throws IOException {
+            out.close();
+        }
+    }
+
+    /**
+     * Reads the pairs of a run one after the other.
+     */
+    protected static class RunReader implements Closeable {
+        protected final DataInputStream in;
+        protected String key = null;
+        protected String value = null;
+
+        public RunReader(File file) throws IOException {
+            in = new DataInputStream(new BufferedInputStream(
+                    new GZIPInputStream(Files.newInputStream(file.toPath()), IO_BUFFER_SIZE), IO_BUFFER_SIZE));
+        }
+
+        /**
+         * Reads the next pair.
+         *
+         * @return {@code false} if the end of the run has been reached
+         */
+        public boolean next() throws IOException {
+            int length;
+            try {
+                length = in.readInt();
+            } catch (EOFException e) {
+                return false;
+            }
+            if (length != SAME_KEY) {
+                key = readString(length);
+            }
+            value = readString(in.readInt());
+            return true;
+        }
+
+        protected String readString(int length) throws IOException {
+            byte[] bytes = new byte[length];
+            in.readFully(bytes);
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+
+        @Override
+        public void close() throws IOException {
+            in.close();
+        }
+    }
+
+    /**
+     * Merges several runs into a single sorted sequence of pairs using a priority
+     * queue of the run readers.
+     */
+    protected static class MergeIterator implements Closeable {
+        protected final List<RunReader> readers = new ArrayList<>();
+        protected final PriorityQueue<RunReader> queue;
+
+        public MergeIterator(List<File> runs) throws IOException {
+            queue = new PriorityQueue<>(Math.max(1, runs.size()), (r1, r2) -> {
+                int result = r1.key.compareTo(r2.key);
+                return (result != 0) ? result : r1.value.compareTo(r2.value);
+            });
+            try {
+                for (File run : runs) {
+                    RunReader reader = new RunReader(run);
+                    readers.add(reader);
+                    if (reader.next()) {
+                        queue.add(reader);
+                    }
+                }
+            } catch (IOException e) {
+                close();
+                throw e;
+            }
+        }
+
+        public boolean hasNext() {
+            return !queue.isEmpty();
+        }
+
+        /**
+         * @return the reader that currently has the smallest pair
+         */
+        public RunReader peek() {
+            return queue.peek();
+        }
+
+        /**
+         * Moves on to the next pair.
+         */
+        public void advance() throws IOException {
+            RunReader reader = queue.poll();
+            if (reader.next()) {
+                queue.add(reader);
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            IOException exception = null;
+            for (RunReader reader : readers) {
+                try {
+                    reader.close();
+                } catch (IOException e) {
+                    exception = e;
+                }
+            }
+            if (exception != null) {
+                throw exception;
+            }
+        }
+    }
+
+    /**
+     * Iterates over the values of a single group of the merged sequence.
+     */
+    protected class GroupIterator implements Iterator<String> {
+        protected final MergeIterator merge;
+        protected final String key;
+        protected String lastValue = null;
+
+        public GroupIterator(MergeIterator merge, String key) {
+            this.merge = merge;
+            this.key = key;
+        }
+
+        @Override
+        public boolean hasNext() {
+            try {
+                if (distinctValues) {
+                    // Skip values that have already been returned
+                    while (merge.hasNext() && key.equals(merge.peek().key)
+                            && merge.peek().value.equals(lastValue)) {
+                        merge.advance();
+                    }
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException("Couldn't read run.", e);
+            }
+            return merge.hasNext() && key.equals(merge.peek().key);
+        }
+
+        @Override
+        public String next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            lastValue = merge.peek().value;
+            try {
+                merge.advance();
+            } catch (IOException e) {
+                throw new UncheckedIOException("Couldn't read run.", e);
+            }
+            return lastValue;
+        }
+
+        /**
+         * Skips all values of this group that haven't been consumed.
+         */
+        public void skipRemaining() throws IOException {
+            while (merge.hasNext() && key.equals(merge.peek().key)) {
+                merge.advance();
+            }
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package org.dice_research.rdf.stream.collect;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import org.apache.jena.graph.Triple;
+
+/**
+ * A thread-safe variant of the {@link RDFStreamGroupByCollector}. Each thread
+ * that calls {@link #triple(Triple)} groups its values in its own local
+ * {@link HashMap}. The local maps are merged into the (not necessarily
+ * thread-safe) map of the collector when {@link #finish()} or {@link #merge()}
+ * is called. Hence, the threads do not compete with each other while
+ * collecting.
+ *
+ * <p>
+ * <b>Memory/throughput trade-off:</b> there is no contention, even for hot
+ * keys. However, a key (and its values) can be stored once per thread until
+ * the local maps are merged, i.e., in the worst case the collector needs
+ * {@code numberOfThreads} times the memory of the
+ * {@link ConcurrentRDFStreamGroupByCollector}. If the threads see mostly
+ * disjoint keys, the overhead is small.
+ * </p>
+ *
+ * <p>
+ * <b>Note</b> that {@link #finish()} and {@link #merge()} have to be called
+ * after all threads have stopped sending triples and the calling thread has to
+ * see their writes (e.g., by joining them or by waiting for their futures). The
+ * collected data should only be read after that.
+ * </p>
+ *
+ * @author Michael R&ouml;der (michael.roeder@uni-paderborn.de)
+ *
+ * @param <K> the class of the key
+ * @param <V> the class of the value
+ * @param <C> the class of the collection that is used to store values that
+ *            share the same key
+ */
+public class ThreadLocalRDFStreamGroupByCollector<K, V, C extends Collection<V>>
+        extends RDFStreamGroupByCollector<K, V, C> {
+
+    /**
+     * The local map of the current thread.
+     */
+    protected final ThreadLocal<Map<K, C>> localData;
+    /**
+     * All local maps that have been created so far.
+     */
+    protected final Queue<Map<K, C>> localMaps = new ConcurrentLinkedQueue<>();
+
+    /**
+     * Constructor. The class uses a {@link HashMap} to collect the data.
+     * 
+     * @param keyFunction        the function which is used to get the key from the
+     *                           given triple.
+     * @param valueFunction      the function which is used to get the value from
+     *                           the given triple.
+     * @param collectionSupplier the supplier which is used to generate new
+     *                           {@link Collection} instances.
+     */
+    public ThreadLocalRDFStreamGroupByCollector(Function<Triple, K> keyFunction, Function<Triple, V> valueFunction,
+            Supplier<C> collectionSupplier) {
+        this(keyFunction, valueFunction, collectionSupplier, new HashMap<>());
+    }
+
+    /**
+     * Constructor.
+     * 
+     * @param keyFunction        the function which is used to get the key from the
+     *                           given triple.
+     * @param valueFunction      the function which is used to get the value from
+     *                           the given triple.
+     * @param collectionSupplier the supplier which is used to generate new
+     *                           {@link Collection} instances.
+     * @param collectedData      the map into which the local maps are merged.
+     */
+    public ThreadLocalRDFStreamGroupByCollector(Function<Triple, K> keyFunction, Function<Triple, V> valueFunction,
+            Supplier<C> collectionSupplier, Map<K, C> collectedData) {
+        super(keyFunction, valueFunction, collectionSupplier, collectedData);
+        localData = ThreadLocal.withInitial(() -> {
+            Map<K, C> map = new HashMap<>();
+            localMaps.add(map);
+            return map;
+        });
+    }
+
+    @Override
+    public void triple(Triple triple) {
+        K key = keyFunction.apply(triple);
+        V value = valueFunction.apply(triple);
+        localData.get().computeIfAbsent(key, k -> collectionSupplier.get()).add(value);
+    }
+
+    @Override
+    public void finish() {
+        merge();
+    }
+
+    /**
+     * Merges all local maps into the map of this collector and clears them. It
+     * must not be called while other threads are still sending triples.
+     */
+    public synchronized void merge() {
+        C collection;
+        for (Map<K, C> localMap : localMaps) {
+            for (Entry<K, C> entry : localMap.entrySet()) {
+                collection = collectedData.get(entry.getKey());
+                if (collection == null) {
+                    // Reuse the local collection
+                    collectedData.put(entry.getKey(), entry.getValue());
+                } else {
+                    collection.addAll(entry.getValue());
+                }
+            }
+            localMap.clear();
+        }
+    }
+}
@@ -0,0 +1,230 @@
+package org.dice_research.rdf.stream.dict;
+
+import java.util.Arrays;
+
+/**
+ * An append-only arena of byte sequences. The sequences are written into large
+ * pages (byte arrays) one after the other, each prefixed by its length encoded
+ * as variable-length integer. Compared to storing each sequence in its own
+ * array, this saves the object header and the alignment padding of every
+ * sequence.
+ *
+ * <p>
+ * A sequence is identified by its address, i.e., a long value that contains
+ * the index of the page in its upper 32 bits and the offset within the page in
+ * its lower 32 bits. A sequence never spans two pages. Sequences that are
+ * larger than the page size get a page of their own.
+ * </p>
+ *
+ * <p>
+ * <b>Note</b> that this class is not thread-safe. Callers have to synchronize
+ * the access themselves.
+ * </p>
+ *
+ * @author Michael R&ouml;der (michael.roeder@uni-paderborn.de)
+ *
+ */
+public class ByteArena {
+
+    /**
+     * The default size of a single page (1 MiB).
+     */
+    public static final int DEFAULT_PAGE_SIZE = 1 << 20;
+
+    /**
+     * The size of a regular page.
+     */
+    protected final int pageSize;
+    /**
+     * The pages of this arena.
+     */
+    protected byte[][] pages = new byte[16][];
+    /**
+     * The number of pages that are in use.
+     */
+    protected int pageCount = 0;
+    /**
+     * The position within the current (i.e., the last) page at which the next
+     * sequence will be written.
+     */
+    protected int position = 0;
+    /**
+     * The number of bytes that have been appended (including length prefixes).
+     */
+    protected long usedBytes = 0;
+
+    /**
+     * Constructor using the {@link #DEFAULT_PAGE_SIZE}.
+     */
+    public ByteArena() {
+        this(DEFAULT_PAGE_SIZE);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param pageSize the size of a single page in bytes
+     */
+    public ByteArena(int pageSize) {
+        if (pageSize < 16) {
+            throw new IllegalArgumentException(
+                    "The given page size (" + pageSize + ") is smaller than 16. This is not allowed.");
+        }
+        this.pageSize = pageSize;
+    }
+
+    /**
+     * Appends the given sequence of bytes to the arena.
+     *
+     * @param data   the array containing the bytes
+     * @param offset the position of the first byte within the array
+     * @param length the number of bytes that should be appended
+     * @return the address of the appended sequence
+     */
+    public long append(byte[] data, int offset, int length) {
+        int required = varIntLength(length) + length;
+        if ((pageCount == 0) || (position + required > pages[pageCount - 1].length)) {
+            addPage(Math.max(pageSize, required));
+        }
+        byte[] page = pages[pageCount - 1];
+        int start = position;
+        int pos = writeVarInt(page, start, length);
+        System.arraycopy(data, offset, page, pos, length);
+        position = pos + length;
+        usedBytes += required;
+        return (((long) (pageCount - 1)) << 32) | start;
+    }
+
+    /**
+     * Appends the given sequence of bytes to the arena.
+     *
+     * @param data the bytes that should be appended
+     * @return the address of the appended sequence
+     */
+    public long append(byte[] data) {
+        return append(data, 0, data.length);
+    }
+
+    protected void addPage(int size) {
+        if (pageCount == pages.length) {
+            pages = Arrays.copyOf(pages, pages.length << 1);
+        }
+        pages[pageCount] = new byte[size];
+        ++pageCount;
+        position = 0;
+    }
+
+    /**
+     * @param address the address of a sequence
+     * @return the length of the sequence in bytes
+     */
+    public int length(long address) {
+        byte[] page = pages[(int) (address >>> 32)];
+        return readVarInt(page, (int) address);
+    }
+
+    /**
+     * Returns a copy of the sequence stored at the given address.
+     *
+     * @param address the address of a sequence
+     * @return the bytes of the sequence
+     */
+    public byte[] get(long address) {
+        byte[] page = pages[(int) (address >>> 32)];
+        int pos = (int) address;
+        int length = readVarInt(page, pos);
+        pos += varIntLength(length);
+        return Arrays.copyOfRange(page, pos, pos + length);
+    }
+
+    /**
+     * Returns the page that contains the sequence with the given address. Together
+     * with {@link #dataOffset(long)} and {@link #length(long)}, this can be used
+     * to read a sequence without copying it.
+     *
+     * @param address the address of a sequence
+     * @return the page containing the sequence
+     */
+    public byte[] page(long address) {
+        return pages[(int) (address >>> 32)];
+    }
+
+    /**
+     * @param address the address of a sequence
+     * @return the position of the first byte of the sequence within its
+     *         {@link #page(long)}
+     */
+    public int dataOffset(long address) {
+        byte[] page = pages[(int) (address >>> 32)];
+        int pos = (int) address;
+        return pos + varIntLength(readVarInt(page, pos));
+    }
+
+    /**
+     * Checks whether the sequence at the given address equals the given bytes.
+     *
+     * @param address the address of a sequence
+     * @param data    the array containing the bytes that should be compared
+     * @param offset  the position of the first byte within the array
+     * @param length  the number of bytes that should be compared
+     * @return {@code true} if the sequence and the given bytes are equal
+     */
+    public boolean equals(long address, byte[] data, int offset, int length) {
+        byte[] page = pages[(int) (address >>> 32)];
+        int pos = (int) address;
+        if (readVarInt(page, pos) != length) {
+            return false;
+        }
+        pos += varIntLength(length);
+        return Arrays.equals(page, pos, pos + length, data, offset, offset + length);
+    }
+
+    /**
+     * @return the number of bytes that have been appended to the arena (including
+     *         the length prefixes)
+     */
+    public long usedBytes() {
+        return usedBytes;
+    }
+
+    /**
+     * @return the number of bytes that are allocated by the pages of this arena
+     */
+    public long allocatedBytes() {
+        long sum = 0;
+        for (int i = 0; i < pageCount; ++i) {
+            sum += pages[i].length;
+        }
+        return sum;
+    }
+
+    protected static int varIntLength(int value) {
+        int length = 1;
+        while ((value & ~0x7F) != 0) {
+            value >>>= 7;
+            ++length;
+        }
+        return length;
+    }
+
+    protected static int writeVarInt(byte[] page, int pos, int value) {
+        while ((value & ~0x7F) != 0) {
+            page[pos++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        page[pos++] = (byte) value;
+        return pos;
+    }
+
+    protected static int readVarInt(byte[] page, int pos) {
+        int value = 0;
+        int shift = 0;
+        byte b;
+        do {
+            b = page[pos++];
+            value |= (b & 0x7F) << shift;
+            shift += 7;
+        } while (b < 0);
+        return value;
+    }
+}
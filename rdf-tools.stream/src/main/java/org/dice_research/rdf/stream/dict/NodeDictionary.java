@@ -0,0 +1,388 @@
+package org.dice_research.rdf.stream.dict;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.NodeFactory;
+import org.apache.jena.riot.out.NodeFmtLib;
+import org.apache.jena.sparql.util.NodeFactoryExtra;
+
+import com.carrotsearch.hppc.IntContainer;
+import com.carrotsearch.hppc.IntObjectOpenHashMap;
+import com.carrotsearch.hppc.cursors.IntCursor;
+import com.carrotsearch.hppc.cursors.IntObjectCursor;
+
+/**
+ * A dictionary that assigns a dense int ID (starting with 0) to every String or
+ * {@link Node} it is given. The Strings are stored UTF-8 encoded in a
+ * {@link ByteArena} and are indexed by an open-addressing hash table that only
+ * contains IDs. Hence, the dictionary does not create a single object per
+ * entry, which makes it considerably smaller than a {@code HashMap<String, ?>}
+ * holding the same IRIs. It can hold up to {@link #MAX_SIZE} entries.
+ * Collectors can store the IDs in primitive collections instead of storing the
+ * Strings (see, e.g.,
+ * {@link org.dice_research.rdf.stream.collect.RDFStreamIdCollector}).
+ *
+ * <p>
+ * IRI nodes are represented by their IRI, i.e., {@link #getOrAddId(Node)} and
+ * {@link #getOrAddId(String)} return the same ID for an IRI node and its IRI.
+ * All other nodes are stored in their N-Triples form and are distinguished from
+ * plain Strings.
+ * </p>
+ *
+ * <p>
+ * The dictionary is thread-safe. Lookups of existing entries can happen in
+ * parallel while adding a new entry requires exclusive access.
+ * </p>
+ *
+ * @author Michael R&ouml;der (michael.roeder@uni-paderborn.de)
+ *
+ */
+public class NodeDictionary {
+
+    /**
+     * The ID that is returned if an entry is not part of the dictionary.
+     */
+    public static final int NO_ID = -1;
+
+    /**
+     * The kind of entries that are plain Strings or IRIs.
+     */
+    protected static final byte KIND_STRING = 0;
+    /**
+     * The kind of entries that are non-IRI nodes in N-Triples form.
+     */
+    protected static final byte KIND_NODE = 1;
+
+    protected static final int MAX_TABLE_SIZE = 1 << 30;
+    /**
+     * The maximum number of entries. The hash table can not grow beyond
+     * {@link #MAX_TABLE_SIZE} cells and its load factor has to stay below 0.75
+     * since a full table would let the linear probing run forever.
+     */
+    public static final int MAX_SIZE = (MAX_TABLE_SIZE >> 2) * 3;
+
+    /**
+     * The arena that contains the UTF-8 bytes of the entries.
+     */
+    protected final ByteArena arena;
+    /**
+     * The addresses of the entries within the arena, indexed by ID.
+     */
+    protected long[] addresses;
+    /**
+     * The hash values of the entries, indexed by ID.
+     */
+    protected int[] hashes;
+    /**
+     * The kinds of the entries, indexed by ID.
+     */
+    protected byte[] kinds;
+    /**
+     * The open-addressing hash table. A cell contains the ID of an entry + 1 or
+     * 0 if it is empty.
+     */
+    protected int[] table;
+    /**
+     * The mask that is used to map hash values to cells of the table.
+     */
+    protected int mask;
+    /**
+     * The number of entries.
+     */
+    protected int size = 0;
+    /**
+     * The lock that guards the access to the dictionary.
+     */
+    protected final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * Constructor.
+     */
+    public NodeDictionary() {
+        this(1024);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param expectedSize the number of entries that is expected
+     */
+    public NodeDictionary(int expectedSize) {
+        this(expectedSize, new ByteArena());
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param expectedSize the number of entries that is expected
+     * @param arena        the (empty) arena that is used to store the entries
+     */
+    public NodeDictionary(int expectedSize, ByteArena arena) {
+        this.arena = arena;
+        int capacity = Math.min(MAX_SIZE, Math.max(16, expectedSize));
+        addresses = new long[capacity];
+        hashes = new int[capacity];
+        kinds = new byte[capacity];
+        int tableSize = Integer.highestOneBit(Math.min(MAX_TABLE_SIZE / 2, capacity) * 2 - 1) << 1;
+        table = new int[tableSize];
+        mask = tableSize - 1;
+    }
+
+    /**
+     * Returns the ID of the given String.
+     *
+     * @param s the String
+     * @return the ID of the String or {@link #NO_ID} if it is not part of the
+     *         dictionary
+     */
+    public int getId(String s) {
+        return getId(KIND_STRING, s.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Returns the ID of the given node.
+     *
+     * @param node the node
+     * @return the ID of the node or {@link #NO_ID} if it is not part of the
+     *         dictionary
+     */
+    public int getId(Node node) {
+        if (node.isURI()) {
+            return getId(node.getURI());
+        } else {
+            return getId(KIND_NODE, NodeFmtLib.strNT(node).getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    /**
+     * Returns the ID of the given String. If the String is not part of the
+     * dictionary, it is added.
+     *
+     * @param s the String
+     * @return the ID of the String
+     */
+    public int getOrAddId(String s) {
+        return getOrAddId(KIND_STRING, s.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Returns the ID of the given node. If the node is not part of the
+     * dictionary, it is added.
+     *
+     * @param node the node
+     * @return the ID of the node
+     */
+    public int getOrAddId(Node node) {
+        if (node.isURI()) {
+            return getOrAddId(node.getURI());
+        } else {
+            return getOrAddId(KIND_NODE, NodeFmtLib.strNT(node).getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    protected int getId(byte kind, byte[] bytes) {
+        int hash = hash(kind, bytes);
+        lock.readLock().lock();
+        try {
+            return table[findCell(kind, bytes, hash)] - 1;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    protected int getOrAddId(byte kind, byte[] bytes) {
+        int hash = hash(kind, bytes);
+        lock.readLock().lock();
+        try {
+            int id = table[findCell(kind, bytes, hash)] - 1;
+            if (id != NO_ID) {
+                return id;
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        lock.writeLock().lock();
+        try {
+            // Another thread might have added the entry in the meantime
+            int cell = findCell(kind, bytes, hash);
+            if (table[cell] != 0) {
+                return table[cell] - 1;
+            }
+            return add(kind, bytes, hash, cell);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the cell of the table that contains the given entry or the empty
+     * cell at which it would have to be inserted.
+     */
+    protected int findCell(byte kind, byte[] bytes, int hash) {
+        int cell = hash & mask;
+        int id;
+        while (table[cell] != 0) {
+            id = table[cell] - 1;
+            if ((hashes[id] == hash) && (kinds[id] == kind)
+                    && arena.equals(addresses[id], bytes, 0, bytes.length)) {
+                return cell;
+            }
+            cell = (cell + 1) & mask;
+        }
+        return cell;
+    }
+
+    protected int add(byte kind, byte[] bytes, int hash, int cell) {
+        if (size >= MAX_SIZE) {
+            throw new IllegalStateException("The dictionary cannot hold more than " + MAX_SIZE + " entries.");
+        }
+        int id = size;
+        if (id == addresses.length) {
+            int capacity = (int) Math.min(MAX_SIZE, ((long) id) << 1);
+            addresses = Arrays.copyOf(addresses, capacity);
+            hashes = Arrays.copyOf(hashes, capacity);
+            kinds = Arrays.copyOf(kinds, capacity);
+        }
+        addresses[id] = arena.append(bytes);
+        hashes[id] = hash;
+        kinds[id] = kind;
+        table[cell] = id + 1;
+        ++size;
+        // Keep the load factor below 0.75
+        if ((size > ((table.length >> 2) * 3)) && (table.length < MAX_TABLE_SIZE)) {
+            rehash(table.length << 1);
+        }
+        return id;
+    }
+
+    protected void rehash(int tableSize) {
+        int[] newTable = new int[tableSize];
+        int newMask = tableSize - 1;
+        int cell;
+        for (int id = 0; id < size; ++id) {
+            cell = hashes[id] & newMask;
+            while (newTable[cell] != 0) {
+                cell = (cell + 1) & newMask;
+            }
+            newTable[cell] = id + 1;
+        }
+        table = newTable;
+        mask = newMask;
+    }
+
+    /**
+     * Returns the String with the given ID. For nodes that are not IRIs, this is
+     * their N-Triples form.
+     *
+     * @param id the ID of the entry
+     * @return the String of the entry
+     * @throws IndexOutOfBoundsException if the ID is not part of the dictionary
+     */
+    public String getString(int id) {
+        lock.readLock().lock();
+        try {
+            checkId(id);
+            long address = addresses[id];
+            return new String(arena.page(address), arena.dataOffset(address), arena.length(address),
+                    StandardCharsets.UTF_8);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the node with the given ID. Entries that have been added as String
+     * are returned as IRI nodes.
+     *
+     * @param id the ID of the entry
+     * @return the node of the entry
+     * @throws IndexOutOfBoundsException if the ID is not part of the dictionary
+     */
+    public Node getNode(int id) {
+        byte kind;
+        lock.readLock().lock();
+        try {
+            checkId(id);
+            kind = kinds[id];
+        } finally {
+            lock.readLock().unlock();
+        }
+        String s = getString(id);
+        if (kind == KIND_STRING) {
+            return NodeFactory.createURI(s);
+        } else {
+            return NodeFactoryExtra.parseNode(s);
+        }
+    }
+
+    /**
+     * Decodes the given groups of IDs (e.g., the result of an
+     * {@link org.dice_research.rdf.stream.collect.IntGroupByCollector}) into a map
+     * of Strings, e.g., to write them to a file.
+     *
+     * @param groups the groups of IDs
+     * @return a map containing the Strings of the keys and values
+     */
+    public HashMap<String, Set<String>> decodeGroups(IntObjectOpenHashMap<? extends IntContainer> groups) {
+        HashMap<String, Set<String>> result = new HashMap<>();
+        for (IntObjectCursor<? extends IntContainer> group : groups) {
+            Set<String> values = new HashSet<>();
+            for (IntCursor value : group.value) {
+                values.add(getString(value.value));
+            }
+            result.put(getString(group.key), values);
+        }
+        return result;
+    }
+
+    protected void checkId(int id) {
+        if ((id < 0) || (id >= size)) {
+            throw new IndexOutOfBoundsException("The ID " + id + " is not part of this dictionary.");
+        }
+    }
+
+    /**
+     * @return the number of entries in this dictionary
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return the number of bytes the entries occupy within the arena
+     */
+    public long arenaBytes() {
+        lock.readLock().lock();
+        try {
+            return arena.usedBytes();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    protected static int hash(byte kind, byte[] bytes) {
+        // FNV-1a followed by the finalization step of MurmurHash3
+        int h = 0x811C9DC5 ^ kind;
+        for (int i = 0; i < bytes.length; ++i) {
+            h = (h ^ bytes[i]) * 0x01000193;
+        }
+        h ^= h >>> 16;
+        h *= 0x85EBCA6B;
+        h ^= h >>> 13;
+        h *= 0xC2B2AE35;
+        h ^= h >>> 16;
+        return h;
+    }
+}
@@ -0,0 +1,549 @@
+package org.dice_research.rdf.stream.dict;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.NodeFactory;
+import org.apache.jena.graph.Triple;
+import org.apache.jena.riot.out.NodeFmtLib;
+import org.apache.jena.sparql.util.NodeFactoryExtra;
+
+import com.carrotsearch.hppc.LongContainer;
+import com.carrotsearch.hppc.LongObjectOpenHashMap;
+import com.carrotsearch.hppc.cursors.LongCursor;
+import com.carrotsearch.hppc.cursors.LongObjectCursor;
+
+/**
+ * An append-only set of Strings and {@link Node}s that is stored outside of the
+ * Java heap. The entries are written UTF-8 encoded into direct
+ * {@link ByteBuffer} pages and are indexed by an open-addressing hash table of
+ * primitive handles. Hence, the arena neither creates objects per entry nor
+ * does it give the garbage collector anything to scan apart from a single long
+ * array. Collectors can store the {@code long} handles of the entries (e.g.,
+ * using {@link #handleFunction(Function)} together with a
+ * {@link org.dice_research.rdf.stream.collect.LongGroupByCollector}) instead of
+ * storing the Strings. The arena can hold up to {@link #MAX_SIZE} entries.
+ *
+ * <p>
+ * A handle contains the index of the page in its upper 32 bits and the offset
+ * of the entry within the page in its lower 32 bits. Each entry starts with its
+ * hash value and its length followed by its bytes. As in the
+ * {@link NodeDictionary}, IRI nodes are represented by their IRI while all
+ * other nodes are stored in their N-Triples form and are distinguished from
+ * plain Strings.
+ * </p>
+ *
+ * <p>
+ * The memory of the arena is freed when {@link #close()} is called. After
+ * that, the arena can not be used anymore. The arena is thread-safe. Lookups of
+ * existing entries can happen in parallel while adding a new entry requires
+ * exclusive access.
+ * </p>
+ *
+ * @author Michael R&ouml;der (michael.roeder@uni-paderborn.de)
+ *
+ */
+public class OffHeapStringArena implements AutoCloseable {
+
+    /**
+     * The handle that is returned if an entry is not part of the arena.
+     */
+    public static final long NO_HANDLE = -1;
+    /**
+     * The default size of a single page (16 MiB).
+     */
+    public static final int DEFAULT_PAGE_SIZE = 1 << 24;
+
+    /**
+     * The number of bytes in front of an entry (hash value and length).
+     */
+    protected static final int HEADER_SIZE = 8;
+    /**
+     * The bit of the length field that marks entries that are non-IRI nodes in
+     * N-Triples form.
+     */
+    protected static final int NODE_FLAG = 0x80000000;
+
+    protected static final int MAX_TABLE_SIZE = 1 << 30;
+    /**
+     * The maximum number of entries. The hash table can not grow beyond
+     * {@link #MAX_TABLE_SIZE} cells and its load factor has to stay below 0.75
+     * since a full table would let the linear probing run forever.
+     */
+    public static final int MAX_SIZE = (MAX_TABLE_SIZE >> 2) * 3;
+
+    /**
+     * The size of a regular page.
+     */
+    protected final int pageSize;
+    /**
+     * The pages of this arena.
+     */
+    protected ByteBuffer[] pages = new ByteBuffer[16];
+    /**
+     * The number of bytes that are used in each of the pages.
+     */
+    protected int[] pageEnds = new int[16];
+    /**
+     * The number of pages that are in use.
+     */
+    protected int pageCount = 0;
+    /**
+     * The open-addressing hash table. A cell contains the handle of an entry + 1
+     * or 0 if it is empty.
+     */
+    protected long[] table;
+    /**
+     * The mask that is used to map hash values to cells of the table.
+     */
+    protected int mask;
+    /**
+     * The number of entries.
+     */
+    protected int size = 0;
+    /**
+     * The number of bytes that are allocated outside of the heap.
+     */
+    protected long allocatedBytes = 0;
+    /**
+     * Flag indicating whether the arena has been closed.
+     */
+    protected boolean closed = false;
+    /**
+     * The lock that guards the access to the arena.
+     */
+    protected final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * Constructor using the {@link #DEFAULT_PAGE_SIZE}.
+     */
+    public OffHeapStringArena() {
+        this(1024, DEFAULT_PAGE_SIZE);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param expectedSize the number of entries that is expected
+     * @param pageSize     the size of a single page in bytes
+     */
+    public OffHeapStringArena(int expectedSize, int pageSize) {
+        if (pageSize < 64) {
+            throw new IllegalArgumentException(
+                    "The given page size (" + pageSize + ") is smaller than 64. This is not allowed.");
+        }
+        this.pageSize = pageSize;
+        int capacity = Math.max(16, expectedSize);
+        int tableSize = Integer.highestOneBit(Math.min(MAX_TABLE_SIZE / 2, capacity) * 2 - 1) << 1;
+        table = new long[tableSize];
+        mask = tableSize - 1;
+    }
+
+    /**
+     * Returns the handle of the given String.
+     *
+     * @param s the String
+     * @return the handle of the String or {@link #NO_HANDLE} if it is not part of
+     *         the arena
+     */
+    public long getHandle(String s) {
+        return getHandle(0, s.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Returns the handle of the given node.
+     *
+     * @param node the node
+     * @return the handle of the node or {@link #NO_HANDLE} if it is not part of
+     *         the arena
+     */
+    public long getHandle(Node node) {
+        if (node.isURI()) {
+            return getHandle(node.getURI());
+        } else {
+            return getHandle(NODE_FLAG, NodeFmtLib.strNT(node).getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    /**
+     * Returns the handle of the given String. If the String is not part of the
+     * arena, it is added.
+     *
+     * @param s the String
+     * @return the handle of the String
+     */
+    public long getOrAddHandle(String s) {
+        return getOrAddHandle(0, s.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Returns the handle of the given node. If the node is not part of the arena,
+     * it is added.
+     *
+     * @param node the node
+     * @return the handle of the node
+     */
+    public long getOrAddHandle(Node node) {
+        if (node.isURI()) {
+            return getOrAddHandle(node.getURI());
+        } else {
+            return getOrAddHandle(NODE_FLAG, NodeFmtLib.strNT(node).getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    /**
+     * Creates a function that selects a node from a given triple using the given
+     * function and returns its handle. The node is added to the arena if
+     * necessary.
+     *
+     * @param nodeFunction the function that selects a node from a triple
+     * @return a function mapping a triple to the handle of the selected node
+     */
+    public ToLongFunction<Triple> handleFunction(Function<Triple, Node> nodeFunction) {
+        return t -> getOrAddHandle(nodeFunction.apply(t));
+    }
+
+    protected long getHandle(int flag, byte[] bytes) {
+        int hash = NodeDictionary.hash((byte) (flag >>> 31), bytes);
+        lock.readLock().lock();
+        try {
+            checkOpen();
+            return table[findCell(flag, bytes, hash)] - 1;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    protected long getOrAddHandle(int flag, byte[] bytes) {
+        int hash = NodeDictionary.hash((byte) (flag >>> 31), bytes);
+        lock.readLock().lock();
+        try {
+            checkOpen();
+            long handle = table[findCell(flag, bytes, hash)] - 1;
+            if (handle != NO_HANDLE) {
+                return handle;
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        lock.writeLock().lock();
+        try {
+            checkOpen();
+            // Another thread might have added the entry in the meantime
+            int cell = findCell(flag, bytes, hash);
+            if (table[cell] != 0) {
+                return table[cell] - 1;
+            }
+            return add(flag, bytes, hash, cell);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the cell of the table that contains the given entry or the empty
+     * cell at which it would have to be inserted.
+     */
+    protected int findCell(int flag, byte[] bytes, int hash) {
+        int cell = hash & mask;
+        long handle;
+        ByteBuffer page;
+        int pos;
+        while (table[cell] != 0) {
+            handle = table[cell] - 1;
+            page = pages[(int) (handle >>> 32)];
+            pos = (int) handle;
+            if ((page.getInt(pos) == hash) && (page.getInt(pos + 4) == (flag | bytes.length))
+                    && equals(page, pos + HEADER_SIZE, bytes)) {
+                return cell;
+            }
+            cell = (cell + 1) & mask;
+        }
+        return cell;
+    }
+
+    protected static boolean equals(ByteBuffer page, int pos, byte[] bytes) {
+        for (int i = 0; i < bytes.length; ++i) {
+            if (page.get(pos + i) != bytes[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    protected long add(int flag, byte[] bytes, int hash, int cell) {
+        if (size >= MAX_SIZE) {
+            throw new IllegalStateException("The arena cannot hold more than " + MAX_SIZE + " entries.");
+        }
+        int required = HEADER_SIZE + bytes.length;
+        if ((pageCount == 0) || (pageEnds[pageCount - 1] + required > pages[pageCount - 1].capacity())) {
+            addPage(Math.max(pageSize, required));
+        }
+        ByteBuffer page = pages[pageCount - 1];
+        int pos = pageEnds[pageCount - 1];
+        page.putInt(pos, hash);
+        page.putInt(pos + 4, flag | bytes.length);
+        page.put(pos + HEADER_SIZE, bytes);
+        pageEnds[pageCount - 1] = pos + required;
+        long handle = (((long) (pageCount - 1)) << 32) | pos;
+        table[cell] = handle + 1;
+        ++size;
+        // Keep the load factor below 0.75
+        if ((size > ((table.length >> 2) * 3)) && (table.length < MAX_TABLE_SIZE)) {
+            rehash(table.length << 1);
+        }
+        return handle;
+    }
+
+    protected void addPage(int size) {
+        if (pageCount == pages.length) {
+            pages = Arrays.copyOf(pages, pages.length << 1);
+            pageEnds = Arrays.copyOf(pageEnds, pageEnds.length << 1);
+        }
+        pages[pageCount] = ByteBuffer.allocateDirect(size);
+        pageEnds[pageCount] = 0;
+        allocatedBytes += size;
+        ++pageCount;
+    }
+
+    protected void rehash(int tableSize) {
+        long[] newTable = new long[tableSize];
+        int newMask = tableSize - 1;
+        int cell;
+        long handle;
+        for (int i = 0; i < table.length; ++i) {
+            if (table[i] != 0) {
+                handle = table[i] - 1;
+                cell = pages[(int) (handle >>> 32)].getInt((int) handle) & newMask;
+                while (newTable[cell] != 0) {
+                    cell = (cell + 1) & newMask;
+                }
+                newTable[cell] = table[i];
+            }
+        }
+        table = newTable;
+        mask = newMask;
+    }
+
+    /**
+     * Returns the String with the given handle. For nodes that are not IRIs, this
+     * is their N-Triples form.
+     *
+     * @param handle the handle of the entry
+     * @return the String of the entry
+     */
+    public String getString(long handle) {
+        lock.readLock().lock();
+        try {
+            checkOpen();
+            return readString(handle);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the node with the given handle. Entries that have been added as
+     * String are returned as IRI nodes.
+     *
+     * @param handle the handle of the entry
+     * @return the node of the entry
+     */
+    public Node getNode(long handle) {
+        String s;
+        boolean isNode;
+        lock.readLock().lock();
+        try {
+            checkOpen();
+            isNode = (pages[(int) (handle >>> 32)].getInt((int) handle + 4) & NODE_FLAG) != 0;
+            s = readString(handle);
+        } finally {
+            lock.readLock().unlock();
+        }
+        if (isNode) {
+            return NodeFactoryExtra.parseNode(s);
+        } else {
+            return NodeFactory.createURI(s);
+        }
+    }
+
+    protected String readString(long handle) {
+        int pageId = (int) (handle >>> 32);
+        int pos = (int) handle;
+        if ((handle < 0) || (pageId >= pageCount) || (pos + HEADER_SIZE > pageEnds[pageId])) {
+            throw new IndexOutOfBoundsException("The handle " + handle + " is not part of this arena.");
+        }
+        ByteBuffer page = pages[pageId];
+        byte[] bytes = new byte[page.getInt(pos + 4) & ~NODE_FLAG];
+        page.get(pos + HEADER_SIZE, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Hands the Strings of all entries to the given consumer in the order in
+     * which they have been added.
+     *
+     * @param consumer the consumer of the entries
+     */
+    public void forEach(Consumer<String> consumer) {
+        lock.readLock().lock();
+        try {
+            checkOpen();
+            int pos;
+            for (int p = 0; p < pageCount; ++p) {
+                pos = 0;
+                while (pos < pageEnds[p]) {
+                    consumer.accept(readString((((long) p) << 32) | pos));
+                    pos += HEADER_SIZE + (pages[p].getInt(pos + 4) & ~NODE_FLAG);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Decodes the given groups of handles (e.g., the result of a
+     * {@link org.dice_research.rdf.stream.collect.LongGroupByCollector}) into a
+     * map of Strings, e.g., to write them to a file.
+     *
+     * @param groups the groups of handles
+     * @return a map containing the Strings of the keys and values
+     */
+    public HashMap<String, Set<String>> decodeGroups(LongObjectOpenHashMap<? extends LongContainer> groups) {
+        HashMap<String, Set<String>> result = new HashMap<>();
+        for (LongObjectCursor<? extends LongContainer> group : groups) {
+            Set<String> values = new HashSet<>();
+            for (LongCursor value : group.value) {
+                values.add(getString(value.value));
+            }
+            result.put(getString(group.key), values);
+        }
+        return result;
+    }
+
+    protected void checkOpen() {
+        if (closed) {
+            throw new IllegalStateException("The arena has already been closed.");
+        }
+    }
+
+    /**
+     * @return the number of entries in this arena
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return the number of bytes that are used by the entries (including their
+     *         headers)
+     */
+    public long usedBytes() {
+        lock.readLock().lock();
+        try {
+            long sum = 0;
+            for (int i = 0; i < pageCount; ++i) {
+                sum += pageEnds[i];
+            }
+            return sum;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return the number of bytes that are allocated outside of the heap
+     */
+    public long allocatedBytes() {
+        lock.readLock().lock();
+        try {
+            return allocatedBytes;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Frees the memory of this arena. Handles that have been retrieved before
+     * must not be used anymore.
+     */
+    @Override
+    public void close() {
+        lock.writeLock().lock();
+        try {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            for (int i = 0; i < pageCount; ++i) {
+                free(pages[i]);
+                pages[i] = null;
+            }
+            pageCount = 0;
+            allocatedBytes = 0;
+            size = 0;
+            table = new long[0];
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * The {@code sun.misc.Unsafe} instance and its {@code invokeCleaner} method
+     * that are used to free direct buffers or {@code null} if they are not
+     * available.
+     */
+    private static final Object UNSAFE;
+    private static final Method INVOKE_CLEANER;
+
+    static {
+        Object unsafe = null;
+        Method invokeCleaner = null;
+        try {
+            Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+            Field field = unsafeClass.getDeclaredField("theUnsafe");
+            field.setAccessible(true);
+            unsafe = field.get(null);
+            invokeCleaner = unsafeClass.getMethod("invokeCleaner", ByteBuffer.class);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            // The buffers will be freed by the garbage collector
+            unsafe = null;
+            invokeCleaner = null;
+        }
+        UNSAFE = unsafe;
+        INVOKE_CLEANER = invokeCleaner;
+    }
+
+    /**
+     * Frees the memory of the given direct buffer immediately if possible.
+     * Otherwise, it is freed by the garbage collector when the buffer is not
+     * referenced anymore.
+     */
+    protected static void free(ByteBuffer buffer) {
+        if (INVOKE_CLEANER != null) {
+            try {
+                INVOKE_CLEANER.invoke(UNSAFE, buffer);
+            } catch (ReflectiveOperationException | RuntimeException e) {
+                // The buffer will be freed by the garbage collector
+            }
+        }
+    }
+}
@@ -0,0 +1,220 @@
+package org.dice_research.rdf.stream.dict;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * An immutable, sorted table of IRIs that is stored outside of the Java heap.
+ * The IRIs are stored UTF-8 encoded and separated by line breaks in a direct or
+ * memory-mapped {@link ByteBuffer}, sorted by their unsigned byte values. Only
+ * the start positions of the IRIs (4 bytes per IRI) are kept on the heap.
+ * {@link #contains(String)} performs a binary search. Hence, the table is
+ * slower than a {@link java.util.HashSet} but needs only a fraction of its
+ * memory and does not put any pressure on the garbage collector.
+ *
+ * <p>
+ * A table can be created from a collection of IRIs (which have to fit into
+ * memory while the table is built) or loaded from a file containing one IRI
+ * per line that has been sorted by byte values, e.g., using
+ * {@code LC_ALL=C sort -u}. The size of the table is limited to 2 GiB.
+ * </p>
+ *
+ * <p>
+ * The table is thread-safe.
+ * </p>
+ *
+ * @author Michael R&ouml;der (michael.roeder@uni-paderborn.de)
+ *
+ */
+public class SortedIriTable {
+
+    protected static final byte LINE_BREAK = '\n';
+
+    /**
+     * The UTF-8 encoded IRIs, each followed by a line break.
+     */
+    protected final ByteBuffer data;
+    /**
+     * The start positions of the IRIs within the buffer. The last element is the
+     * position after the line break of the last IRI.
+     */
+    protected final int[] starts;
+
+    protected SortedIriTable(ByteBuffer data, int[] starts) {
+        this.data = data;
+        this.starts = starts;
+    }
+
+    /**
+     * Creates a table containing the given IRIs.
+     *
+     * @param iris the IRIs that should be part of the table
+     * @return the created table
+     */
+    public static SortedIriTable create(Collection<String> iris) {
+        byte[][] encoded = new byte[iris.size()][];
+        int count = 0;
+        for (String iri : iris) {
+            encoded[count] = iri.getBytes(StandardCharsets.UTF_8);
+            ++count;
+        }
+        Arrays.sort(encoded, Arrays::compareUnsigned);
+        long size = 0;
+        int unique = 0;
+        for (int i = 0; i < encoded.length; ++i) {
+            // Remove duplicates
+            if ((unique == 0) || !Arrays.equals(encoded[unique - 1], encoded[i])) {
+                encoded[unique] = encoded[i];
+                size += encoded[i].length + 1;
+                ++unique;
+            }
+        }
+        if (size > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("The given IRIs need more than 2 GiB. This is not supported.");
+        }
+        ByteBuffer data = ByteBuffer.allocateDirect((int) size);
+        int[] starts = new int[unique + 1];
+        for (int i = 0; i < unique; ++i) {
+            starts[i] = data.position();
+            data.put(encoded[i]);
+            data.put(LINE_BREAK);
+        }
+        starts[unique] = data.position();
+        return new SortedIriTable(data.asReadOnlyBuffer(), starts);
+    }
+
+    /**
+     * Memory-maps the given file and creates a table containing its lines. The
+     * lines have to be separated by line feeds and have to be sorted by their
+     * (unsigned) byte values.
+     *
+     * @param file the file containing one IRI per line
+     * @return the created table
+     * @throws IOException              if the file can not be read
+     * @throws IllegalArgumentException if the file is larger than 2 GiB or its
+     *                                  lines are not sorted and unique
+     */
+    public static SortedIriTable load(File file) throws IOException {
+        ByteBuffer data;
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("The given file is larger than 2 GiB. This is not supported.");
+            }
+            data = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        int limit = data.limit();
+        int[] starts = new int[1024];
+        int count = 0;
+        int start = 0;
+        for (int pos = 0; pos < limit; ++pos) {
+            if (data.get(pos) == LINE_BREAK) {
+                if (pos == start) {
+                    throw new IllegalArgumentException(
+                            "The given file contains an empty line (line " + (count + 1) + "). This is not allowed.");
+                }
+                checkOrder(starts, count, data, start);
+                if (count + 2 >= starts.length) {
+                    starts = Arrays.copyOf(starts, starts.length << 1);
+                }
+                starts[count] = start;
+                ++count;
+                start = pos + 1;
+            }
+        }
+        // Handle a last line without line break
+        if (start < limit) {
+            checkOrder(starts, count, data, start);
+            starts[count] = start;
+            ++count;
+            starts[count] = limit + 1;
+        } else {
+            starts[count] = limit;
+        }
+        return new SortedIriTable(data, Arrays.copyOf(starts, count + 1));
+    }
+
+    /**
+     * Makes sure that the line starting at the given position is larger than the
+     * previous line.
+     */
+    protected static void checkOrder(int[] starts, int count, ByteBuffer data, int start) {
+        if ((count > 0) && (compare(data, starts[count - 1], start - 1, data, start, lineEnd(data, start)) >= 0)) {
+            throw new IllegalArgumentException("The lines of the given file are not sorted and unique (line "
+                    + (count + 1) + "). Sort the file with \"LC_ALL=C sort -u\" first.");
+        }
+    }
+
+    protected static int lineEnd(ByteBuffer data, int start) {
+        int pos = start;
+        int limit = data.limit();
+        while ((pos < limit) && (data.get(pos) != LINE_BREAK)) {
+            ++pos;
+        }
+        return pos;
+    }
+
+    /**
+     * Checks whether the given IRI is part of the table.
+     *
+     * @param iri the IRI that should be checked
+     * @return {@code true} if the IRI is part of the table
+     */
+    public boolean contains(String iri) {
+        byte[] key = iri.getBytes(StandardCharsets.UTF_8);
+        ByteBuffer keyBuffer = ByteBuffer.wrap(key);
+        int low = 0;
+        int high = starts.length - 2;
+        int middle;
+        int result;
+        while (low <= high) {
+            middle = (low + high) >>> 1;
+            result = compare(data, starts[middle], starts[middle + 1] - 1, keyBuffer, 0, key.length);
+            if (result < 0) {
+                low = middle + 1;
+            } else if (result > 0) {
+                high = middle - 1;
+            } else {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Compares the given ranges of the two buffers based on their unsigned byte
+     * values.
+     */
+    protected static int compare(ByteBuffer b1, int start1, int end1, ByteBuffer b2, int start2, int end2) {
+        int length1 = end1 - start1;
+        int length2 = end2 - start2;
+        int length = Math.min(length1, length2);
+        int result;
+        for (int i = 0; i < length; ++i) {
+            result = Byte.toUnsignedInt(b1.get(start1 + i)) - Byte.toUnsignedInt(b2.get(start2 + i));
+            if (result != 0) {
+                return result;
+            }
+        }
+        return length1 - length2;
+    }
+
+    /**
+     * @return the number of IRIs in this table
+     */
+    public int size() {
+        return starts.length - 1;
+    }
+
+    /**
+     * @return the number of bytes the IRIs occupy outside of the heap
+     */
+    public int getDataSize() {
+        return data.limit();
+    }
+}
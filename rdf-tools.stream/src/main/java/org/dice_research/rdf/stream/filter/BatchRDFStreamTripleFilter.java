@@ -0,0 +1,41 @@
+package org.dice_research.rdf.stream.filter;
+
+import java.util.function.Predicate;
+
+import org.apache.jena.graph.Triple;
+import org.apache.jena.riot.system.StreamRDF;
+import org.apache.jena.sparql.core.Quad;
+import org.dice_research.rdf.stream.ABatchStreamRDFFilter;
+
+/**
+ * The batch-aware version of the {@link RDFStreamTripleFilter}. It applies the
+ * given {@link Predicate} to all elements of a received batch in a single loop.
+ *
+ * @author Michael R&ouml;der (michael.roeder@uni-paderborn.de)
+ *
+ */
+public class BatchRDFStreamTripleFilter extends ABatchStreamRDFFilter {
+
+    protected Predicate<Triple> tripleFilter;
+
+    public BatchRDFStreamTripleFilter(Predicate<Triple> tripleFilter, StreamRDF accepted) {
+        super(accepted);
+        this.tripleFilter = tripleFilter;
+    }
+
+    public BatchRDFStreamTripleFilter(Predicate<Triple> tripleFilter, StreamRDF accepted, StreamRDF rejected) {
+        super(accepted, rejected);
+        this.tripleFilter = tripleFilter;
+    }
+
+    @Override
+    protected boolean filter(Triple triple) {
+        return tripleFilter.test(triple);
+    }
+
+    @Override
+    protected boolean filter(Quad quad) {
+        return filter(quad.asTriple());
+    }
+
+}
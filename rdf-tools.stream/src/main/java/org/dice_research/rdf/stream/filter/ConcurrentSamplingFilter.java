@@ -0,0 +1,153 @@
+package org.dice_research.rdf.stream.filter;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+
+import org.dice_research.java.sketch.Hashing;
+
+/**
+ * A variant of the {@link SamplingFilter} that can be used by several threads
+ * in parallel without locks. Each thread uses its own {@link SplittableRandom}
+ * and the optional maximum number of chosen elements is enforced with an
+ * {@link AtomicLong}.
+ *
+ * <p>
+ * The random number generators are derived from the given seed. If the filter
+ * is used directly, each thread receives the generator of the next partition
+ * when it calls {@link #test(Object)} for the first time. Hence, the result
+ * depends on the order in which the threads start. For a deterministic
+ * sampling, {@link #partition(int)} should be used to get a predicate for each
+ * partition of the data (e.g., one per chunk of a file). For a given seed and
+ * partitioning, the chosen elements of each partition are then always the
+ * same. <b>Note</b> that if a maximum number of chosen elements is set, the
+ * partitions compete for it. In this case, the result is only deterministic if
+ * the maximum is not reached.
+ * </p>
+ *
+ * @author Michael R&ouml;der (michael.roeder@uni-paderborn.de)
+ *
+ * @param <T>
+ */
+public class ConcurrentSamplingFilter<T> implements Predicate<T> {
+
+    /**
+     * The probability that an element is chosen.
+     */
+    protected double probability;
+    /**
+     * Maximum number of chosen elements (optional, values &lt;= 0 mean that there
+     * is no maximum).
+     */
+    protected long maxNumberOfChosen;
+    /**
+     * The seed from which the random number generators are derived.
+     */
+    protected long seed;
+    /**
+     * Number of chosen elements.
+     */
+    protected final AtomicLong numberOfChosen = new AtomicLong();
+    /**
+     * The partition that is assigned to the next thread that uses this filter
+     * directly.
+     */
+    protected final AtomicInteger nextThreadPartition = new AtomicInteger();
+    /**
+     * The random number generators of the threads that use this filter directly.
+     */
+    protected final ThreadLocal<SplittableRandom> threadRandom = ThreadLocal
+            .withInitial(() -> createRandom(nextThreadPartition.getAndIncrement()));
+
+    /**
+     * Constructor. {@link System#currentTimeMillis()} will be used as seed.
+     * 
+     * @param probability The probability that an element is chosen.
+     */
+    public ConcurrentSamplingFilter(double probability) {
+        this(probability, 0, System.currentTimeMillis());
+    }
+
+    /**
+     * Constructor.
+     * 
+     * @param probability The probability that an element is chosen.
+     * @param seed        The seed from which the random number generators are
+     *                    derived.
+     */
+    public ConcurrentSamplingFilter(double probability, long seed) {
+        this(probability, 0, seed);
+    }
+
+    /**
+     * Constructor.
+     * 
+     * @param probability       The probability that an element is chosen.
+     * @param maxNumberOfChosen Maximum number of chosen elements.
+     * @param seed              The seed from which the random number generators
+     *                          are derived.
+     */
+    public ConcurrentSamplingFilter(double probability, long maxNumberOfChosen, long seed) {
+        if (probability < 0) {
+            throw new IllegalArgumentException(
+                    "The given probability (" + probability + ") is smaller than 0. This is not allowed.");
+        }
+        if (probability > 1.0) {
+            throw new IllegalArgumentException(
+                    "The given probability (" + probability + ") is larger than 1.0. This is not allowed.");
+        }
+        this.probability = probability;
+        this.maxNumberOfChosen = maxNumberOfChosen;
+        this.seed = seed;
+    }
+
+    @Override
+    public boolean test(T t) {
+        return test(threadRandom.get());
+    }
+
+    /**
+     * Returns a predicate for the given partition of the data. The predicate
+     * uses its own random number generator, which only depends on the seed of
+     * this filter and the given partition. The predicate shares the maximum
+     * number of chosen elements with this filter. It should be used by a single
+     * thread only.
+     * 
+     * @param partition the ID of the partition
+     * @return the predicate for the partition
+     */
+    public Predicate<T> partition(int partition) {
+        SplittableRandom random = createRandom(partition);
+        return t -> test(random);
+    }
+
+    protected SplittableRandom createRandom(int partition) {
+        return new SplittableRandom(Hashing.mix64(seed + partition * 0x9E3779B97F4A7C15L));
+    }
+
+    protected boolean test(SplittableRandom random) {
+        if (random.nextDouble() >= probability) {
+            return false;
+        }
+        if (maxNumberOfChosen <= 0) {
+            return true;
+        }
+        long chosen = numberOfChosen.get();
+        while (chosen < maxNumberOfChosen) {
+            if (numberOfChosen.compareAndSet(chosen, chosen + 1)) {
+                return true;
+            }
+            chosen = numberOfChosen.get();
+        }
+        return false;
+    }
+
+    /**
+     * @return the number of elements that have been chosen so far
+     */
+    public long getNumberOfChosen() {
+        return numberOfChosen.get();
+    }
+
+}
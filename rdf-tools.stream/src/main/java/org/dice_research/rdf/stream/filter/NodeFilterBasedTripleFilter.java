@@ -22,10 +22,31 @@ public class NodeFilterBasedTripleFilter implements Predicate<Triple> {
     @Override
     public boolean test(Triple t) {
         return (subjectCheck == null || subjectCheck.test(t.getSubject()))
-                & (predicateCheck == null || predicateCheck.test(t.getPredicate()))
+                && (predicateCheck == null || predicateCheck.test(t.getPredicate()))
                 && (objectCheck == null || objectCheck.test(t.getObject()));
     }
 
+    /**
+     * @return the check that is applied to the subject (may be {@code null})
+     */
+    public Predicate<Node> getSubjectCheck() {
+        return subjectCheck;
+    }
+
+    /**
+     * @return the check that is applied to the predicate (may be {@code null})
+     */
+    public Predicate<Node> getPredicateCheck() {
+        return predicateCheck;
+    }
+
+    /**
+     * @return the check that is applied to the object (may be {@code null})
+     */
+    public Predicate<Node> getObjectCheck() {
+        return objectCheck;
+    }
+
     // FIXME Add builder to create this filter in an easier way (i.e., accept
     // String... for single positions, put null in positions that are not set, etc.)
 }
@@ -1,32 +1,99 @@
 package org.dice_research.rdf.stream.filter;
 
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.Objects;
 import java.util.Set;
 import java.util.function.Predicate;
 
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.NodeFactory;
 import org.apache.jena.graph.Triple;
 
+/**
+ * A filter that accepts triples with one of the given properties as predicate.
+ *
+ * <p>
+ * The properties are kept as set of {@link Node} instances. Hence, a check
+ * relies on the hash of the predicate node (which is cached by the IRI String
+ * of the node) and on its equality, which succeeds on identity if the parser
+ * reuses node instances. If only a single property is accepted, the check is a
+ * simple comparison with this property. Predicates that are not IRIs are
+ * rejected.
+ * </p>
+ *
+ * <p>
+ * <b>Note</b> that the given set of properties is copied, i.e., later changes
+ * of the set do not affect the filter. The accepted properties can be changed
+ * with {@link #setAcceptedProperties(Set)}.
+ * </p>
+ *
+ * @author Michael R&ouml;der (michael.roeder@uni-paderborn.de)
+ *
+ */
 public class PropertyBasedTripleFilter implements Predicate<Triple> {
 
     /**
      * Set of properties that are accepted as predicate of the triples.
+     *
+     * @deprecated The filter relies on {@link #acceptedPropertyNodes}. Changes
+     *             of this set do not affect the filter. Use
+     *             {@link #setAcceptedProperties(Set)} instead.
      */
+    @Deprecated
     protected Set<String> acceptedProperties;
+    /**
+     * Set of nodes of the properties that are accepted as predicate of the
+     * triples.
+     */
+    protected Set<Node> acceptedPropertyNodes;
+    /**
+     * The node of the accepted property if exactly one property is accepted.
+     * Else, {@code null}.
+     */
+    protected Node singleProperty;
 
-    public PropertyBasedTripleFilter(String...acceptedProperties) {
+    public PropertyBasedTripleFilter(String... acceptedProperties) {
         this(new HashSet<String>(Arrays.asList(acceptedProperties)));
     }
 
     public PropertyBasedTripleFilter(Set<String> acceptedProperties) {
-        Objects.requireNonNull(acceptedProperties, "A filter with null as accepted properties does not work.");
-        this.acceptedProperties = acceptedProperties;
+        setAcceptedProperties(acceptedProperties);
     }
 
     @Override
     public boolean test(Triple t) {
-        return acceptedProperties.contains(t.getPredicate().getURI());
+        Node predicate = t.getPredicate();
+        if (singleProperty != null) {
+            return (predicate == singleProperty) || singleProperty.equals(predicate);
+        }
+        return acceptedPropertyNodes.contains(predicate);
+    }
+
+    /**
+     * @return an unmodifiable view of the IRIs of the accepted properties
+     */
+    @SuppressWarnings("deprecation")
+    public Set<String> getAcceptedProperties() {
+        return Collections.unmodifiableSet(acceptedProperties);
+    }
+
+    /**
+     * Replaces the accepted properties. The given set is copied.
+     *
+     * @param acceptedProperties the IRIs of the accepted properties
+     */
+    @SuppressWarnings("deprecation")
+    public void setAcceptedProperties(Set<String> acceptedProperties) {
+        Objects.requireNonNull(acceptedProperties, "A filter with null as accepted properties does not work.");
+        Set<Node> nodes = new HashSet<>();
+        for (String property : acceptedProperties) {
+            nodes.add(NodeFactory.createURI(property));
+        }
+        this.acceptedProperties = new HashSet<>(acceptedProperties);
+        this.acceptedPropertyNodes = nodes;
+        this.singleProperty = (nodes.size() == 1) ? nodes.iterator().next() : null;
     }
 
 }
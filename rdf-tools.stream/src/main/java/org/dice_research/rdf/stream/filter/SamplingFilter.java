@@ -33,9 +33,11 @@ public class SamplingFilter<T> implements Predicate<T> {
      */
     protected Random rng;
     /**
-     * Number of chosen triples.
+     * Number of chosen triples. It is volatile since it is read outside of the
+     * synchronized block. See {@link ConcurrentSamplingFilter} for a variant that
+     * does not need locks.
      */
-    protected long numberOfChoseTriples = 0;
+    protected volatile long numberOfChoseTriples = 0;
 
     /**
      * Constructor. {@link System#currentTimeMillis()} will be used as seed for the
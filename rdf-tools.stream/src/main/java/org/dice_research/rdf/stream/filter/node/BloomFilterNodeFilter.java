@@ -0,0 +1,132 @@
+package org.dice_research.rdf.stream.filter.node;
+
+import java.util.Collection;
+import java.util.Objects;
+import java.util.function.Predicate;
+
+import org.apache.jena.graph.Node;
+import org.dice_research.java.sketch.BlockedBloomFilter;
+import org.dice_research.rdf.stream.dict.SortedIriTable;
+import org.dice_research.rdf.stream.util.NodeHashing;
+
+/**
+ * A node filter that checks whether a node is part of a (potentially huge) set
+ * of nodes that is represented by a {@link BlockedBloomFilter}. Compared to a
+ * {@link java.util.Set} of IRIs, the filter needs only a fraction of the memory
+ * (roughly 10 bits per element for a false positive rate of 1%) but may accept
+ * nodes that are not part of the set.
+ * 
+ * <p>
+ * If an exact result is necessary, an additional {@link SortedIriTable} can be
+ * given. Nodes that pass the Bloom filter are then checked against the table.
+ * Since the table is only consulted for the (typically few) nodes that pass the
+ * Bloom filter, the additional costs are small. Note that only IRI nodes can be
+ * checked against the table; other nodes are rejected if a table is given.
+ * </p>
+ * 
+ * @author Michael R&ouml;der (michael.roeder@uni-paderborn.de)
+ *
+ */
+public class BloomFilterNodeFilter extends ANodeFilter implements Predicate<Node> {
+
+    /**
+     * The Bloom filter containing the hash values of the nodes of the set (see
+     * {@link NodeHashing#hash64(Node)}).
+     */
+    protected BlockedBloomFilter filter;
+    /**
+     * The optional table that is used to confirm positive results of the Bloom
+     * filter. It is {@code null} if false positives are acceptable.
+     */
+    protected SortedIriTable exactTable;
+
+    /**
+     * Constructor. Creates a filter that will return true if the tested node
+     * might be part of the set.
+     * 
+     * @param filter the Bloom filter containing the hash values of the nodes of
+     *               the set
+     */
+    public BloomFilterNodeFilter(BlockedBloomFilter filter) {
+        this(filter, null, DEFAULT_RETURN_VALUE);
+    }
+
+    /**
+     * Constructor.
+     * 
+     * @param filter      the Bloom filter containing the hash values of the
+     *                    nodes of the set
+     * @param exactTable  the optional table that is used to confirm positive
+     *                    results of the Bloom filter ({@code null} if false
+     *                    positives are acceptable)
+     * @param returnValue The value that is returned in case the node is part of
+     *                    the set. Else, its inverse is returned
+     */
+    public BloomFilterNodeFilter(BlockedBloomFilter filter, SortedIriTable exactTable, boolean returnValue) {
+        super(returnValue);
+        Objects.requireNonNull(filter, "The given Bloom filter is not allowed to be null.");
+        this.filter = filter;
+        this.exactTable = exactTable;
+    }
+
+    /**
+     * Creates a filter for the given IRIs with the given false positive
+     * probability.
+     * 
+     * @param iris        the IRIs of the set
+     * @param fpp         the false positive probability of the Bloom filter
+     * @param exact       {@code true} if positive results should be confirmed
+     *                    with a {@link SortedIriTable} that is created from the
+     *                    given IRIs
+     * @param returnValue The value that is returned in case the node is part of
+     *                    the set. Else, its inverse is returned
+     * @return the created filter
+     */
+    public static BloomFilterNodeFilter create(Collection<String> iris, double fpp, boolean exact,
+            boolean returnValue) {
+        BlockedBloomFilter filter = BlockedBloomFilter.create(iris.size(), fpp);
+        for (String iri : iris) {
+            filter.put(NodeHashing.hashIri(iri));
+        }
+        return new BloomFilterNodeFilter(filter, exact ? SortedIriTable.create(iris) : null, returnValue);
+    }
+
+    @Override
+    public boolean check(Node n) {
+        if (!filter.mightContain(NodeHashing.hash64(n))) {
+            return false;
+        }
+        if (exactTable == null) {
+            return true;
+        }
+        return n.isURI() && exactTable.contains(n.getURI());
+    }
+
+    /**
+     * @return the filter
+     */
+    public BlockedBloomFilter getFilter() {
+        return filter;
+    }
+
+    /**
+     * @param filter the filter to set
+     */
+    public void setFilter(BlockedBloomFilter filter) {
+        this.filter = filter;
+    }
+
+    /**
+     * @return the exactTable
+     */
+    public SortedIriTable getExactTable() {
+        return exactTable;
+    }
+
+    /**
+     * @param exactTable the exactTable to set
+     */
+    public void setExactTable(SortedIriTable exactTable) {
+        this.exactTable = exactTable;
+    }
+}
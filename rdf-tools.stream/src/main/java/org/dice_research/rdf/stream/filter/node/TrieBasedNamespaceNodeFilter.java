@@ -0,0 +1,65 @@
+package org.dice_research.rdf.stream.filter.node;
+
+import org.apache.jena.graph.Node_URI;
+import org.dice_research.java.stream.PrefixTrie;
+
+/**
+ * A node filter that returns the given boolean value ({@code true} by default)
+ * if the tested node is an IRI node and has an IRI that starts with one of the
+ * given name space IRIs. Else, the inverse of the given boolean value is
+ * returned. It behaves like the {@link StringBasedNamespaceNodeFilter} but
+ * organizes the name spaces in a {@link PrefixTrie}. Hence, the time needed to
+ * check a node does not grow with the number of name spaces, which makes this
+ * filter the better choice for long lists of name spaces.
+ * 
+ * @author Michael R&ouml;der (michael.roeder@uni-paderborn.de)
+ *
+ */
+public class TrieBasedNamespaceNodeFilter extends ATypedNodeFilter {
+
+    /**
+     * The trie containing the name spaces.
+     */
+    protected PrefixTrie namespaces;
+
+    /**
+     * Constructor.
+     * 
+     * @param namespaces the name spaces of accepted IRIs
+     */
+    public TrieBasedNamespaceNodeFilter(String... namespaces) {
+        this(DEFAULT_RETURN_VALUE, namespaces);
+    }
+
+    /**
+     * Constructor.
+     * 
+     * @param returnValue The value that is returned in case the checked IRI belongs
+     *                    to one of the given namespaces
+     * @param namespaces  the name spaces
+     */
+    public TrieBasedNamespaceNodeFilter(boolean returnValue, String... namespaces) {
+        this(returnValue, !returnValue, namespaces);
+    }
+
+    /**
+     * Constructor.
+     * 
+     * @param returnValue       The value that is returned in case the checked IRI
+     *                          belongs to one of the given namespaces. Else, its
+     *                          inverse is returned
+     * @param nonIriReturnValue The value that is returned in case the given node is
+     *                          not an IRI.
+     * @param namespaces        the name spaces
+     */
+    public TrieBasedNamespaceNodeFilter(boolean returnValue, boolean nonIriReturnValue, String... namespaces) {
+        super(returnValue, nonIriReturnValue);
+        this.namespaces = new PrefixTrie(namespaces);
+    }
+
+    @Override
+    protected boolean checkURI(Node_URI n) {
+        return namespaces.isPrefixed(n.getURI());
+    }
+
+}
@@ -0,0 +1,67 @@
+package org.dice_research.rdf.stream.filter.raw;
+
+import java.nio.charset.StandardCharsets;
+
+import org.dice_research.rdf.stream.parse.RawTriple;
+
+/**
+ * A filter that returns the given boolean value ({@code true} by default) if
+ * the checked term of a triple is one of the given IRIs. Else, the inverse of
+ * the given boolean value is returned.
+ *
+ * @author Michael R&ouml;der (michael.roeder@uni-paderborn.de)
+ *
+ */
+public class RawIriEqualityFilter implements RawTripleFilter {
+
+    /**
+     * The index of the checked term (see {@link RawTriple#SUBJECT},
+     * {@link RawTriple#PREDICATE} and {@link RawTriple#OBJECT}).
+     */
+    protected int term;
+    /**
+     * The UTF-8 bytes of the IRIs.
+     */
+    protected byte[][] iris;
+    /**
+     * The value that is returned if the term is one of the IRIs.
+     */
+    protected boolean returnValue;
+
+    /**
+     * Constructor.
+     *
+     * @param term the index of the checked term
+     * @param iris the IRIs
+     */
+    public RawIriEqualityFilter(int term, String... iris) {
+        this(term, true, iris);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param term        the index of the checked term
+     * @param returnValue the value that is returned if the term is one of the
+     *                    given IRIs. Else, its inverse is returned.
+     * @param iris        the IRIs
+     */
+    public RawIriEqualityFilter(int term, boolean returnValue, String... iris) {
+        this.term = term;
+        this.returnValue = returnValue;
+        this.iris = new byte[iris.length][];
+        for (int i = 0; i < iris.length; ++i) {
+            this.iris[i] = iris[i].getBytes(StandardCharsets.UTF_8);
+        }
+    }
+
+    @Override
+    public boolean test(RawTriple triple) {
+        for (int i = 0; i < iris.length; ++i) {
+            if (triple.iriEquals(term, iris[i])) {
+                return returnValue;
+            }
+        }
+        return !returnValue;
+    }
+}
@@ -0,0 +1,69 @@
+package org.dice_research.rdf.stream.filter.raw;
+
+import java.nio.charset.StandardCharsets;
+
+import org.dice_research.rdf.stream.parse.RawTriple;
+
+/**
+ * A filter that returns the given boolean value ({@code true} by default) if
+ * the checked term of a triple is an IRI that starts with one of the given
+ * name space IRIs. Else, the inverse of the given boolean value is returned.
+ * Like the {@link org.dice_research.rdf.stream.filter.node.StringBasedNamespaceNodeFilter},
+ * the check only tests whether the IRI starts with the name space IRI.
+ *
+ * @author Michael R&ouml;der (michael.roeder@uni-paderborn.de)
+ *
+ */
+public class RawNamespaceFilter implements RawTripleFilter {
+
+    /**
+     * The index of the checked term (see {@link RawTriple#SUBJECT},
+     * {@link RawTriple#PREDICATE} and {@link RawTriple#OBJECT}).
+     */
+    protected int term;
+    /**
+     * The UTF-8 bytes of the name spaces.
+     */
+    protected byte[][] namespaces;
+    /**
+     * The value that is returned if the term belongs to one of the name spaces.
+     */
+    protected boolean returnValue;
+
+    /**
+     * Constructor.
+     *
+     * @param term       the index of the checked term
+     * @param namespaces the name space IRIs
+     */
+    public RawNamespaceFilter(int term, String... namespaces) {
+        this(term, true, namespaces);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param term        the index of the checked term
+     * @param returnValue the value that is returned if the term belongs to one of
+     *                    the given name spaces. Else, its inverse is returned.
+     * @param namespaces  the name space IRIs
+     */
+    public RawNamespaceFilter(int term, boolean returnValue, String... namespaces) {
+        this.term = term;
+        this.returnValue = returnValue;
+        this.namespaces = new byte[namespaces.length][];
+        for (int i = 0; i < namespaces.length; ++i) {
+            this.namespaces[i] = namespaces[i].getBytes(StandardCharsets.UTF_8);
+        }
+    }
+
+    @Override
+    public boolean test(RawTriple triple) {
+        for (int i = 0; i < namespaces.length; ++i) {
+            if (triple.iriStartsWith(term, namespaces[i])) {
+                return returnValue;
+            }
+        }
+        return !returnValue;
+    }
+}
@@ -0,0 +1,23 @@
+package org.dice_research.rdf.stream.filter.raw;
+
+import org.dice_research.rdf.stream.parse.RawTriple;
+
+/**
+ * A filter that accepts triples with one of the given properties. It is the
+ * raw counterpart of the
+ * {@link org.dice_research.rdf.stream.filter.PropertyBasedTripleFilter}.
+ *
+ * @author Michael R&ouml;der (michael.roeder@uni-paderborn.de)
+ *
+ */
+public class RawPropertyFilter extends RawIriEqualityFilter {
+
+    /**
+     * Constructor.
+     *
+     * @param properties the IRIs of the accepted properties
+     */
+    public RawPropertyFilter(String... properties) {
+        super(RawTriple.PREDICATE, properties);
+    }
+}
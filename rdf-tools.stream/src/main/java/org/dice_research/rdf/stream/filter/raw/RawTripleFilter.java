@@ -0,0 +1,47 @@
+package org.dice_research.rdf.stream.filter.raw;
+
+import org.dice_research.rdf.stream.parse.RawTriple;
+
+/**
+ * A filter that checks a {@link RawTriple}, i.e., the byte slices of a single
+ * N-Triples line, without materializing its nodes.
+ *
+ * @author Michael R&ouml;der (michael.roeder@uni-paderborn.de)
+ *
+ */
+@FunctionalInterface
+public interface RawTripleFilter {
+
+    /**
+     * Checks the given triple.
+     *
+     * @param triple the triple that should be checked
+     * @return {@code true} if the triple is accepted
+     */
+    public boolean test(RawTriple triple);
+
+    /**
+     * @param other another filter
+     * @return a filter accepting triples that are accepted by this and the other
+     *         filter
+     */
+    public default RawTripleFilter and(RawTripleFilter other) {
+        return t -> test(t) && other.test(t);
+    }
+
+    /**
+     * @param other another filter
+     * @return a filter accepting triples that are accepted by this or the other
+     *         filter
+     */
+    public default RawTripleFilter or(RawTripleFilter other) {
+        return t -> test(t) || other.test(t);
+    }
+
+    /**
+     * @return a filter accepting triples that are rejected by this filter
+     */
+    public default RawTripleFilter negate() {
+        return t -> !test(t);
+    }
+}
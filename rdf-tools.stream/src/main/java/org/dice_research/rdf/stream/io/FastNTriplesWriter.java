@@ -0,0 +1,485 @@
+package org.dice_research.rdf.stream.io;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import org.apache.jena.datatypes.xsd.XSDDatatype;
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.Triple;
+import org.apache.jena.riot.out.NodeFmtLib;
+import org.apache.jena.sparql.core.Quad;
+import org.apache.jena.vocabulary.RDF;
+import org.dice_research.rdf.stream.parse.RawLineTriple;
+
+/**
+ * A writer for N-Triples (and N-Quads) that encodes the nodes directly into
+ * UTF-8 bytes of a reusable buffer instead of using Jena's generic output
+ * machinery and a character encoding layer. The buffer is written to the
+ * underlying stream when it exceeds the buffer size and when {@link #finish()}
+ * is called.
+ *
+ * <p>
+ * The serialized forms of predicates and of the classes of {@code rdf:type}
+ * triples are cached in a small direct-mapped cache since they are repeated
+ * very often. Triples that have been parsed together with their original line
+ * ({@link RawLineTriple}) are written by copying the original bytes (if
+ * {@link #isPassthrough()} is enabled). Triples with blank nodes are always
+ * serialized from their nodes since the label in the original line may differ
+ * from the label of the blank node.
+ * </p>
+ *
+ * <p>
+ * Blank nodes are written with their label. Characters that are not allowed in
+ * an N-Triples blank node label are encoded (e.g., {@code '-'} becomes
+ * {@code "_2D_"}). Hence, different blank nodes are written with different
+ * labels without storing a mapping. Prefixes and base IRIs are ignored.
+ * </p>
+ *
+ * <p>
+ * <b>Note</b> that this class is not thread-safe.
+ * </p>
+ *
+ * @author Michael R&ouml;der (michael.roeder@uni-paderborn.de)
+ *
+ */
+public class FastNTriplesWriter implements RDFSink {
+
+    /**
+     * The default size of the buffer (64 KiB).
+     */
+    public static final int DEFAULT_BUFFER_SIZE = 1 << 16;
+    /**
+     * The default number of cached nodes.
+     */
+    public static final int DEFAULT_CACHE_SIZE = 1024;
+
+    protected static final byte[] HEX = "0123456789ABCDEF".getBytes(StandardCharsets.US_ASCII);
+    protected static final Node RDF_TYPE = RDF.type.asNode();
+    protected static final String XSD_STRING = XSDDatatype.XSDstring.getURI();
+
+    /**
+     * The stream to which the serialized data is written.
+     */
+    protected OutputStream out;
+    /**
+     * The buffer containing the serialized data that has not been written.
+     */
+    protected byte[] buffer;
+    /**
+     * The number of bytes in the buffer.
+     */
+    protected int position = 0;
+    /**
+     * The number of bytes after which the buffer is written to the stream.
+     */
+    protected int bufferSize;
+    /**
+     * The nodes of the cache.
+     */
+    protected Node[] cacheKeys;
+    /**
+     * The serialized forms of the cached nodes.
+     */
+    protected byte[][] cacheValues;
+    /**
+     * The mask that maps hash values to cache positions.
+     */
+    protected int cacheMask;
+    /**
+     * Flag indicating whether the original lines of {@link RawLineTriple}
+     * instances are written.
+     */
+    protected boolean passthrough = true;
+
+    /**
+     * Constructor using the {@link #DEFAULT_BUFFER_SIZE} and the
+     * {@link #DEFAULT_CACHE_SIZE}.
+     *
+     * @param out the stream to which the serialized data is written
+     */
+    public FastNTriplesWriter(OutputStream out) {
+        this(out, DEFAULT_BUFFER_SIZE, DEFAULT_CACHE_SIZE);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param out        the stream to which the serialized data is written
+     * @param bufferSize the number of bytes that are buffered before they are
+     *                   written to the stream
+     * @param cacheSize  the number of nodes that can be cached (rounded up to the
+     *                   next power of two, 0 disables the cache)
+     */
+    public FastNTriplesWriter(OutputStream out, int bufferSize, int cacheSize) {
+        if (bufferSize <= 0) {
+            throw new IllegalArgumentException(
+                    "The given buffer size (" + bufferSize + ") is smaller than 1. This is not allowed.");
+        }
+        if (cacheSize < 0) {
+            throw new IllegalArgumentException(
+                    "The given cache size (" + cacheSize + ") is smaller than 0. This is not allowed.");
+        }
+        this.out = out;
+        this.bufferSize = bufferSize;
+        // Leave some space for the triple that exceeds the buffer size
+        this.buffer = new byte[bufferSize + 1024];
+        if (cacheSize > 0) {
+            int size = (cacheSize == 1) ? 1 : Integer.highestOneBit(cacheSize - 1) << 1;
+            cacheKeys = new Node[size];
+            cacheValues = new byte[size][];
+            cacheMask = size - 1;
+        }
+    }
+
+    @Override
+    public void start() {
+        // nothing to do
+    }
+
+    @Override
+    public void triple(Triple triple) {
+        if (passthrough && (triple instanceof RawLineTriple) && !triple.getSubject().isBlank()
+                && !triple.getObject().isBlank()) {
+            byte[] line = ((RawLineTriple) triple).getLine();
+            ensureCapacity(line.length + 1);
+            System.arraycopy(line, 0, buffer, position, line.length);
+            position += line.length;
+        } else {
+            writeNode(triple.getSubject());
+            append((byte) ' ');
+            Node predicate = triple.getPredicate();
+            writeCachedNode(predicate);
+            append((byte) ' ');
+            if (RDF_TYPE.equals(predicate)) {
+                writeCachedNode(triple.getObject());
+            } else {
+                writeNode(triple.getObject());
+            }
+            ensureCapacity(3);
+            buffer[position++] = ' ';
+            buffer[position++] = '.';
+        }
+        append((byte) '\n');
+        flushIfFull();
+    }
+
+    @Override
+    public void quad(Quad quad) {
+        if (quad.isTriple() || quad.isDefaultGraph()) {
+            triple(quad.asTriple());
+            return;
+        }
+        writeNode(quad.getSubject());
+        append((byte) ' ');
+        writeCachedNode(quad.getPredicate());
+        append((byte) ' ');
+        writeNode(quad.getObject());
+        append((byte) ' ');
+        writeCachedNode(quad.getGraph());
+        ensureCapacity(3);
+        buffer[position++] = ' ';
+        buffer[position++] = '.';
+        buffer[position++] = '\n';
+        flushIfFull();
+    }
+
+    @Override
+    public void base(String base) {
+        // N-Triples do not have a base IRI
+    }
+
+    @Override
+    public void prefix(String prefix, String iri) {
+        // N-Triples do not have prefixes
+    }
+
+    /**
+     * Writes the buffered data to the underlying stream and flushes it.
+     */
+    @Override
+    public void finish() {
+        try {
+            writeBuffer();
+            out.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Couldn't write triples.", e);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            writeBuffer();
+        } finally {
+            out.close();
+        }
+    }
+
+    /**
+     * Writes the given node using the cache.
+     */
+    protected void writeCachedNode(Node node) {
+        if (cacheKeys == null) {
+            writeNode(node);
+            return;
+        }
+        int h = node.hashCode();
+        int index = (h ^ (h >>> 16)) & cacheMask;
+        byte[] value;
+        Node key = cacheKeys[index];
+        if ((key == node) || node.equals(key)) {
+            value = cacheValues[index];
+            ensureCapacity(value.length);
+            System.arraycopy(value, 0, buffer, position, value.length);
+            position += value.length;
+        } else {
+            int start = position;
+            writeNode(node);
+            cacheKeys[index] = node;
+            cacheValues[index] = Arrays.copyOfRange(buffer, start, position);
+        }
+    }
+
+    /**
+     * Writes the N-Triples form of the given node to the buffer.
+     *
+     * @param node the node that should be written
+     */
+    protected void writeNode(Node node) {
+        if (node.isURI()) {
+            append((byte) '<');
+            writeIri(node.getURI());
+            append((byte) '>');
+        } else if (node.isLiteral()) {
+            append((byte) '"');
+            writeEscaped(node.getLiteralLexicalForm());
+            append((byte) '"');
+            String lang = node.getLiteralLanguage();
+            if ((lang != null) && !lang.isEmpty()) {
+                append((byte) '@');
+                writeUtf8(lang);
+            } else {
+                String datatype = node.getLiteralDatatypeURI();
+                if ((datatype != null) && !XSD_STRING.equals(datatype)) {
+                    ensureCapacity(3);
+                    buffer[position++] = '^';
+                    buffer[position++] = '^';
+                    buffer[position++] = '<';
+                    writeIri(datatype);
+                    append((byte) '>');
+                }
+            }
+        } else if (node.isBlank()) {
+            append((byte) '_');
+            append((byte) ':');
+            writeBlankNodeLabel(node.getBlankNodeLabel());
+        } else {
+            // e.g., triple terms
+            writeUtf8(NodeFmtLib.strNT(node));
+        }
+    }
+
+    /**
+     * Writes the given IRI. Characters that are not allowed in an N-Triples IRI
+     * are escaped.
+     */
+    protected void writeIri(String iri) {
+        char c;
+        int length = iri.length();
+        for (int i = 0; i < length; ++i) {
+            c = iri.charAt(i);
+            if ((c <= ' ') || (c == '<') || (c == '>') || (c == '"') || (c == '{') || (c == '}') || (c == '|')
+                    || (c == '^') || (c == '`') || (c == '\\')) {
+                writeUnicodeEscape(c);
+            } else {
+                i = writeChar(iri, i, c);
+            }
+        }
+    }
+
+    /**
+     * Writes the given lexical form of a literal, escaping characters as
+     * necessary.
+     */
+    protected void writeEscaped(String s) {
+        char c;
+        int length = s.length();
+        for (int i = 0; i < length; ++i) {
+            c = s.charAt(i);
+            switch (c) {
+            case '"':
+                writeEscape('"');
+                break;
+            case '\\':
+                writeEscape('\\');
+                break;
+            case '\n':
+                writeEscape('n');
+                break;
+            case '\r':
+                writeEscape('r');
+                break;
+            case '\t':
+                writeEscape('t');
+                break;
+            case '\b':
+                writeEscape('b');
+                break;
+            case '\f':
+                writeEscape('f');
+                break;
+            default:
+                if (c < ' ') {
+                    writeUnicodeEscape(c);
+                } else {
+                    i = writeChar(s, i, c);
+                }
+            }
+        }
+    }
+
+    /**
+     * Writes the given blank node label. All characters except ASCII letters and
+     * digits are encoded as {@code '_' + hex code + '_'}.
+     */
+    protected void writeBlankNodeLabel(String label) {
+        char c;
+        int length = label.length();
+        for (int i = 0; i < length; ++i) {
+            c = label.charAt(i);
+            if (((c >= 'a') && (c <= 'z')) || ((c >= 'A') && (c <= 'Z')) || ((c >= '0') && (c <= '9'))) {
+                append((byte) c);
+            } else {
+                append((byte) '_');
+                writeHex(c);
+                append((byte) '_');
+            }
+        }
+    }
+
+    protected void writeEscape(char c) {
+        ensureCapacity(2);
+        buffer[position++] = '\\';
+        buffer[position++] = (byte) c;
+    }
+
+    protected void writeUnicodeEscape(char c) {
+        ensureCapacity(6);
+        buffer[position++] = '\\';
+        buffer[position++] = 'u';
+        buffer[position++] = HEX[(c >>> 12) & 0xF];
+        buffer[position++] = HEX[(c >>> 8) & 0xF];
+        buffer[position++] = HEX[(c >>> 4) & 0xF];
+        buffer[position++] = HEX[c & 0xF];
+    }
+
+    protected void writeHex(char c) {
+        boolean started = false;
+        int digit;
+        for (int shift = 12; shift >= 0; shift -= 4) {
+            digit = (c >>> shift) & 0xF;
+            if (started || (digit != 0) || (shift == 0)) {
+                append(HEX[digit]);
+                started = true;
+            }
+        }
+    }
+
+    /**
+     * Writes the UTF-8 encoding of the given String.
+     */
+    protected void writeUtf8(String s) {
+        int length = s.length();
+        for (int i = 0; i < length; ++i) {
+            i = writeChar(s, i, s.charAt(i));
+        }
+    }
+
+    /**
+     * Writes the UTF-8 encoding of the character at the given position.
+     *
+     * @return the position of the last char that has been consumed (the low
+     *         surrogate of a surrogate pair)
+     */
+    protected int writeChar(String s, int i, char c) {
+        if (c < 0x80) {
+            append((byte) c);
+        } else if (c < 0x800) {
+            ensureCapacity(2);
+            buffer[position++] = (byte) (0xC0 | (c >>> 6));
+            buffer[position++] = (byte) (0x80 | (c & 0x3F));
+        } else if (Character.isHighSurrogate(c) && (i + 1 < s.length())
+                && Character.isLowSurrogate(s.charAt(i + 1))) {
+            int codePoint = Character.toCodePoint(c, s.charAt(i + 1));
+            ensureCapacity(4);
+            buffer[position++] = (byte) (0xF0 | (codePoint >>> 18));
+            buffer[position++] = (byte) (0x80 | ((codePoint >>> 12) & 0x3F));
+            buffer[position++] = (byte) (0x80 | ((codePoint >>> 6) & 0x3F));
+            buffer[position++] = (byte) (0x80 | (codePoint & 0x3F));
+            return i + 1;
+        } else if (Character.isSurrogate(c)) {
+            // An unpaired surrogate can not be encoded
+            append((byte) '?');
+        } else {
+            ensureCapacity(3);
+            buffer[position++] = (byte) (0xE0 | (c >>> 12));
+            buffer[position++] = (byte) (0x80 | ((c >>> 6) & 0x3F));
+            buffer[position++] = (byte) (0x80 | (c & 0x3F));
+        }
+        return i;
+    }
+
+    protected void append(byte b) {
+        if (position == buffer.length) {
+            ensureCapacity(1);
+        }
+        buffer[position++] = b;
+    }
+
+    /**
+     * Makes sure that the buffer can take the given number of additional bytes.
+     * The buffer is enlarged instead of written since a cached node has to be
+     * copied from it.
+     */
+    protected void ensureCapacity(int additionalBytes) {
+        if (position + additionalBytes > buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.max(buffer.length << 1, position + additionalBytes));
+        }
+    }
+
+    protected void flushIfFull() {
+        if (position >= bufferSize) {
+            try {
+                writeBuffer();
+            } catch (IOException e) {
+                throw new UncheckedIOException("Couldn't write triples.", e);
+            }
+        }
+    }
+
+    protected void writeBuffer() throws IOException {
+        if (position > 0) {
+            out.write(buffer, 0, position);
+            position = 0;
+        }
+    }
+
+    /**
+     * @return {@code true} if the original lines of {@link RawLineTriple}
+     *         instances are written
+     */
+    public boolean isPassthrough() {
+        return passthrough;
+    }
+
+    /**
+     * @param passthrough flag indicating whether the original lines of
+     *                    {@link RawLineTriple} instances are written
+     */
+    public void setPassthrough(boolean passthrough) {
+        this.passthrough = passthrough;
+    }
+}
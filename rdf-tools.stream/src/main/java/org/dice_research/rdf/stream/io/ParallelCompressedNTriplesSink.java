@@ -0,0 +1,114 @@
+package org.dice_research.rdf.stream.io;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+
+import org.apache.jena.riot.system.StreamRDF;
+import org.dice_research.java.io.BlockCompression;
+import org.dice_research.java.io.ParallelCompressingOutputStream;
+import org.dice_research.rdf.stream.AStreamRDFDecorator;
+
+/**
+ * A {@link StreamRDF} sink that writes the received triples and quads as
+ * N-Triples (or N-Quads) to a compressed file using a
+ * {@link FastNTriplesWriter}. The serialized data is split
+ * into blocks of a fixed size that are compressed in parallel as independent
+ * gzip members or bzip2 streams (see {@link ParallelCompressingOutputStream}).
+ * The blocks are written in their original order and the result can be read
+ * by the standard tools (e.g., {@code zcat} or {@code bzcat}). The memory
+ * consumption is bounded by the block size times twice the number of threads.
+ *
+ * <p>
+ * The sink counts the calls of {@link #start()} and {@link #finish()}. When the
+ * outermost {@link #finish()} is called, the remaining data is compressed and
+ * written and the compressing threads are stopped. A {@link #finish()} call
+ * without a matching {@link #start()} call is rejected. The underlying stream
+ * is only closed by {@link #close()}.
+ * </p>
+ *
+ * <p>
+ * <b>Note</b> that an instance of this class has to be fed by a single thread.
+ * It can be wrapped by an
+ * {@link org.dice_research.rdf.stream.AsyncStreamRDFDecorator} to decouple the
+ * serialization from the parser.
+ * </p>
+ *
+ * @author Michael R&ouml;der (michael.roeder@uni-paderborn.de)
+ *
+ */
+public class ParallelCompressedNTriplesSink extends AStreamRDFDecorator implements RDFSink {
+
+    /**
+     * The stream that compresses the serialized data.
+     */
+    protected ParallelCompressingOutputStream compressingStream;
+    /**
+     * The number of {@link #start()} calls that haven't been matched with a
+     * {@link #finish()} call.
+     */
+    protected int depth = 0;
+
+    /**
+     * Constructor using the default number of threads and the default block size
+     * of the {@link ParallelCompressingOutputStream}.
+     *
+     * @param out         the stream to which the compressed data is written
+     * @param compression the compression format
+     */
+    public ParallelCompressedNTriplesSink(OutputStream out, BlockCompression compression) {
+        this(new ParallelCompressingOutputStream(out, compression));
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param out             the stream to which the compressed data is written
+     * @param compression     the compression format
+     * @param numberOfThreads the number of threads that compress blocks
+     * @param blockSize       the size of a single block in bytes
+     */
+    public ParallelCompressedNTriplesSink(OutputStream out, BlockCompression compression, int numberOfThreads,
+            int blockSize) {
+        this(new ParallelCompressingOutputStream(out, compression, numberOfThreads, blockSize));
+    }
+
+    protected ParallelCompressedNTriplesSink(ParallelCompressingOutputStream compressingStream) {
+        super(new FastNTriplesWriter(compressingStream));
+        this.compressingStream = compressingStream;
+    }
+
+    @Override
+    public void start() {
+        ++depth;
+        super.start();
+    }
+
+    @Override
+    public void finish() {
+        if (depth == 0) {
+            throw new IllegalStateException("The stream has to be started before it can be finished.");
+        }
+        --depth;
+        if (depth == 0) {
+            // Inner finish calls are not forwarded since the writer would flush the
+            // compressing stream, which ends the current block
+            super.finish();
+            try {
+                compressingStream.finish();
+            } catch (IOException e) {
+                throw new UncheckedIOException("Couldn't write the compressed data.", e);
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            // Make sure that the buffer of the writer is empty
+            getDecorated().finish();
+        } finally {
+            compressingStream.close();
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package org.dice_research.rdf.stream.io;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+import org.apache.jena.riot.system.StreamRDF;
+
+/**
+ * A {@link StreamRDF} that writes the received data to a file or stream. The
+ * data is completely written when the outermost {@link #finish()} has been
+ * called. {@link #close()} releases the underlying resources.
+ *
+ * @author Michael R&ouml;der (michael.roeder@uni-paderborn.de)
+ *
+ */
+public interface RDFSink extends StreamRDF, Closeable {
+
+    /**
+     * Writes all remaining data and closes the underlying stream.
+     */
+    @Override
+    public void close() throws IOException;
+}
@@ -0,0 +1,211 @@
+package org.dice_research.rdf.stream.io;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import org.apache.jena.riot.Lang;
+import org.apache.jena.riot.RDFLanguages;
+import org.dice_research.java.io.BlockCompression;
+import org.dice_research.java.io.CompressionFormat;
+import org.dice_research.java.io.ParallelCompressingOutputStream;
+
+/**
+ * The single entry point for writing RDF files. The compression format and the
+ * serialization are derived from the file name (e.g., {@code "out.nt.gz"} is
+ * written as gzip compressed N-Triples). N-Triples and N-Quads that are
+ * compressed with gzip or bzip2 are compressed in parallel (see
+ * {@link ParallelCompressedNTriplesSink}). Other N-Triples and N-Quads files
+ * are written by a {@link FastNTriplesWriter}. All other serializations are
+ * written by one of Jena's streaming writers (see {@link StreamingRDFSink}).
+ *
+ * <p>
+ * Example:
+ * </p>
+ *
+ * <pre>
+ * try (RDFSink sink = new RDFSinks().open(outputFile)) {
+ *     new RDFSources().parse(sources, new MyFilter(sink));
+ * }
+ * </pre>
+ *
+ * @author Michael R&ouml;der (michael.roeder@uni-paderborn.de)
+ *
+ */
+public class RDFSinks {
+
+    /**
+     * The default size of the output buffer (1 MiB).
+     */
+    public static final int DEFAULT_BUFFER_SIZE = 1 << 20;
+
+    /**
+     * The number of threads used for compressing.
+     */
+    protected int numberOfThreads = ParallelCompressingOutputStream.DEFAULT_NUMBER_OF_THREADS;
+    /**
+     * The size of a single block that is compressed in parallel.
+     */
+    protected int blockSize = ParallelCompressingOutputStream.DEFAULT_BLOCK_SIZE;
+    /**
+     * The size of the output buffer.
+     */
+    protected int bufferSize = DEFAULT_BUFFER_SIZE;
+    /**
+     * The serialization that is used if it can not be derived from the file name.
+     */
+    protected Lang defaultLang = Lang.NT;
+
+    /**
+     * Opens a sink writing to the given file.
+     *
+     * @param file the name of the file
+     * @return the sink
+     * @throws IOException if the file can not be created
+     */
+    public RDFSink open(String file) throws IOException {
+        return open(Paths.get(file));
+    }
+
+    /**
+     * Opens a sink writing to the given file.
+     *
+     * @param file the file
+     * @return the sink
+     * @throws IOException if the file can not be created
+     */
+    public RDFSink open(File file) throws IOException {
+        return open(file.toPath());
+    }
+
+    /**
+     * Opens a sink writing to the given file. The compression format and the
+     * serialization are derived from the file name.
+     *
+     * @param file the file
+     * @return the sink
+     * @throws IOException if the file can not be created
+     */
+    public RDFSink open(Path file) throws IOException {
+        String fileName = file.getFileName().toString();
+        CompressionFormat compression = CompressionFormat.fromFileName(fileName);
+        Lang lang = RDFLanguages.filenameToLang(CompressionFormat.removeSuffix(fileName), defaultLang);
+        return open(Files.newOutputStream(file), compression, lang);
+    }
+
+    /**
+     * Opens a sink writing to the given stream.
+     *
+     * @param out         the stream to which the data is written. It is closed
+     *                    when the sink is closed.
+     * @param compression the compression format
+     * @param lang        the serialization
+     * @return the sink
+     * @throws IOException if the header of the compression format can not be
+     *                     written
+     */
+    public RDFSink open(OutputStream out, CompressionFormat compression, Lang lang) throws IOException {
+        OutputStream bufferedOut = new BufferedOutputStream(out, bufferSize);
+        try {
+            if ((numberOfThreads > 1) && (Lang.NT.equals(lang) || Lang.NQ.equals(lang))) {
+                if (compression == CompressionFormat.GZIP) {
+                    return new ParallelCompressedNTriplesSink(bufferedOut, BlockCompression.GZIP, numberOfThreads,
+                            blockSize);
+                } else if (compression == CompressionFormat.BZIP2) {
+                    return new ParallelCompressedNTriplesSink(bufferedOut, BlockCompression.BZIP2, numberOfThreads,
+                            blockSize);
+                }
+            }
+            if (Lang.NT.equals(lang) || Lang.NQ.equals(lang)) {
+                return new FastNTriplesWriter(compression.compress(bufferedOut));
+            }
+            return new StreamingRDFSink(compression.compress(bufferedOut), lang);
+        } catch (IOException | RuntimeException e) {
+            bufferedOut.close();
+            throw e;
+        }
+    }
+
+    /**
+     * @return the number of threads used for compressing
+     */
+    public int getNumberOfThreads() {
+        return numberOfThreads;
+    }
+
+    /**
+     * @param numberOfThreads the number of threads used for compressing (1
+     *                        disables parallel compression)
+     * @return this instance
+     */
+    public RDFSinks setNumberOfThreads(int numberOfThreads) {
+        if (numberOfThreads <= 0) {
+            throw new IllegalArgumentException(
+                    "The given number of threads (" + numberOfThreads + ") is smaller than 1. This is not allowed.");
+        }
+        this.numberOfThreads = numberOfThreads;
+        return this;
+    }
+
+    /**
+     * @return the size of a single block that is compressed in parallel
+     */
+    public int getBlockSize() {
+        return blockSize;
+    }
+
+    /**
+     * @param blockSize the size of a single block that is compressed in parallel
+     * @return this instance
+     */
+    public RDFSinks setBlockSize(int blockSize) {
+        if (blockSize <= 0) {
+            throw new IllegalArgumentException(
+                    "The given block size (" + blockSize + ") is smaller than 1. This is not allowed.");
+        }
+        this.blockSize = blockSize;
+        return this;
+    }
+
+    /**
+     * @return the size of the output buffer
+     */
+    public int getBufferSize() {
+        return bufferSize;
+    }
+
+    /**
+     * @param bufferSize the size of the output buffer
+     * @return this instance
+     */
+    public RDFSinks setBufferSize(int bufferSize) {
+        if (bufferSize <= 0) {
+            throw new IllegalArgumentException(
+                    "The given buffer size (" + bufferSize + ") is smaller than 1. This is not allowed.");
+        }
+        this.bufferSize = bufferSize;
+        return this;
+    }
+
+    /**
+     * @return the serialization that is used if it can not be derived from the
+     *         file name
+     */
+    public Lang getDefaultLang() {
+        return defaultLang;
+    }
+
+    /**
+     * @param defaultLang the serialization that is used if it can not be derived
+     *                    from the file name
+     * @return this instance
+     */
+    public RDFSinks setDefaultLang(Lang defaultLang) {
+        this.defaultLang = defaultLang;
+        return this;
+    }
+}
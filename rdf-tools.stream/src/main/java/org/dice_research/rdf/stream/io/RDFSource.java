@@ -0,0 +1,76 @@
+package org.dice_research.rdf.stream.io;
+
+import java.nio.file.Path;
+
+import org.apache.jena.riot.Lang;
+import org.dice_research.java.io.CompressionFormat;
+
+/**
+ * A file containing RDF data together with its detected compression format and
+ * serialization. Instances are created by {@link RDFSources}.
+ *
+ * @author Michael R&ouml;der (michael.roeder@uni-paderborn.de)
+ *
+ */
+public class RDFSource {
+
+    /**
+     * The file.
+     */
+    protected Path file;
+    /**
+     * The compression format of the file.
+     */
+    protected CompressionFormat compression;
+    /**
+     * The serialization of the (decompressed) data.
+     */
+    protected Lang lang;
+
+    /**
+     * Constructor.
+     *
+     * @param file        the file
+     * @param compression the compression format of the file
+     * @param lang        the serialization of the (decompressed) data
+     */
+    public RDFSource(Path file, CompressionFormat compression, Lang lang) {
+        this.file = file;
+        this.compression = compression;
+        this.lang = lang;
+    }
+
+    /**
+     * @return the file
+     */
+    public Path getFile() {
+        return file;
+    }
+
+    /**
+     * @return the compression format of the file
+     */
+    public CompressionFormat getCompression() {
+        return compression;
+    }
+
+    /**
+     * @return the serialization of the (decompressed) data
+     */
+    public Lang getLang() {
+        return lang;
+    }
+
+    /**
+     * @return {@code true} if the data is a line-based serialization (N-Triples
+     *         or N-Quads), which can be parsed in parallel
+     */
+    public boolean isLineBased() {
+        return Lang.NT.equals(lang) || Lang.NQ.equals(lang);
+    }
+
+    @Override
+    public String toString() {
+        return "RDFSource [file=" + file + ", compression=" + compression + ", lang=" + lang.getName() + "]";
+    }
+}
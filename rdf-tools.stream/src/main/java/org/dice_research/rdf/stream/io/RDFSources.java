@@ -0,0 +1,584 @@
+package org.dice_research.rdf.stream.io;
+
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.apache.jena.riot.Lang;
+import org.apache.jena.riot.RDFLanguages;
+import org.apache.jena.riot.RDFParser;
+import org.apache.jena.riot.system.StreamRDF;
+import org.apache.jena.riot.system.StreamRDFWrapper;
+import org.dice_research.java.io.CompressionFormat;
+import org.dice_research.java.io.ParallelBZip2InputStream;
+import org.dice_research.java.io.ReadAheadInputStream;
+import org.dice_research.rdf.stream.parse.LineChunker;
+import org.dice_research.rdf.stream.parse.MappedNTriplesReader;
+import org.dice_research.rdf.stream.parse.ParallelNTriplesParser;
+
+/**
+ * The single entry point for reading RDF files. Given files and directories,
+ * it detects the compression format of every file based on its first bytes
+ * (gzip, bzip2, xz or Zstandard, see {@link CompressionFormat}) and the RDF
+ * serialization based on the file name or, if the name is not conclusive,
+ * based on the first bytes of the decompressed content. Directories are
+ * traversed (recursively) and their files can be filtered with a glob pattern.
+ *
+ * <p>
+ * The files are parsed with the best available reader:
+ * </p>
+ * <ul>
+ * <li>Uncompressed N-Triples and N-Quads files are memory-mapped and parsed by
+ * a {@link ParallelNTriplesParser} (or a {@link MappedNTriplesReader} if a
+ * single thread is used).</li>
+ * <li>Compressed N-Triples and N-Quads files are decompressed in a separate
+ * thread (bzip2 files in parallel, see {@link ParallelBZip2InputStream}) and
+ * parsed by a {@link ParallelNTriplesParser}.</li>
+ * <li>All other serializations are parsed by Jena's {@link RDFParser} from a
+ * decompressed stream that is read ahead.</li>
+ * </ul>
+ *
+ * <p>
+ * Example:
+ * </p>
+ *
+ * <pre>
+ * RDFSources sources = new RDFSources().setGlob("*.{nt,ttl}{,.gz,.bz2}");
+ * sources.parse(sources.list(args), stream);
+ * </pre>
+ *
+ * @author Michael R&ouml;der (michael.roeder@uni-paderborn.de)
+ *
+ */
+public class RDFSources {
+
+    /**
+     * The default size of the buffers used for reading files (1 MiB).
+     */
+    public static final int DEFAULT_BUFFER_SIZE = ReadAheadInputStream.DEFAULT_BUFFER_SIZE;
+    /**
+     * The number of (decompressed) bytes that are used to detect the
+     * serialization of a file.
+     */
+    protected static final int SNIFF_SIZE = 1 << 12;
+
+    /**
+     * The number of threads used for decompressing and parsing.
+     */
+    protected int numberOfThreads = ParallelNTriplesParser.DEFAULT_NUMBER_OF_THREADS;
+    /**
+     * The size of the buffers used for reading files.
+     */
+    protected int bufferSize = DEFAULT_BUFFER_SIZE;
+    /**
+     * The number of buffers that are read ahead (0 disables reading ahead).
+     */
+    protected int readAheadBuffers = ReadAheadInputStream.DEFAULT_NUMBER_OF_BUFFERS;
+    /**
+     * Flag indicating whether uncompressed N-Triples and N-Quads files are
+     * memory-mapped.
+     */
+    protected boolean memoryMapping = true;
+    /**
+     * Flag indicating whether the order of the triples should be preserved when
+     * parsing in parallel.
+     */
+    protected boolean preserveOrder = true;
+    /**
+     * Flag indicating whether sub directories are traversed.
+     */
+    protected boolean recursive = true;
+    /**
+     * The filter for the names of files found in directories ({@code null} if all
+     * files are accepted).
+     */
+    protected PathMatcher fileNameFilter = null;
+    /**
+     * The serialization of all files ({@code null} if it should be detected).
+     */
+    protected Lang lang = null;
+
+    /**
+     * Lists the files that are given or that can be found in the given
+     * directories.
+     *
+     * @param inputs the names of files and directories
+     * @return the sources in the order of the given inputs (the files of a
+     *         directory are sorted by name)
+     * @throws IOException if one of the inputs does not exist or a file can not
+     *                     be read
+     */
+    public List<RDFSource> list(String... inputs) throws IOException {
+        Path[] paths = new Path[inputs.length];
+        for (int i = 0; i < inputs.length; ++i) {
+            paths[i] = Paths.get(inputs[i]);
+        }
+        return list(paths);
+    }
+
+    /**
+     * Lists the files that are given or that can be found in the given
+     * directories.
+     *
+     * @param inputs the files and directories
+     * @return the sources in the order of the given inputs (the files of a
+     *         directory are sorted by name)
+     * @throws IOException if one of the inputs does not exist or a file can not
+     *                     be read
+     */
+    public List<RDFSource> list(File... inputs) throws IOException {
+        Path[] paths = new Path[inputs.length];
+        for (int i = 0; i < inputs.length; ++i) {
+            paths[i] = inputs[i].toPath();
+        }
+        return list(paths);
+    }
+
+    /**
+     * Lists the files that are given or that can be found in the given
+     * directories.
+     *
+     * @param inputs the files and directories
+     * @return the sources in the order of the given inputs (the files of a
+     *         directory are sorted by name)
+     * @throws IOException if one of the inputs does not exist or a file can not
+     *                     be read
+     */
+    public List<RDFSource> list(Path... inputs) throws IOException {
+        List<RDFSource> sources = new ArrayList<>();
+        for (Path input : inputs) {
+            if (Files.isDirectory(input)) {
+                addDirectory(input, sources);
+            } else if (Files.isRegularFile(input)) {
+                // Explicitly given files are not filtered
+                sources.add(source(input));
+            } else {
+                throw new FileNotFoundException(input + " is neither a directory nor a file.");
+            }
+        }
+        return sources;
+    }
+
+    protected void addDirectory(Path directory, List<RDFSource> sources) throws IOException {
+        List<Path> children;
+        try (Stream<Path> stream = Files.list(directory)) {
+            children = stream.sorted().collect(Collectors.toList());
+        }
+        for (Path child : children) {
+            if (Files.isDirectory(child)) {
+                if (recursive) {
+                    addDirectory(child, sources);
+                }
+            } else if (Files.isRegularFile(child)
+                    && ((fileNameFilter == null) || fileNameFilter.matches(child.getFileName()))) {
+                sources.add(source(child));
+            }
+        }
+    }
+
+    /**
+     * Detects the compression format and the serialization of the given file.
+     *
+     * @param file the file
+     * @return the source describing the file
+     * @throws IOException if the file can not be read
+     */
+    public RDFSource source(Path file) throws IOException {
+        try (InputStream in = new BufferedInputStream(Files.newInputStream(file), SNIFF_SIZE)) {
+            CompressionFormat compression = CompressionFormat.detect(in);
+            Lang fileLang = lang;
+            if (fileLang == null) {
+                fileLang = RDFLanguages
+                        .filenameToLang(CompressionFormat.removeSuffix(file.getFileName().toString()));
+            }
+            if (fileLang == null) {
+                try (InputStream decompressed = compression.decompress(in)) {
+                    fileLang = detectLang(decompressed.readNBytes(SNIFF_SIZE));
+                }
+            }
+            return new RDFSource(file, compression, fileLang);
+        }
+    }
+
+    /**
+     * Opens the given source and returns a buffered stream of the decompressed
+     * data.
+     *
+     * @param source the source that should be read
+     * @return the stream with the decompressed data
+     * @throws IOException if the file can not be opened
+     */
+    public InputStream openStream(RDFSource source) throws IOException {
+        InputStream in = new BufferedInputStream(Files.newInputStream(source.getFile()), bufferSize);
+        try {
+            if ((source.getCompression() == CompressionFormat.BZIP2) && (numberOfThreads > 1)) {
+                in = new ParallelBZip2InputStream(in, numberOfThreads);
+            } else {
+                in = source.getCompression().decompress(in);
+            }
+            if (readAheadBuffers > 0) {
+                in = new ReadAheadInputStream(in, bufferSize, readAheadBuffers);
+            }
+            return in;
+        } catch (IOException | RuntimeException e) {
+            in.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Parses the given source and sends its triples (or quads) to the given
+     * stream.
+     *
+     * @param source the source that should be parsed
+     * @param stream the stream to which the parsed data will be sent
+     * @throws IOException if the file can not be read
+     */
+    public void parse(RDFSource source, StreamRDF stream) throws IOException {
+        if (source.isLineBased()) {
+            if (memoryMapping && (source.getCompression() == CompressionFormat.NONE)) {
+                if (numberOfThreads > 1) {
+                    createParallelParser(source.getLang()).parse(source.getFile().toFile(), stream);
+                } else {
+                    new MappedNTriplesReader(source.getLang()).read(source.getFile(), stream);
+                }
+                return;
+            } else if (numberOfThreads > 1) {
+                try (InputStream in = openStream(source)) {
+                    createParallelParser(source.getLang()).parse(in, stream);
+                }
+                return;
+            }
+        }
+        try (InputStream in = openStream(source)) {
+            RDFParser.source(in).lang(source.getLang()).parse(stream);
+        }
+    }
+
+    /**
+     * Parses the given sources one after the other and sends their triples (or
+     * quads) to the given stream. The stream is started and finished only once.
+     * It is finished even if one of the sources can not be parsed.
+     *
+     * @param sources the sources that should be parsed
+     * @param stream  the stream to which the parsed data will be sent
+     * @throws IOException if one of the files can not be read
+     */
+    public void parse(List<RDFSource> sources, StreamRDF stream) throws IOException {
+        StreamRDF sourceStream = new StreamRDFWrapper(stream) {
+            @Override
+            public void start() {
+                // Do not forward start messages.
+            }
+
+            @Override
+            public void finish() {
+                // Do not forward finish messages.
+            }
+        };
+        stream.start();
+        try {
+            for (RDFSource source : sources) {
+                parse(source, sourceStream);
+            }
+        } catch (Throwable e) {
+            // Finish the stream anyway to make sure that it releases its resources
+            try {
+                stream.finish();
+            } catch (Throwable e2) {
+                e.addSuppressed(e2);
+            }
+            throw e;
+        }
+        stream.finish();
+    }
+
+    protected ParallelNTriplesParser createParallelParser(Lang lang) {
+        return new ParallelNTriplesParser(lang, numberOfThreads, LineChunker.DEFAULT_CHUNK_SIZE, preserveOrder);
+    }
+
+    /**
+     * Detects the serialization of the given (decompressed) data. Only the most
+     * common serializations are distinguished: RDF/XML, JSON-LD, N-Triples,
+     * N-Quads and Turtle. Turtle is the fallback since it is a superset of
+     * N-Triples.
+     *
+     * @param data the first bytes of the data
+     * @return the detected serialization
+     */
+    public static Lang detectLang(byte[] data) {
+        int pos = 0;
+        // Skip a UTF-8 byte order mark
+        if ((data.length >= 3) && (data[0] == (byte) 0xEF) && (data[1] == (byte) 0xBB)
+                && (data[2] == (byte) 0xBF)) {
+            pos = 3;
+        }
+        // Skip white spaces and comments
+        while (pos < data.length) {
+            if (data[pos] == '#') {
+                while ((pos < data.length) && (data[pos] != '\n')) {
+                    ++pos;
+                }
+            } else if (isWhitespace((char) data[pos])) {
+                ++pos;
+            } else {
+                break;
+            }
+        }
+        if (pos >= data.length) {
+            // Empty files can be parsed by every parser
+            return Lang.NT;
+        }
+        int end = pos;
+        while ((end < data.length) && (data[end] != '\n')) {
+            ++end;
+        }
+        String line = new String(data, pos, end - pos, StandardCharsets.UTF_8);
+        if (line.startsWith("<?xml") || line.startsWith("<rdf:RDF")) {
+            return Lang.RDFXML;
+        }
+        if (line.startsWith("{") || line.startsWith("[")) {
+            return Lang.JSONLD;
+        }
+        switch (countTerms(line)) {
+        case 3:
+            return Lang.NT;
+        case 4:
+            return Lang.NQ;
+        default:
+            return Lang.TTL;
+        }
+    }
+
+    /**
+     * Counts the terms of a single N-Triples or N-Quads line.
+     *
+     * @param line the line
+     * @return the number of terms or -1 if the line is not a complete N-Triples
+     *         or N-Quads statement
+     */
+    protected static int countTerms(String line) {
+        int pos = 0;
+        int terms = 0;
+        int length = line.length();
+        char c;
+        while (terms <= 4) {
+            while ((pos < length) && isWhitespace(line.charAt(pos))) {
+                ++pos;
+            }
+            if (pos >= length) {
+                return -1;
+            }
+            c = line.charAt(pos);
+            if (c == '.') {
+                ++pos;
+                while ((pos < length) && isWhitespace(line.charAt(pos))) {
+                    ++pos;
+                }
+                return ((pos == length) || (line.charAt(pos) == '#')) ? terms : -1;
+            } else if (c == '<') {
+                pos = line.indexOf('>', pos);
+                if (pos < 0) {
+                    return -1;
+                }
+                ++pos;
+            } else if (line.startsWith("_:", pos)) {
+                while ((pos < length) && !isWhitespace(line.charAt(pos))) {
+                    ++pos;
+                }
+            } else if (c == '"') {
+                ++pos;
+                while ((pos < length) && (line.charAt(pos) != '"')) {
+                    if (line.charAt(pos) == '\\') {
+                        ++pos;
+                    }
+                    ++pos;
+                }
+                if (pos >= length) {
+                    return -1;
+                }
+                ++pos;
+                if ((pos < length) && (line.charAt(pos) == '@')) {
+                    ++pos;
+                    while ((pos < length)
+                            && (Character.isLetterOrDigit(line.charAt(pos)) || (line.charAt(pos) == '-'))) {
+                        ++pos;
+                    }
+                } else if (line.startsWith("^^<", pos)) {
+                    pos = line.indexOf('>', pos);
+                    if (pos < 0) {
+                        return -1;
+                    }
+                    ++pos;
+                }
+            } else {
+                // e.g., a prefixed name or a Turtle keyword
+                return -1;
+            }
+            ++terms;
+        }
+        return -1;
+    }
+
+    protected static boolean isWhitespace(char c) {
+        return (c == ' ') || (c == '\t') || (c == '\r') || (c == '\n');
+    }
+
+    /**
+     * @return the number of threads used for decompressing and parsing
+     */
+    public int getNumberOfThreads() {
+        return numberOfThreads;
+    }
+
+    /**
+     * @param numberOfThreads the number of threads used for decompressing and
+     *                        parsing (1 disables parallel parsing)
+     * @return this instance
+     */
+    public RDFSources setNumberOfThreads(int numberOfThreads) {
+        if (numberOfThreads <= 0) {
+            throw new IllegalArgumentException(
+                    "The given number of threads (" + numberOfThreads + ") is smaller than 1. This is not allowed.");
+        }
+        this.numberOfThreads = numberOfThreads;
+        return this;
+    }
+
+    /**
+     * @return the size of the buffers used for reading files
+     */
+    public int getBufferSize() {
+        return bufferSize;
+    }
+
+    /**
+     * @param bufferSize the size of the buffers used for reading files
+     * @return this instance
+     */
+    public RDFSources setBufferSize(int bufferSize) {
+        if (bufferSize <= 0) {
+            throw new IllegalArgumentException(
+                    "The given buffer size (" + bufferSize + ") is smaller than 1. This is not allowed.");
+        }
+        this.bufferSize = bufferSize;
+        return this;
+    }
+
+    /**
+     * @return the number of buffers that are read ahead
+     */
+    public int getReadAheadBuffers() {
+        return readAheadBuffers;
+    }
+
+    /**
+     * @param readAheadBuffers the number of buffers that are read ahead (0
+     *                         disables reading ahead)
+     * @return this instance
+     */
+    public RDFSources setReadAheadBuffers(int readAheadBuffers) {
+        if (readAheadBuffers < 0) {
+            throw new IllegalArgumentException("The given number of buffers (" + readAheadBuffers
+                    + ") is smaller than 0. This is not allowed.");
+        }
+        this.readAheadBuffers = readAheadBuffers;
+        return this;
+    }
+
+    /**
+     * @return {@code true} if uncompressed N-Triples and N-Quads files are
+     *         memory-mapped
+     */
+    public boolean isMemoryMapping() {
+        return memoryMapping;
+    }
+
+    /**
+     * @param memoryMapping flag indicating whether uncompressed N-Triples and
+     *                      N-Quads files are memory-mapped
+     * @return this instance
+     */
+    public RDFSources setMemoryMapping(boolean memoryMapping) {
+        this.memoryMapping = memoryMapping;
+        return this;
+    }
+
+    /**
+     * @return {@code true} if the order of the triples is preserved when parsing
+     *         in parallel
+     */
+    public boolean isPreserveOrder() {
+        return preserveOrder;
+    }
+
+    /**
+     * @param preserveOrder flag indicating whether the order of the triples
+     *                      should be preserved when parsing in parallel
+     * @return this instance
+     */
+    public RDFSources setPreserveOrder(boolean preserveOrder) {
+        this.preserveOrder = preserveOrder;
+        return this;
+    }
+
+    /**
+     * @return {@code true} if sub directories are traversed
+     */
+    public boolean isRecursive() {
+        return recursive;
+    }
+
+    /**
+     * @param recursive flag indicating whether sub directories are traversed
+     * @return this instance
+     */
+    public RDFSources setRecursive(boolean recursive) {
+        this.recursive = recursive;
+        return this;
+    }
+
+    /**
+     * Sets a glob pattern (see {@link FileSystems#getPathMatcher(String)}) that
+     * the names of files found in directories have to match, e.g.,
+     * {@code "*.{nt,nt.gz,nt.bz2}"}. Files that are given explicitly are not
+     * filtered.
+     *
+     * @param glob the glob pattern or {@code null} if all files should be
+     *             accepted
+     * @return this instance
+     */
+    public RDFSources setGlob(String glob) {
+        this.fileNameFilter = (glob == null) ? null : FileSystems.getDefault().getPathMatcher("glob:" + glob);
+        return this;
+    }
+
+    /**
+     * @return the serialization of all files ({@code null} if it is detected)
+     */
+    public Lang getLang() {
+        return lang;
+    }
+
+    /**
+     * @param lang the serialization of all files ({@code null} if it should be
+     *             detected for each file)
+     * @return this instance
+     */
+    public RDFSources setLang(Lang lang) {
+        this.lang = lang;
+        return this;
+    }
+}
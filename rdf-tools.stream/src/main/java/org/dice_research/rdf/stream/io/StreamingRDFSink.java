@@ -0,0 +1,55 @@
+package org.dice_research.rdf.stream.io;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+import org.apache.jena.riot.Lang;
+import org.apache.jena.riot.system.StreamRDF;
+import org.apache.jena.riot.system.StreamRDFWriter;
+import org.dice_research.rdf.stream.AStreamRDFDecorator;
+
+/**
+ * An {@link RDFSink} that uses one of Jena's streaming writers (see
+ * {@link StreamRDFWriter}) to serialize the data to a given output stream. The
+ * writer is finished and the output stream is closed by {@link #close()}.
+ *
+ * @author Michael R&ouml;der (michael.roeder@uni-paderborn.de)
+ *
+ */
+public class StreamingRDFSink extends AStreamRDFDecorator implements RDFSink {
+
+    /**
+     * The stream to which the serialized data is written.
+     */
+    protected OutputStream out;
+
+    /**
+     * Constructor.
+     *
+     * @param out  the stream to which the serialized data is written
+     * @param lang the serialization that should be used. It has to be supported
+     *             by {@link StreamRDFWriter}.
+     */
+    public StreamingRDFSink(OutputStream out, Lang lang) {
+        super(createWriter(out, lang));
+        this.out = out;
+    }
+
+    protected static StreamRDF createWriter(OutputStream out, Lang lang) {
+        if (!StreamRDFWriter.registered(lang)) {
+            throw new IllegalArgumentException(
+                    "The given language (" + lang + ") can not be written as a stream. This is not allowed.");
+        }
+        return StreamRDFWriter.getWriterStream(out, lang);
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            // Make sure that the buffer of the writer is empty
+            getDecorated().finish();
+        } finally {
+            out.close();
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package org.dice_research.rdf.stream.map;
+
+import java.util.Iterator;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+import org.apache.jena.graph.Triple;
+import org.apache.jena.riot.system.StreamRDF;
+import org.apache.jena.sparql.core.Quad;
+import org.dice_research.rdf.stream.ABatchStreamRDFDecorator;
+
+/**
+ * The batch-aware version of the {@link RDFStreamTripleFlatMapper}. It applies
+ * the given function to all elements of a received batch and forwards all
+ * created triples as a single batch. Like the
+ * {@link RDFStreamTripleFlatMapper}, quads are transformed into triples.
+ *
+ * @author Michael R&ouml;der (michael.roeder@uni-paderborn.de)
+ *
+ */
+public class BatchRDFStreamTripleFlatMapper extends ABatchStreamRDFDecorator {
+
+    protected Function<Triple, Stream<Triple>> tripleFunction;
+
+    /**
+     * Buffer that is reused for the created triples.
+     */
+    private Triple[] mappedTriples = new Triple[16];
+    /**
+     * The number of triples in {@link #mappedTriples}.
+     */
+    private int mappedCount = 0;
+
+    public BatchRDFStreamTripleFlatMapper(Function<Triple, Stream<Triple>> tripleFunction, StreamRDF decorated) {
+        super(decorated);
+        this.tripleFunction = tripleFunction;
+    }
+
+    @Override
+    public void triple(Triple triple) {
+        tripleFunction.apply(triple).forEach(t -> super.triple(t));
+    }
+
+    @Override
+    public void quad(Quad quad) {
+        triple(quad.asTriple());
+    }
+
+    @Override
+    public void triples(Triple[] batch, int length) {
+        mappedCount = 0;
+        for (int i = 0; i < length; ++i) {
+            addAll(tripleFunction.apply(batch[i]));
+        }
+        forwardMapped();
+    }
+
+    @Override
+    public void quads(Quad[] batch, int length) {
+        mappedCount = 0;
+        for (int i = 0; i < length; ++i) {
+            addAll(tripleFunction.apply(batch[i].asTriple()));
+        }
+        forwardMapped();
+    }
+
+    protected void addAll(Stream<Triple> triples) {
+        Iterator<Triple> iterator = triples.iterator();
+        while (iterator.hasNext()) {
+            if (mappedCount == mappedTriples.length) {
+                Triple[] larger = new Triple[mappedTriples.length << 1];
+                System.arraycopy(mappedTriples, 0, larger, 0, mappedCount);
+                mappedTriples = larger;
+            }
+            mappedTriples[mappedCount++] = iterator.next();
+        }
+    }
+
+    protected void forwardMapped() {
+        if (mappedCount > 0) {
+            super.triples(mappedTriples, mappedCount);
+            mappedCount = 0;
+        }
+    }
+
+}
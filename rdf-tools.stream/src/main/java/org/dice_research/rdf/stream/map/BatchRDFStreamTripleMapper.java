@@ -0,0 +1,65 @@
+package org.dice_research.rdf.stream.map;
+
+import java.util.function.Function;
+
+import org.apache.jena.graph.Triple;
+import org.apache.jena.riot.system.StreamRDF;
+import org.apache.jena.sparql.core.Quad;
+import org.dice_research.rdf.stream.ABatchStreamRDFDecorator;
+
+/**
+ * The batch-aware version of the {@link RDFStreamTripleMapper}. It applies the
+ * given function to all elements of a received batch in a single loop and
+ * forwards the mapped triples as a single batch. Like the
+ * {@link RDFStreamTripleMapper}, quads are transformed into triples.
+ *
+ * @author Michael R&ouml;der (michael.roeder@uni-paderborn.de)
+ *
+ */
+public class BatchRDFStreamTripleMapper extends ABatchStreamRDFDecorator {
+
+    protected Function<Triple, Triple> tripleFunction;
+
+    /**
+     * Buffer that is reused for the mapped triples.
+     */
+    private Triple[] mappedTriples = new Triple[0];
+
+    public BatchRDFStreamTripleMapper(Function<Triple, Triple> tripleFunction, StreamRDF decorated) {
+        super(decorated);
+        this.tripleFunction = tripleFunction;
+    }
+
+    @Override
+    public void triple(Triple triple) {
+        super.triple(tripleFunction.apply(triple));
+    }
+
+    @Override
+    public void quad(Quad quad) {
+        triple(quad.asTriple());
+    }
+
+    @Override
+    public void triples(Triple[] batch, int length) {
+        if (mappedTriples.length < length) {
+            mappedTriples = new Triple[length];
+        }
+        for (int i = 0; i < length; ++i) {
+            mappedTriples[i] = tripleFunction.apply(batch[i]);
+        }
+        super.triples(mappedTriples, length);
+    }
+
+    @Override
+    public void quads(Quad[] batch, int length) {
+        if (mappedTriples.length < length) {
+            mappedTriples = new Triple[length];
+        }
+        for (int i = 0; i < length; ++i) {
+            mappedTriples[i] = tripleFunction.apply(batch[i].asTriple());
+        }
+        super.triples(mappedTriples, length);
+    }
+
+}
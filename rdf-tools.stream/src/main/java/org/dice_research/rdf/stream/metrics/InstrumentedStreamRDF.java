@@ -0,0 +1,173 @@
+package org.dice_research.rdf.stream.metrics;
+
+import org.apache.jena.graph.Triple;
+import org.apache.jena.riot.system.StreamRDF;
+import org.apache.jena.sparql.core.Quad;
+import org.dice_research.rdf.stream.AStreamRDFDecorator;
+import org.dice_research.rdf.stream.BatchStreamRDF;
+import org.dice_research.rdf.stream.BatchStreamRDFAdapter;
+
+/**
+ * A decorator that is placed in front of a single stage and records its
+ * {@link StageMetrics}. It counts the elements that enter the stage. The time
+ * the stage needs is measured for every n-th call only, since reading the
+ * clock is much more expensive than most filters. If the outgoing streams of
+ * the stage are wrapped with {@link StageOutlet} instances that share the same
+ * {@link StageMetrics}, the accepted and rejected elements are counted and the
+ * time spent in the following stages is subtracted from the measured time.
+ * Else, the measured time comprises the following stages. Such a chain can be
+ * created with the {@link StreamRDFInstrumenter}.
+ *
+ * <p>
+ * <b>Note</b> that an instance of this class has to be fed by a single thread.
+ * </p>
+ *
+ * @author Michael R&ouml;der (michael.roeder@uni-paderborn.de)
+ *
+ */
+public class InstrumentedStreamRDF extends AStreamRDFDecorator implements BatchStreamRDF {
+
+    /**
+     * Default number of calls between two time measurements.
+     */
+    public static final int DEFAULT_SAMPLING_INTERVAL = 64;
+
+    /**
+     * The metrics of the stage.
+     */
+    protected StageMetrics metrics;
+    /**
+     * The decorated stage as {@link BatchStreamRDF}.
+     */
+    protected BatchStreamRDF batchStage;
+    /**
+     * The number of calls between two time measurements.
+     */
+    protected int samplingInterval;
+    /**
+     * The number of calls until the next time measurement.
+     */
+    protected int callsUntilSample;
+
+    /**
+     * Constructor using the {@link #DEFAULT_SAMPLING_INTERVAL}.
+     *
+     * @param stage   the stage that should be instrumented
+     * @param metrics the metrics of the stage
+     */
+    public InstrumentedStreamRDF(StreamRDF stage, StageMetrics metrics) {
+        this(stage, metrics, DEFAULT_SAMPLING_INTERVAL);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param stage            the stage that should be instrumented
+     * @param metrics          the metrics of the stage
+     * @param samplingInterval the number of calls between two time measurements
+     *                         (1 means that every call is measured)
+     */
+    public InstrumentedStreamRDF(StreamRDF stage, StageMetrics metrics, int samplingInterval) {
+        super(stage);
+        if (samplingInterval <= 0) {
+            throw new IllegalArgumentException(
+                    "The given sampling interval (" + samplingInterval + ") is smaller than 1. This is not allowed.");
+        }
+        this.metrics = metrics;
+        this.batchStage = BatchStreamRDFAdapter.wrap(stage);
+        this.samplingInterval = samplingInterval;
+        this.callsUntilSample = 1;
+    }
+
+    @Override
+    public void setDecorated(StreamRDF decorated) {
+        super.setDecorated(decorated);
+        batchStage = BatchStreamRDFAdapter.wrap(decorated);
+    }
+
+    @Override
+    public void triple(Triple triple) {
+        metrics.in.increment();
+        if (--callsUntilSample > 0) {
+            super.triple(triple);
+        } else {
+            long start = startSample();
+            super.triple(triple);
+            endSample(start, 1);
+        }
+    }
+
+    @Override
+    public void quad(Quad quad) {
+        metrics.in.increment();
+        if (--callsUntilSample > 0) {
+            super.quad(quad);
+        } else {
+            long start = startSample();
+            super.quad(quad);
+            endSample(start, 1);
+        }
+    }
+
+    @Override
+    public void triples(Triple[] batch, int length) {
+        metrics.in.add(length);
+        if (--callsUntilSample > 0) {
+            batchStage.triples(batch, length);
+        } else {
+            long start = startSample();
+            batchStage.triples(batch, length);
+            endSample(start, length);
+        }
+    }
+
+    @Override
+    public void quads(Quad[] batch, int length) {
+        metrics.in.add(length);
+        if (--callsUntilSample > 0) {
+            batchStage.quads(batch, length);
+        } else {
+            long start = startSample();
+            batchStage.quads(batch, length);
+            endSample(start, length);
+        }
+    }
+
+    /**
+     * Starts a time measurement.
+     *
+     * @return the start time
+     */
+    protected long startSample() {
+        callsUntilSample = samplingInterval;
+        metrics.downstreamNanos = 0;
+        metrics.samplingThread = Thread.currentThread();
+        return System.nanoTime();
+    }
+
+    /**
+     * Ends a time measurement and records the time per element.
+     *
+     * @param start            the start time
+     * @param numberOfElements the number of elements that have been processed
+     */
+    protected void endSample(long start, int numberOfElements) {
+        long time = System.nanoTime() - start - metrics.downstreamNanos;
+        metrics.samplingThread = null;
+        metrics.selfTime.record(time / Math.max(1, numberOfElements));
+    }
+
+    /**
+     * @return the metrics of the stage
+     */
+    public StageMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * @return the number of calls between two time measurements
+     */
+    public int getSamplingInterval() {
+        return samplingInterval;
+    }
+}
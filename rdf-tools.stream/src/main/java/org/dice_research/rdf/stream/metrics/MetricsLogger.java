@@ -0,0 +1,73 @@
+package org.dice_research.rdf.stream.metrics;
+
+import java.io.Closeable;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Logs the metrics of a {@link MetricsRegistry} periodically using a daemon
+ * thread. The metrics are logged a last time when the logger is closed.
+ *
+ * @author Michael R&ouml;der (michael.roeder@uni-paderborn.de)
+ *
+ */
+public class MetricsLogger implements Closeable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(MetricsLogger.class);
+
+    /**
+     * The registry whose metrics are logged.
+     */
+    protected MetricsRegistry registry;
+    /**
+     * The executor that runs the logging task.
+     */
+    protected ScheduledExecutorService executor;
+
+    /**
+     * Constructor. The logging starts immediately.
+     *
+     * @param registry the registry whose metrics are logged
+     * @param period   the time between two log messages
+     * @param unit     the unit of the period
+     */
+    public MetricsLogger(MetricsRegistry registry, long period, TimeUnit unit) {
+        if (period <= 0) {
+            throw new IllegalArgumentException(
+                    "The given period (" + period + ") is smaller than 1. This is not allowed.");
+        }
+        this.registry = registry;
+        executor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "MetricsLogger");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.scheduleAtFixedRate(this::log, period, period, unit);
+    }
+
+    /**
+     * Logs the current state of all stages.
+     */
+    public void log() {
+        if (LOGGER.isInfoEnabled()) {
+            StringBuilder builder = new StringBuilder("Stage metrics:");
+            for (StageMetrics stage : registry.getStages()) {
+                builder.append("\n  ").append(stage.toString());
+            }
+            LOGGER.info(builder.toString());
+        }
+    }
+
+    /**
+     * Stops the periodic logging and logs the metrics a last time.
+     */
+    @Override
+    public void close() {
+        executor.shutdownNow();
+        log();
+    }
+}
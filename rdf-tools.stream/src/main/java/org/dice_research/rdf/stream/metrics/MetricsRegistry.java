@@ -0,0 +1,50 @@
+package org.dice_research.rdf.stream.metrics;
+
+import java.util.Collection;
+
+/**
+ * A registry that holds the metrics of the stages of one or several chains of
+ * {@link org.apache.jena.riot.system.StreamRDF} instances.
+ *
+ * @author Michael R&ouml;der (michael.roeder@uni-paderborn.de)
+ *
+ */
+public interface MetricsRegistry {
+
+    /**
+     * Returns the metrics of the stage with the given name. If the registry does
+     * not contain such a stage, new metrics are created and registered.
+     *
+     * @param name the name of the stage
+     * @return the metrics of the stage
+     */
+    public StageMetrics getStage(String name);
+
+    /**
+     * @return the metrics of all registered stages in the order in which they
+     *         have been registered
+     */
+    public Collection<StageMetrics> getStages();
+
+    /**
+     * Creates a JSON representation of the current state of all registered
+     * stages.
+     *
+     * @return a JSON object with a {@code stages} array
+     */
+    public default String toJson() {
+        StringBuilder builder = new StringBuilder();
+        builder.append("{\"stages\":[");
+        boolean first = true;
+        for (StageMetrics stage : getStages()) {
+            if (first) {
+                first = false;
+            } else {
+                builder.append(',');
+            }
+            stage.appendJson(builder);
+        }
+        builder.append("]}");
+        return builder.toString();
+    }
+}
@@ -0,0 +1,152 @@
+package org.dice_research.rdf.stream.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A histogram of durations in nanoseconds with logarithmic buckets. Bucket
+ * {@code i} counts the durations {@code d} with {@code 2^(i-1) <= d < 2^i}
+ * (bucket 0 counts durations of 0ns). Hence, the histogram has a fixed size
+ * and recording a value does not allocate memory. Percentiles are estimated
+ * with the upper bound of the bucket they fall into, i.e., they are accurate up
+ * to a factor of two.
+ *
+ * <p>
+ * The histogram can be read while it is updated by another thread.
+ * </p>
+ *
+ * @author Michael R&ouml;der (michael.roeder@uni-paderborn.de)
+ *
+ */
+public class NanoTimeHistogram {
+
+    /**
+     * The number of buckets.
+     */
+    public static final int NUMBER_OF_BUCKETS = 64;
+
+    /**
+     * The counts of the single buckets.
+     */
+    protected AtomicLongArray buckets = new AtomicLongArray(NUMBER_OF_BUCKETS);
+    /**
+     * The number of recorded values.
+     */
+    protected AtomicLong count = new AtomicLong();
+    /**
+     * The sum of all recorded values.
+     */
+    protected AtomicLong sum = new AtomicLong();
+    /**
+     * The largest recorded value.
+     */
+    protected AtomicLong max = new AtomicLong();
+
+    /**
+     * Records the given duration. Negative values are recorded as 0.
+     *
+     * @param nanos the duration in nanoseconds
+     */
+    public void record(long nanos) {
+        if (nanos < 0) {
+            nanos = 0;
+        }
+        buckets.incrementAndGet(bucketOf(nanos));
+        count.incrementAndGet();
+        sum.addAndGet(nanos);
+        long currentMax = max.get();
+        while ((nanos > currentMax) && !max.compareAndSet(currentMax, nanos)) {
+            currentMax = max.get();
+        }
+    }
+
+    /**
+     * @param nanos a non-negative duration
+     * @return the index of the bucket the given duration belongs to
+     */
+    protected static int bucketOf(long nanos) {
+        return Math.min(NUMBER_OF_BUCKETS - 1, 64 - Long.numberOfLeadingZeros(nanos));
+    }
+
+    /**
+     * @param bucket the index of a bucket
+     * @return the largest duration that is counted by the given bucket
+     */
+    public static long upperBoundOf(int bucket) {
+        if (bucket == 0) {
+            return 0;
+        }
+        if (bucket >= (NUMBER_OF_BUCKETS - 1)) {
+            return Long.MAX_VALUE;
+        }
+        return (1L << bucket) - 1;
+    }
+
+    /**
+     * Estimates the given percentile.
+     *
+     * @param percentile the percentile (a value between 0 and 1)
+     * @return the upper bound of the bucket in which the percentile falls or 0 if
+     *         no values have been recorded
+     */
+    public long getPercentile(double percentile) {
+        long total = 0;
+        long[] counts = getBucketCounts();
+        for (int i = 0; i < counts.length; ++i) {
+            total += counts[i];
+        }
+        if (total == 0) {
+            return 0;
+        }
+        long rank = (long) Math.ceil(percentile * total);
+        long seen = 0;
+        for (int i = 0; i < counts.length; ++i) {
+            seen += counts[i];
+            if ((seen >= rank) && (counts[i] > 0)) {
+                return Math.min(upperBoundOf(i), getMax());
+            }
+        }
+        return getMax();
+    }
+
+    /**
+     * @return a copy of the current bucket counts
+     */
+    public long[] getBucketCounts() {
+        long[] counts = new long[NUMBER_OF_BUCKETS];
+        for (int i = 0; i < counts.length; ++i) {
+            counts[i] = buckets.get(i);
+        }
+        return counts;
+    }
+
+    /**
+     * @return the number of recorded values
+     */
+    public long getCount() {
+        return count.get();
+    }
+
+    /**
+     * @return the sum of all recorded values in nanoseconds
+     */
+    public long getSum() {
+        return sum.get();
+    }
+
+    /**
+     * @return the mean of the recorded values in nanoseconds or 0 if no values
+     *         have been recorded
+     */
+    public double getMean() {
+        long n = getCount();
+        return (n == 0) ? 0 : ((double) getSum() / n);
+    }
+
+    /**
+     * @return the largest recorded value in nanoseconds
+     */
+    public long getMax() {
+        return max.get();
+    }
+}
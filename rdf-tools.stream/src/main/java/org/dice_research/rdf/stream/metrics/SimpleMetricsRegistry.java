@@ -0,0 +1,33 @@
+package org.dice_research.rdf.stream.metrics;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A simple, thread-safe implementation of the {@link MetricsRegistry}
+ * interface.
+ *
+ * @author Michael R&ouml;der (michael.roeder@uni-paderborn.de)
+ *
+ */
+public class SimpleMetricsRegistry implements MetricsRegistry {
+
+    protected Map<String, StageMetrics> stages = new LinkedHashMap<>();
+
+    @Override
+    public synchronized StageMetrics getStage(String name) {
+        return stages.computeIfAbsent(name, StageMetrics::new);
+    }
+
+    @Override
+    public synchronized Collection<StageMetrics> getStages() {
+        return new ArrayList<>(stages.values());
+    }
+
+    @Override
+    public String toString() {
+        return toJson();
+    }
+}
@@ -0,0 +1,185 @@
+package org.dice_research.rdf.stream.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The metrics of a single stage of a chain of {@link org.apache.jena.riot.system.StreamRDF}
+ * instances. It comprises the number of elements (triples and quads) that
+ * entered the stage, that have been accepted (i.e., forwarded to the next
+ * stage) and that have been rejected (i.e., forwarded to the stream for
+ * rejected elements of a filter). In addition, it comprises a histogram of the
+ * time the stage itself needs to process an element, i.e., without the time
+ * spent in the following stages. The time is only measured for a sample of the
+ * elements (see {@link InstrumentedStreamRDF}).
+ *
+ * @author Michael R&ouml;der (michael.roeder@uni-paderborn.de)
+ *
+ */
+public class StageMetrics {
+
+    /**
+     * The name of the stage.
+     */
+    protected String name;
+    /**
+     * The number of elements that entered the stage.
+     */
+    protected LongAdder in = new LongAdder();
+    /**
+     * The number of elements that have been forwarded to the next stage.
+     */
+    protected LongAdder accepted = new LongAdder();
+    /**
+     * The number of elements that have been forwarded to the stream for rejected
+     * elements.
+     */
+    protected LongAdder rejected = new LongAdder();
+    /**
+     * The time the stage needs to process a sampled element.
+     */
+    protected NanoTimeHistogram selfTime = new NanoTimeHistogram();
+    /**
+     * The thread that feeds the stage while it processes a sampled element or
+     * {@code null} if no element is sampled. Outlets that are called by a
+     * different thread (e.g., behind an
+     * {@link org.dice_research.rdf.stream.AsyncStreamRDFDecorator}) do not take
+     * part in the measurement since their time is not part of the stage's call.
+     */
+    volatile Thread samplingThread = null;
+    /**
+     * The time that has been spent in following stages while processing the
+     * current sampled element. It is only accessed by the
+     * {@link #samplingThread}.
+     */
+    long downstreamNanos = 0;
+
+    /**
+     * Constructor.
+     *
+     * @param name the name of the stage
+     */
+    public StageMetrics(String name) {
+        this.name = name;
+    }
+
+    /**
+     * @return {@code true} if the current thread measures the time of a sampled
+     *         element
+     */
+    boolean isSampledByCurrentThread() {
+        return samplingThread == Thread.currentThread();
+    }
+
+    /**
+     * @return the name of the stage
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @return the number of elements that entered the stage
+     */
+    public long getIn() {
+        return in.sum();
+    }
+
+    /**
+     * @return the number of elements that have been forwarded to the next stage
+     */
+    public long getAccepted() {
+        return accepted.sum();
+    }
+
+    /**
+     * @return the number of elements that have been forwarded to the stream for
+     *         rejected elements
+     */
+    public long getRejected() {
+        return rejected.sum();
+    }
+
+    /**
+     * @return the histogram of the time the stage needs to process a sampled
+     *         element
+     */
+    public NanoTimeHistogram getSelfTime() {
+        return selfTime;
+    }
+
+    /**
+     * Appends a JSON representation of this stage to the given builder.
+     *
+     * @param builder the builder to which the JSON object is appended
+     */
+    public void appendJson(StringBuilder builder) {
+        builder.append("{\"name\":");
+        appendJsonString(name, builder);
+        builder.append(",\"in\":").append(getIn());
+        builder.append(",\"accepted\":").append(getAccepted());
+        builder.append(",\"rejected\":").append(getRejected());
+        builder.append(",\"selfTimeNanos\":{\"samples\":").append(selfTime.getCount());
+        builder.append(",\"mean\":").append(selfTime.getMean());
+        builder.append(",\"p50\":").append(selfTime.getPercentile(0.5));
+        builder.append(",\"p90\":").append(selfTime.getPercentile(0.9));
+        builder.append(",\"p99\":").append(selfTime.getPercentile(0.99));
+        builder.append(",\"max\":").append(selfTime.getMax());
+        builder.append(",\"buckets\":[");
+        long[] counts = selfTime.getBucketCounts();
+        int last = counts.length - 1;
+        while ((last > 0) && (counts[last] == 0)) {
+            --last;
+        }
+        for (int i = 0; i <= last; ++i) {
+            if (i > 0) {
+                builder.append(',');
+            }
+            builder.append(counts[i]);
+        }
+        builder.append("]}}");
+    }
+
+    /**
+     * Appends the given String as quoted and escaped JSON string.
+     *
+     * @param value   the String that should be appended
+     * @param builder the builder to which the String is appended
+     */
+    protected static void appendJsonString(String value, StringBuilder builder) {
+        builder.append('"');
+        char c;
+        for (int i = 0; i < value.length(); ++i) {
+            c = value.charAt(i);
+            switch (c) {
+            case '"':
+                builder.append("\\\"");
+                break;
+            case '\\':
+                builder.append("\\\\");
+                break;
+            case '\n':
+                builder.append("\\n");
+                break;
+            case '\r':
+                builder.append("\\r");
+                break;
+            case '\t':
+                builder.append("\\t");
+                break;
+            default:
+                if (c < 0x20) {
+                    builder.append(String.format("\\u%04x", (int) c));
+                } else {
+                    builder.append(c);
+                }
+            }
+        }
+        builder.append('"');
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s: in=%d, accepted=%d, rejected=%d, self time mean=%.1fns, p99<=%dns", name, getIn(),
+                getAccepted(), getRejected(), selfTime.getMean(), selfTime.getPercentile(0.99));
+    }
+}
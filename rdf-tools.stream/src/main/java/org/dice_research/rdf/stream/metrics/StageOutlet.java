@@ -0,0 +1,121 @@
+package org.dice_research.rdf.stream.metrics;
+
+import org.apache.jena.graph.Triple;
+import org.apache.jena.riot.system.StreamRDF;
+import org.apache.jena.sparql.core.Quad;
+import org.dice_research.rdf.stream.AStreamRDFDecorator;
+import org.dice_research.rdf.stream.BatchStreamRDF;
+import org.dice_research.rdf.stream.BatchStreamRDFAdapter;
+
+/**
+ * A decorator that is placed behind a stage, i.e., it wraps the stream for
+ * accepted or for rejected elements of the stage. It counts the elements that
+ * leave the stage and, while the {@link InstrumentedStreamRDF} of the stage
+ * measures the time of the current call, measures the time spent in the
+ * following stages. Only calls by the thread that feeds the stage are
+ * measured. Elements that are forwarded by a different thread are counted
+ * but their time is not subtracted from the stage's time.
+ *
+ * @author Michael R&ouml;der (michael.roeder@uni-paderborn.de)
+ *
+ */
+public class StageOutlet extends AStreamRDFDecorator implements BatchStreamRDF {
+
+    /**
+     * The metrics of the stage.
+     */
+    protected StageMetrics metrics;
+    /**
+     * Flag indicating whether this outlet counts accepted or rejected elements.
+     */
+    protected boolean accepted;
+    /**
+     * The decorated stream as {@link BatchStreamRDF}.
+     */
+    protected BatchStreamRDF batchDecorated;
+
+    /**
+     * Constructor.
+     *
+     * @param decorated the stream to which the elements are forwarded
+     * @param metrics   the metrics of the stage
+     * @param accepted  {@code true} if the outlet receives the accepted elements
+     *                  or {@code false} if it receives the rejected elements
+     */
+    public StageOutlet(StreamRDF decorated, StageMetrics metrics, boolean accepted) {
+        super(decorated);
+        this.metrics = metrics;
+        this.accepted = accepted;
+        this.batchDecorated = BatchStreamRDFAdapter.wrap(decorated);
+    }
+
+    @Override
+    public void setDecorated(StreamRDF decorated) {
+        super.setDecorated(decorated);
+        batchDecorated = BatchStreamRDFAdapter.wrap(decorated);
+    }
+
+    @Override
+    public void triple(Triple triple) {
+        count(1);
+        if (metrics.isSampledByCurrentThread()) {
+            long start = System.nanoTime();
+            super.triple(triple);
+            metrics.downstreamNanos += System.nanoTime() - start;
+        } else {
+            super.triple(triple);
+        }
+    }
+
+    @Override
+    public void quad(Quad quad) {
+        count(1);
+        if (metrics.isSampledByCurrentThread()) {
+            long start = System.nanoTime();
+            super.quad(quad);
+            metrics.downstreamNanos += System.nanoTime() - start;
+        } else {
+            super.quad(quad);
+        }
+    }
+
+    @Override
+    public void triples(Triple[] batch, int length) {
+        count(length);
+        if (metrics.isSampledByCurrentThread()) {
+            long start = System.nanoTime();
+            batchDecorated.triples(batch, length);
+            metrics.downstreamNanos += System.nanoTime() - start;
+        } else {
+            batchDecorated.triples(batch, length);
+        }
+    }
+
+    @Override
+    public void quads(Quad[] batch, int length) {
+        count(length);
+        if (metrics.isSampledByCurrentThread()) {
+            long start = System.nanoTime();
+            batchDecorated.quads(batch, length);
+            metrics.downstreamNanos += System.nanoTime() - start;
+        } else {
+            batchDecorated.quads(batch, length);
+        }
+    }
+
+    protected void count(int numberOfElements) {
+        if (accepted) {
+            metrics.accepted.add(numberOfElements);
+        } else {
+            metrics.rejected.add(numberOfElements);
+        }
+    }
+
+    /**
+     * @return {@code true} if the outlet receives the accepted elements or
+     *         {@code false} if it receives the rejected elements
+     */
+    public boolean isAccepted() {
+        return accepted;
+    }
+}
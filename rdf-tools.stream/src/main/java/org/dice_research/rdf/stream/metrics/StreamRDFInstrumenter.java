@@ -0,0 +1,127 @@
+package org.dice_research.rdf.stream.metrics;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+import org.apache.jena.riot.system.StreamRDF;
+import org.dice_research.rdf.stream.AStreamRDFDecorator;
+import org.dice_research.rdf.stream.AStreamRDFFilter;
+
+/**
+ * Instruments an existing chain of {@link AStreamRDFDecorator} instances. Each
+ * decorator of the chain becomes a stage with its own {@link StageMetrics} in
+ * the given {@link MetricsRegistry}. An {@link InstrumentedStreamRDF} is placed
+ * in front of every stage and its outgoing streams are wrapped with
+ * {@link StageOutlet} instances. The streams for rejected elements of
+ * {@link AStreamRDFFilter} instances are instrumented as well. The chain ends
+ * at the first stream that is not an {@link AStreamRDFDecorator}, e.g., a
+ * writer.
+ *
+ * <p>
+ * The stages are named by their position and their class, e.g.,
+ * {@code "2:RDFStreamTripleFilter"}. Stages behind the stream for rejected
+ * elements of a filter get the name of the filter as prefix, e.g.,
+ * {@code "2:RDFStreamTripleFilter/rejected/1:RDFStreamTripleMapper"}.
+ * </p>
+ *
+ * <p>
+ * Example:
+ * </p>
+ *
+ * <pre>
+ * MetricsRegistry registry = new SimpleMetricsRegistry();
+ * StreamRDF stream = StreamRDFInstrumenter.instrument(chain, registry);
+ * try (MetricsLogger logger = new MetricsLogger(registry, 1, TimeUnit.MINUTES)) {
+ *     RDFDataMgr.parse(stream, file);
+ * }
+ * </pre>
+ *
+ * <p>
+ * <b>Note</b> that the decorators of the given chain are rewired. The chain
+ * must not be used while it is instrumented.
+ * </p>
+ *
+ * @author Michael R&ouml;der (michael.roeder@uni-paderborn.de)
+ *
+ */
+public class StreamRDFInstrumenter {
+
+    /**
+     * Instruments the given chain using the
+     * {@link InstrumentedStreamRDF#DEFAULT_SAMPLING_INTERVAL}.
+     *
+     * @param head     the first stream of the chain
+     * @param registry the registry to which the metrics of the stages are added
+     * @return the new head of the chain to which the data has to be sent
+     */
+    public static StreamRDF instrument(StreamRDF head, MetricsRegistry registry) {
+        return instrument(head, registry, InstrumentedStreamRDF.DEFAULT_SAMPLING_INTERVAL);
+    }
+
+    /**
+     * Instruments the given chain.
+     *
+     * @param head             the first stream of the chain
+     * @param registry         the registry to which the metrics of the stages are
+     *                         added
+     * @param samplingInterval the number of calls between two time measurements
+     * @return the new head of the chain to which the data has to be sent
+     */
+    public static StreamRDF instrument(StreamRDF head, MetricsRegistry registry, int samplingInterval) {
+        return instrument(head, registry, samplingInterval, "", 1, new IdentityHashMap<>());
+    }
+
+    /**
+     * Instruments the given stream and all following decorators.
+     *
+     * @param stream           the current stream
+     * @param registry         the registry to which the metrics of the stages are
+     *                         added
+     * @param samplingInterval the number of calls between two time measurements
+     * @param prefix           the prefix of the stage names
+     * @param position         the position of the given stream
+     * @param instrumented     the decorators that have been instrumented already
+     *                         (a stream for rejected elements may be shared by
+     *                         several filters) mapped to their instrumented
+     *                         version
+     * @return the instrumented stream
+     */
+    protected static StreamRDF instrument(StreamRDF stream, MetricsRegistry registry, int samplingInterval,
+            String prefix, int position, Map<StreamRDF, StreamRDF> instrumented) {
+        if (!(stream instanceof AStreamRDFDecorator) || (stream instanceof InstrumentedStreamRDF)
+                || (stream instanceof StageOutlet)) {
+            return stream;
+        }
+        if (instrumented.containsKey(stream)) {
+            return instrumented.get(stream);
+        }
+        AStreamRDFDecorator stage = (AStreamRDFDecorator) stream;
+        String name = prefix + position + ":" + getStageName(stage);
+        StageMetrics metrics = registry.getStage(name);
+        InstrumentedStreamRDF result = new InstrumentedStreamRDF(stage, metrics, samplingInterval);
+        instrumented.put(stage, result);
+        if (stage instanceof AStreamRDFFilter) {
+            AStreamRDFFilter filter = (AStreamRDFFilter) stage;
+            filter.setRejected(new StageOutlet(instrument(filter.getRejected(), registry, samplingInterval,
+                    name + "/rejected/", 1, instrumented), metrics, false));
+        }
+        stage.setDecorated(new StageOutlet(
+                instrument(stage.getDecorated(), registry, samplingInterval, prefix, position + 1, instrumented),
+                metrics, true));
+        return result;
+    }
+
+    /**
+     * @param stage a stage
+     * @return the name of the class of the given stage
+     */
+    protected static String getStageName(StreamRDF stage) {
+        String name = stage.getClass().getSimpleName();
+        if (name.isEmpty()) {
+            // anonymous class
+            name = stage.getClass().getName();
+            name = name.substring(name.lastIndexOf('.') + 1);
+        }
+        return name;
+    }
+}
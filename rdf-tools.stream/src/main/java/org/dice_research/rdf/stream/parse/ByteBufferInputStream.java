@@ -0,0 +1,61 @@
+package org.dice_research.rdf.stream.parse;
+
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+
+/**
+ * A simple {@link InputStream} that reads the remaining bytes of a given
+ * {@link ByteBuffer}. The buffer is read directly, i.e., its position is moved
+ * while reading from this stream. It can be used to hand chunks of data to
+ * parsers that expect an {@link InputStream}.
+ *
+ * @author Michael R&ouml;der (michael.roeder@uni-paderborn.de)
+ *
+ */
+public class ByteBufferInputStream extends InputStream {
+
+    /**
+     * The buffer from which the data is read.
+     */
+    protected ByteBuffer buffer;
+
+    /**
+     * Constructor.
+     *
+     * @param buffer the buffer from which the data is read
+     */
+    public ByteBufferInputStream(ByteBuffer buffer) {
+        this.buffer = buffer;
+    }
+
+    @Override
+    public int read() {
+        return buffer.hasRemaining() ? (buffer.get() & 0xFF) : -1;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) {
+        if (len == 0) {
+            return 0;
+        }
+        if (!buffer.hasRemaining()) {
+            return -1;
+        }
+        int count = Math.min(len, buffer.remaining());
+        buffer.get(b, off, count);
+        return count;
+    }
+
+    @Override
+    public long skip(long n) {
+        int count = (int) Math.max(0, Math.min(n, buffer.remaining()));
+        buffer.position(buffer.position() + count);
+        return count;
+    }
+
+    @Override
+    public int available() {
+        return buffer.remaining();
+    }
+
+}
@@ -0,0 +1,166 @@
+package org.dice_research.rdf.stream.parse;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * This class splits the content of a given {@link InputStream} into chunks of
+ * bytes. Each chunk (except the last one) ends with a line break, i.e., a
+ * line-based format like N-Triples or N-Quads can be parsed chunk by chunk
+ * without cutting a single line into two parts. Each returned chunk is backed
+ * by its own byte array, i.e., it can be handed over to a different thread.
+ *
+ * <p>
+ * <b>Note</b> that a chunk can become larger than the given chunk size if a
+ * single line is longer than the chunk size.
+ * </p>
+ *
+ * @author Michael R&ouml;der (michael.roeder@uni-paderborn.de)
+ *
+ */
+public class LineChunker implements Iterator<ByteBuffer> {
+
+    /**
+     * Default size of a single chunk (4 MiB).
+     */
+    public static final int DEFAULT_CHUNK_SIZE = 1 << 22;
+    /**
+     * The line break character that is used to split the data.
+     */
+    protected static final byte LINE_BREAK = '\n';
+
+    /**
+     * The stream from which the data is read.
+     */
+    protected InputStream in;
+    /**
+     * The (minimum) size of a single chunk in bytes.
+     */
+    protected int chunkSize;
+    /**
+     * Bytes that have been read but belong to a line that hasn't been completed
+     * in the last chunk.
+     */
+    protected byte[] remainder = new byte[0];
+    /**
+     * The next chunk or {@code null} if it hasn't been read, yet.
+     */
+    protected ByteBuffer next = null;
+    /**
+     * Flag indicating whether the end of the stream has been reached.
+     */
+    protected boolean endOfStream = false;
+
+    /**
+     * Constructor using the {@link #DEFAULT_CHUNK_SIZE}.
+     *
+     * @param in the stream from which the data is read
+     */
+    public LineChunker(InputStream in) {
+        this(in, DEFAULT_CHUNK_SIZE);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param in        the stream from which the data is read
+     * @param chunkSize the (minimum) size of a single chunk in bytes
+     */
+    public LineChunker(InputStream in, int chunkSize) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException(
+                    "The given chunk size (" + chunkSize + ") is smaller than 1. This is not allowed.");
+        }
+        this.in = in;
+        this.chunkSize = chunkSize;
+    }
+
+    @Override
+    public boolean hasNext() {
+        if ((next == null) && !endOfStream) {
+            try {
+                next = readChunk();
+            } catch (IOException e) {
+                throw new UncheckedIOException("Error while reading the next chunk.", e);
+            }
+        }
+        return next != null;
+    }
+
+    @Override
+    public ByteBuffer next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        ByteBuffer chunk = next;
+        next = null;
+        return chunk;
+    }
+
+    /**
+     * Reads the next chunk from the stream.
+     *
+     * @return the next chunk or {@code null} if the stream does not contain any
+     *         further data
+     * @throws IOException if an error occurs while reading from the stream
+     */
+    protected ByteBuffer readChunk() throws IOException {
+        byte[] buffer = new byte[Math.max(chunkSize, remainder.length << 1)];
+        System.arraycopy(remainder, 0, buffer, 0, remainder.length);
+        int length = remainder.length;
+        int searchStart = 0;
+        while (true) {
+            int read = in.readNBytes(buffer, length, buffer.length - length);
+            length += read;
+            if (length < buffer.length) {
+                // We reached the end of the stream
+                endOfStream = true;
+                remainder = new byte[0];
+                return (length > 0) ? ByteBuffer.wrap(buffer, 0, length) : null;
+            }
+            int lineEnd = lastIndexOf(buffer, searchStart, length, LINE_BREAK);
+            if (lineEnd >= 0) {
+                remainder = new byte[length - (lineEnd + 1)];
+                System.arraycopy(buffer, lineEnd + 1, remainder, 0, remainder.length);
+                return ByteBuffer.wrap(buffer, 0, lineEnd + 1);
+            }
+            // The buffer doesn't contain a complete line. We have to increase its size.
+            byte[] largerBuffer = new byte[buffer.length << 1];
+            System.arraycopy(buffer, 0, largerBuffer, 0, length);
+            searchStart = length;
+            buffer = largerBuffer;
+        }
+    }
+
+    /**
+     * Returns the last position of the given value within the given range of the
+     * given array.
+     *
+     * @param data  the array that should be searched
+     * @param from  the first position that is part of the search (inclusive)
+     * @param to    the last position of the search (exclusive)
+     * @param value the value that is searched
+     * @return the last position of the given value or {@code -1} if it couldn't
+     *         be found
+     */
+    public static int lastIndexOf(byte[] data, int from, int to, byte value) {
+        for (int i = to - 1; i >= from; --i) {
+            if (data[i] == value) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @return the chunk size
+     */
+    public int getChunkSize() {
+        return chunkSize;
+    }
+
+}
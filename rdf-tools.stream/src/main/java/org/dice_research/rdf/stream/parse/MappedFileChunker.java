@@ -0,0 +1,179 @@
+package org.dice_research.rdf.stream.parse;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * This class splits an uncompressed file into chunks that end at line breaks.
+ * In contrast to the {@link LineChunker}, the chunks are not copied into the
+ * heap. Instead, the file is memory-mapped region by region using
+ * {@link FileChannel#map(MapMode, long, long)} and the line breaks are searched
+ * directly within the mapped buffer. Each returned chunk is an independent
+ * view on the mapped data, i.e., it can be handed over to a different thread.
+ *
+ * <p>
+ * <b>Note</b> that a chunk can become larger than the given chunk size if a
+ * single line is longer than the chunk size.
+ * </p>
+ *
+ * @author Michael R&ouml;der (michael.roeder@uni-paderborn.de)
+ *
+ */
+public class MappedFileChunker implements Iterator<ByteBuffer>, Closeable {
+
+    /**
+     * Default size of a single chunk (64 MiB).
+     */
+    public static final int DEFAULT_CHUNK_SIZE = 1 << 26;
+    /**
+     * The line break character that is used to split the data.
+     */
+    protected static final byte LINE_BREAK = '\n';
+
+    /**
+     * The channel of the mapped file.
+     */
+    protected FileChannel channel;
+    /**
+     * The size of the file in bytes.
+     */
+    protected long fileSize;
+    /**
+     * The (minimum) size of a single chunk in bytes.
+     */
+    protected int chunkSize;
+    /**
+     * The position in the file at which the next chunk starts.
+     */
+    protected long position = 0;
+
+    /**
+     * Constructor using the {@link #DEFAULT_CHUNK_SIZE}.
+     *
+     * @param file the file that should be mapped
+     * @throws IOException if the file can not be opened
+     */
+    public MappedFileChunker(Path file) throws IOException {
+        this(file, DEFAULT_CHUNK_SIZE);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param file      the file that should be mapped
+     * @param chunkSize the (minimum) size of a single chunk in bytes
+     * @throws IOException if the file can not be opened
+     */
+    public MappedFileChunker(Path file, int chunkSize) throws IOException {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException(
+                    "The given chunk size (" + chunkSize + ") is smaller than 1. This is not allowed.");
+        }
+        this.chunkSize = chunkSize;
+        this.channel = FileChannel.open(file, StandardOpenOption.READ);
+        this.fileSize = channel.size();
+    }
+
+    @Override
+    public boolean hasNext() {
+        return position < fileSize;
+    }
+
+    @Override
+    public ByteBuffer next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        try {
+            return mapChunk();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error while mapping the next chunk.", e);
+        }
+    }
+
+    /**
+     * Maps the next chunk of the file.
+     *
+     * @return the next chunk
+     * @throws IOException if an error occurs while mapping the file
+     */
+    protected ByteBuffer mapChunk() throws IOException {
+        long length = chunkSize;
+        int searchStart = 0;
+        while (true) {
+            length = Math.min(length, fileSize - position);
+            if (length > Integer.MAX_VALUE) {
+                throw new IOException("The file contains a line that is longer than " + Integer.MAX_VALUE
+                        + " bytes at position " + position + ". It can not be mapped.");
+            }
+            MappedByteBuffer buffer = channel.map(MapMode.READ_ONLY, position, length);
+            if (position + length == fileSize) {
+                // This is the last chunk
+                position = fileSize;
+                return buffer;
+            }
+            int lineEnd = lastIndexOf(buffer, searchStart, (int) length, LINE_BREAK);
+            if (lineEnd >= 0) {
+                position += lineEnd + 1;
+                return buffer.slice(0, lineEnd + 1);
+            }
+            // The region doesn't contain a complete line. We have to map a larger region.
+            searchStart = (int) length;
+            length <<= 1;
+        }
+    }
+
+    /**
+     * Returns the last position of the given value within the given range of the
+     * given buffer. The position of the buffer is not changed.
+     *
+     * @param buffer the buffer that should be searched
+     * @param from   the first position that is part of the search (inclusive)
+     * @param to     the last position of the search (exclusive)
+     * @param value  the value that is searched
+     * @return the last position of the given value or {@code -1} if it couldn't
+     *         be found
+     */
+    public static int lastIndexOf(ByteBuffer buffer, int from, int to, byte value) {
+        for (int i = to - 1; i >= from; --i) {
+            if (buffer.get(i) == value) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @return the chunk size
+     */
+    public int getChunkSize() {
+        return chunkSize;
+    }
+
+    /**
+     * @return the size of the mapped file in bytes
+     */
+    public long getFileSize() {
+        return fileSize;
+    }
+
+    /**
+     * Closes the file channel. Note that the operating system may keep mapped
+     * regions that are still referenced by chunks until these chunks are garbage
+     * collected.
+     */
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+}
@@ -0,0 +1,144 @@
+package org.dice_research.rdf.stream.parse;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.UUID;
+
+import org.apache.jena.riot.Lang;
+import org.apache.jena.riot.RDFParser;
+import org.apache.jena.riot.lang.LabelToNode;
+import org.apache.jena.riot.system.StreamRDF;
+import org.apache.jena.riot.system.StreamRDFWrapper;
+
+/**
+ * A reader for uncompressed N-Triples or N-Quads files that memory-maps the
+ * file (see {@link MappedFileChunker}) instead of reading it through a chain
+ * of heap buffers. The mapped chunks are handed to the parser directly. The
+ * triples (or quads) are sent to the given {@link StreamRDF} in the order in
+ * which they occur in the file.
+ *
+ * <p>
+ * Compressed files can not be mapped. They have to be read with a usual
+ * {@link java.io.InputStream}.
+ * </p>
+ *
+ * @author Michael R&ouml;der (michael.roeder@uni-paderborn.de)
+ *
+ */
+public class MappedNTriplesReader {
+
+    /**
+     * The language of the parsed data. It has to be either {@link Lang#NT} or
+     * {@link Lang#NQ}.
+     */
+    protected Lang lang;
+    /**
+     * The (minimum) size of a single mapped chunk in bytes.
+     */
+    protected int chunkSize;
+
+    /**
+     * Constructor for reading N-Triples files.
+     */
+    public MappedNTriplesReader() {
+        this(Lang.NT);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param lang the language of the parsed data. It has to be either
+     *             {@link Lang#NT} or {@link Lang#NQ}.
+     */
+    public MappedNTriplesReader(Lang lang) {
+        this(lang, MappedFileChunker.DEFAULT_CHUNK_SIZE);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param lang      the language of the parsed data. It has to be either
+     *                  {@link Lang#NT} or {@link Lang#NQ}.
+     * @param chunkSize the (minimum) size of a single mapped chunk in bytes
+     */
+    public MappedNTriplesReader(Lang lang, int chunkSize) {
+        if (!Lang.NT.equals(lang) && !Lang.NQ.equals(lang)) {
+            throw new IllegalArgumentException(
+                    "The given language (" + lang + ") is not supported. Only N-Triples and N-Quads can be read.");
+        }
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException(
+                    "The given chunk size (" + chunkSize + ") is smaller than 1. This is not allowed.");
+        }
+        this.lang = lang;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Reads the given file and sends its triples to the given stream.
+     *
+     * @param file   the file that should be read
+     * @param stream the stream to which the parsed triples will be sent
+     * @throws IOException if an error occurs while mapping the file
+     */
+    public void read(File file, StreamRDF stream) throws IOException {
+        read(file.toPath(), stream);
+    }
+
+    /**
+     * Reads the given file and sends its triples to the given stream.
+     *
+     * @param file   the file that should be read
+     * @param stream the stream to which the parsed triples will be sent
+     * @throws IOException if an error occurs while mapping the file
+     */
+    public void read(Path file, StreamRDF stream) throws IOException {
+        try (MappedFileChunker chunker = new MappedFileChunker(file, chunkSize)) {
+            read(chunker, stream);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Parses the given chunks one after the other and sends their triples to the
+     * given stream. Each chunk has to comprise complete lines.
+     *
+     * @param chunks the chunks that should be parsed
+     * @param stream the stream to which the parsed triples will be sent
+     */
+    public void read(Iterator<ByteBuffer> chunks, StreamRDF stream) {
+        // All chunks share the same blank node scope
+        final UUID blankNodeScope = UUID.randomUUID();
+        // The parser would start and finish the stream for every chunk
+        StreamRDF chunkStream = new StreamRDFWrapper(stream) {
+            @Override
+            public void start() {
+                // Do not forward start messages.
+            }
+
+            @Override
+            public void finish() {
+                // Do not forward finish messages.
+            }
+        };
+        stream.start();
+        while (chunks.hasNext()) {
+            RDFParser.source(new ByteBufferInputStream(chunks.next())).lang(lang)
+                    .labelToNode(LabelToNode.createScopeByDocumentHash(blankNodeScope)).parse(chunkStream);
+        }
+        stream.finish();
+    }
+
+    /**
+     * @return the chunk size
+     */
+    public int getChunkSize() {
+        return chunkSize;
+    }
+
+}
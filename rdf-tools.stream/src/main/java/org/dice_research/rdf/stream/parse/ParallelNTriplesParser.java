@@ -0,0 +1,317 @@
+package org.dice_research.rdf.stream.parse;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.apache.jena.graph.Triple;
+import org.apache.jena.riot.Lang;
+import org.apache.jena.riot.RDFParser;
+import org.apache.jena.riot.lang.LabelToNode;
+import org.apache.jena.riot.system.StreamRDF;
+import org.apache.jena.riot.system.StreamRDFBase;
+import org.apache.jena.sparql.core.Quad;
+import org.dice_research.rdf.stream.BatchStreamRDF;
+
+/**
+ * A parser for line-based RDF serializations (N-Triples and N-Quads) that
+ * parses the given data in parallel. The data is split into chunks at line
+ * breaks (see {@link LineChunker} and {@link MappedFileChunker}) and the
+ * chunks are parsed by a pool of worker threads. The parsed triples (or quads) are forwarded to the given
+ * {@link StreamRDF} by the thread that called the parse method. Hence, the
+ * given stream (e.g., a chain of {@link org.dice_research.rdf.stream.AStreamRDFDecorator}
+ * instances) does not have to be thread-safe.
+ *
+ * <p>
+ * The parser offers two modes. If the order should be preserved, the chunks
+ * are forwarded in the order in which they have been read. Else, a chunk is
+ * forwarded as soon as it has been parsed, which avoids waiting for a single
+ * slow chunk. Within a single chunk, the order of the triples is always
+ * preserved.
+ * </p>
+ *
+ * <p>
+ * Blank node labels are mapped to the same blank node across all chunks of a
+ * single parse run. Different parse runs create different blank nodes.
+ * </p>
+ *
+ * <p>
+ * If the given stream is a {@link BatchStreamRDF}, the triples of a chunk are
+ * forwarded as a single batch.
+ * </p>
+ *
+ * @author Michael R&ouml;der (michael.roeder@uni-paderborn.de)
+ *
+ */
+public class ParallelNTriplesParser {
+
+    /**
+     * The default number of threads, i.e., the number of available processors.
+     */
+    public static final int DEFAULT_NUMBER_OF_THREADS = Runtime.getRuntime().availableProcessors();
+
+    /**
+     * The language of the parsed data. It has to be either {@link Lang#NT} or
+     * {@link Lang#NQ}.
+     */
+    protected Lang lang;
+    /**
+     * The number of threads that are used for parsing.
+     */
+    protected int numberOfThreads;
+    /**
+     * The (minimum) size of a single chunk in bytes.
+     */
+    protected int chunkSize;
+    /**
+     * Flag indicating whether the order of the chunks should be preserved.
+     */
+    protected boolean preserveOrder;
+
+    /**
+     * Constructor for parsing N-Triples with the {@link #DEFAULT_NUMBER_OF_THREADS}
+     * while preserving the order of the triples.
+     */
+    public ParallelNTriplesParser() {
+        this(DEFAULT_NUMBER_OF_THREADS, true);
+    }
+
+    /**
+     * Constructor for parsing N-Triples.
+     *
+     * @param numberOfThreads the number of threads that are used for parsing
+     * @param preserveOrder   flag indicating whether the order of the chunks
+     *                        should be preserved
+     */
+    public ParallelNTriplesParser(int numberOfThreads, boolean preserveOrder) {
+        this(Lang.NT, numberOfThreads, LineChunker.DEFAULT_CHUNK_SIZE, preserveOrder);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param lang            the language of the parsed data. It has to be either
+     *                        {@link Lang#NT} or {@link Lang#NQ}.
+     * @param numberOfThreads the number of threads that are used for parsing
+     * @param chunkSize       the (minimum) size of a single chunk in bytes
+     * @param preserveOrder   flag indicating whether the order of the chunks
+     *                        should be preserved
+     */
+    public ParallelNTriplesParser(Lang lang, int numberOfThreads, int chunkSize, boolean preserveOrder) {
+        if (!Lang.NT.equals(lang) && !Lang.NQ.equals(lang)) {
+            throw new IllegalArgumentException(
+                    "The given language (" + lang + ") is not supported. Only N-Triples and N-Quads can be parsed.");
+        }
+        if (numberOfThreads <= 0) {
+            throw new IllegalArgumentException(
+                    "The given number of threads (" + numberOfThreads + ") is smaller than 1. This is not allowed.");
+        }
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException(
+                    "The given chunk size (" + chunkSize + ") is smaller than 1. This is not allowed.");
+        }
+        this.lang = lang;
+        this.numberOfThreads = numberOfThreads;
+        this.chunkSize = chunkSize;
+        this.preserveOrder = preserveOrder;
+    }
+
+    /**
+     * Parses the given (uncompressed) file and sends its triples to the given
+     * stream. The file is memory-mapped (see {@link MappedFileChunker}), i.e., the
+     * chunks are not copied into the heap before they are parsed.
+     *
+     * @param file   the file that should be parsed
+     * @param stream the stream to which the parsed triples will be sent
+     * @throws IOException if an error occurs while reading the file
+     */
+    public void parse(File file, StreamRDF stream) throws IOException {
+        try (MappedFileChunker chunker = new MappedFileChunker(file.toPath(), chunkSize)) {
+            parse(chunker, stream);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Parses the data of the given stream and sends its triples to the given RDF
+     * stream. The given input stream is not closed by this method.
+     *
+     * @param in     the stream from which the data is read
+     * @param stream the stream to which the parsed triples will be sent
+     * @throws IOException if an error occurs while reading the input stream
+     */
+    public void parse(InputStream in, StreamRDF stream) throws IOException {
+        try {
+            parse(new LineChunker(in, chunkSize), stream);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Parses the given chunks and sends their triples to the given stream. Each
+     * chunk has to comprise complete lines. The chunks are consumed by the thread
+     * calling this method.
+     *
+     * @param chunks the chunks that should be parsed
+     * @param stream the stream to which the parsed triples will be sent
+     */
+    public void parse(Iterator<ByteBuffer> chunks, StreamRDF stream) {
+        final UUID blankNodeScope = UUID.randomUUID();
+        // Limit the number of chunks that are held in memory at the same time
+        final int maxChunksInFlight = numberOfThreads << 1;
+        ExecutorService executor = Executors.newFixedThreadPool(numberOfThreads);
+        CompletionService<ChunkResult> completionService = new ExecutorCompletionService<>(executor);
+        Deque<Future<ChunkResult>> pending = new ArrayDeque<>();
+        int chunksInFlight = 0;
+        stream.start();
+        try {
+            while (chunks.hasNext()) {
+                final ByteBuffer chunk = chunks.next();
+                Callable<ChunkResult> task = () -> parseChunk(chunk, blankNodeScope);
+                if (preserveOrder) {
+                    // The completion service is not used since it would keep references to
+                    // all results that we already forwarded
+                    pending.add(executor.submit(task));
+                } else {
+                    completionService.submit(task);
+                }
+                ++chunksInFlight;
+                if (chunksInFlight >= maxChunksInFlight) {
+                    nextResult(completionService, pending).sendTo(stream);
+                    --chunksInFlight;
+                }
+            }
+            while (chunksInFlight > 0) {
+                nextResult(completionService, pending).sendTo(stream);
+                --chunksInFlight;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for parsed chunks.", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            } else {
+                throw new IllegalStateException("Got an exception while parsing a chunk.", cause);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        stream.finish();
+    }
+
+    /**
+     * Waits for the next chunk that should be forwarded.
+     *
+     * @param completionService the service to which all chunks have been
+     *                          submitted
+     * @param pending           the submitted chunks in their original order (only
+     *                          used if {@link #preserveOrder} is {@code true})
+     * @return the next parsed chunk
+     * @throws InterruptedException if the thread is interrupted while waiting
+     * @throws ExecutionException   if the parsing of the chunk failed
+     */
+    protected ChunkResult nextResult(CompletionService<ChunkResult> completionService,
+            Deque<Future<ChunkResult>> pending) throws InterruptedException, ExecutionException {
+        if (preserveOrder) {
+            return pending.poll().get();
+        } else {
+            return completionService.take().get();
+        }
+    }
+
+    /**
+     * Parses a single chunk.
+     *
+     * @param chunk          the chunk that should be parsed
+     * @param blankNodeScope the ID that is used to create blank nodes for the
+     *                       current parse run
+     * @return the parsed triples and quads of the chunk
+     */
+    protected ChunkResult parseChunk(ByteBuffer chunk, UUID blankNodeScope) {
+        ChunkResult result = new ChunkResult();
+        RDFParser.source(new ByteBufferInputStream(chunk)).lang(lang)
+                .labelToNode(LabelToNode.createScopeByDocumentHash(blankNodeScope)).parse(result);
+        return result;
+    }
+
+    /**
+     * @return the number of threads used for parsing
+     */
+    public int getNumberOfThreads() {
+        return numberOfThreads;
+    }
+
+    /**
+     * @return the chunk size
+     */
+    public int getChunkSize() {
+        return chunkSize;
+    }
+
+    /**
+     * @return {@code true} if the order of the chunks is preserved
+     */
+    public boolean isPreserveOrder() {
+        return preserveOrder;
+    }
+
+    /**
+     * Simple collector for the triples and quads of a single chunk.
+     *
+     * @author Michael R&ouml;der (michael.roeder@uni-paderborn.de)
+     *
+     */
+    protected static class ChunkResult extends StreamRDFBase {
+
+        protected List<Triple> triples = new ArrayList<>();
+        protected List<Quad> quads = new ArrayList<>();
+
+        @Override
+        public void triple(Triple triple) {
+            triples.add(triple);
+        }
+
+        @Override
+        public void quad(Quad quad) {
+            quads.add(quad);
+        }
+
+        public void sendTo(StreamRDF stream) {
+            if (stream instanceof BatchStreamRDF) {
+                BatchStreamRDF batchStream = (BatchStreamRDF) stream;
+                if (!triples.isEmpty()) {
+                    batchStream.triples(triples.toArray(new Triple[triples.size()]), triples.size());
+                }
+                if (!quads.isEmpty()) {
+                    batchStream.quads(quads.toArray(new Quad[quads.size()]), quads.size());
+                }
+                return;
+            }
+            for (Triple triple : triples) {
+                stream.triple(triple);
+            }
+            for (Quad quad : quads) {
+                stream.quad(quad);
+            }
+        }
+    }
+}
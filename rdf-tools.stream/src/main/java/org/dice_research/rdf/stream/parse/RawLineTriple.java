@@ -0,0 +1,47 @@
+package org.dice_research.rdf.stream.parse;
+
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.Triple;
+
+/**
+ * A {@link Triple} that keeps the N-Triples line it has been parsed from. A
+ * writer that supports it (see
+ * {@link org.dice_research.rdf.stream.io.FastNTriplesWriter}) can write the
+ * original bytes instead of serializing the nodes again. Mappers that change a
+ * triple create a new {@link Triple} instance. Hence, only triples that reach
+ * the writer unmodified are written from their original line.
+ *
+ * @author Michael R&ouml;der (michael.roeder@uni-paderborn.de)
+ *
+ */
+public class RawLineTriple extends Triple {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * The UTF-8 bytes of the line without the line break.
+     */
+    protected final byte[] line;
+
+    /**
+     * Constructor.
+     *
+     * @param s    the subject
+     * @param p    the predicate
+     * @param o    the object
+     * @param line the UTF-8 bytes of the N-Triples line (without the line break)
+     *             the triple has been parsed from
+     */
+    public RawLineTriple(Node s, Node p, Node o, byte[] line) {
+        super(s, p, o);
+        this.line = line;
+    }
+
+    /**
+     * @return the UTF-8 bytes of the line (without the line break) the triple has
+     *         been parsed from. The array must not be changed.
+     */
+    public byte[] getLine() {
+        return line;
+    }
+}
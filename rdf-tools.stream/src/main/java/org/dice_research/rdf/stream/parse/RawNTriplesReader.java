@@ -0,0 +1,231 @@
+package org.dice_research.rdf.stream.parse;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.UUID;
+
+import org.apache.jena.riot.lang.LabelToNode;
+import org.apache.jena.riot.system.StreamRDF;
+import org.dice_research.rdf.stream.filter.raw.RawTripleFilter;
+
+/**
+ * A reader for N-Triples data that checks every line with a
+ * {@link RawTripleFilter} before any Jena node is created. The lines are
+ * tokenized by a single, reused {@link RawTriple} instance. Only the lines that
+ * are accepted by the filter are materialized (see {@link RawTriple#toTriple()})
+ * and sent to the given {@link StreamRDF}. Hence, a rejected line does not
+ * cause the allocation of any object.
+ *
+ * <p>
+ * Accepted triples without blank nodes keep their original line (see
+ * {@link RawLineTriple}), i.e., a
+ * {@link org.dice_research.rdf.stream.io.FastNTriplesWriter} can write them
+ * without serializing their nodes again if they are not changed on their way
+ * to the writer.
+ * </p>
+ *
+ * <p>
+ * <b>Note</b> that this class is not thread-safe.
+ * </p>
+ *
+ * @author Michael R&ouml;der (michael.roeder@uni-paderborn.de)
+ *
+ */
+public class RawNTriplesReader {
+
+    /**
+     * The filter that decides which lines are materialized.
+     */
+    protected RawTripleFilter filter;
+    /**
+     * The (minimum) size of a single chunk in bytes.
+     */
+    protected int chunkSize;
+    /**
+     * A reusable buffer for chunks that are not backed by an accessible array
+     * (e.g., memory-mapped chunks).
+     */
+    protected byte[] copyBuffer = new byte[0];
+    /**
+     * The number of triples that have been read.
+     */
+    protected long triplesRead = 0;
+    /**
+     * The number of triples that have been accepted by the filter.
+     */
+    protected long triplesAccepted = 0;
+
+    /**
+     * Constructor using the {@link LineChunker#DEFAULT_CHUNK_SIZE}.
+     *
+     * @param filter the filter that decides which lines are materialized
+     */
+    public RawNTriplesReader(RawTripleFilter filter) {
+        this(filter, LineChunker.DEFAULT_CHUNK_SIZE);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param filter    the filter that decides which lines are materialized
+     * @param chunkSize the (minimum) size of a single chunk in bytes
+     */
+    public RawNTriplesReader(RawTripleFilter filter, int chunkSize) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException(
+                    "The given chunk size (" + chunkSize + ") is smaller than 1. This is not allowed.");
+        }
+        this.filter = filter;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Reads the given (uncompressed) file and sends the accepted triples to the
+     * given stream. The file is memory-mapped (see {@link MappedFileChunker}).
+     *
+     * @param file   the file that should be read
+     * @param stream the stream to which the accepted triples will be sent
+     * @throws IOException if an error occurs while mapping the file
+     */
+    public void read(File file, StreamRDF stream) throws IOException {
+        read(file.toPath(), stream);
+    }
+
+    /**
+     * Reads the given (uncompressed) file and sends the accepted triples to the
+     * given stream. The file is memory-mapped (see {@link MappedFileChunker}).
+     *
+     * @param file   the file that should be read
+     * @param stream the stream to which the accepted triples will be sent
+     * @throws IOException if an error occurs while mapping the file
+     */
+    public void read(Path file, StreamRDF stream) throws IOException {
+        try (MappedFileChunker chunker = new MappedFileChunker(file, chunkSize)) {
+            read(chunker, stream);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Reads the data of the given stream and sends the accepted triples to the
+     * given RDF stream. The given input stream is not closed by this method.
+     *
+     * @param in     the stream from which the data is read
+     * @param stream the stream to which the accepted triples will be sent
+     * @throws IOException if an error occurs while reading the input stream
+     */
+    public void read(InputStream in, StreamRDF stream) throws IOException {
+        try {
+            read(new LineChunker(in, chunkSize), stream);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Reads the given chunks one after the other and sends the accepted triples
+     * to the given stream. Each chunk has to comprise complete lines.
+     *
+     * @param chunks the chunks that should be read
+     * @param stream the stream to which the accepted triples will be sent
+     */
+    public void read(Iterator<ByteBuffer> chunks, StreamRDF stream) {
+        // All chunks share the same blank node scope
+        RawTriple triple = new RawTriple(LabelToNode.createScopeByDocumentHash(UUID.randomUUID()));
+        stream.start();
+        while (chunks.hasNext()) {
+            readChunk(chunks.next(), triple, stream);
+        }
+        stream.finish();
+    }
+
+    /**
+     * Splits the given chunk into lines and sends the accepted triples to the
+     * given stream.
+     *
+     * @param chunk  the chunk that should be read
+     * @param triple the reused view on a single line
+     * @param stream the stream to which the accepted triples will be sent
+     */
+    protected void readChunk(ByteBuffer chunk, RawTriple triple, StreamRDF stream) {
+        byte[] data;
+        int pos;
+        int end;
+        if (chunk.hasArray()) {
+            data = chunk.array();
+            pos = chunk.arrayOffset() + chunk.position();
+            end = chunk.arrayOffset() + chunk.limit();
+        } else {
+            if (copyBuffer.length < chunk.remaining()) {
+                copyBuffer = new byte[chunk.remaining()];
+            }
+            data = copyBuffer;
+            pos = 0;
+            end = chunk.remaining();
+            chunk.duplicate().get(data, 0, end);
+        }
+        int lineEnd;
+        while (pos < end) {
+            lineEnd = indexOf(data, pos, end, LineChunker.LINE_BREAK);
+            if (lineEnd < 0) {
+                lineEnd = end;
+            }
+            if (triple.set(data, pos, lineEnd)) {
+                ++triplesRead;
+                if (filter.test(triple)) {
+                    ++triplesAccepted;
+                    stream.triple(triple.toTriple());
+                }
+            }
+            pos = lineEnd + 1;
+        }
+    }
+
+    /**
+     * Returns the first position of the given value within the given range of
+     * the given array.
+     *
+     * @param data  the array that should be searched
+     * @param from  the first position that is part of the search (inclusive)
+     * @param to    the last position of the search (exclusive)
+     * @param value the value that is searched
+     * @return the first position of the given value or {@code -1} if it couldn't
+     *         be found
+     */
+    public static int indexOf(byte[] data, int from, int to, byte value) {
+        for (int i = from; i < to; ++i) {
+            if (data[i] == value) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @return the number of triples that have been read
+     */
+    public long getTriplesRead() {
+        return triplesRead;
+    }
+
+    /**
+     * @return the number of triples that have been accepted by the filter
+     */
+    public long getTriplesAccepted() {
+        return triplesAccepted;
+    }
+
+    /**
+     * @return the chunk size
+     */
+    public int getChunkSize() {
+        return chunkSize;
+    }
+
+}
@@ -0,0 +1,444 @@
+package org.dice_research.rdf.stream.parse;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import org.apache.jena.datatypes.TypeMapper;
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.NodeFactory;
+import org.apache.jena.graph.Triple;
+import org.apache.jena.riot.RiotException;
+import org.apache.jena.riot.lang.LabelToNode;
+
+/**
+ * A view on a single N-Triples line that exposes the subject, predicate and
+ * object as slices of the underlying byte array. The line is tokenized without
+ * creating any objects. Filters can check the slices (e.g., whether an IRI
+ * starts with a certain namespace) and only lines that pass them have to be
+ * materialized (see {@link #toTriple()}).
+ *
+ * <p>
+ * A slice covers the complete term including its delimiters, e.g., the angle
+ * brackets of an IRI or the quotes, language tag and datatype of a literal.
+ * The checks work on the raw bytes. Hence, IRIs that contain escape sequences
+ * are compared in their escaped form.
+ * </p>
+ *
+ * <p>
+ * <b>Note</b> that an instance is reused for all lines. It is not thread-safe.
+ * </p>
+ *
+ * @author Michael R&ouml;der (michael.roeder@uni-paderborn.de)
+ *
+ */
+public class RawTriple {
+
+    /**
+     * The index of the subject.
+     */
+    public static final int SUBJECT = 0;
+    /**
+     * The index of the predicate.
+     */
+    public static final int PREDICATE = 1;
+    /**
+     * The index of the object.
+     */
+    public static final int OBJECT = 2;
+
+    /**
+     * The array containing the line.
+     */
+    protected byte[] data;
+    /**
+     * The position of the first byte of the line.
+     */
+    protected int lineStart;
+    /**
+     * The position after the last byte of the line (without line break).
+     */
+    protected int lineEnd;
+    /**
+     * The start positions of the three terms.
+     */
+    protected final int[] starts = new int[3];
+    /**
+     * The end positions (exclusive) of the three terms.
+     */
+    protected final int[] ends = new int[3];
+    /**
+     * The mapping of blank node labels to blank nodes.
+     */
+    protected LabelToNode labelToNode;
+
+    /**
+     * Constructor.
+     *
+     * @param labelToNode the mapping of blank node labels to blank nodes that is
+     *                    used when the triple is materialized
+     */
+    public RawTriple(LabelToNode labelToNode) {
+        this.labelToNode = labelToNode;
+    }
+
+    /**
+     * Tokenizes the given line.
+     *
+     * @param data  the array containing the line
+     * @param start the position of the first byte of the line
+     * @param end   the position after the last byte of the line (a trailing line
+     *              break is ignored)
+     * @return {@code true} if the line contains a triple or {@code false} if it
+     *         is empty or only contains a comment
+     * @throws RiotException if the line is not a valid N-Triples statement
+     */
+    public boolean set(byte[] data, int start, int end) {
+        while ((end > start) && ((data[end - 1] == '\n') || (data[end - 1] == '\r'))) {
+            --end;
+        }
+        this.data = data;
+        this.lineStart = start;
+        this.lineEnd = end;
+        int pos = skipWhitespace(start);
+        if ((pos == end) || (data[pos] == '#')) {
+            return false;
+        }
+        for (int term = SUBJECT; term <= OBJECT; ++term) {
+            starts[term] = pos;
+            pos = skipTerm(pos, term);
+            ends[term] = pos;
+            pos = skipWhitespace(pos);
+        }
+        if ((pos == end) || (data[pos] != '.')) {
+            throw error("Expected '.' at the end of the statement");
+        }
+        pos = skipWhitespace(pos + 1);
+        if ((pos < end) && (data[pos] != '#')) {
+            throw error("Unexpected content after the end of the statement");
+        }
+        return true;
+    }
+
+    protected int skipWhitespace(int pos) {
+        while ((pos < lineEnd) && ((data[pos] == ' ') || (data[pos] == '\t'))) {
+            ++pos;
+        }
+        return pos;
+    }
+
+    /**
+     * Returns the position directly after the term starting at the given
+     * position.
+     */
+    protected int skipTerm(int pos, int term) {
+        if (pos >= lineEnd) {
+            throw error("Unexpected end of line");
+        }
+        switch (data[pos]) {
+        case '<':
+            return skipIri(pos);
+        case '_':
+            if ((term == PREDICATE) || (pos + 2 >= lineEnd) || (data[pos + 1] != ':')) {
+                throw error("Unexpected term");
+            }
+            pos += 2;
+            while ((pos < lineEnd) && (data[pos] != ' ') && (data[pos] != '\t')) {
+                ++pos;
+            }
+            // A label can not end with a dot, i.e., the dot ends the statement
+            if ((term == OBJECT) && (data[pos - 1] == '.')) {
+                --pos;
+            }
+            return pos;
+        case '"':
+            if (term != OBJECT) {
+                throw error("Literals are only allowed as object");
+            }
+            ++pos;
+            while ((pos < lineEnd) && (data[pos] != '"')) {
+                if (data[pos] == '\\') {
+                    ++pos;
+                }
+                ++pos;
+            }
+            if (pos >= lineEnd) {
+                throw error("Unterminated literal");
+            }
+            ++pos;
+            if ((pos < lineEnd) && (data[pos] == '@')) {
+                ++pos;
+                while ((pos < lineEnd) && (isLetterOrDigit(data[pos]) || (data[pos] == '-'))) {
+                    ++pos;
+                }
+            } else if ((pos + 2 < lineEnd) && (data[pos] == '^') && (data[pos + 1] == '^')) {
+                pos = skipIri(pos + 2);
+            }
+            return pos;
+        default:
+            throw error("Unexpected term");
+        }
+    }
+
+    protected int skipIri(int pos) {
+        if (data[pos] != '<') {
+            throw error("Expected an IRI");
+        }
+        while ((pos < lineEnd) && (data[pos] != '>')) {
+            ++pos;
+        }
+        if (pos >= lineEnd) {
+            throw error("Unterminated IRI");
+        }
+        return pos + 1;
+    }
+
+    protected static boolean isLetterOrDigit(byte b) {
+        return ((b >= 'a') && (b <= 'z')) || ((b >= 'A') && (b <= 'Z')) || ((b >= '0') && (b <= '9'));
+    }
+
+    protected RiotException error(String message) {
+        return new RiotException(message + " in line \"" + lineToString() + "\".");
+    }
+
+    /**
+     * @param term the index of the term ({@link #SUBJECT}, {@link #PREDICATE} or
+     *             {@link #OBJECT})
+     * @return {@code true} if the term is an IRI
+     */
+    public boolean isIri(int term) {
+        return data[starts[term]] == '<';
+    }
+
+    /**
+     * @param term the index of the term
+     * @return {@code true} if the term is a blank node
+     */
+    public boolean isBlank(int term) {
+        return data[starts[term]] == '_';
+    }
+
+    /**
+     * @param term the index of the term
+     * @return {@code true} if the term is a literal
+     */
+    public boolean isLiteral(int term) {
+        return data[starts[term]] == '"';
+    }
+
+    /**
+     * Checks whether the given term is an IRI that starts with the given prefix.
+     *
+     * @param term   the index of the term
+     * @param prefix the UTF-8 bytes of the prefix (without angle bracket)
+     * @return {@code true} if the term is an IRI starting with the given prefix
+     */
+    public boolean iriStartsWith(int term, byte[] prefix) {
+        int start = starts[term] + 1;
+        return isIri(term) && (ends[term] - 1 - start >= prefix.length)
+                && Arrays.equals(data, start, start + prefix.length, prefix, 0, prefix.length);
+    }
+
+    /**
+     * Checks whether the given term is the given IRI.
+     *
+     * @param term the index of the term
+     * @param iri  the UTF-8 bytes of the IRI (without angle brackets)
+     * @return {@code true} if the term is the given IRI
+     */
+    public boolean iriEquals(int term, byte[] iri) {
+        return isIri(term) && Arrays.equals(data, starts[term] + 1, ends[term] - 1, iri, 0, iri.length);
+    }
+
+    /**
+     * Checks whether the given term is a literal with the given language tag. The
+     * tags are compared case-insensitively.
+     *
+     * @param term     the index of the term
+     * @param language the language tag (ASCII, without {@code '@'})
+     * @return {@code true} if the term is a literal with the given language
+     */
+    public boolean hasLanguage(int term, String language) {
+        int end = ends[term];
+        int tagStart = end - language.length();
+        if (!isLiteral(term) || (tagStart < starts[term] + 3) || (data[tagStart - 1] != '@')
+                || (data[tagStart - 2] != '"')) {
+            return false;
+        }
+        for (int i = 0; i < language.length(); ++i) {
+            if (Character.toLowerCase((char) data[tagStart + i]) != Character.toLowerCase(language.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @param term the index of the term
+     * @return the start position of the term within {@link #getData()}
+     */
+    public int getStart(int term) {
+        return starts[term];
+    }
+
+    /**
+     * @param term the index of the term
+     * @return the end position (exclusive) of the term within {@link #getData()}
+     */
+    public int getEnd(int term) {
+        return ends[term];
+    }
+
+    /**
+     * @return the array containing the line
+     */
+    public byte[] getData() {
+        return data;
+    }
+
+    /**
+     * @return the position of the first byte of the line
+     */
+    public int getLineStart() {
+        return lineStart;
+    }
+
+    /**
+     * @return the position after the last byte of the line
+     */
+    public int getLineEnd() {
+        return lineEnd;
+    }
+
+    /**
+     * Creates the node of the given term.
+     *
+     * @param term the index of the term
+     * @return the node
+     */
+    public Node getNode(int term) {
+        int start = starts[term];
+        int end = ends[term];
+        switch (data[start]) {
+        case '<':
+            return NodeFactory.createURI(decode(start + 1, end - 1));
+        case '_':
+            return labelToNode.get(null, new String(data, start + 2, end - start - 2, StandardCharsets.UTF_8));
+        default:
+            // Find the closing quote
+            int quote = end - 1;
+            if (data[quote] == '>') {
+                // typed literal
+                int iriStart = quote;
+                while (data[iriStart] != '<') {
+                    --iriStart;
+                }
+                String lexicalForm = decode(start + 1, iriStart - 3);
+                return NodeFactory.createLiteral(lexicalForm,
+                        TypeMapper.getInstance().getSafeTypeByName(decode(iriStart + 1, quote)));
+            }
+            while (data[quote] != '"') {
+                --quote;
+            }
+            String lexicalForm = decode(start + 1, quote);
+            if (quote + 1 < end) {
+                // language tag
+                return NodeFactory.createLiteral(lexicalForm,
+                        new String(data, quote + 2, end - quote - 2, StandardCharsets.US_ASCII));
+            }
+            return NodeFactory.createLiteral(lexicalForm);
+        }
+    }
+
+    /**
+     * Materializes the triple. The returned triple is a {@link RawLineTriple}
+     * that keeps a copy of the line unless the line contains a blank node. The
+     * label of a blank node in the line is only valid within the current
+     * document. Hence, such a triple has to be serialized from its nodes, which
+     * carry the labels created by the {@link LabelToNode} mapping.
+     *
+     * @return the triple
+     */
+    public Triple toTriple() {
+        Node s = getNode(SUBJECT);
+        Node p = getNode(PREDICATE);
+        Node o = getNode(OBJECT);
+        if (isBlank(SUBJECT) || isBlank(OBJECT)) {
+            return Triple.create(s, p, o);
+        }
+        return new RawLineTriple(s, p, o, Arrays.copyOfRange(data, lineStart, lineEnd));
+    }
+
+    /**
+     * Decodes the given range as UTF-8 and replaces escape sequences.
+     */
+    protected String decode(int start, int end) {
+        String s = new String(data, start, end - start, StandardCharsets.UTF_8);
+        int escape = s.indexOf('\\');
+        if (escape < 0) {
+            return s;
+        }
+        StringBuilder builder = new StringBuilder(s.length());
+        builder.append(s, 0, escape);
+        int pos = escape;
+        char c;
+        while (pos < s.length()) {
+            c = s.charAt(pos);
+            if ((c != '\\') || (pos + 1 >= s.length())) {
+                builder.append(c);
+                ++pos;
+                continue;
+            }
+            c = s.charAt(pos + 1);
+            pos += 2;
+            switch (c) {
+            case 't':
+                builder.append('\t');
+                break;
+            case 'b':
+                builder.append('\b');
+                break;
+            case 'n':
+                builder.append('\n');
+                break;
+            case 'r':
+                builder.append('\r');
+                break;
+            case 'f':
+                builder.append('\f');
+                break;
+            case 'u':
+                builder.appendCodePoint(parseHex(s, pos, 4));
+                pos += 4;
+                break;
+            case 'U':
+                builder.appendCodePoint(parseHex(s, pos, 8));
+                pos += 8;
+                break;
+            default:
+                // e.g., quotes and backslashes
+                builder.append(c);
+            }
+        }
+        return builder.toString();
+    }
+
+    protected int parseHex(String s, int pos, int length) {
+        if (pos + length > s.length()) {
+            throw error("Incomplete escape sequence");
+        }
+        try {
+            return Integer.parseInt(s.substring(pos, pos + length), 16);
+        } catch (NumberFormatException e) {
+            throw error("Invalid escape sequence");
+        }
+    }
+
+    protected String lineToString() {
+        return new String(data, lineStart, lineEnd - lineStart, StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public String toString() {
+        return (data == null) ? "" : lineToString();
+    }
+}
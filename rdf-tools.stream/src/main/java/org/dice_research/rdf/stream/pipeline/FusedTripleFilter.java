@@ -0,0 +1,307 @@
+package org.dice_research.rdf.stream.pipeline;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Predicate;
+
+import org.apache.jena.graph.Triple;
+import org.apache.jena.riot.system.StreamRDF;
+import org.apache.jena.sparql.core.Quad;
+import org.dice_research.rdf.stream.AStreamRDFDecorator;
+
+/**
+ * A single stage that replaces a chain of triple filters. The filters are
+ * organized in groups. All filters of a group share the same stream for
+ * rejected elements. A triple that is rejected by a filter is
+ * sent to the rejected stream of the filter's group and no further filter is
+ * evaluated. A triple that passes all groups is sent to the decorated stream.
+ *
+ * <p>
+ * Only filters that are marked as reorderable, i.e., that are free of side
+ * effects and independent of each other, can change their position within a
+ * group. Filters that are not reorderable keep their position and reorderable
+ * filters are never moved across them. Hence, a filter can rely on the checks
+ * of earlier filters that are not reorderable. The reorderable filters are
+ * sorted by their costs. If reordering is enabled, they are regularly
+ * reordered based on their costs and their observed pass rates. Filters that
+ * are cheap and reject many triples are evaluated first.
+ * </p>
+ *
+ * @author Michael R&ouml;der (michael.roeder@uni-paderborn.de)
+ *
+ */
+public class FusedTripleFilter extends AStreamRDFDecorator {
+
+    /**
+     * Default number of triples after which the filters are reordered.
+     */
+    public static final int DEFAULT_REORDER_INTERVAL = 1 << 16;
+
+    /**
+     * The groups of filters in the order in which they are evaluated.
+     */
+    protected FilterGroup[] groups;
+    /**
+     * All distinct streams for rejected elements.
+     */
+    protected StreamRDF[] rejectedStreams;
+    /**
+     * The number of triples after which the filters are reordered or a value
+     * &lt;= 0 if the filters should not be reordered.
+     */
+    protected int reorderInterval;
+    /**
+     * The number of triples until the next reordering.
+     */
+    protected int triplesUntilReorder;
+
+    /**
+     * Constructor.
+     *
+     * @param groups          the groups of filters in the order in which they
+     *                        should be evaluated
+     * @param reorderInterval the number of triples after which the filters are
+     *                        reordered or a value &lt;= 0 if the filters should
+     *                        not be reordered
+     * @param accepted        the stream for triples that pass all filters
+     */
+    public FusedTripleFilter(List<FilterGroup> groups, int reorderInterval, StreamRDF accepted) {
+        super(accepted);
+        this.groups = groups.toArray(new FilterGroup[groups.size()]);
+        Set<StreamRDF> rejected = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (FilterGroup group : groups) {
+            if (group.rejected != null) {
+                rejected.add(group.rejected);
+            }
+        }
+        this.rejectedStreams = rejected.toArray(new StreamRDF[rejected.size()]);
+        this.reorderInterval = reorderInterval;
+        this.triplesUntilReorder = reorderInterval;
+    }
+
+    @Override
+    public void start() {
+        super.start();
+        for (int i = 0; i < rejectedStreams.length; ++i) {
+            rejectedStreams[i].start();
+        }
+    }
+
+    @Override
+    public void triple(Triple triple) {
+        FilterGroup rejectingGroup = evaluate(triple);
+        if (rejectingGroup == null) {
+            super.triple(triple);
+        } else if (rejectingGroup.rejected != null) {
+            rejectingGroup.rejected.triple(triple);
+        }
+    }
+
+    @Override
+    public void quad(Quad quad) {
+        FilterGroup rejectingGroup = evaluate(quad.asTriple());
+        if (rejectingGroup == null) {
+            super.quad(quad);
+        } else if (rejectingGroup.rejected != null) {
+            rejectingGroup.rejected.quad(quad);
+        }
+    }
+
+    /**
+     * Evaluates the filters for the given triple.
+     *
+     * @param triple the triple that should be checked
+     * @return the group that rejected the triple or {@code null} if the triple
+     *         passed all filters
+     */
+    protected FilterGroup evaluate(Triple triple) {
+        if (reorderInterval > 0) {
+            --triplesUntilReorder;
+            if (triplesUntilReorder <= 0) {
+                for (int i = 0; i < groups.length; ++i) {
+                    groups[i].reorder();
+                }
+                triplesUntilReorder = reorderInterval;
+            }
+        }
+        for (int i = 0; i < groups.length; ++i) {
+            if (!groups[i].test(triple)) {
+                return groups[i];
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public void base(String base) {
+        super.base(base);
+        for (int i = 0; i < rejectedStreams.length; ++i) {
+            rejectedStreams[i].base(base);
+        }
+    }
+
+    @Override
+    public void prefix(String prefix, String iri) {
+        super.prefix(prefix, iri);
+        for (int i = 0; i < rejectedStreams.length; ++i) {
+            rejectedStreams[i].prefix(prefix, iri);
+        }
+    }
+
+    @Override
+    public void finish() {
+        super.finish();
+        for (int i = 0; i < rejectedStreams.length; ++i) {
+            rejectedStreams[i].finish();
+        }
+    }
+
+    /**
+     * Creates a human-readable description of the filters in their current
+     * order together with the numbers of triples they evaluated and accepted.
+     *
+     * @return a description of this stage
+     */
+    public String describe() {
+        StringBuilder builder = new StringBuilder();
+        builder.append("fused filter (").append(groups.length).append(" group(s)");
+        if (reorderInterval > 0) {
+            builder.append(", reordered every ").append(reorderInterval).append(" triples");
+        }
+        builder.append(')');
+        for (int i = 0; i < groups.length; ++i) {
+            builder.append("\n  group ").append(i + 1).append(" (rejected -> ")
+                    .append(groups[i].rejectedName).append(')');
+            for (int j = 0; j < groups[i].predicates.length; ++j) {
+                builder.append("\n    ").append(groups[i].names[j])
+                        .append(groups[i].reorderable[j] ? " [cost=" : " [fixed, cost=").append(groups[i].costs[j])
+                        .append(", evaluated=").append(groups[i].evaluations[j]).append(", passed=")
+                        .append(groups[i].passes[j]).append(']');
+            }
+        }
+        return builder.toString();
+    }
+
+    /**
+     * A group of filters that share the same stream for rejected elements.
+     *
+     * @author Michael R&ouml;der (michael.roeder@uni-paderborn.de)
+     *
+     */
+    public static class FilterGroup {
+        protected String[] names;
+        protected Predicate<Triple>[] predicates;
+        protected double[] costs;
+        protected boolean[] reorderable;
+        protected long[] evaluations;
+        protected long[] passes;
+        protected StreamRDF rejected;
+        protected String rejectedName;
+
+        /**
+         * Constructor.
+         *
+         * @param names        the names of the filters
+         * @param predicates   the filters
+         * @param costs        the (estimated) costs of the filters
+         * @param reorderable  flags indicating whether the filters can be
+         *                     reordered
+         * @param rejected     the stream for rejected elements ({@code null} if
+         *                     they should be dropped)
+         * @param rejectedName the name of the stream for rejected elements
+         */
+        @SuppressWarnings("unchecked")
+        public FilterGroup(List<String> names, List<Predicate<Triple>> predicates, List<Double> costs,
+                List<Boolean> reorderable, StreamRDF rejected, String rejectedName) {
+            this.names = names.toArray(new String[names.size()]);
+            this.predicates = predicates.toArray(new Predicate[predicates.size()]);
+            this.costs = new double[costs.size()];
+            for (int i = 0; i < this.costs.length; ++i) {
+                this.costs[i] = costs.get(i);
+            }
+            this.reorderable = new boolean[reorderable.size()];
+            for (int i = 0; i < this.reorderable.length; ++i) {
+                this.reorderable[i] = reorderable.get(i);
+            }
+            this.evaluations = new long[this.predicates.length];
+            this.passes = new long[this.predicates.length];
+            this.rejected = rejected;
+            this.rejectedName = rejectedName;
+            // Start with the cheapest reorderable filters
+            reorder();
+        }
+
+        /**
+         * Evaluates the filters of this group. The evaluation stops at the first
+         * filter that rejects the triple.
+         *
+         * @param triple the triple that should be checked
+         * @return {@code true} if the triple passes all filters of this group
+         */
+        public boolean test(Triple triple) {
+            for (int i = 0; i < predicates.length; ++i) {
+                ++evaluations[i];
+                if (!predicates[i].test(triple)) {
+                    return false;
+                }
+                ++passes[i];
+            }
+            return true;
+        }
+
+        /**
+         * Sorts the reorderable filters by their ranks, i.e., their costs divided
+         * by their observed rejection rates (filters without observations are
+         * assumed to reject half of the triples). Filters that are not
+         * reorderable keep their position and separate the reorderable filters
+         * into ranges that are sorted independently.
+         */
+        public void reorder() {
+            int size = predicates.length;
+            List<Integer> order = new ArrayList<>(size);
+            double[] ranks = new double[size];
+            for (int i = 0; i < size; ++i) {
+                order.add(i);
+                double rejectionRate = (evaluations[i] > 0) ? (1.0 - ((double) passes[i] / evaluations[i])) : 0.5;
+                ranks[i] = costs[i] / Math.max(rejectionRate, 1E-6);
+            }
+            // The sort is stable, i.e., the declared order is kept for equal ranks
+            int start = 0;
+            int end;
+            while (start < size) {
+                if (!reorderable[start]) {
+                    ++start;
+                    continue;
+                }
+                end = start + 1;
+                while ((end < size) && reorderable[end]) {
+                    ++end;
+                }
+                order.subList(start, end).sort((a, b) -> Double.compare(ranks[a], ranks[b]));
+                start = end;
+            }
+            String[] newNames = new String[size];
+            @SuppressWarnings("unchecked")
+            Predicate<Triple>[] newPredicates = new Predicate[size];
+            double[] newCosts = new double[size];
+            long[] newEvaluations = new long[size];
+            long[] newPasses = new long[size];
+            for (int i = 0; i < size; ++i) {
+                int source = order.get(i);
+                newNames[i] = names[source];
+                newPredicates[i] = predicates[source];
+                newCosts[i] = costs[source];
+                newEvaluations[i] = evaluations[source];
+                newPasses[i] = passes[source];
+            }
+            names = newNames;
+            predicates = newPredicates;
+            costs = newCosts;
+            evaluations = newEvaluations;
+            passes = newPasses;
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package org.dice_research.rdf.stream.pipeline;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+import org.apache.jena.riot.system.StreamRDF;
+
+/**
+ * The result of a {@link PipelineBuilder}. It comprises the head of the
+ * created chain of streams and the plan that describes the stages of the
+ * chain.
+ *
+ * @author Michael R&ouml;der (michael.roeder@uni-paderborn.de)
+ *
+ */
+public class Pipeline {
+
+    /**
+     * The first stream of the pipeline.
+     */
+    protected StreamRDF stream;
+    /**
+     * The descriptions of the single stages in the order in which they are
+     * passed by a triple.
+     */
+    protected List<Supplier<String>> stageDescriptions;
+
+    /**
+     * Constructor.
+     *
+     * @param stream            the first stream of the pipeline
+     * @param stageDescriptions the descriptions of the single stages in the order
+     *                          in which they are passed by a triple
+     */
+    public Pipeline(StreamRDF stream, List<Supplier<String>> stageDescriptions) {
+        super();
+        this.stream = stream;
+        this.stageDescriptions = stageDescriptions;
+    }
+
+    /**
+     * @return the stream to which the data should be sent
+     */
+    public StreamRDF getStream() {
+        return stream;
+    }
+
+    /**
+     * Creates a description of the stages of this pipeline. Fused filter stages
+     * list their filters in their current order together with the numbers of
+     * evaluated and accepted triples, i.e., calling this method after the data has
+     * been processed shows what has been executed.
+     *
+     * @return a human-readable description of the pipeline
+     */
+    public String getPlan() {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < stageDescriptions.size(); ++i) {
+            if (i > 0) {
+                builder.append('\n');
+            }
+            builder.append(i + 1).append(". ").append(stageDescriptions.get(i).get());
+        }
+        return builder.toString();
+    }
+
+    @Override
+    public String toString() {
+        return getPlan();
+    }
+}
@@ -0,0 +1,421 @@
+package org.dice_research.rdf.stream.pipeline;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.Triple;
+import org.apache.jena.riot.system.StreamRDF;
+import org.dice_research.rdf.stream.filter.NodeFilterBasedTripleFilter;
+import org.dice_research.rdf.stream.map.RDFStreamTripleFlatMapper;
+import org.dice_research.rdf.stream.map.RDFStreamTripleMapper;
+
+/**
+ * A builder for a chain of triple filters and mappers. The stages are declared
+ * in the order in which a triple passes them. Consecutive filters are fused
+ * into a single {@link FusedTripleFilter} stage, i.e., a triple is checked by
+ * all of them without passing several {@link StreamRDF} instances.
+ * {@link NodeFilterBasedTripleFilter} instances are split into their single
+ * node checks, which become separate filters of the fused stage. Consecutive
+ * filters that share the same stream for rejected triples form a group.
+ * Mappers are not fused. They end the current filter stage.
+ *
+ * <p>
+ * By default, the filters are evaluated in the declared order, since a filter
+ * may rely on an earlier filter (e.g., a check whether a node is an IRI
+ * followed by a check of the IRI). Only filters that are explicitly declared
+ * as reorderable (see
+ * {@link #filter(String, Predicate, double, StreamRDF, boolean)}) can change
+ * their position. They have to be free of side effects and independent of
+ * each other. A filter that is not reorderable keeps its position and no
+ * reorderable filter is moved across it. Reorderable filters are sorted by
+ * their costs and, if {@link #setReordering(boolean)} is enabled, by their
+ * observed pass rates.
+ * </p>
+ *
+ * <p>
+ * Example:
+ * </p>
+ *
+ * <pre>
+ * Pipeline pipeline = new PipelineBuilder().filter("no literals", t -&gt; !t.getObject().isLiteral())
+ *         .filter(new NodeFilterBasedTripleFilter(null, dboFilter, null), rejectedStream)
+ *         .map("rename", mapper).build(sink);
+ * LOGGER.info("Plan:\n{}", pipeline.getPlan());
+ * RDFDataMgr.parse(pipeline.getStream(), file);
+ * </pre>
+ *
+ * @author Michael R&ouml;der (michael.roeder@uni-paderborn.de)
+ *
+ */
+public class PipelineBuilder {
+
+    /**
+     * The cost that is assigned to filters without a given cost.
+     */
+    public static final double DEFAULT_COST = 1.0;
+
+    /**
+     * The declared stages in the order in which a triple passes them.
+     */
+    protected List<Object> declarations = new ArrayList<>();
+    /**
+     * Flag indicating whether filters within a group should be reordered based on
+     * their observed pass rates.
+     */
+    protected boolean reordering = false;
+    /**
+     * The number of triples after which the filters are reordered.
+     */
+    protected int reorderInterval = FusedTripleFilter.DEFAULT_REORDER_INTERVAL;
+
+    /**
+     * Adds a filter. Rejected triples are dropped.
+     *
+     * @param filter the filter
+     * @return this builder
+     */
+    public PipelineBuilder filter(Predicate<Triple> filter) {
+        return filter(null, filter, DEFAULT_COST, null);
+    }
+
+    /**
+     * Adds a filter. Rejected triples are sent to the given stream.
+     *
+     * @param filter   the filter
+     * @param rejected the stream for rejected triples ({@code null} if they
+     *                 should be dropped)
+     * @return this builder
+     */
+    public PipelineBuilder filter(Predicate<Triple> filter, StreamRDF rejected) {
+        return filter(null, filter, DEFAULT_COST, rejected);
+    }
+
+    /**
+     * Adds a named filter. Rejected triples are dropped.
+     *
+     * @param name   the name of the filter used in the plan
+     * @param filter the filter
+     * @return this builder
+     */
+    public PipelineBuilder filter(String name, Predicate<Triple> filter) {
+        return filter(name, filter, DEFAULT_COST, null);
+    }
+
+    /**
+     * Adds a named filter.
+     *
+     * @param name     the name of the filter used in the plan ({@code null} if a
+     *                 name should be generated)
+     * @param filter   the filter
+     * @param cost     the (relative) cost of a single evaluation of the filter
+     * @param rejected the stream for rejected triples ({@code null} if they
+     *                 should be dropped)
+     * @return this builder
+     */
+    public PipelineBuilder filter(String name, Predicate<Triple> filter, double cost, StreamRDF rejected) {
+        return filter(name, filter, cost, rejected, false);
+    }
+
+    /**
+     * Adds a named filter.
+     *
+     * @param name        the name of the filter used in the plan ({@code null} if
+     *                    a name should be generated)
+     * @param filter      the filter
+     * @param cost        the (relative) cost of a single evaluation of the filter
+     * @param rejected    the stream for rejected triples ({@code null} if they
+     *                    should be dropped)
+     * @param reorderable flag indicating whether the filter is free of side
+     *                    effects and independent of the other filters, i.e.,
+     *                    whether it can be evaluated before filters that have
+     *                    been declared earlier
+     * @return this builder
+     */
+    public PipelineBuilder filter(String name, Predicate<Triple> filter, double cost, StreamRDF rejected,
+            boolean reorderable) {
+        if (filter == null) {
+            throw new IllegalArgumentException("The given filter is null. This is not allowed.");
+        }
+        if (!(cost > 0)) {
+            throw new IllegalArgumentException("The given cost (" + cost + ") is not positive. This is not allowed.");
+        }
+        if (name == null) {
+            name = "filter " + (declarations.size() + 1);
+        }
+        declarations.add(new FilterDeclaration(name, filter, cost, rejected, reorderable));
+        return this;
+    }
+
+    /**
+     * Adds a mapper.
+     *
+     * @param mapper the function that maps a triple to a new triple
+     * @return this builder
+     */
+    public PipelineBuilder map(Function<Triple, Triple> mapper) {
+        return map(null, mapper);
+    }
+
+    /**
+     * Adds a named mapper.
+     *
+     * @param name   the name of the mapper used in the plan ({@code null} if a
+     *               name should be generated)
+     * @param mapper the function that maps a triple to a new triple
+     * @return this builder
+     */
+    public PipelineBuilder map(String name, Function<Triple, Triple> mapper) {
+        if (mapper == null) {
+            throw new IllegalArgumentException("The given mapper is null. This is not allowed.");
+        }
+        declarations.add(new MapperDeclaration(name == null ? "mapper " + (declarations.size() + 1) : name,
+                mapper, null));
+        return this;
+    }
+
+    /**
+     * Adds a mapper that maps a triple to a stream of triples.
+     *
+     * @param mapper the function that maps a triple to a stream of triples
+     * @return this builder
+     */
+    public PipelineBuilder flatMap(Function<Triple, Stream<Triple>> mapper) {
+        return flatMap(null, mapper);
+    }
+
+    /**
+     * Adds a named mapper that maps a triple to a stream of triples.
+     *
+     * @param name   the name of the mapper used in the plan ({@code null} if a
+     *               name should be generated)
+     * @param mapper the function that maps a triple to a stream of triples
+     * @return this builder
+     */
+    public PipelineBuilder flatMap(String name, Function<Triple, Stream<Triple>> mapper) {
+        if (mapper == null) {
+            throw new IllegalArgumentException("The given mapper is null. This is not allowed.");
+        }
+        declarations.add(new MapperDeclaration(name == null ? "flat mapper " + (declarations.size() + 1) : name,
+                null, mapper));
+        return this;
+    }
+
+    /**
+     * Creates the pipeline. The builder can be reused afterwards.
+     *
+     * @param sink the stream to which the triples that passed all stages are sent
+     * @return the pipeline
+     */
+    public Pipeline build(StreamRDF sink) {
+        // Collect the stages from head to tail
+        List<Object> stages = new ArrayList<>();
+        List<FilterDeclaration> currentFilters = null;
+        for (Object declaration : declarations) {
+            if (declaration instanceof FilterDeclaration) {
+                if (currentFilters == null) {
+                    currentFilters = new ArrayList<>();
+                    stages.add(currentFilters);
+                }
+                currentFilters.add((FilterDeclaration) declaration);
+            } else {
+                currentFilters = null;
+                stages.add(declaration);
+            }
+        }
+        // Create the streams from tail to head
+        StreamRDF stream = sink;
+        List<Supplier<String>> descriptions = new ArrayList<>();
+        for (int i = stages.size() - 1; i >= 0; --i) {
+            Object stage = stages.get(i);
+            if (stage instanceof MapperDeclaration) {
+                MapperDeclaration mapper = (MapperDeclaration) stage;
+                if (mapper.mapper != null) {
+                    stream = new RDFStreamTripleMapper(mapper.mapper, stream);
+                    descriptions.add(() -> "map (" + mapper.name + ")");
+                } else {
+                    stream = new RDFStreamTripleFlatMapper(mapper.flatMapper, stream);
+                    descriptions.add(() -> "flat map (" + mapper.name + ")");
+                }
+            } else {
+                @SuppressWarnings("unchecked")
+                FusedTripleFilter filter = new FusedTripleFilter(
+                        createGroups((List<FilterDeclaration>) stage), reordering ? reorderInterval : 0, stream);
+                stream = filter;
+                descriptions.add(filter::describe);
+            }
+        }
+        Collections.reverse(descriptions);
+        return new Pipeline(stream, descriptions);
+    }
+
+    /**
+     * Creates the groups of a fused filter stage. Consecutive filters with the
+     * same stream for rejected triples belong to the same group.
+     *
+     * @param filters the consecutive filters of the stage
+     * @return the groups of the stage
+     */
+    protected List<FusedTripleFilter.FilterGroup> createGroups(List<FilterDeclaration> filters) {
+        List<FusedTripleFilter.FilterGroup> groups = new ArrayList<>();
+        List<String> names = new ArrayList<>();
+        List<Predicate<Triple>> predicates = new ArrayList<>();
+        List<Double> costs = new ArrayList<>();
+        List<Boolean> reorderable = new ArrayList<>();
+        StreamRDF rejected = null;
+        for (FilterDeclaration filter : filters) {
+            if (!predicates.isEmpty() && (filter.rejected != rejected)) {
+                groups.add(new FusedTripleFilter.FilterGroup(names, predicates, costs, reorderable, rejected,
+                        describeStream(rejected)));
+                names.clear();
+                predicates.clear();
+                costs.clear();
+                reorderable.clear();
+            }
+            rejected = filter.rejected;
+            addPredicates(filter, names, predicates, costs);
+            while (reorderable.size() < predicates.size()) {
+                reorderable.add(filter.reorderable);
+            }
+        }
+        if (!predicates.isEmpty()) {
+            groups.add(new FusedTripleFilter.FilterGroup(names, predicates, costs, reorderable, rejected,
+                    describeStream(rejected)));
+        }
+        return groups;
+    }
+
+    /**
+     * Adds the predicates of the given filter to the given lists. A
+     * {@link NodeFilterBasedTripleFilter} is split into its single node checks.
+     * The checks are only reordered if the filter has been declared as
+     * reorderable.
+     *
+     * @param filter     the declared filter
+     * @param names      the names of the predicates
+     * @param predicates the predicates
+     * @param costs      the costs of the predicates
+     */
+    protected void addPredicates(FilterDeclaration filter, List<String> names, List<Predicate<Triple>> predicates,
+            List<Double> costs) {
+        if (filter.predicate instanceof NodeFilterBasedTripleFilter) {
+            NodeFilterBasedTripleFilter nodeFilter = (NodeFilterBasedTripleFilter) filter.predicate;
+            Predicate<Node> check = nodeFilter.getSubjectCheck();
+            if (check != null) {
+                names.add(filter.name + " [subject]");
+                predicates.add(t -> check.test(t.getSubject()));
+                costs.add(filter.cost);
+            }
+            Predicate<Node> predicateCheck = nodeFilter.getPredicateCheck();
+            if (predicateCheck != null) {
+                names.add(filter.name + " [predicate]");
+                predicates.add(t -> predicateCheck.test(t.getPredicate()));
+                costs.add(filter.cost);
+            }
+            Predicate<Node> objectCheck = nodeFilter.getObjectCheck();
+            if (objectCheck != null) {
+                names.add(filter.name + " [object]");
+                predicates.add(t -> objectCheck.test(t.getObject()));
+                costs.add(filter.cost);
+            }
+            // A filter without any check accepts all triples
+        } else {
+            names.add(filter.name);
+            predicates.add(filter.predicate);
+            costs.add(filter.cost);
+        }
+    }
+
+    /**
+     * @param stream a stream for rejected triples
+     * @return a short description of the given stream
+     */
+    protected static String describeStream(StreamRDF stream) {
+        if (stream == null) {
+            return "dropped";
+        }
+        return stream.getClass().getSimpleName() + "@" + Integer.toHexString(System.identityHashCode(stream));
+    }
+
+    /**
+     * @return {@code true} if the reorderable filters of a group are reordered
+     *         based on their observed pass rates
+     */
+    public boolean isReordering() {
+        return reordering;
+    }
+
+    /**
+     * @param reordering flag indicating whether the reorderable filters of a
+     *                   group should be reordered based on their observed pass
+     *                   rates. If this is {@code false} (the default), they are
+     *                   evaluated in the order of their costs.
+     * @return this builder
+     */
+    public PipelineBuilder setReordering(boolean reordering) {
+        this.reordering = reordering;
+        return this;
+    }
+
+    /**
+     * @return the number of triples after which the filters are reordered
+     */
+    public int getReorderInterval() {
+        return reorderInterval;
+    }
+
+    /**
+     * @param reorderInterval the number of triples after which the filters are
+     *                        reordered
+     * @return this builder
+     */
+    public PipelineBuilder setReorderInterval(int reorderInterval) {
+        if (reorderInterval <= 0) {
+            throw new IllegalArgumentException(
+                    "The given interval (" + reorderInterval + ") is smaller than 1. This is not allowed.");
+        }
+        this.reorderInterval = reorderInterval;
+        return this;
+    }
+
+    /**
+     * A declared filter.
+     */
+    protected static class FilterDeclaration {
+        protected final String name;
+        protected final Predicate<Triple> predicate;
+        protected final double cost;
+        protected final StreamRDF rejected;
+        protected final boolean reorderable;
+
+        public FilterDeclaration(String name, Predicate<Triple> predicate, double cost, StreamRDF rejected,
+                boolean reorderable) {
+            this.name = name;
+            this.predicate = predicate;
+            this.cost = cost;
+            this.rejected = rejected;
+            this.reorderable = reorderable;
+        }
+    }
+
+    /**
+     * A declared mapper. Either {@link #mapper} or {@link #flatMapper} is set.
+     */
+    protected static class MapperDeclaration {
+        protected final String name;
+        protected final Function<Triple, Triple> mapper;
+        protected final Function<Triple, Stream<Triple>> flatMapper;
+
+        public MapperDeclaration(String name, Function<Triple, Triple> mapper,
+                Function<Triple, Stream<Triple>> flatMapper) {
+            this.name = name;
+            this.mapper = mapper;
+            this.flatMapper = flatMapper;
+        }
+    }
+}
@@ -0,0 +1,418 @@
+package org.dice_research.rdf.stream.stats;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.Triple;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ModelFactory;
+import org.apache.jena.rdf.model.Resource;
+import org.apache.jena.riot.system.StreamRDFBase;
+import org.apache.jena.vocabulary.RDF;
+import org.dice_research.java.sketch.CountMinSketch;
+import org.dice_research.java.sketch.HeavyHitters;
+import org.dice_research.java.sketch.HyperLogLog;
+import org.dice_research.rdf.stream.util.NodeHashing;
+
+/**
+ * This class computes statistics of the triples it receives in a single pass.
+ * It determines
+ * <ul>
+ * <li>the number of triples,</li>
+ * <li>the (estimated) numbers of distinct subjects, objects and classes,</li>
+ * <li>the number of distinct predicates,</li>
+ * <li>the number of triples and the (estimated) numbers of distinct subjects
+ * and objects per predicate,</li>
+ * <li>the (approximately) most frequent classes and their number of
+ * rdf:type triples,</li>
+ * <li>histograms of the datatypes and language tags of literals and</li>
+ * <li>a histogram of the lengths of the lexical forms of literals (with
+ * buckets of power-of-two sizes).</li>
+ * </ul>
+ * Distinct counts are estimated with {@link HyperLogLog} sketches and the class
+ * partitions with {@link HeavyHitters}. Hence, the memory consumption depends
+ * on the number of predicates, datatypes and languages, which are typically
+ * small, but not on the number of subjects, objects or classes. The results can
+ * be exported as VoID description (see {@link #toVoID(String)}).
+ *
+ * <p>
+ * The collector is not thread-safe. However, collectors that have been fed by
+ * different threads can be merged using
+ * {@link #merge(DatasetStatisticsCollector)} if they have been created with the
+ * same parameters.
+ * </p>
+ *
+ * @author Michael R&ouml;der (michael.roeder@uni-paderborn.de)
+ *
+ */
+public class DatasetStatisticsCollector extends StreamRDFBase {
+
+    /**
+     * The default precision of the dataset-wide sketches.
+     */
+    public static final int DEFAULT_PRECISION = 14;
+    /**
+     * The default precision of the per-predicate sketches.
+     */
+    public static final int DEFAULT_PREDICATE_PRECISION = 10;
+    /**
+     * The default number of classes for which class partitions are created.
+     */
+    public static final int DEFAULT_NUMBER_OF_CLASSES = 1000;
+    /**
+     * The default maximum overestimation of a class frequency relative to the
+     * number of rdf:type triples.
+     */
+    public static final double DEFAULT_CLASS_EPSILON = 0.0001;
+    /**
+     * The default probability with which the estimation error of a class
+     * frequency may be larger than epsilon.
+     */
+    public static final double DEFAULT_CLASS_DELTA = 0.001;
+    /**
+     * The number of buckets of the literal length histogram. Bucket i counts
+     * lengths within [2^(i-1), 2^i) while bucket 0 counts empty literals.
+     */
+    public static final int NUMBER_OF_LENGTH_BUCKETS = 32;
+
+    protected static final Node RDF_TYPE = RDF.type.asNode();
+
+    /**
+     * The precision of the per-predicate sketches.
+     */
+    protected final int predicatePrecision;
+    /**
+     * The number of triples.
+     */
+    protected long triples = 0;
+    protected final HyperLogLog distinctSubjects;
+    protected final HyperLogLog distinctObjects;
+    protected final HyperLogLog distinctClasses;
+    /**
+     * The statistics of the single predicates.
+     */
+    protected Map<Node, PredicateStatistics> predicates = new HashMap<>();
+    /**
+     * The most frequent classes (i.e., objects of rdf:type triples).
+     */
+    protected final HeavyHitters<Node> classes;
+    /**
+     * The number of literals per datatype IRI.
+     */
+    protected Map<String, long[]> datatypes = new HashMap<>();
+    /**
+     * The number of literals per language tag.
+     */
+    protected Map<String, long[]> languages = new HashMap<>();
+    /**
+     * The histogram of the literal lengths.
+     */
+    protected long[] literalLengths = new long[NUMBER_OF_LENGTH_BUCKETS];
+    /**
+     * The sum of the lengths of all literals.
+     */
+    protected long literalLengthSum = 0;
+    /**
+     * The maximum length of a literal.
+     */
+    protected int maxLiteralLength = 0;
+
+    /**
+     * Constructor using the default parameters.
+     */
+    public DatasetStatisticsCollector() {
+        this(DEFAULT_PRECISION, DEFAULT_PREDICATE_PRECISION, DEFAULT_NUMBER_OF_CLASSES);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param precision          the precision of the dataset-wide sketches (see
+     *                           {@link HyperLogLog#HyperLogLog(int)})
+     * @param predicatePrecision the precision of the per-predicate sketches
+     * @param numberOfClasses    the number of most frequent classes for which
+     *                           class partitions are created
+     */
+    public DatasetStatisticsCollector(int precision, int predicatePrecision, int numberOfClasses) {
+        this(precision, predicatePrecision, numberOfClasses, DEFAULT_CLASS_EPSILON, DEFAULT_CLASS_DELTA);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param precision          the precision of the dataset-wide sketches (see
+     *                           {@link HyperLogLog#HyperLogLog(int)})
+     * @param predicatePrecision the precision of the per-predicate sketches
+     * @param numberOfClasses    the number of most frequent classes for which
+     *                           class partitions are created
+     * @param classEpsilon       the maximum overestimation of a class frequency
+     *                           relative to the number of rdf:type triples (see
+     *                           {@link CountMinSketch#create(double, double)})
+     * @param classDelta         the probability with which the estimation error
+     *                           of a class frequency may be larger than epsilon
+     */
+    public DatasetStatisticsCollector(int precision, int predicatePrecision, int numberOfClasses,
+            double classEpsilon, double classDelta) {
+        super();
+        this.predicatePrecision = predicatePrecision;
+        distinctSubjects = new HyperLogLog(precision);
+        distinctObjects = new HyperLogLog(precision);
+        distinctClasses = new HyperLogLog(precision);
+        classes = new HeavyHitters<>(numberOfClasses, CountMinSketch.create(classEpsilon, classDelta), NodeHashing::hash64);
+    }
+
+    @Override
+    public void triple(Triple triple) {
+        ++triples;
+        Node subject = triple.getSubject();
+        Node predicate = triple.getPredicate();
+        Node object = triple.getObject();
+        long subjectHash = NodeHashing.hash64(subject);
+        long objectHash = NodeHashing.hash64(object);
+        distinctSubjects.add(subjectHash);
+        distinctObjects.add(objectHash);
+
+        PredicateStatistics pStats = predicates.get(predicate);
+        if (pStats == null) {
+            pStats = new PredicateStatistics(predicatePrecision);
+            predicates.put(predicate, pStats);
+        }
+        ++pStats.triples;
+        pStats.distinctSubjects.add(subjectHash);
+        pStats.distinctObjects.add(objectHash);
+
+        if (RDF_TYPE.equals(predicate)) {
+            distinctClasses.add(objectHash);
+            classes.add(object);
+        }
+        if (object.isLiteral()) {
+            addLiteral(object);
+        }
+    }
+
+    protected void addLiteral(Node literal) {
+        String language = literal.getLiteralLanguage();
+        if ((language != null) && !language.isEmpty()) {
+            ++languages.computeIfAbsent(language, l -> new long[1])[0];
+        }
+        ++datatypes.computeIfAbsent(literal.getLiteralDatatypeURI(), d -> new long[1])[0];
+        int length = literal.getLiteralLexicalForm().length();
+        // The bucket is the number of bits that are needed to represent the length
+        ++literalLengths[32 - Integer.numberOfLeadingZeros(length)];
+        literalLengthSum += length;
+        if (length > maxLiteralLength) {
+            maxLiteralLength = length;
+        }
+    }
+
+    /**
+     * Merges the statistics of the given collector into this collector.
+     *
+     * @param other the collector that should be merged into this collector
+     */
+    public void merge(DatasetStatisticsCollector other) {
+        triples += other.triples;
+        distinctSubjects.merge(other.distinctSubjects);
+        distinctObjects.merge(other.distinctObjects);
+        distinctClasses.merge(other.distinctClasses);
+        for (Entry<Node, PredicateStatistics> entry : other.predicates.entrySet()) {
+            PredicateStatistics pStats = predicates.get(entry.getKey());
+            if (pStats == null) {
+                pStats = new PredicateStatistics(predicatePrecision);
+                predicates.put(entry.getKey(), pStats);
+            }
+            pStats.merge(entry.getValue());
+        }
+        classes.merge(other.classes);
+        mergeHistogram(datatypes, other.datatypes);
+        mergeHistogram(languages, other.languages);
+        for (int i = 0; i < literalLengths.length; ++i) {
+            literalLengths[i] += other.literalLengths[i];
+        }
+        literalLengthSum += other.literalLengthSum;
+        maxLiteralLength = Math.max(maxLiteralLength, other.maxLiteralLength);
+    }
+
+    protected static void mergeHistogram(Map<String, long[]> target, Map<String, long[]> source) {
+        for (Entry<String, long[]> entry : source.entrySet()) {
+            target.computeIfAbsent(entry.getKey(), k -> new long[1])[0] += entry.getValue()[0];
+        }
+    }
+
+    /**
+     * Creates a VoID description of the statistics.
+     *
+     * @param datasetIri the IRI of the described dataset
+     * @return a model containing the VoID description
+     */
+    public Model toVoID(String datasetIri) {
+        Model model = ModelFactory.createDefaultModel();
+        model.setNsPrefix("void", VOID.getURI());
+        Resource dataset = model.createResource(datasetIri, VOID.Dataset);
+        dataset.addLiteral(VOID.triples, triples);
+        dataset.addLiteral(VOID.distinctSubjects, distinctSubjects.estimate());
+        dataset.addLiteral(VOID.properties, (long) predicates.size());
+        dataset.addLiteral(VOID.distinctObjects, distinctObjects.estimate());
+        dataset.addLiteral(VOID.classes, distinctClasses.estimate());
+        for (Entry<Node, PredicateStatistics> entry : predicates.entrySet()) {
+            Resource partition = model.createResource();
+            dataset.addProperty(VOID.propertyPartition, partition);
+            partition.addProperty(VOID.property, model.asRDFNode(entry.getKey()));
+            partition.addLiteral(VOID.triples, entry.getValue().triples);
+            partition.addLiteral(VOID.distinctSubjects, entry.getValue().distinctSubjects.estimate());
+            partition.addLiteral(VOID.distinctObjects, entry.getValue().distinctObjects.estimate());
+        }
+        for (Entry<Node, Long> entry : classes.getTopK()) {
+            Resource partition = model.createResource();
+            dataset.addProperty(VOID.classPartition, partition);
+            partition.addProperty(VOID.clazz, model.asRDFNode(entry.getKey()));
+            partition.addLiteral(VOID.entities, entry.getValue().longValue());
+        }
+        return model;
+    }
+
+    /**
+     * @return the number of triples
+     */
+    public long getTriples() {
+        return triples;
+    }
+
+    /**
+     * @return the estimated number of distinct subjects
+     */
+    public long getDistinctSubjects() {
+        return distinctSubjects.estimate();
+    }
+
+    /**
+     * @return the number of distinct predicates
+     */
+    public long getDistinctPredicates() {
+        return predicates.size();
+    }
+
+    /**
+     * @return the estimated number of distinct objects
+     */
+    public long getDistinctObjects() {
+        return distinctObjects.estimate();
+    }
+
+    /**
+     * @return the estimated number of distinct classes
+     */
+    public long getDistinctClasses() {
+        return distinctClasses.estimate();
+    }
+
+    /**
+     * @return the statistics of the single predicates
+     */
+    public Map<Node, PredicateStatistics> getPredicates() {
+        return predicates;
+    }
+
+    /**
+     * @return the (approximately) most frequent classes together with their
+     *         estimated number of instances sorted by descending frequency
+     */
+    public List<Entry<Node, Long>> getTopClasses() {
+        return classes.getTopK();
+    }
+
+    /**
+     * @return the number of literals per datatype IRI
+     */
+    public Map<String, Long> getDatatypeHistogram() {
+        return toLongMap(datatypes);
+    }
+
+    /**
+     * @return the number of literals per language tag
+     */
+    public Map<String, Long> getLanguageHistogram() {
+        return toLongMap(languages);
+    }
+
+    protected static Map<String, Long> toLongMap(Map<String, long[]> histogram) {
+        Map<String, Long> result = new HashMap<>();
+        for (Entry<String, long[]> entry : histogram.entrySet()) {
+            result.put(entry.getKey(), entry.getValue()[0]);
+        }
+        return result;
+    }
+
+    /**
+     * @return the histogram of the literal lengths. Bucket i counts lengths within
+     *         [2^(i-1), 2^i) while bucket 0 counts empty literals.
+     */
+    public long[] getLiteralLengthHistogram() {
+        return literalLengths.clone();
+    }
+
+    /**
+     * @return the average length of the lexical forms of literals
+     */
+    public double getAverageLiteralLength() {
+        long count = 0;
+        for (int i = 0; i < literalLengths.length; ++i) {
+            count += literalLengths[i];
+        }
+        return (count == 0) ? 0 : ((double) literalLengthSum / count);
+    }
+
+    /**
+     * @return the maximum length of the lexical form of a literal
+     */
+    public int getMaxLiteralLength() {
+        return maxLiteralLength;
+    }
+
+    /**
+     * The statistics of a single predicate.
+     *
+     * @author Michael R&ouml;der (michael.roeder@uni-paderborn.de)
+     *
+     */
+    public static class PredicateStatistics {
+        protected long triples = 0;
+        protected final HyperLogLog distinctSubjects;
+        protected final HyperLogLog distinctObjects;
+
+        public PredicateStatistics(int precision) {
+            distinctSubjects = new HyperLogLog(precision);
+            distinctObjects = new HyperLogLog(precision);
+        }
+
+        public void merge(PredicateStatistics other) {
+            triples += other.triples;
+            distinctSubjects.merge(other.distinctSubjects);
+            distinctObjects.merge(other.distinctObjects);
+        }
+
+        /**
+         * @return the number of triples with this predicate
+         */
+        public long getTriples() {
+            return triples;
+        }
+
+        /**
+         * @return the estimated number of distinct subjects of this predicate
+         */
+        public long getDistinctSubjects() {
+            return distinctSubjects.estimate();
+        }
+
+        /**
+         * @return the estimated number of distinct objects of this predicate
+         */
+        public long getDistinctObjects() {
+            return distinctObjects.estimate();
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package org.dice_research.rdf.stream.util;
+
+import org.apache.jena.graph.Node;
+import org.dice_research.java.sketch.Hashing;
+
+/**
+ * Creates 64-bit hash values of {@link Node} instances for the sketches of the
+ * {@link org.dice_research.java.sketch} package. The hash values are derived
+ * from the IRI, the blank node label or the parts of a literal without
+ * serializing the node.
+ *
+ * @author Michael R&ouml;der (michael.roeder@uni-paderborn.de)
+ *
+ */
+public class NodeHashing {
+
+    private static final long IRI_SEED = 0x2545F4914F6CDD1DL;
+    private static final long BLANK_SEED = 0x9E3779B97F4A7C15L;
+    private static final long LITERAL_SEED = 0xCBF29CE484222325L;
+
+    /**
+     * Creates the 64-bit hash value of the given node.
+     *
+     * @param node the node that should be hashed
+     * @return the hash value of the node or 0 if the node is {@code null}
+     */
+    public static long hash64(Node node) {
+        if (node == null) {
+            return 0;
+        }
+        if (node.isURI()) {
+            return hashIri(node.getURI());
+        }
+        if (node.isBlank()) {
+            return Hashing.hash64(node.getBlankNodeLabel(), BLANK_SEED);
+        }
+        if (node.isLiteral()) {
+            long hash = Hashing.hash64(node.getLiteralLexicalForm(), LITERAL_SEED);
+            String language = node.getLiteralLanguage();
+            if ((language != null) && !language.isEmpty()) {
+                return Hashing.hash64(language, hash);
+            } else {
+                return Hashing.hash64(node.getLiteralDatatypeURI(), hash);
+            }
+        }
+        return Hashing.hash64(node.toString(), 0);
+    }
+
+    /**
+     * Creates the 64-bit hash value of the given IRI. The result is the same as
+     * the hash value of an IRI node with this IRI.
+     *
+     * @param iri the IRI that should be hashed
+     * @return the hash value of the IRI
+     */
+    public static long hashIri(String iri) {
+        return Hashing.hash64(iri, IRI_SEED);
+    }
+}
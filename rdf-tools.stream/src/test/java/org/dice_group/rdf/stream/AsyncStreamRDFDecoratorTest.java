@@ -0,0 +1,190 @@
+package org.dice_group.rdf.stream;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import org.apache.jena.graph.NodeFactory;
+import org.apache.jena.graph.Triple;
+import org.apache.jena.riot.system.StreamRDFBase;
+import org.dice_research.rdf.stream.AsyncStreamRDFDecorator;
+import org.dice_research.rdf.stream.AsyncStreamRDFDecorator.BackPressure;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class AsyncStreamRDFDecoratorTest {
+
+    private static final int NUMBER_OF_TRIPLES = 10000;
+
+    @Test
+    public void testBlock() {
+        testOrder(BackPressure.BLOCK);
+    }
+
+    @Test
+    public void testSpin() {
+        testOrder(BackPressure.SPIN);
+    }
+
+    protected void testOrder(BackPressure backPressure) {
+        List<Triple> expected = createTriples();
+        RecordingStream sink = new RecordingStream();
+        AsyncStreamRDFDecorator stream = new AsyncStreamRDFDecorator(sink, 16, 2, backPressure);
+
+        // Nested start and finish calls (as they happen if a parser is used)
+        stream.start();
+        stream.prefix("ex", "http://example.org/");
+        stream.start();
+        for (Triple t : expected) {
+            stream.triple(t);
+        }
+        stream.finish();
+        // The consumer still runs after the inner finish() call
+        stream.triple(expected.get(0));
+        stream.finish();
+        expected.add(expected.get(0));
+
+        Assert.assertEquals(expected, sink.triples);
+        Assert.assertEquals(2, sink.starts);
+        Assert.assertEquals(2, sink.finishes);
+        Assert.assertEquals(1, sink.prefixes);
+        Assert.assertEquals(0, stream.getNumberOfDroppedElements());
+    }
+
+    @Test
+    public void testDrop() throws InterruptedException {
+        List<Triple> triples = createTriples();
+        CountDownLatch latch = new CountDownLatch(1);
+        RecordingStream sink = new RecordingStream() {
+            @Override
+            public void triple(Triple triple) {
+                try {
+                    // Block the consumer until the producer is done
+                    latch.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                super.triple(triple);
+            }
+        };
+        AsyncStreamRDFDecorator stream = new AsyncStreamRDFDecorator(sink, 16, 2, BackPressure.DROP);
+        stream.start();
+        for (Triple t : triples) {
+            stream.triple(t);
+        }
+        latch.countDown();
+        stream.finish();
+
+        Assert.assertTrue(stream.getNumberOfDroppedElements() > 0);
+        Assert.assertEquals(NUMBER_OF_TRIPLES, sink.triples.size() + stream.getNumberOfDroppedElements());
+        Assert.assertEquals(1, sink.starts);
+        Assert.assertEquals(1, sink.finishes);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testConsumerException() {
+        RecordingStream sink = new RecordingStream() {
+            @Override
+            public void triple(Triple triple) {
+                throw new IllegalArgumentException("Test exception");
+            }
+        };
+        AsyncStreamRDFDecorator stream = new AsyncStreamRDFDecorator(sink, 16, 2, BackPressure.BLOCK);
+        stream.start();
+        for (Triple t : createTriples()) {
+            stream.triple(t);
+        }
+        stream.finish();
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testFinishWithoutStart() {
+        AsyncStreamRDFDecorator stream = new AsyncStreamRDFDecorator(new RecordingStream());
+        stream.start();
+        stream.finish();
+        stream.finish();
+    }
+
+    @Test
+    public void testClose() {
+        RecordingStream sink = new RecordingStream();
+        AsyncStreamRDFDecorator stream = new AsyncStreamRDFDecorator(sink, 16, 2, BackPressure.BLOCK);
+        stream.start();
+        for (Triple t : createTriples()) {
+            stream.triple(t);
+        }
+        // Abort the stream as if the producer failed
+        stream.close();
+        Assert.assertEquals(1, sink.starts);
+        Assert.assertEquals(0, sink.finishes);
+        Assert.assertTrue(sink.triples.size() <= NUMBER_OF_TRIPLES);
+        // Closing again does nothing and the stream can be reused
+        stream.close();
+        sink.triples.clear();
+        stream.start();
+        stream.triple(createTriples().get(0));
+        stream.finish();
+        stream.close();
+        Assert.assertEquals(2, sink.starts);
+        Assert.assertEquals(1, sink.finishes);
+        Assert.assertEquals(1, sink.triples.size());
+    }
+
+    @Test
+    public void testCloseAfterConsumerException() {
+        RecordingStream sink = new RecordingStream() {
+            @Override
+            public void triple(Triple triple) {
+                throw new IllegalArgumentException("Test exception");
+            }
+        };
+        AsyncStreamRDFDecorator stream = new AsyncStreamRDFDecorator(sink, 16, 2, BackPressure.BLOCK);
+        stream.start();
+        try {
+            for (Triple t : createTriples()) {
+                stream.triple(t);
+            }
+            Assert.fail("Expected an IllegalStateException.");
+        } catch (IllegalStateException e) {
+            // expected
+        }
+        // Must neither block nor throw
+        stream.close();
+    }
+
+    protected static List<Triple> createTriples() {
+        List<Triple> triples = new ArrayList<>(NUMBER_OF_TRIPLES);
+        for (int i = 0; i < NUMBER_OF_TRIPLES; ++i) {
+            triples.add(Triple.create(NodeFactory.createURI("http://example.org/s" + i),
+                    NodeFactory.createURI("http://example.org/p"), NodeFactory.createLiteral(Integer.toString(i))));
+        }
+        return triples;
+    }
+
+    protected static class RecordingStream extends StreamRDFBase {
+        protected List<Triple> triples = new ArrayList<>();
+        protected int starts = 0;
+        protected int finishes = 0;
+        protected int prefixes = 0;
+
+        @Override
+        public void start() {
+            ++starts;
+        }
+
+        @Override
+        public void triple(Triple triple) {
+            triples.add(triple);
+        }
+
+        @Override
+        public void prefix(String prefix, String iri) {
+            ++prefixes;
+        }
+
+        @Override
+        public void finish() {
+            ++finishes;
+        }
+    }
+}
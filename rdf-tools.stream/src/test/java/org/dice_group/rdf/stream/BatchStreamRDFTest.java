@@ -0,0 +1,102 @@
+package org.dice_group.rdf.stream;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.apache.jena.graph.NodeFactory;
+import org.apache.jena.graph.Triple;
+import org.apache.jena.riot.system.StreamRDF;
+import org.apache.jena.riot.system.StreamRDFBase;
+import org.dice_research.rdf.stream.BatchStreamRDF;
+import org.dice_research.rdf.stream.BatchingStreamRDF;
+import org.dice_research.rdf.stream.consume.RDFStreamTripleConsumer;
+import org.dice_research.rdf.stream.filter.BatchRDFStreamTripleFilter;
+import org.dice_research.rdf.stream.filter.RDFStreamTripleFilter;
+import org.dice_research.rdf.stream.map.BatchRDFStreamTripleFlatMapper;
+import org.dice_research.rdf.stream.map.BatchRDFStreamTripleMapper;
+import org.dice_research.rdf.stream.map.RDFStreamTripleFlatMapper;
+import org.dice_research.rdf.stream.map.RDFStreamTripleMapper;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class BatchStreamRDFTest {
+
+    /**
+     * Compares a chain of batch-aware filters and mappers with the same chain of
+     * their single-triple counterparts.
+     */
+    @Test
+    public void test() {
+        List<Triple> input = new ArrayList<>();
+        for (int i = 0; i < 1000; ++i) {
+            input.add(Triple.create(NodeFactory.createURI("http://example.org/s" + (i % 7)),
+                    NodeFactory.createURI("http://example.org/p" + (i % 3)),
+                    NodeFactory.createLiteral(Integer.toString(i))));
+        }
+
+        List<Triple> expectedAccepted = new ArrayList<>();
+        List<Triple> expectedRejected = new ArrayList<>();
+        StreamRDF expectedStream = new RDFStreamTripleMapper(
+                t -> Triple.create(t.getSubject(), NodeFactory.createURI("http://example.org/mapped"), t.getObject()),
+                new RDFStreamTripleConsumer(expectedAccepted::add));
+        expectedStream = new RDFStreamTripleFlatMapper(t -> Stream.of(t, t), expectedStream);
+        expectedStream = new RDFStreamTripleFilter(t -> t.getPredicate().getURI().endsWith("p1"), expectedStream,
+                new RDFStreamTripleConsumer(expectedRejected::add));
+        send(input, expectedStream);
+
+        List<Triple> accepted = new ArrayList<>();
+        List<Triple> rejected = new ArrayList<>();
+        StreamRDF stream = new BatchRDFStreamTripleMapper(
+                t -> Triple.create(t.getSubject(), NodeFactory.createURI("http://example.org/mapped"), t.getObject()),
+                new RDFStreamTripleConsumer(accepted::add));
+        stream = new BatchRDFStreamTripleFlatMapper(t -> Stream.of(t, t), stream);
+        stream = new BatchRDFStreamTripleFilter(t -> t.getPredicate().getURI().endsWith("p1"), stream,
+                new RDFStreamTripleConsumer(rejected::add));
+        stream = new BatchingStreamRDF((BatchRDFStreamTripleFilter) stream, 64);
+        send(input, stream);
+
+        Assert.assertEquals(expectedAccepted, accepted);
+        Assert.assertEquals(expectedRejected, rejected);
+        Assert.assertEquals(666, accepted.size());
+        Assert.assertEquals(667, rejected.size());
+    }
+
+    /**
+     * Checks that the buffers of a batch filter do not keep the forwarded triples
+     * alive.
+     */
+    @Test
+    public void testFilterBuffersAreCleared() {
+        List<Triple[]> buffers = new ArrayList<>();
+        class BufferRecorder extends StreamRDFBase implements BatchStreamRDF {
+            @Override
+            public void triples(Triple[] batch, int length) {
+                buffers.add(batch);
+            }
+        }
+        BatchRDFStreamTripleFilter filter = new BatchRDFStreamTripleFilter(
+                t -> t.getPredicate().getURI().endsWith("p1"), new BufferRecorder(), new BufferRecorder());
+        Triple[] batch = new Triple[10];
+        for (int i = 0; i < batch.length; ++i) {
+            batch[i] = Triple.create(NodeFactory.createURI("http://example.org/s"),
+                    NodeFactory.createURI("http://example.org/p" + (i % 2)),
+                    NodeFactory.createURI("http://example.org/o"));
+        }
+        filter.triples(batch, batch.length);
+        Assert.assertEquals(2, buffers.size());
+        for (Triple[] buffer : buffers) {
+            for (Triple t : buffer) {
+                Assert.assertNull(t);
+            }
+        }
+    }
+
+    protected static void send(List<Triple> triples, StreamRDF stream) {
+        stream.start();
+        for (Triple t : triples) {
+            stream.triple(t);
+        }
+        stream.finish();
+    }
+}
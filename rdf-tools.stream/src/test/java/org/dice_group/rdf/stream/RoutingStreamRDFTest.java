@@ -0,0 +1,88 @@
+package org.dice_group.rdf.stream;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.NodeFactory;
+import org.apache.jena.graph.Triple;
+import org.apache.jena.sparql.core.Quad;
+import org.apache.jena.vocabulary.RDF;
+import org.dice_research.rdf.stream.RoutingStreamRDF;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class RoutingStreamRDFTest {
+
+    @Test
+    public void test() {
+        RecordingStream subjects = new RecordingStream();
+        RecordingStream predicatesAndObjects = new RecordingStream();
+        RecordingStream others = new RecordingStream();
+        RoutingStreamRDF<Node> router = RoutingStreamRDF.byPredicate(others).addRoute(RDF.subject.asNode(), subjects)
+                .addRoute(RDF.predicate.asNode(), predicatesAndObjects)
+                .addRoute(RDF.object.asNode(), predicatesAndObjects);
+
+        Node stmt = NodeFactory.createURI("http://example.org/stmt");
+        Triple subject = Triple.create(stmt, RDF.subject.asNode(), NodeFactory.createURI("http://example.org/s"));
+        Triple predicate = Triple.create(stmt, RDF.predicate.asNode(), NodeFactory.createURI("http://example.org/p"));
+        Triple object = Triple.create(stmt, RDF.object.asNode(), NodeFactory.createURI("http://example.org/o"));
+        Triple type = Triple.create(stmt, RDF.type.asNode(), RDF.Statement.asNode());
+        Quad quad = Quad.create(NodeFactory.createURI("http://example.org/g"), subject);
+
+        router.start();
+        router.prefix("rdf", RDF.getURI());
+        router.base("http://example.org/");
+        router.triple(subject);
+        router.triple(predicate);
+        router.triple(object);
+        router.triple(type);
+        router.quad(quad);
+        router.finish();
+
+        Assert.assertEquals(List.of(subject), subjects.triples);
+        Assert.assertEquals(List.of(quad), subjects.quads);
+        Assert.assertEquals(List.of(predicate, object), predicatesAndObjects.triples);
+        Assert.assertEquals(List.of(type), others.triples);
+        // Each distinct stream receives the control events exactly once
+        for (RecordingStream stream : new RecordingStream[] { subjects, predicatesAndObjects, others }) {
+            Assert.assertEquals(1, stream.starts);
+            Assert.assertEquals(1, stream.finishes);
+            Assert.assertEquals(1, stream.prefixes);
+            Assert.assertEquals(1, stream.bases);
+        }
+    }
+
+    @Test
+    public void testKeyFunction() {
+        RecordingStream literals = new RecordingStream();
+        RecordingStream others = new RecordingStream();
+        RoutingStreamRDF<Boolean> router = new RoutingStreamRDF<Boolean>(t -> t.getObject().isLiteral(), others)
+                .addRoute(Boolean.TRUE, literals);
+        Triple literal = Triple.create(NodeFactory.createURI("http://example.org/s"),
+                NodeFactory.createURI("http://example.org/p"), NodeFactory.createLiteral("o"));
+        Triple iri = Triple.create(NodeFactory.createURI("http://example.org/s"),
+                NodeFactory.createURI("http://example.org/p"), NodeFactory.createURI("http://example.org/o"));
+        router.start();
+        router.triple(literal);
+        router.triple(iri);
+        router.finish();
+        Assert.assertEquals(List.of(literal), literals.triples);
+        Assert.assertEquals(List.of(iri), others.triples);
+    }
+
+    protected static class RecordingStream extends AsyncStreamRDFDecoratorTest.RecordingStream {
+        protected List<Quad> quads = new ArrayList<>();
+        protected int bases = 0;
+
+        @Override
+        public void quad(Quad quad) {
+            quads.add(quad);
+        }
+
+        @Override
+        public void base(String base) {
+            ++bases;
+        }
+    }
+}
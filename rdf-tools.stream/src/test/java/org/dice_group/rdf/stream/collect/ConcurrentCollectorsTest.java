@@ -0,0 +1,102 @@
+package org.dice_group.rdf.stream.collect;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.apache.jena.graph.NodeFactory;
+import org.apache.jena.graph.Triple;
+import org.apache.jena.riot.system.StreamRDF;
+import org.dice_research.rdf.stream.collect.ConcurrentRDFStreamCollector;
+import org.dice_research.rdf.stream.collect.ConcurrentRDFStreamGroupByCollector;
+import org.dice_research.rdf.stream.collect.RDFStreamGroupByCollector;
+import org.dice_research.rdf.stream.collect.ThreadLocalRDFStreamGroupByCollector;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Feeds the concurrent collectors from several threads at the same time and
+ * checks that no update is lost. Only a few keys are used to provoke
+ * contention.
+ */
+public class ConcurrentCollectorsTest {
+
+    private static final int NUMBER_OF_THREADS = 8;
+    private static final int TRIPLES_PER_THREAD = 20000;
+    private static final int NUMBER_OF_KEYS = 3;
+
+    @Test
+    public void testCollector() throws Exception {
+        Set<String> collected = new HashSet<>();
+        // Use an odd buffer size to make sure that the last buffers are not full
+        ConcurrentRDFStreamCollector<String> collector = new ConcurrentRDFStreamCollector<>(
+                t -> t.getObject().getURI(), collected, 999);
+        feed(collector);
+        Assert.assertEquals(NUMBER_OF_THREADS * TRIPLES_PER_THREAD, collected.size());
+    }
+
+    @Test
+    public void testConcurrentGroupBy() throws Exception {
+        testGroupBy(new ConcurrentRDFStreamGroupByCollector<>(t -> t.getSubject().getURI(),
+                t -> t.getObject().getURI(), ArrayList::new));
+    }
+
+    @Test
+    public void testThreadLocalGroupBy() throws Exception {
+        testGroupBy(new ThreadLocalRDFStreamGroupByCollector<>(t -> t.getSubject().getURI(),
+                t -> t.getObject().getURI(), ArrayList::new));
+    }
+
+    protected void testGroupBy(RDFStreamGroupByCollector<String, String, List<String>> collector) throws Exception {
+        feed(collector);
+        Map<String, List<String>> data = collector.getCollectedData();
+        Assert.assertEquals(NUMBER_OF_KEYS, data.size());
+        Set<String> values = new HashSet<>();
+        int count = 0;
+        for (List<String> list : data.values()) {
+            values.addAll(list);
+            count += list.size();
+        }
+        // Every value is unique, so neither values nor duplicates may appear
+        Assert.assertEquals(NUMBER_OF_THREADS * TRIPLES_PER_THREAD, count);
+        Assert.assertEquals(NUMBER_OF_THREADS * TRIPLES_PER_THREAD, values.size());
+    }
+
+    /**
+     * Sends triples with unique objects from several threads to the given stream
+     * and calls its {@link StreamRDF#finish()} method after all threads are done.
+     */
+    protected void feed(StreamRDF stream) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(NUMBER_OF_THREADS);
+        CountDownLatch startSignal = new CountDownLatch(1);
+        try {
+            stream.start();
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < NUMBER_OF_THREADS; ++t) {
+                final int threadId = t;
+                futures.add(executor.submit(() -> {
+                    startSignal.await();
+                    for (int i = 0; i < TRIPLES_PER_THREAD; ++i) {
+                        stream.triple(Triple.create(NodeFactory.createURI("http://example.org/s" + (i % NUMBER_OF_KEYS)),
+                                NodeFactory.createURI("http://example.org/p"),
+                                NodeFactory.createURI("http://example.org/o" + threadId + "_" + i)));
+                    }
+                    return null;
+                }));
+            }
+            startSignal.countDown();
+            for (Future<?> future : futures) {
+                future.get();
+            }
+            stream.finish();
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
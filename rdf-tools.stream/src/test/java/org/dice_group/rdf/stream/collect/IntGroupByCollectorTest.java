@@ -0,0 +1,72 @@
+package org.dice_group.rdf.stream.collect;
+
+import org.apache.jena.graph.NodeFactory;
+import org.apache.jena.graph.Triple;
+import org.dice_research.rdf.stream.collect.IntGroupByCollector;
+import org.dice_research.rdf.stream.collect.LongGroupByCollector;
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.carrotsearch.hppc.IntArrayList;
+import com.carrotsearch.hppc.IntOpenHashSet;
+import com.carrotsearch.hppc.LongOpenHashSet;
+
+public class IntGroupByCollectorTest {
+
+    /**
+     * Triples with subjects and objects that have numbers as local names.
+     */
+    private static final Triple[] TRIPLES = new Triple[] { create(1, 10), create(1, 11), create(2, 10),
+            create(1, 10), create(3, 12) };
+
+    private static Triple create(int s, int o) {
+        return Triple.create(NodeFactory.createURI("http://example.org/" + s),
+                NodeFactory.createURI("http://example.org/p"), NodeFactory.createURI("http://example.org/" + o));
+    }
+
+    private static int localName(String iri) {
+        return Integer.parseInt(iri.substring(iri.lastIndexOf('/') + 1));
+    }
+
+    @Test
+    public void testSets() {
+        IntGroupByCollector<IntOpenHashSet> collector = IntGroupByCollector.sets(
+                t -> localName(t.getSubject().getURI()), t -> localName(t.getObject().getURI()));
+        for (Triple t : TRIPLES) {
+            collector.triple(t);
+        }
+        Assert.assertEquals(3, collector.getCollectedData().size());
+        IntOpenHashSet values = collector.getCollectedData().get(1);
+        Assert.assertEquals(2, values.size());
+        Assert.assertTrue(values.contains(10));
+        Assert.assertTrue(values.contains(11));
+        Assert.assertEquals(1, collector.getCollectedData().get(2).size());
+        Assert.assertTrue(collector.getCollectedData().get(3).contains(12));
+    }
+
+    @Test
+    public void testLists() {
+        IntGroupByCollector<IntArrayList> collector = IntGroupByCollector.lists(
+                t -> localName(t.getSubject().getURI()), t -> localName(t.getObject().getURI()));
+        for (Triple t : TRIPLES) {
+            collector.triple(t);
+        }
+        Assert.assertEquals(3, collector.getCollectedData().size());
+        // Lists keep duplicates and the order of the values
+        Assert.assertArrayEquals(new int[] { 10, 11, 10 }, collector.getCollectedData().get(1).toArray());
+        Assert.assertArrayEquals(new int[] { 10 }, collector.getCollectedData().get(2).toArray());
+    }
+
+    @Test
+    public void testLongSets() {
+        // Shift the keys beyond the int range
+        LongGroupByCollector<LongOpenHashSet> collector = LongGroupByCollector.sets(
+                t -> ((long) localName(t.getSubject().getURI())) << 32, t -> localName(t.getObject().getURI()));
+        for (Triple t : TRIPLES) {
+            collector.triple(t);
+        }
+        Assert.assertEquals(3, collector.getCollectedData().size());
+        Assert.assertEquals(2, collector.getCollectedData().get(1L << 32).size());
+        Assert.assertTrue(collector.getCollectedData().get(3L << 32).contains(12L));
+    }
+}
@@ -0,0 +1,96 @@
+package org.dice_group.rdf.stream.collect;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.NodeFactory;
+import org.apache.jena.graph.Triple;
+import org.dice_research.rdf.stream.collect.GroupedReservoirSamplingCollector;
+import org.dice_research.rdf.stream.collect.ReservoirSamplingCollector;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class ReservoirSamplingCollectorTest {
+
+    private static List<Triple> createTriples() {
+        List<Triple> triples = new ArrayList<>();
+        Node o = NodeFactory.createLiteral("o");
+        for (int i = 0; i < 1000; ++i) {
+            triples.add(Triple.create(NodeFactory.createURI("http://example.org/s" + i),
+                    NodeFactory.createURI("http://example.org/p" + (i % 3)), o));
+        }
+        return triples;
+    }
+
+    @Test
+    public void testGlobalSample() {
+        List<Triple> triples = createTriples();
+        ReservoirSamplingCollector<String> collector1 = new ReservoirSamplingCollector<>(
+                t -> t.getSubject().getURI(), 10, 1);
+        ReservoirSamplingCollector<String> collector2 = new ReservoirSamplingCollector<>(
+                t -> t.getSubject().getURI(), 10, 1);
+        for (Triple t : triples) {
+            collector1.triple(t);
+            collector2.triple(t);
+        }
+        List<String> sample = collector1.getSampledElements();
+        Assert.assertEquals(10, sample.size());
+        Assert.assertEquals(10, new HashSet<>(sample).size());
+        // The same seed leads to the same sample
+        Assert.assertEquals(sample, collector2.getSampledElements());
+
+        // Merge the samples of two parts of the stream
+        ReservoirSamplingCollector<String> part1 = new ReservoirSamplingCollector<>(t -> t.getSubject().getURI(), 10,
+                2);
+        ReservoirSamplingCollector<String> part2 = new ReservoirSamplingCollector<>(t -> t.getSubject().getURI(), 10,
+                3);
+        for (int i = 0; i < triples.size(); ++i) {
+            ((i < 500) ? part1 : part2).triple(triples.get(i));
+        }
+        part1.merge(part2);
+        Assert.assertEquals(10, part1.getSampledElements().size());
+        Assert.assertEquals(1000, part1.getSample().getCount());
+    }
+
+    @Test
+    public void testWeightedSample() {
+        // Only subjects with an even number have a weight > 0
+        ReservoirSamplingCollector<String> collector = new ReservoirSamplingCollector<>(t -> t.getSubject().getURI(),
+                t -> (Integer.parseInt(t.getSubject().getURI().substring(20)) % 2 == 0) ? 1 : 0, 50, 7);
+        createTriples().forEach(collector::triple);
+        List<String> sample = collector.getSampledElements();
+        Assert.assertEquals(50, sample.size());
+        for (String s : sample) {
+            Assert.assertTrue(s, Integer.parseInt(s.substring(20)) % 2 == 0);
+        }
+    }
+
+    @Test
+    public void testGroupedSample() {
+        GroupedReservoirSamplingCollector<String, String> collector = new GroupedReservoirSamplingCollector<>(
+                t -> t.getPredicate().getURI(), t -> t.getSubject().getURI(), 5, 42);
+        GroupedReservoirSamplingCollector<String, String> other = new GroupedReservoirSamplingCollector<>(
+                t -> t.getPredicate().getURI(), t -> t.getSubject().getURI(), 5, 43);
+        List<Triple> triples = createTriples();
+        for (int i = 0; i < triples.size(); ++i) {
+            ((i < 800) ? collector : other).triple(triples.get(i));
+        }
+        collector.merge(other);
+        Map<String, List<String>> samples = collector.getSampledValues();
+        Assert.assertEquals(3, samples.size());
+        for (int p = 0; p < 3; ++p) {
+            List<String> sample = samples.get("http://example.org/p" + p);
+            Assert.assertEquals(5, sample.size());
+            Set<String> distinct = new HashSet<>(sample);
+            Assert.assertEquals(5, distinct.size());
+            for (String s : sample) {
+                // All values belong to the key
+                Assert.assertEquals(p, Integer.parseInt(s.substring(20)) % 3);
+            }
+        }
+    }
+}
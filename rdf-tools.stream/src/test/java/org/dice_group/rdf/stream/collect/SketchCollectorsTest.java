@@ -0,0 +1,59 @@
+package org.dice_group.rdf.stream.collect;
+
+import java.util.List;
+import java.util.Map.Entry;
+
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.NodeFactory;
+import org.apache.jena.graph.Triple;
+import org.dice_research.rdf.stream.collect.DistinctCountCollector;
+import org.dice_research.rdf.stream.collect.HeavyHitterCollector;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class SketchCollectorsTest {
+
+    private static Triple create(int s, int p, int o) {
+        return Triple.create(NodeFactory.createURI("http://example.org/s" + s),
+                NodeFactory.createURI("http://example.org/p" + p), NodeFactory.createLiteral(Integer.toString(o)));
+    }
+
+    @Test
+    public void testDistinctCount() {
+        // Count distinct subjects per predicate and feed two collectors (as two
+        // threads would do)
+        DistinctCountCollector<Node> collector1 = new DistinctCountCollector<>(Triple::getPredicate,
+                Triple::getSubject);
+        DistinctCountCollector<Node> collector2 = new DistinctCountCollector<>(Triple::getPredicate,
+                Triple::getSubject);
+        for (int i = 0; i < 20000; ++i) {
+            // p0 has 20000 distinct subjects, p1 has 100
+            collector1.triple(create(i, 0, i));
+            collector2.triple(create(i % 100, 1, i));
+            // Both collectors see the subjects 0-99 for p1
+            collector1.triple(create(i % 100, 1, i));
+        }
+        collector1.merge(collector2);
+        Node p0 = NodeFactory.createURI("http://example.org/p0");
+        Node p1 = NodeFactory.createURI("http://example.org/p1");
+        Assert.assertEquals(20000, collector1.getEstimate(p0), 20000 * 0.06);
+        Assert.assertEquals(100, collector1.getEstimate(p1), 6);
+        Assert.assertEquals(0, collector1.getEstimate(NodeFactory.createURI("http://example.org/p2")));
+        Assert.assertEquals(2, collector1.getEstimates().size());
+    }
+
+    @Test
+    public void testHeavyHitters() {
+        HeavyHitterCollector collector = new HeavyHitterCollector(Triple::getPredicate, 2);
+        for (int i = 0; i < 10000; ++i) {
+            // p0 and p1 are the most frequent predicates
+            collector.triple(create(i, i % 4 == 0 ? 0 : 1, i));
+            collector.triple(create(i, 2 + (i % 1000), i));
+        }
+        List<Entry<Node, Long>> topK = collector.getTopK();
+        Assert.assertEquals(2, topK.size());
+        Assert.assertEquals(NodeFactory.createURI("http://example.org/p1"), topK.get(0).getKey());
+        Assert.assertEquals(NodeFactory.createURI("http://example.org/p0"), topK.get(1).getKey());
+        Assert.assertTrue(topK.get(0).getValue() >= 7500);
+    }
+}
@@ -0,0 +1,135 @@
+package org.dice_group.rdf.stream.collect;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.stream.Stream;
+
+import org.apache.jena.graph.NodeFactory;
+import org.apache.jena.graph.Triple;
+import org.dice_research.rdf.stream.collect.SpillingGroupByCollector;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class SpillingGroupByCollectorTest {
+
+    private static final int NUMBER_OF_TRIPLES = 20000;
+
+    protected List<Triple> createTriples(long seed) {
+        Random random = new Random(seed);
+        List<Triple> triples = new ArrayList<>();
+        for (int i = 0; i < NUMBER_OF_TRIPLES; ++i) {
+            triples.add(Triple.create(NodeFactory.createURI("http://example.org/s" + random.nextInt(2000)),
+                    NodeFactory.createURI("http://example.org/p" + random.nextInt(20)),
+                    NodeFactory.createURI("http://example.org/o" + random.nextInt(100))));
+        }
+        return triples;
+    }
+
+    @Test
+    public void testSpillingAndMerging() {
+        List<Triple> triples = createTriples(42);
+        // Expected groups (sorted by key and value)
+        Map<String, TreeSet<String>> expected = new TreeMap<>();
+        for (Triple t : triples) {
+            expected.computeIfAbsent(t.getPredicate().getURI(), k -> new TreeSet<>()).add(t.getSubject().getURI());
+        }
+
+        List<String> keys = new ArrayList<>();
+        Map<String, List<String>> groups = new HashMap<>();
+        // A small budget and fan-in to force several runs and intermediate merges
+        try (SpillingGroupByCollector collector = new SpillingGroupByCollector(t -> t.getPredicate().getURI(),
+                t -> t.getSubject().getURI(), (key, values) -> {
+                    keys.add(key);
+                    List<String> list = new ArrayList<>();
+                    values.forEachRemaining(list::add);
+                    groups.put(key, list);
+                }, 50000)) {
+            collector.setMaxFanIn(3);
+            // Nested start and finish calls (as they happen if a parser is used)
+            collector.start();
+            collector.start();
+            for (Triple t : triples) {
+                collector.triple(t);
+            }
+            collector.finish();
+            Assert.assertTrue(keys.isEmpty());
+            Assert.assertTrue(collector.getNumberOfRuns() > 3);
+            collector.finish();
+        }
+
+        Assert.assertEquals(new ArrayList<>(expected.keySet()), keys);
+        for (String key : expected.keySet()) {
+            Assert.assertEquals(new ArrayList<>(expected.get(key)), groups.get(key));
+        }
+    }
+
+    @Test
+    public void testFailingSpill() throws IOException {
+        Path directory = Files.createTempDirectory("SpillingGroupByCollectorTest");
+        // The run "file" is a directory, i.e., writing the run fails after it has
+        // been created
+        try (SpillingGroupByCollector collector = new SpillingGroupByCollector(t -> t.getPredicate().getURI(),
+                t -> t.getSubject().getURI(), (key, values) -> {
+                }, 1) {
+            @Override
+            protected File createRunFile() throws IOException {
+                return Files.createTempDirectory(directory, "groupby-run-").toFile();
+            }
+        }) {
+            try {
+                collector.add("key", "value");
+                Assert.fail("Expected an UncheckedIOException.");
+            } catch (UncheckedIOException e) {
+                // expected
+            }
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            Assert.assertEquals(0, files.count());
+        }
+        Files.delete(directory);
+    }
+
+    @Test
+    public void testPartialConsumptionAndDuplicates() {
+        List<Triple> triples = createTriples(23);
+        Map<String, Integer> expectedCounts = new TreeMap<>();
+        for (Triple t : triples) {
+            expectedCounts.merge(t.getPredicate().getURI(), 1, Integer::sum);
+        }
+        try (SpillingGroupByCollector collector = new SpillingGroupByCollector(t -> t.getPredicate().getURI(),
+                t -> t.getSubject().getURI(), null, 20000)) {
+            collector.setDistinctValues(false);
+            for (Triple t : triples) {
+                collector.triple(t);
+            }
+            // Consume only the first value of each group
+            List<String> keys = new ArrayList<>();
+            collector.merge((key, values) -> {
+                keys.add(key);
+                values.next();
+            });
+            Assert.assertEquals(new ArrayList<>(expectedCounts.keySet()), keys);
+            // A second merge with all duplicates
+            Map<String, Integer> counts = new TreeMap<>();
+            collector.merge((key, values) -> {
+                int count = 0;
+                for (Iterator<String> iterator = values; iterator.hasNext(); iterator.next()) {
+                    ++count;
+                }
+                counts.put(key, count);
+            });
+            Assert.assertEquals(expectedCounts, counts);
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package org.dice_group.rdf.stream.dict;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.apache.jena.datatypes.xsd.XSDDatatype;
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.NodeFactory;
+import org.apache.jena.graph.Triple;
+import org.dice_research.rdf.stream.collect.RDFStreamIdCollector;
+import org.dice_research.rdf.stream.collect.RDFStreamIdGroupByCollector;
+import org.dice_research.rdf.stream.dict.ByteArena;
+import org.dice_research.rdf.stream.dict.NodeDictionary;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class NodeDictionaryTest {
+
+    @Test
+    public void testStringsAndNodes() {
+        // Use small pages to make sure that several pages are used
+        NodeDictionary dictionary = new NodeDictionary(4, new ByteArena(64));
+        List<String> iris = new ArrayList<>();
+        for (int i = 0; i < 1000; ++i) {
+            iris.add("http://example.org/resource/ä" + i);
+        }
+        for (int i = 0; i < iris.size(); ++i) {
+            Assert.assertEquals(i, dictionary.getOrAddId(iris.get(i)));
+        }
+        Assert.assertEquals(iris.size(), dictionary.size());
+        for (int i = 0; i < iris.size(); ++i) {
+            Assert.assertEquals(i, dictionary.getId(iris.get(i)));
+            Assert.assertEquals(i, dictionary.getId(NodeFactory.createURI(iris.get(i))));
+            Assert.assertEquals(iris.get(i), dictionary.getString(i));
+            Assert.assertEquals(NodeFactory.createURI(iris.get(i)), dictionary.getNode(i));
+        }
+        Assert.assertEquals(NodeDictionary.NO_ID, dictionary.getId("http://example.org/unknown"));
+
+        // Literals are not mixed up with Strings
+        Node literal = NodeFactory.createLiteral("http://example.org/resource/ä0");
+        Node typedLiteral = NodeFactory.createLiteral("42", XSDDatatype.XSDinteger);
+        Node langLiteral = NodeFactory.createLiteral("chat", "fr");
+        int literalId = dictionary.getOrAddId(literal);
+        Assert.assertNotEquals(0, literalId);
+        Assert.assertEquals(literal, dictionary.getNode(literalId));
+        Assert.assertEquals(typedLiteral, dictionary.getNode(dictionary.getOrAddId(typedLiteral)));
+        Assert.assertEquals(langLiteral, dictionary.getNode(dictionary.getOrAddId(langLiteral)));
+        Assert.assertEquals(literalId, dictionary.getId(literal));
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testUnknownId() {
+        new NodeDictionary().getString(0);
+    }
+
+    @Test
+    public void testConcurrentAdding() throws Exception {
+        final NodeDictionary dictionary = new NodeDictionary(16);
+        final int numberOfStrings = 20000;
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<int[]>> futures = new ArrayList<>();
+            for (int t = 0; t < 4; ++t) {
+                futures.add(executor.submit(() -> {
+                    int[] ids = new int[numberOfStrings];
+                    for (int i = 0; i < numberOfStrings; ++i) {
+                        ids[i] = dictionary.getOrAddId("http://example.org/" + i);
+                    }
+                    return ids;
+                }));
+            }
+            int[] expected = futures.get(0).get();
+            for (Future<int[]> future : futures) {
+                Assert.assertArrayEquals(expected, future.get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+        Assert.assertEquals(numberOfStrings, dictionary.size());
+        for (int i = 0; i < numberOfStrings; ++i) {
+            String iri = "http://example.org/" + i;
+            Assert.assertEquals(iri, dictionary.getString(dictionary.getId(iri)));
+        }
+    }
+
+    @Test
+    public void testCollectors() {
+        NodeDictionary dictionary = new NodeDictionary();
+        RDFStreamIdCollector collector = new RDFStreamIdCollector(dictionary, t -> t.getSubject());
+        RDFStreamIdGroupByCollector groupBy = new RDFStreamIdGroupByCollector(dictionary, t -> t.getSubject(),
+                t -> t.getObject());
+        Node s1 = NodeFactory.createURI("http://example.org/s1");
+        Node s2 = NodeFactory.createURI("http://example.org/s2");
+        Node p = NodeFactory.createURI("http://example.org/p");
+        Node o1 = NodeFactory.createURI("http://example.org/o1");
+        Node o2 = NodeFactory.createURI("http://example.org/o2");
+        Triple[] triples = new Triple[] { Triple.create(s1, p, o1), Triple.create(s1, p, o2),
+                Triple.create(s2, p, o1), Triple.create(s1, p, o1) };
+        for (Triple t : triples) {
+            collector.triple(t);
+            groupBy.triple(t);
+        }
+        Assert.assertEquals(2, collector.getCollectedIds().size());
+        Assert.assertTrue(collector.contains(s1));
+        Assert.assertTrue(collector.contains(s2));
+        Assert.assertFalse(collector.contains(o1));
+        Assert.assertFalse(collector.contains(NodeFactory.createURI("http://example.org/unknown")));
+
+        Assert.assertEquals(2, groupBy.getCollectedData().size());
+        Assert.assertEquals(2, groupBy.getCollectedData().get(dictionary.getId(s1)).size());
+        Assert.assertTrue(groupBy.getCollectedData().get(dictionary.getId(s1)).contains(dictionary.getId(o2)));
+        Assert.assertEquals(1, groupBy.getCollectedData().get(dictionary.getId(s2)).size());
+    }
+}
@@ -0,0 +1,105 @@
+package org.dice_group.rdf.stream.dict;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.jena.datatypes.xsd.XSDDatatype;
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.NodeFactory;
+import org.apache.jena.graph.Triple;
+import org.dice_research.rdf.stream.collect.LongGroupByCollector;
+import org.dice_research.rdf.stream.collect.OffHeapRDFStreamCollector;
+import org.dice_research.rdf.stream.dict.OffHeapStringArena;
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.carrotsearch.hppc.LongOpenHashSet;
+
+public class OffHeapStringArenaTest {
+
+    @Test
+    public void testStringsAndNodes() {
+        List<String> iris = new ArrayList<>();
+        for (int i = 0; i < 1000; ++i) {
+            iris.add("http://example.org/resource/ä" + i);
+        }
+        List<Long> handles = new ArrayList<>();
+        // Use small pages to make sure that several pages are used
+        try (OffHeapStringArena arena = new OffHeapStringArena(4, 64)) {
+            for (String iri : iris) {
+                handles.add(arena.getOrAddHandle(iri));
+            }
+            Assert.assertEquals(iris.size(), arena.size());
+            for (int i = 0; i < iris.size(); ++i) {
+                Assert.assertEquals(handles.get(i).longValue(), arena.getOrAddHandle(iris.get(i)));
+                Assert.assertEquals(handles.get(i).longValue(), arena.getHandle(NodeFactory.createURI(iris.get(i))));
+                Assert.assertEquals(iris.get(i), arena.getString(handles.get(i)));
+                Assert.assertEquals(NodeFactory.createURI(iris.get(i)), arena.getNode(handles.get(i)));
+            }
+            Assert.assertEquals(iris.size(), arena.size());
+            Assert.assertEquals(OffHeapStringArena.NO_HANDLE, arena.getHandle("http://example.org/unknown"));
+            Assert.assertTrue(arena.allocatedBytes() >= arena.usedBytes());
+
+            // Literals are not mixed up with Strings
+            Node literal = NodeFactory.createLiteral("http://example.org/resource/ä0");
+            Node typedLiteral = NodeFactory.createLiteral("42", XSDDatatype.XSDinteger);
+            Node langLiteral = NodeFactory.createLiteral("chat", "fr");
+            long literalHandle = arena.getOrAddHandle(literal);
+            Assert.assertNotEquals(handles.get(0).longValue(), literalHandle);
+            Assert.assertEquals(literal, arena.getNode(literalHandle));
+            Assert.assertEquals(typedLiteral, arena.getNode(arena.getOrAddHandle(typedLiteral)));
+            Assert.assertEquals(langLiteral, arena.getNode(arena.getOrAddHandle(langLiteral)));
+            Assert.assertEquals(literalHandle, arena.getHandle(literal));
+
+            // All entries are iterated in the order in which they have been added
+            List<String> entries = new ArrayList<>();
+            arena.forEach(entries::add);
+            Assert.assertEquals(iris.size() + 3, entries.size());
+            Assert.assertEquals(iris, entries.subList(0, iris.size()));
+        }
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testClosedArena() {
+        OffHeapStringArena arena = new OffHeapStringArena();
+        arena.getOrAddHandle("http://example.org/a");
+        arena.close();
+        Assert.assertEquals(0, arena.allocatedBytes());
+        arena.getHandle("http://example.org/a");
+    }
+
+    @Test
+    public void testCollectors() {
+        Node p1 = NodeFactory.createURI("http://example.org/p1");
+        Node p2 = NodeFactory.createURI("http://example.org/p2");
+        Node s1 = NodeFactory.createURI("http://example.org/s1");
+        Node s2 = NodeFactory.createURI("http://example.org/s2");
+        Node o = NodeFactory.createLiteral("o");
+        List<Triple> triples = List.of(Triple.create(s1, p1, o), Triple.create(s2, p1, o), Triple.create(s1, p2, o),
+                Triple.create(s1, p1, o));
+
+        try (OffHeapRDFStreamCollector collector = new OffHeapRDFStreamCollector(Triple::getSubject)) {
+            collector.start();
+            triples.forEach(collector::triple);
+            collector.finish();
+            Assert.assertEquals(2, collector.getArena().size());
+            Assert.assertTrue(collector.contains(s1));
+            Assert.assertTrue(collector.contains(s2));
+            Assert.assertFalse(collector.contains(p1));
+        }
+
+        // Handles can be grouped with the primitive group-by collector
+        try (OffHeapStringArena arena = new OffHeapStringArena()) {
+            LongGroupByCollector<LongOpenHashSet> collector = LongGroupByCollector
+                    .sets(arena.handleFunction(Triple::getPredicate), arena.handleFunction(Triple::getSubject));
+            collector.start();
+            triples.forEach(collector::triple);
+            collector.finish();
+            Map<String, Set<String>> groups = arena.decodeGroups(collector.getCollectedData());
+            Assert.assertEquals(Map.of(p1.getURI(), Set.of(s1.getURI(), s2.getURI()), p2.getURI(),
+                    Set.of(s1.getURI())), groups);
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package org.dice_group.rdf.stream.filter;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Predicate;
+
+import org.dice_research.rdf.stream.filter.ConcurrentSamplingFilter;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class ConcurrentSamplingFilterTest {
+
+    private static final int NUMBER_OF_PARTITIONS = 8;
+    private static final int PARTITION_SIZE = 100000;
+
+    /**
+     * Samples the partitions in parallel and returns the IDs of the chosen
+     * elements of each partition.
+     */
+    private static List<List<Integer>> sample(ConcurrentSamplingFilter<Integer> filter) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(NUMBER_OF_PARTITIONS);
+        try {
+            List<Future<List<Integer>>> futures = new ArrayList<>();
+            for (int p = 0; p < NUMBER_OF_PARTITIONS; ++p) {
+                Predicate<Integer> predicate = filter.partition(p);
+                futures.add(executor.submit(() -> {
+                    List<Integer> chosen = new ArrayList<>();
+                    for (int i = 0; i < PARTITION_SIZE; ++i) {
+                        if (predicate.test(i)) {
+                            chosen.add(i);
+                        }
+                    }
+                    return chosen;
+                }));
+            }
+            List<List<Integer>> results = new ArrayList<>();
+            for (Future<List<Integer>> future : futures) {
+                results.add(future.get());
+            }
+            return results;
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testDeterminism() throws Exception {
+        List<List<Integer>> results1 = sample(new ConcurrentSamplingFilter<>(0.1, 42));
+        List<List<Integer>> results2 = sample(new ConcurrentSamplingFilter<>(0.1, 42));
+        Assert.assertEquals(results1, results2);
+        long sum = 0;
+        for (List<Integer> result : results1) {
+            sum += result.size();
+        }
+        double expected = 0.1 * NUMBER_OF_PARTITIONS * PARTITION_SIZE;
+        Assert.assertEquals(expected, sum, expected * 0.05);
+        // Different partitions are sampled differently
+        Assert.assertNotEquals(results1.get(0), results1.get(1));
+    }
+
+    @Test
+    public void testMaximum() throws Exception {
+        ConcurrentSamplingFilter<Integer> filter = new ConcurrentSamplingFilter<>(0.5, 1000, 42);
+        long sum = 0;
+        for (List<Integer> result : sample(filter)) {
+            sum += result.size();
+        }
+        Assert.assertEquals(1000, sum);
+        Assert.assertEquals(1000, filter.getNumberOfChosen());
+        Assert.assertFalse(filter.test(0));
+    }
+}
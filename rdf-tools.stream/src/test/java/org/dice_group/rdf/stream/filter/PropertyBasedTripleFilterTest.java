@@ -0,0 +1,67 @@
+package org.dice_group.rdf.stream.filter;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.NodeFactory;
+import org.apache.jena.graph.Triple;
+import org.dice_research.rdf.stream.filter.PropertyBasedTripleFilter;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class PropertyBasedTripleFilterTest {
+
+    private static final Node S = NodeFactory.createURI("http://example.org/s");
+    private static final Node O = NodeFactory.createURI("http://example.org/o");
+
+    @Test
+    public void testSingleProperty() {
+        PropertyBasedTripleFilter filter = new PropertyBasedTripleFilter("http://example.org/p1");
+        Node p1 = NodeFactory.createURI("http://example.org/p1");
+        Assert.assertTrue(filter.test(Triple.create(S, p1, O)));
+        // A different instance of the same IRI
+        Assert.assertTrue(filter.test(Triple.create(S, NodeFactory.createURI("http://example.org/p1"), O)));
+        Assert.assertFalse(filter.test(Triple.create(S, NodeFactory.createURI("http://example.org/p2"), O)));
+        // Predicates that are not IRIs are rejected
+        Assert.assertFalse(filter.test(Triple.create(S, NodeFactory.createVariable("p1"), O)));
+        Assert.assertFalse(filter.test(Triple.create(S, NodeFactory.createBlankNode("p1"), O)));
+    }
+
+    @Test
+    public void testMultipleProperties() {
+        PropertyBasedTripleFilter filter = new PropertyBasedTripleFilter("http://example.org/p1",
+                "http://example.org/p2");
+        Assert.assertTrue(filter.test(Triple.create(S, NodeFactory.createURI("http://example.org/p1"), O)));
+        Assert.assertTrue(filter.test(Triple.create(S, NodeFactory.createURI("http://example.org/p2"), O)));
+        Assert.assertFalse(filter.test(Triple.create(S, NodeFactory.createURI("http://example.org/p3"), O)));
+        Assert.assertFalse(filter.test(Triple.create(S, NodeFactory.createVariable("p1"), O)));
+    }
+
+    @Test
+    public void testNoProperty() {
+        PropertyBasedTripleFilter filter = new PropertyBasedTripleFilter();
+        Assert.assertFalse(filter.test(Triple.create(S, NodeFactory.createURI("http://example.org/p1"), O)));
+    }
+
+    @Test
+    public void testChangingProperties() {
+        PropertyBasedTripleFilter filter = new PropertyBasedTripleFilter("http://example.org/p1");
+        Triple t1 = Triple.create(S, NodeFactory.createURI("http://example.org/p1"), O);
+        Triple t2 = Triple.create(S, NodeFactory.createURI("http://example.org/p2"), O);
+        try {
+            filter.getAcceptedProperties().add("http://example.org/p2");
+            Assert.fail("The accepted properties should not be modifiable.");
+        } catch (UnsupportedOperationException e) {
+            // expected
+        }
+        filter.setAcceptedProperties(new HashSet<>(Arrays.asList("http://example.org/p1", "http://example.org/p2")));
+        Assert.assertTrue(filter.test(t1));
+        Assert.assertTrue(filter.test(t2));
+        filter.setAcceptedProperties(Collections.singleton("http://example.org/p2"));
+        Assert.assertFalse(filter.test(t1));
+        Assert.assertTrue(filter.test(t2));
+        Assert.assertEquals(Collections.singleton("http://example.org/p2"), filter.getAcceptedProperties());
+    }
+}
@@ -0,0 +1,125 @@
+package org.dice_group.rdf.stream.filter.node;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.NodeFactory;
+import org.apache.jena.graph.Triple;
+import org.dice_research.java.sketch.BlockedBloomFilter;
+import org.dice_research.rdf.stream.collect.BloomFilterCollector;
+import org.dice_research.rdf.stream.dict.SortedIriTable;
+import org.dice_research.rdf.stream.filter.node.BloomFilterNodeFilter;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class BloomFilterNodeFilterTest {
+
+    private static final int NUMBER_OF_IRIS = 100000;
+    private static final double FPP = 0.01;
+
+    private static List<String> createIris(String prefix, int count) {
+        List<String> iris = new ArrayList<>(count);
+        for (int i = 0; i < count; ++i) {
+            iris.add(prefix + i);
+        }
+        return iris;
+    }
+
+    @Test
+    public void testBloomFilter() {
+        List<String> iris = createIris("http://example.org/stmt", NUMBER_OF_IRIS);
+        BloomFilterNodeFilter filter = BloomFilterNodeFilter.create(iris, FPP, false, true);
+        // There are no false negatives
+        for (String iri : iris) {
+            Assert.assertTrue(filter.test(NodeFactory.createURI(iri)));
+        }
+        // The rate of false positives is close to the configured rate
+        int falsePositives = 0;
+        for (String iri : createIris("http://example.org/other", NUMBER_OF_IRIS)) {
+            if (filter.test(NodeFactory.createURI(iri))) {
+                ++falsePositives;
+            }
+        }
+        Assert.assertTrue("Too many false positives: " + falsePositives, falsePositives < NUMBER_OF_IRIS * FPP * 2);
+        // The filter needs much less memory than the IRIs themselves
+        Assert.assertTrue(filter.getFilter().getNumberOfBits() < NUMBER_OF_IRIS * 12);
+    }
+
+    @Test
+    public void testExactTable() {
+        List<String> iris = createIris("http://example.org/stmt", NUMBER_OF_IRIS);
+        // Use a high false positive rate to make sure that the table is used
+        BloomFilterNodeFilter filter = BloomFilterNodeFilter.create(iris, 0.5, true, false);
+        for (String iri : iris) {
+            Assert.assertFalse(filter.test(NodeFactory.createURI(iri)));
+        }
+        for (String iri : createIris("http://example.org/other", NUMBER_OF_IRIS)) {
+            Assert.assertTrue(filter.test(NodeFactory.createURI(iri)));
+        }
+        Assert.assertTrue(filter.test(NodeFactory.createLiteral("http://example.org/stmt1")));
+    }
+
+    @Test
+    public void testLoadedTable() throws IOException {
+        List<String> iris = Arrays.asList("http://example.org/a", "http://example.org/b", "http://example.org/b/c",
+                "http://example.org/\u00e4", "http://example.org/\u00f6");
+        File file = File.createTempFile("SortedIriTable", ".txt");
+        file.deleteOnExit();
+        Files.write(file.toPath(), iris, StandardCharsets.UTF_8);
+        SortedIriTable table = SortedIriTable.load(file);
+        Assert.assertEquals(iris.size(), table.size());
+        for (String iri : iris) {
+            Assert.assertTrue(iri, table.contains(iri));
+        }
+        Assert.assertFalse(table.contains("http://example.org/"));
+        Assert.assertFalse(table.contains("http://example.org/c"));
+        Assert.assertFalse(table.contains("http://example.org/b/"));
+        // The result is the same as the result of a created table
+        SortedIriTable created = SortedIriTable.create(iris);
+        Assert.assertEquals(table.getDataSize(), created.getDataSize());
+
+        // Unsorted files are rejected
+        Files.write(file.toPath(), Arrays.asList("http://example.org/b", "http://example.org/a"),
+                StandardCharsets.UTF_8);
+        try {
+            SortedIriTable.load(file);
+            Assert.fail("Expected an exception for an unsorted file.");
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void testCollectorAndMerge() {
+        BlockedBloomFilter filter1 = BlockedBloomFilter.create(1000, FPP);
+        BlockedBloomFilter filter2 = BlockedBloomFilter.create(1000, FPP);
+        BloomFilterCollector collector1 = new BloomFilterCollector(Triple::getSubject, filter1);
+        BloomFilterCollector collector2 = new BloomFilterCollector(Triple::getSubject, filter2);
+        Node p = NodeFactory.createURI("http://example.org/p");
+        Node o = NodeFactory.createURI("http://example.org/o");
+        collector1.start();
+        collector2.start();
+        for (int i = 0; i < 1000; ++i) {
+            Triple t = Triple.create(NodeFactory.createURI("http://example.org/s" + i), p, o);
+            if ((i & 1) == 0) {
+                collector1.triple(t);
+            } else {
+                collector2.triple(t);
+            }
+        }
+        collector1.finish();
+        collector2.finish();
+        filter1.merge(filter2);
+        BloomFilterNodeFilter filter = new BloomFilterNodeFilter(filter1);
+        for (int i = 0; i < 1000; ++i) {
+            Assert.assertTrue(filter.test(NodeFactory.createURI("http://example.org/s" + i)));
+        }
+        Assert.assertFalse(filter.test(null));
+    }
+}
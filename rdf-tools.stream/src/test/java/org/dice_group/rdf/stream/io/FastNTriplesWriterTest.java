@@ -0,0 +1,107 @@
+package org.dice_group.rdf.stream.io;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.jena.datatypes.xsd.XSDDatatype;
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.NodeFactory;
+import org.apache.jena.graph.Triple;
+import org.apache.jena.riot.Lang;
+import org.apache.jena.riot.RDFParser;
+import org.apache.jena.vocabulary.RDF;
+import org.dice_research.rdf.stream.consume.RDFStreamTripleConsumer;
+import org.dice_research.rdf.stream.io.FastNTriplesWriter;
+import org.dice_research.rdf.stream.parse.RawLineTriple;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class FastNTriplesWriterTest {
+
+    private static List<Triple> createTriples() {
+        Node s = NodeFactory.createURI("http://example.org/s");
+        Node p = NodeFactory.createURI("http://example.org/p");
+        List<Triple> triples = new ArrayList<>();
+        for (int i = 0; i < 100; ++i) {
+            triples.add(Triple.create(NodeFactory.createURI("http://example.org/s" + i), RDF.type.asNode(),
+                    NodeFactory.createURI("http://example.org/Class" + (i % 5))));
+            triples.add(Triple.create(s, NodeFactory.createURI("http://example.org/p" + (i % 7)),
+                    NodeFactory.createLiteral("value " + i)));
+        }
+        triples.add(Triple.create(s, p, NodeFactory.createLiteral("a\"b\\c\nd\re\tf\u0001g")));
+        triples.add(Triple.create(s, p, NodeFactory.createLiteral("\u00e4\u20ac\uD83D\uDE00", "en-GB")));
+        triples.add(Triple.create(s, p, NodeFactory.createLiteral("42", XSDDatatype.XSDint)));
+        triples.add(Triple.create(s, p, NodeFactory.createLiteral("", XSDDatatype.XSDstring)));
+        triples.add(Triple.create(NodeFactory.createURI("http://example.org/\u00e4"), p,
+                NodeFactory.createURI("http://example.org/o#\uD83D\uDE00")));
+        return triples;
+    }
+
+    private static byte[] write(List<Triple> triples, int bufferSize, int cacheSize) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        FastNTriplesWriter writer = new FastNTriplesWriter(out, bufferSize, cacheSize);
+        writer.start();
+        triples.forEach(writer::triple);
+        writer.finish();
+        return out.toByteArray();
+    }
+
+    private static List<Triple> parse(byte[] data) {
+        List<Triple> triples = new ArrayList<>();
+        RDFParser.source(new ByteArrayInputStream(data)).lang(Lang.NT)
+                .parse(new RDFStreamTripleConsumer(triples::add));
+        return triples;
+    }
+
+    @Test
+    public void testRoundTrip() {
+        List<Triple> triples = createTriples();
+        byte[] data = write(triples, FastNTriplesWriter.DEFAULT_BUFFER_SIZE, FastNTriplesWriter.DEFAULT_CACHE_SIZE);
+        Assert.assertEquals(triples, parse(data));
+        // The cache and the buffer size must not change the output
+        Assert.assertArrayEquals(data, write(triples, 16, 0));
+        Assert.assertArrayEquals(data, write(triples, 7, 2));
+        Assert.assertTrue(new String(data, StandardCharsets.UTF_8).contains(
+                "<http://example.org/s> <http://example.org/p> \"42\"^^<http://www.w3.org/2001/XMLSchema#int> .\n"));
+    }
+
+    @Test
+    public void testBlankNodes() {
+        Node p = NodeFactory.createURI("http://example.org/p");
+        List<Triple> triples = new ArrayList<>();
+        triples.add(Triple.create(NodeFactory.createBlankNode("b-1"), p, NodeFactory.createBlankNode("b_1")));
+        triples.add(Triple.create(NodeFactory.createBlankNode("b_1"), p, NodeFactory.createBlankNode("b-1")));
+        List<Triple> result = parse(write(triples, 1024, 16));
+        Assert.assertEquals(2, result.size());
+        Assert.assertTrue(result.get(0).getSubject().isBlank());
+        Assert.assertEquals(result.get(0).getSubject(), result.get(1).getObject());
+        Assert.assertEquals(result.get(0).getObject(), result.get(1).getSubject());
+        Assert.assertNotEquals(result.get(0).getSubject(), result.get(0).getObject());
+    }
+
+    @Test
+    public void testPassthrough() throws IOException {
+        String line = "<http://example.org/s>   <http://example.org/p> \"\\u0041\" .";
+        Triple triple = new RawLineTriple(NodeFactory.createURI("http://example.org/s"),
+                NodeFactory.createURI("http://example.org/p"), NodeFactory.createLiteral("A"),
+                line.getBytes(StandardCharsets.UTF_8));
+        Triple modified = Triple.create(triple.getSubject(), triple.getPredicate(),
+                NodeFactory.createLiteral("B"));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (FastNTriplesWriter writer = new FastNTriplesWriter(out)) {
+            writer.start();
+            writer.triple(triple);
+            writer.triple(modified);
+            writer.setPassthrough(false);
+            writer.triple(triple);
+            writer.finish();
+        }
+        Assert.assertEquals(line + "\n" + "<http://example.org/s> <http://example.org/p> \"B\" .\n"
+                + "<http://example.org/s> <http://example.org/p> \"A\" .\n", out.toString(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,38 @@
+package org.dice_group.rdf.stream.io;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+
+import org.apache.jena.graph.NodeFactory;
+import org.apache.jena.graph.Triple;
+import org.dice_research.java.io.BlockCompression;
+import org.dice_research.rdf.stream.io.ParallelCompressedNTriplesSink;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class ParallelCompressedNTriplesSinkTest {
+
+    @Test
+    public void testUnmatchedFinish() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (ParallelCompressedNTriplesSink sink = new ParallelCompressedNTriplesSink(out, BlockCompression.GZIP)) {
+            sink.start();
+            sink.triple(Triple.create(NodeFactory.createURI("http://example.org/s"),
+                    NodeFactory.createURI("http://example.org/p"), NodeFactory.createURI("http://example.org/o")));
+            sink.finish();
+            try {
+                sink.finish();
+                Assert.fail("Expected an IllegalStateException.");
+            } catch (IllegalStateException e) {
+                // expected
+            }
+        }
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(out.toByteArray()))) {
+            Assert.assertEquals("<http://example.org/s> <http://example.org/p> <http://example.org/o> .\n",
+                    new String(in.readAllBytes(), StandardCharsets.UTF_8));
+        }
+    }
+}
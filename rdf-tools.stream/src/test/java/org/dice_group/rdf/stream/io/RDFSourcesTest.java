@@ -0,0 +1,224 @@
+package org.dice_group.rdf.stream.io;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.apache.jena.graph.NodeFactory;
+import org.apache.jena.graph.Triple;
+import org.apache.jena.riot.Lang;
+import org.apache.jena.riot.system.StreamRDF;
+import org.dice_research.java.io.CompressionFormat;
+import org.dice_research.rdf.stream.consume.RDFStreamTripleConsumer;
+import org.dice_research.rdf.stream.io.RDFSink;
+import org.dice_research.rdf.stream.io.RDFSinks;
+import org.dice_research.rdf.stream.io.RDFSource;
+import org.dice_research.rdf.stream.io.RDFSources;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class RDFSourcesTest {
+
+    private static List<Triple> createTriples(int first, int count) {
+        List<Triple> triples = new ArrayList<>();
+        for (int i = first; i < first + count; ++i) {
+            triples.add(Triple.create(NodeFactory.createURI("http://example.org/s" + i),
+                    NodeFactory.createURI("http://example.org/p" + (i % 3)),
+                    NodeFactory.createLiteral("value " + i)));
+        }
+        return triples;
+    }
+
+    private static String toNTriples(List<Triple> triples) {
+        StringBuilder builder = new StringBuilder();
+        for (Triple t : triples) {
+            builder.append('<').append(t.getSubject().getURI()).append("> <").append(t.getPredicate().getURI())
+                    .append("> \"").append(t.getObject().getLiteralLexicalForm()).append("\" .\n");
+        }
+        return builder.toString();
+    }
+
+    private static void write(Path file, String content, CompressionFormat compression) throws IOException {
+        try (OutputStream out = compression.compress(Files.newOutputStream(file))) {
+            out.write(content.getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    private static byte[] compress(byte[] data, CompressionFormat compression) throws IOException {
+        ByteArrayOutputStream bout = new ByteArrayOutputStream();
+        try (OutputStream out = compression.compress(bout)) {
+            out.write(data);
+        }
+        return bout.toByteArray();
+    }
+
+    @Test
+    public void testCompressionDetection() throws IOException {
+        byte[] data = "<http://example.org/s> <http://example.org/p> <http://example.org/o> .\n"
+                .getBytes(StandardCharsets.UTF_8);
+        Assert.assertEquals(CompressionFormat.NONE, CompressionFormat.detect(data));
+        Assert.assertEquals(CompressionFormat.GZIP, CompressionFormat.detect(compress(data, CompressionFormat.GZIP)));
+        Assert.assertEquals(CompressionFormat.BZIP2,
+                CompressionFormat.detect(compress(data, CompressionFormat.BZIP2)));
+        Assert.assertEquals(CompressionFormat.XZ, CompressionFormat.detect(compress(data, CompressionFormat.XZ)));
+        Assert.assertEquals(CompressionFormat.ZSTD,
+                CompressionFormat.detect(new byte[] { 0x28, (byte) 0xB5, 0x2F, (byte) 0xFD, 0x00, 0x00 }));
+        // Too short or a wrong bzip2 block size
+        Assert.assertEquals(CompressionFormat.NONE, CompressionFormat.detect(new byte[] { 0x1F }));
+        Assert.assertEquals(CompressionFormat.NONE, CompressionFormat.detect("BZh0".getBytes(StandardCharsets.UTF_8)));
+
+        Assert.assertEquals(CompressionFormat.BZIP2, CompressionFormat.fromFileName("dump.nt.bz2"));
+        Assert.assertEquals(CompressionFormat.NONE, CompressionFormat.fromFileName("dump.nt"));
+        Assert.assertEquals("dump.nt", CompressionFormat.removeSuffix("dump.nt.GZ"));
+        Assert.assertEquals("dump.nt", CompressionFormat.removeSuffix("dump.nt"));
+    }
+
+    @Test
+    public void testLangDetection() {
+        Assert.assertEquals(Lang.NT, RDFSources.detectLang(
+                "# comment\n<http://example.org/s> <http://example.org/p> \"a \\\" b\"@en-GB .\n<http://example.org/s> ."
+                        .getBytes(StandardCharsets.UTF_8)));
+        Assert.assertEquals(Lang.NT, RDFSources.detectLang(
+                "_:b0 <http://example.org/p> \"1\"^^<http://www.w3.org/2001/XMLSchema#int>.\n"
+                        .getBytes(StandardCharsets.UTF_8)));
+        Assert.assertEquals(Lang.NQ, RDFSources.detectLang(
+                "<http://example.org/s> <http://example.org/p> <http://example.org/o> <http://example.org/g> .\n"
+                        .getBytes(StandardCharsets.UTF_8)));
+        Assert.assertEquals(Lang.TTL, RDFSources.detectLang(
+                "@prefix ex: <http://example.org/> .\nex:s ex:p ex:o .\n".getBytes(StandardCharsets.UTF_8)));
+        Assert.assertEquals(Lang.TTL, RDFSources.detectLang(
+                "<http://example.org/s> <http://example.org/p> <http://example.org/o> ;\n"
+                        .getBytes(StandardCharsets.UTF_8)));
+        Assert.assertEquals(Lang.RDFXML,
+                RDFSources.detectLang("<?xml version=\"1.0\"?>\n<rdf:RDF>".getBytes(StandardCharsets.UTF_8)));
+        Assert.assertEquals(Lang.JSONLD,
+                RDFSources.detectLang("  {\"@id\": \"http://example.org/s\"}".getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Test
+    public void testListAndParse() throws IOException {
+        Path directory = Files.createTempDirectory("RDFSourcesTest");
+        Path subDirectory = Files.createDirectory(directory.resolve("sub"));
+        Set<Triple> expected = new HashSet<>();
+        List<Triple> triples = createTriples(0, 1000);
+        expected.addAll(triples);
+        write(directory.resolve("a.nt"), toNTriples(triples), CompressionFormat.NONE);
+        triples = createTriples(1000, 1000);
+        expected.addAll(triples);
+        write(directory.resolve("b.nt.gz"), toNTriples(triples), CompressionFormat.GZIP);
+        triples = createTriples(2000, 1000);
+        expected.addAll(triples);
+        write(subDirectory.resolve("c.ttl.bz2"),
+                "@prefix ex: <http://example.org/> .\n" + toNTriples(triples).replace("<http://example.org/p", "ex:p")
+                        .replace("> \"", " \""),
+                CompressionFormat.BZIP2);
+        // The serialization and the compression of this file have to be detected
+        triples = createTriples(3000, 10);
+        expected.addAll(triples);
+        write(subDirectory.resolve("d.data"), toNTriples(triples), CompressionFormat.GZIP);
+        // This file is filtered
+        write(directory.resolve("e.log"), "no RDF", CompressionFormat.NONE);
+
+        RDFSources sources = new RDFSources().setGlob("*.{nt,ttl,data}{,.gz,.bz2}").setBufferSize(1024);
+        List<RDFSource> list = sources.list(directory);
+        Assert.assertEquals(4, list.size());
+        Assert.assertEquals(Lang.NT, list.get(0).getLang());
+        Assert.assertEquals(CompressionFormat.NONE, list.get(0).getCompression());
+        Assert.assertEquals(CompressionFormat.GZIP, list.get(1).getCompression());
+        Assert.assertEquals(Lang.TTL, list.get(2).getLang());
+        Assert.assertEquals(CompressionFormat.BZIP2, list.get(2).getCompression());
+        Assert.assertEquals(Lang.NT, list.get(3).getLang());
+        Assert.assertEquals(CompressionFormat.GZIP, list.get(3).getCompression());
+
+        // Without recursion, the sub directory is ignored
+        Assert.assertEquals(2, new RDFSources().setRecursive(false).setGlob("*.{nt,nt.gz}").list(directory).size());
+
+        for (int numberOfThreads = 1; numberOfThreads <= 3; ++numberOfThreads) {
+            for (int readAheadBuffers = 0; readAheadBuffers <= 2; readAheadBuffers += 2) {
+                List<Triple> result = new ArrayList<>();
+                // The Turtle file contains prefixes, which the consumer would reject
+                StreamRDF consumer = new RDFStreamTripleConsumer(result::add) {
+                    @Override
+                    public void prefix(String prefix, String iri) {
+                    }
+                };
+                sources.setNumberOfThreads(numberOfThreads).setReadAheadBuffers(readAheadBuffers)
+                        .setMemoryMapping(readAheadBuffers > 0).parse(list, consumer);
+                Assert.assertEquals(expected.size(), result.size());
+                Assert.assertEquals(expected, new HashSet<>(result));
+            }
+        }
+    }
+
+    @Test
+    public void testParseFailure() throws IOException {
+        Path directory = Files.createTempDirectory("RDFSourcesTest");
+        write(directory.resolve("a.nt"), toNTriples(createTriples(0, 10)), CompressionFormat.NONE);
+        write(directory.resolve("b.nt"), "this is not RDF\n", CompressionFormat.NONE);
+        int[] finishes = new int[1];
+        StreamRDF consumer = new RDFStreamTripleConsumer(t -> {
+        }) {
+            @Override
+            public void finish() {
+                ++finishes[0];
+            }
+        };
+        RDFSources sources = new RDFSources().setNumberOfThreads(1);
+        try {
+            sources.parse(sources.list(directory), consumer);
+            Assert.fail("Expected an exception.");
+        } catch (RuntimeException e) {
+            // expected
+        }
+        Assert.assertEquals(1, finishes[0]);
+    }
+
+    @Test
+    public void testOpenStream() throws IOException {
+        Path file = Files.createTempFile("RDFSourcesTest", ".nt.xz");
+        file.toFile().deleteOnExit();
+        String content = toNTriples(createTriples(0, 5000));
+        write(file, content, CompressionFormat.XZ);
+        RDFSources sources = new RDFSources().setBufferSize(100);
+        RDFSource source = sources.source(file);
+        Assert.assertEquals(CompressionFormat.XZ, source.getCompression());
+        Assert.assertEquals(Lang.NT, source.getLang());
+        try (InputStream in = sources.openStream(source)) {
+            Assert.assertEquals(content, new String(in.readAllBytes(), StandardCharsets.UTF_8));
+        }
+    }
+
+    @Test
+    public void testSinks() throws IOException {
+        List<Triple> triples = createTriples(0, 2000);
+        for (String suffix : new String[] { ".nt", ".nt.gz", ".nt.bz2", ".ttl.gz" }) {
+            for (int numberOfThreads = 1; numberOfThreads <= 2; ++numberOfThreads) {
+                Path file = Files.createTempFile("RDFSinksTest", suffix);
+                file.toFile().deleteOnExit();
+                try (RDFSink sink = new RDFSinks().setNumberOfThreads(numberOfThreads).setBlockSize(1000)
+                        .open(file)) {
+                    sink.start();
+                    triples.forEach(sink::triple);
+                    // The second sink is not finished, i.e., close() has to flush it
+                    if (numberOfThreads == 1) {
+                        sink.finish();
+                    }
+                }
+                RDFSources sources = new RDFSources();
+                RDFSource source = sources.source(file);
+                Assert.assertEquals(CompressionFormat.fromFileName(suffix), source.getCompression());
+                List<Triple> result = new ArrayList<>();
+                sources.parse(source, new RDFStreamTripleConsumer(result::add));
+                Assert.assertEquals(suffix, triples, result);
+            }
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package org.dice_group.rdf.stream.metrics;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import org.apache.jena.graph.NodeFactory;
+import org.apache.jena.graph.Triple;
+import org.apache.jena.riot.system.StreamRDF;
+import org.dice_research.rdf.stream.BatchingStreamRDF;
+import org.dice_research.rdf.stream.consume.RDFStreamTripleConsumer;
+import org.dice_research.rdf.stream.filter.BatchRDFStreamTripleFilter;
+import org.dice_research.rdf.stream.filter.RDFStreamTripleFilter;
+import org.dice_research.rdf.stream.map.RDFStreamTripleMapper;
+import org.dice_research.rdf.stream.metrics.MetricsRegistry;
+import org.dice_research.rdf.stream.metrics.SimpleMetricsRegistry;
+import org.dice_research.rdf.stream.metrics.StageMetrics;
+import org.dice_research.rdf.stream.metrics.StreamRDFInstrumenter;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class StreamRDFInstrumenterTest {
+
+    private static final int NUMBER_OF_TRIPLES = 1000;
+
+    @Test
+    public void test() {
+        List<Triple> accepted = new ArrayList<>();
+        List<Triple> rejected = new ArrayList<>();
+        StreamRDF chain = new RDFStreamTripleFilter(t -> !t.getObject().isLiteral(),
+                new RDFStreamTripleMapper(
+                        t -> Triple.create(t.getSubject(), NodeFactory.createURI("http://example.org/q"),
+                                t.getObject()),
+                        new RDFStreamTripleFilter(t -> t.getSubject().getURI().endsWith("0"),
+                                new RDFStreamTripleConsumer(accepted::add))),
+                new RDFStreamTripleConsumer(rejected::add));
+
+        MetricsRegistry registry = new SimpleMetricsRegistry();
+        StreamRDF stream = StreamRDFInstrumenter.instrument(chain, registry, 1);
+        stream.start();
+        for (int i = 0; i < NUMBER_OF_TRIPLES; ++i) {
+            stream.triple(Triple.create(NodeFactory.createURI("http://example.org/s" + i),
+                    NodeFactory.createURI("http://example.org/p"),
+                    (i % 4 == 0) ? NodeFactory.createLiteral(Integer.toString(i))
+                            : NodeFactory.createURI("http://example.org/o" + i)));
+        }
+        stream.finish();
+
+        // 250 literals, 750 IRIs of which 50 have a subject ending with 0
+        // (every 10th subject ends with 0 and half of them have a literal)
+        Assert.assertEquals(250, rejected.size());
+        Assert.assertEquals(50, accepted.size());
+
+        Iterator<StageMetrics> iterator = registry.getStages().iterator();
+        StageMetrics first = iterator.next();
+        Assert.assertEquals("1:RDFStreamTripleFilter", first.getName());
+        Assert.assertEquals(NUMBER_OF_TRIPLES, first.getIn());
+        Assert.assertEquals(750, first.getAccepted());
+        Assert.assertEquals(250, first.getRejected());
+        Assert.assertEquals(NUMBER_OF_TRIPLES, first.getSelfTime().getCount());
+
+        StageMetrics second = iterator.next();
+        Assert.assertEquals("2:RDFStreamTripleMapper", second.getName());
+        Assert.assertEquals(750, second.getIn());
+        Assert.assertEquals(750, second.getAccepted());
+        Assert.assertEquals(0, second.getRejected());
+
+        StageMetrics third = iterator.next();
+        Assert.assertEquals("3:RDFStreamTripleFilter", third.getName());
+        Assert.assertEquals(750, third.getIn());
+        Assert.assertEquals(50, third.getAccepted());
+        Assert.assertEquals(700, third.getRejected());
+        Assert.assertFalse(iterator.hasNext());
+
+        String json = registry.toJson();
+        Assert.assertTrue(json, json.startsWith("{\"stages\":[{\"name\":\"1:RDFStreamTripleFilter\",\"in\":1000,"));
+        Assert.assertTrue(json, json.contains("\"name\":\"3:RDFStreamTripleFilter\",\"in\":750,\"accepted\":50"));
+    }
+
+    @Test
+    public void testBatching() {
+        List<Triple> accepted = new ArrayList<>();
+        StreamRDF chain = new BatchingStreamRDF(
+                new BatchRDFStreamTripleFilter(t -> t.getSubject().getURI().endsWith("0"),
+                        new RDFStreamTripleConsumer(accepted::add)),
+                16);
+
+        MetricsRegistry registry = new SimpleMetricsRegistry();
+        StreamRDF stream = StreamRDFInstrumenter.instrument(chain, registry, 1);
+        stream.start();
+        for (int i = 0; i < NUMBER_OF_TRIPLES; ++i) {
+            stream.triple(Triple.create(NodeFactory.createURI("http://example.org/s" + i),
+                    NodeFactory.createURI("http://example.org/p"), NodeFactory.createURI("http://example.org/o")));
+        }
+        stream.finish();
+        Assert.assertEquals(100, accepted.size());
+
+        // The batches have to pass the instrumentation of the rewired chain
+        Iterator<StageMetrics> iterator = registry.getStages().iterator();
+        StageMetrics first = iterator.next();
+        Assert.assertEquals("1:BatchingStreamRDF", first.getName());
+        Assert.assertEquals(NUMBER_OF_TRIPLES, first.getIn());
+        Assert.assertEquals(NUMBER_OF_TRIPLES, first.getAccepted());
+        StageMetrics second = iterator.next();
+        Assert.assertEquals("2:BatchRDFStreamTripleFilter", second.getName());
+        Assert.assertEquals(NUMBER_OF_TRIPLES, second.getIn());
+        Assert.assertEquals(100, second.getAccepted());
+        Assert.assertEquals(900, second.getRejected());
+    }
+}
@@ -0,0 +1,56 @@
+package org.dice_group.rdf.stream.parse;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.jena.graph.Triple;
+import org.apache.jena.riot.Lang;
+import org.apache.jena.riot.RDFParser;
+import org.dice_research.rdf.stream.consume.RDFStreamTripleConsumer;
+import org.dice_research.rdf.stream.parse.MappedNTriplesReader;
+import org.dice_research.test.FileResourceUtils;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class MappedNTriplesReaderTest {
+
+    @Test
+    public void test() throws IOException {
+        File file = FileResourceUtils.getFile("Example.nt", this.getClass());
+        List<Triple> expected = new ArrayList<>();
+        RDFParser.source(file.getAbsolutePath()).lang(Lang.NT).parse(new RDFStreamTripleConsumer(expected::add));
+
+        // Use very small chunks to make sure that we get several of them
+        List<Triple> result = new ArrayList<>();
+        MappedNTriplesReader reader = new MappedNTriplesReader(Lang.NT, 50);
+        reader.read(file, new RDFStreamTripleConsumer(result::add));
+
+        Assert.assertEquals(expected, result);
+    }
+
+    @Test
+    public void testLongLinesAndBlankNodes() throws IOException {
+        StringBuilder data = new StringBuilder();
+        data.append("_:b0 <http://example.org/p> \"");
+        for (int i = 0; i < 1000; ++i) {
+            data.append('a');
+        }
+        data.append("\" .\n");
+        data.append("<http://example.org/s> <http://example.org/p> _:b0 .\n");
+        File file = File.createTempFile("MappedNTriplesReaderTest", ".nt");
+        file.deleteOnExit();
+        Files.write(file.toPath(), data.toString().getBytes(StandardCharsets.UTF_8));
+
+        List<Triple> result = new ArrayList<>();
+        MappedNTriplesReader reader = new MappedNTriplesReader(Lang.NT, 16);
+        reader.read(file, new RDFStreamTripleConsumer(result::add));
+
+        Assert.assertEquals(2, result.size());
+        Assert.assertEquals(1000, result.get(0).getObject().getLiteralLexicalForm().length());
+        Assert.assertEquals(result.get(0).getSubject(), result.get(1).getObject());
+    }
+}
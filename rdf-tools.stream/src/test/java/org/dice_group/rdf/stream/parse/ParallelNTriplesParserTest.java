@@ -0,0 +1,96 @@
+package org.dice_group.rdf.stream.parse;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.Triple;
+import org.apache.jena.riot.Lang;
+import org.apache.jena.riot.RDFParser;
+import org.apache.jena.riot.system.StreamRDF;
+import org.apache.jena.riot.system.StreamRDFBase;
+import org.dice_research.rdf.stream.consume.RDFStreamTripleConsumer;
+import org.dice_research.rdf.stream.parse.ParallelNTriplesParser;
+import org.dice_research.test.FileResourceUtils;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class ParallelNTriplesParserTest {
+
+    @Test
+    public void testOrdered() throws IOException {
+        List<Triple> expected = new ArrayList<>();
+        RDFParser.source(FileResourceUtils.getFile("Example.nt", this.getClass()).getAbsolutePath()).lang(Lang.NT)
+                .parse(new RDFStreamTripleConsumer(expected::add));
+
+        List<Triple> result = new ArrayList<>();
+        // Use very small chunks to make sure that we get several of them
+        ParallelNTriplesParser parser = new ParallelNTriplesParser(Lang.NT, 4, 64, true);
+        parser.parse(FileResourceUtils.getFile("Example.nt", this.getClass()), new RDFStreamTripleConsumer(result::add));
+
+        Assert.assertEquals(expected, result);
+    }
+
+    @Test
+    public void testUnordered() throws IOException {
+        Set<Triple> expected = new HashSet<>();
+        RDFParser.source(FileResourceUtils.getFile("Example.nt", this.getClass()).getAbsolutePath()).lang(Lang.NT)
+                .parse(new RDFStreamTripleConsumer(expected::add));
+
+        List<Triple> result = new ArrayList<>();
+        ParallelNTriplesParser parser = new ParallelNTriplesParser(Lang.NT, 4, 64, false);
+        parser.parse(FileResourceUtils.getFile("Example.nt", this.getClass()), new RDFStreamTripleConsumer(result::add));
+
+        Assert.assertEquals(expected.size(), result.size());
+        Assert.assertEquals(expected, new HashSet<>(result));
+    }
+
+    @Test
+    public void testBlankNodesAcrossChunks() throws IOException {
+        StringBuilder data = new StringBuilder();
+        for (int i = 0; i < 100; ++i) {
+            data.append("_:b0 <http://example.org/p> \"").append(i).append("\" .\n");
+        }
+        // The last line does not end with a line break
+        data.append("_:b1 <http://example.org/p> _:b0 .");
+
+        List<Triple> result = new ArrayList<>();
+        ParallelNTriplesParser parser = new ParallelNTriplesParser(Lang.NT, 3, 100, true);
+        parser.parse(new ByteArrayInputStream(data.toString().getBytes(StandardCharsets.UTF_8)),
+                new RDFStreamTripleConsumer(result::add));
+
+        Assert.assertEquals(101, result.size());
+        Set<Node> subjects = new HashSet<>();
+        for (Triple t : result) {
+            subjects.add(t.getSubject());
+        }
+        Assert.assertEquals(2, subjects.size());
+        Assert.assertEquals(result.get(0).getSubject(), result.get(100).getObject());
+    }
+
+    @Test
+    public void testStartAndFinishAreForwardedOnce() throws IOException {
+        int[] counts = new int[2];
+        StreamRDF stream = new StreamRDFBase() {
+            @Override
+            public void start() {
+                ++counts[0];
+            }
+
+            @Override
+            public void finish() {
+                ++counts[1];
+            }
+        };
+        ParallelNTriplesParser parser = new ParallelNTriplesParser(Lang.NT, 2, 64, false);
+        parser.parse(FileResourceUtils.getFile("Example.nt", this.getClass()), stream);
+
+        Assert.assertEquals(1, counts[0]);
+        Assert.assertEquals(1, counts[1]);
+    }
+}
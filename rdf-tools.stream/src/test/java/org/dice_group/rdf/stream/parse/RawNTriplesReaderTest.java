@@ -0,0 +1,206 @@
+package org.dice_group.rdf.stream.parse;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.NodeFactory;
+import org.apache.jena.graph.Triple;
+import org.apache.jena.riot.Lang;
+import org.apache.jena.riot.RDFParser;
+import org.apache.jena.riot.RiotException;
+import org.apache.jena.riot.lang.LabelToNode;
+import org.apache.jena.riot.system.StreamRDF;
+import org.dice_research.rdf.stream.consume.RDFStreamTripleConsumer;
+import org.dice_research.rdf.stream.filter.raw.RawIriEqualityFilter;
+import org.dice_research.rdf.stream.filter.raw.RawNamespaceFilter;
+import org.dice_research.rdf.stream.filter.raw.RawPropertyFilter;
+import org.dice_research.rdf.stream.io.FastNTriplesWriter;
+import org.dice_research.rdf.stream.map.RDFStreamTripleMapper;
+import org.dice_research.rdf.stream.parse.RawNTriplesReader;
+import org.dice_research.rdf.stream.parse.RawTriple;
+import org.dice_research.test.FileResourceUtils;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class RawNTriplesReaderTest {
+
+    private static final String DATA = "# A comment\n"
+            + "<http://example.org/s1> <http://example.org/p1> <http://example.org/o1> .\n"
+            + "\n"
+            + "<http://example.org/s1> <http://example.org/p2> \"a\\\"b\\\\c\\nd\\u00E4\" . # another comment\r\n"
+            + "<http://example.org/s2>\t<http://example.org/p1> \"hello\"@en-GB .\n"
+            + "<http://other.org/s3> <http://example.org/p2> \"42\"^^<http://www.w3.org/2001/XMLSchema#int> .\n"
+            + "_:b0 <http://example.org/p1> _:b1 .\n"
+            + "<http://example.org/s\\u00E4> <http://example.org/p1> _:b0 .\n"
+            + "<http://example.org/s1> <http://example.org/p3> \"\u00e4\u20ac\uD83D\uDE00\" .";
+
+    private static List<Triple> parse(String data) {
+        List<Triple> triples = new ArrayList<>();
+        RDFParser.source(new ByteArrayInputStream(data.getBytes(StandardCharsets.UTF_8))).lang(Lang.NT)
+                .parse(new RDFStreamTripleConsumer(triples::add));
+        return triples;
+    }
+
+    private static List<Triple> read(String data, RawNTriplesReader reader) throws IOException {
+        List<Triple> triples = new ArrayList<>();
+        reader.read(new ByteArrayInputStream(data.getBytes(StandardCharsets.UTF_8)),
+                new RDFStreamTripleConsumer(triples::add));
+        return triples;
+    }
+
+    @Test
+    public void testMaterialization() throws IOException {
+        List<Triple> expected = parse(DATA);
+        // Use small chunks to make sure that we get several of them
+        RawNTriplesReader reader = new RawNTriplesReader(t -> true, 32);
+        List<Triple> result = read(DATA, reader);
+
+        Assert.assertEquals(7, reader.getTriplesRead());
+        Assert.assertEquals(7, reader.getTriplesAccepted());
+        Assert.assertEquals(expected.size(), result.size());
+        for (int i = 0; i < expected.size(); ++i) {
+            if (expected.get(i).getSubject().isBlank() || expected.get(i).getObject().isBlank()) {
+                Assert.assertEquals(expected.get(i).getPredicate(), result.get(i).getPredicate());
+            } else {
+                Assert.assertEquals(expected.get(i), result.get(i));
+            }
+        }
+        // Blank nodes with the same label are the same node
+        Assert.assertTrue(result.get(4).getSubject().isBlank());
+        Assert.assertEquals(result.get(4).getSubject(), result.get(5).getObject());
+        Assert.assertNotEquals(result.get(4).getSubject(), result.get(4).getObject());
+    }
+
+    @Test
+    public void testFile() throws IOException {
+        File file = FileResourceUtils.getFile("Example.nt", this.getClass());
+        List<Triple> expected = new ArrayList<>();
+        RDFParser.source(file.getAbsolutePath()).lang(Lang.NT).parse(new RDFStreamTripleConsumer(expected::add));
+
+        // The file is memory-mapped, i.e., the chunks are copied
+        List<Triple> result = new ArrayList<>();
+        new RawNTriplesReader(t -> true, 50).read(file, new RDFStreamTripleConsumer(result::add));
+
+        Assert.assertEquals(expected, result);
+    }
+
+    @Test
+    public void testFilters() throws IOException {
+        RawNTriplesReader reader = new RawNTriplesReader(
+                new RawNamespaceFilter(RawTriple.SUBJECT, "http://example.org/"));
+        List<Triple> result = read(DATA, reader);
+        Assert.assertEquals(7, reader.getTriplesRead());
+        Assert.assertEquals(5, reader.getTriplesAccepted());
+        Assert.assertEquals(5, result.size());
+
+        result = read(DATA, new RawNTriplesReader(new RawNamespaceFilter(RawTriple.SUBJECT, false,
+                "http://example.org/")));
+        Assert.assertEquals(2, result.size());
+        Assert.assertTrue(result.get(1).getSubject().isBlank());
+
+        result = read(DATA, new RawNTriplesReader(new RawPropertyFilter("http://example.org/p2")));
+        Assert.assertEquals(2, result.size());
+
+        // The prefix of an IRI is not the IRI
+        result = read(DATA, new RawNTriplesReader(new RawPropertyFilter("http://example.org/p")));
+        Assert.assertEquals(0, result.size());
+
+        result = read(DATA, new RawNTriplesReader(new RawIriEqualityFilter(RawTriple.SUBJECT, "http://example.org/s1")
+                .and(t -> t.isLiteral(RawTriple.OBJECT)).and(new RawPropertyFilter("http://example.org/p1").negate())));
+        Assert.assertEquals(2, result.size());
+
+        result = read(DATA, new RawNTriplesReader(new RawIriEqualityFilter(RawTriple.OBJECT, "http://example.org/o1")
+                .or(t -> t.hasLanguage(RawTriple.OBJECT, "en-gb"))));
+        Assert.assertEquals(2, result.size());
+    }
+
+    @Test
+    public void testPassthrough() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (FastNTriplesWriter writer = new FastNTriplesWriter(out)) {
+            new RawNTriplesReader(new RawPropertyFilter("http://example.org/p2"))
+                    .read(new ByteArrayInputStream(DATA.getBytes(StandardCharsets.UTF_8)), writer);
+        }
+        // The original lines are written (without the line break)
+        Assert.assertEquals("<http://example.org/s1> <http://example.org/p2> \"a\\\"b\\\\c\\nd\\u00E4\" . # another comment\n"
+                + "<http://other.org/s3> <http://example.org/p2> \"42\"^^<http://www.w3.org/2001/XMLSchema#int> .\n",
+                out.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testPassthroughWithBlankNodes() throws IOException {
+        String data = "_:b0 <http://example.org/p1> <http://example.org/o1> .\n"
+                + "<http://example.org/s1> <http://example.org/p2> _:b0 .\n"
+                + "<http://example.org/s1>  <http://example.org/p1> <http://example.org/o1> .\n";
+        Node p3 = NodeFactory.createURI("http://example.org/p3");
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (FastNTriplesWriter writer = new FastNTriplesWriter(out)) {
+            // p2 triples are re-created while all other triples reach the writer
+            // unchanged
+            StreamRDF stream = new RDFStreamTripleMapper(
+                    t -> t.getPredicate().getURI().endsWith("p2") ? Triple.create(t.getSubject(), p3, t.getObject())
+                            : t,
+                    writer);
+            // Two readers simulate two files that use the same blank node label
+            new RawNTriplesReader(t -> true).read(new ByteArrayInputStream(data.getBytes(StandardCharsets.UTF_8)),
+                    stream);
+            new RawNTriplesReader(t -> true).read(new ByteArrayInputStream(data.getBytes(StandardCharsets.UTF_8)),
+                    stream);
+        }
+        String output = out.toString(StandardCharsets.UTF_8);
+        // The line without blank node is copied
+        Assert.assertTrue(output.contains("<http://example.org/s1>  <http://example.org/p1>"));
+        Assert.assertFalse(output.contains("_:b0 "));
+
+        List<Triple> result = parse(output);
+        Assert.assertEquals(6, result.size());
+        Assert.assertTrue(result.get(0).getSubject().isBlank());
+        Assert.assertEquals(p3, result.get(1).getPredicate());
+        // Within a file, the blank node is written with a single label
+        Assert.assertEquals(result.get(0).getSubject(), result.get(1).getObject());
+        Assert.assertEquals(result.get(3).getSubject(), result.get(4).getObject());
+        // Blank nodes of different files are not merged
+        Assert.assertNotEquals(result.get(0).getSubject(), result.get(3).getSubject());
+    }
+
+    @Test
+    public void testTokenization() {
+        RawTriple triple = new RawTriple(LabelToNode.createUseLabelEncoded());
+        byte[] line = "  <http://example.org/s>  <http://example.org/p> \"x y\"@en .  \n"
+                .getBytes(StandardCharsets.UTF_8);
+        Assert.assertTrue(triple.set(line, 0, line.length));
+        Assert.assertEquals(2, triple.getStart(RawTriple.SUBJECT));
+        Assert.assertEquals(24, triple.getEnd(RawTriple.SUBJECT));
+        Assert.assertTrue(triple.isIri(RawTriple.PREDICATE));
+        Assert.assertTrue(triple.isLiteral(RawTriple.OBJECT));
+        Assert.assertTrue(triple.hasLanguage(RawTriple.OBJECT, "en"));
+        Assert.assertFalse(triple.hasLanguage(RawTriple.OBJECT, "de"));
+
+        // A blank node label can not end with a dot
+        line = "_:b0 <http://example.org/p> _:b1.".getBytes(StandardCharsets.UTF_8);
+        Assert.assertTrue(triple.set(line, 0, line.length));
+        Assert.assertTrue(triple.isBlank(RawTriple.OBJECT));
+        Assert.assertEquals(line.length - 1, triple.getEnd(RawTriple.OBJECT));
+
+        line = "   # comment".getBytes(StandardCharsets.UTF_8);
+        Assert.assertFalse(triple.set(line, 0, line.length));
+
+        for (String invalid : new String[] { "<http://example.org/s> <http://example.org/p> <http://example.org/o>",
+                "<http://example.org/s> <http://example.org/p> \"o .", "\"s\" <http://example.org/p> <o> .",
+                "<http://example.org/s> _:p <o> .", "<http://example.org/s> <http://example.org/p> <o> . x" }) {
+            line = invalid.getBytes(StandardCharsets.UTF_8);
+            try {
+                triple.set(line, 0, line.length);
+                Assert.fail("Expected an exception for " + invalid);
+            } catch (RiotException e) {
+                // expected
+            }
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package org.dice_group.rdf.stream.pipeline;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+import org.apache.jena.graph.NodeFactory;
+import org.apache.jena.graph.Triple;
+import org.apache.jena.riot.system.StreamRDF;
+import org.dice_research.rdf.stream.consume.RDFStreamTripleConsumer;
+import org.dice_research.rdf.stream.filter.NodeFilterBasedTripleFilter;
+import org.dice_research.rdf.stream.filter.RDFStreamTripleFilter;
+import org.dice_research.rdf.stream.map.RDFStreamTripleMapper;
+import org.dice_research.rdf.stream.pipeline.Pipeline;
+import org.dice_research.rdf.stream.pipeline.PipelineBuilder;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class PipelineBuilderTest {
+
+    private static final int NUMBER_OF_TRIPLES = 1000;
+
+    private static final Predicate<Triple> NO_LITERALS = t -> !t.getObject().isLiteral();
+    private static final NodeFilterBasedTripleFilter EVEN_SUBJECTS = new NodeFilterBasedTripleFilter(
+            s -> s.getURI().endsWith("0") || s.getURI().endsWith("2") || s.getURI().endsWith("4")
+                    || s.getURI().endsWith("6") || s.getURI().endsWith("8"),
+            p -> p.getURI().startsWith("http://example.org/"), null);
+    private static final Predicate<Triple> NOT_P1 = t -> !t.getPredicate().getURI().endsWith("p1");
+    private static final Function<Triple, Triple> SWAP = t -> Triple.create(t.getObject(), t.getPredicate(),
+            t.getSubject());
+
+    @Test
+    public void testReordering() {
+        testComparedToChain(true);
+    }
+
+    @Test
+    public void testWithoutReordering() {
+        testComparedToChain(false);
+    }
+
+    protected void testComparedToChain(boolean reordering) {
+        List<Triple> triples = createTriples();
+
+        // Create the usual chain of decorators
+        List<Triple> expectedAccepted = new ArrayList<>();
+        List<Triple> expectedRejected = new ArrayList<>();
+        StreamRDF chain = new RDFStreamTripleFilter(NO_LITERALS,
+                new RDFStreamTripleFilter(EVEN_SUBJECTS,
+                        new RDFStreamTripleMapper(SWAP,
+                                new RDFStreamTripleFilter(NOT_P1, new RDFStreamTripleConsumer(expectedAccepted::add))),
+                        new RDFStreamTripleConsumer(expectedRejected::add)),
+                new RDFStreamTripleConsumer(expectedRejected::add));
+        send(triples, chain);
+
+        // Create the pipeline
+        List<Triple> accepted = new ArrayList<>();
+        List<Triple> rejected = new ArrayList<>();
+        StreamRDF rejectedStream = new RDFStreamTripleConsumer(rejected::add);
+        Pipeline pipeline = new PipelineBuilder().setReordering(reordering).setReorderInterval(10)
+                .filter("no literals", NO_LITERALS, 1.0, rejectedStream, reordering)
+                .filter("even subjects", EVEN_SUBJECTS, 2.0, rejectedStream, reordering).map("swap", SWAP)
+                .filter("not p1", NOT_P1).build(new RDFStreamTripleConsumer(accepted::add));
+        send(triples, pipeline.getStream());
+
+        Assert.assertEquals(expectedAccepted, accepted);
+        Assert.assertEquals(expectedRejected, rejected);
+
+        String plan = pipeline.getPlan();
+        Assert.assertTrue(plan, plan.startsWith("1. fused filter"));
+        Assert.assertTrue(plan, plan.contains("no literals"));
+        Assert.assertTrue(plan, plan.contains("even subjects [subject]"));
+        Assert.assertTrue(plan, plan.contains("even subjects [predicate]"));
+        Assert.assertTrue(plan, plan.contains("2. map (swap)"));
+        Assert.assertTrue(plan, plan.contains("3. fused filter"));
+        Assert.assertTrue(plan, plan.contains("rejected -> dropped"));
+        Assert.assertTrue(plan, plan.contains("evaluated="));
+    }
+
+    @Test
+    public void testGuardedFilters() {
+        Assert.assertFalse(new PipelineBuilder().isReordering());
+        List<Triple> triples = createTriples();
+        List<Triple> expected = new ArrayList<>();
+        for (Triple t : triples) {
+            if (t.getObject().isURI() && t.getObject().getURI().endsWith("1")) {
+                expected.add(t);
+            }
+        }
+        // The second filter relies on the first one. A cheap filter that is
+        // declared as reorderable must not be moved in front of the guard.
+        List<Triple> accepted = new ArrayList<>();
+        Pipeline pipeline = new PipelineBuilder().setReorderInterval(10)
+                .filter("is IRI", t -> t.getObject().isURI(), 10.0, null)
+                .filter("ends with 1", t -> t.getObject().getURI().endsWith("1"), 5.0, null, true)
+                .filter("any predicate", t -> true, 1.0, null, true)
+                .build(new RDFStreamTripleConsumer(accepted::add));
+        send(triples, pipeline.getStream());
+        Assert.assertEquals(expected, accepted);
+        String plan = pipeline.getPlan();
+        Assert.assertTrue(plan, plan.indexOf("is IRI [fixed") < plan.indexOf("any predicate"));
+        Assert.assertTrue(plan, plan.indexOf("any predicate") < plan.indexOf("ends with 1"));
+
+        // The same holds for the split checks of a node filter
+        accepted.clear();
+        pipeline = new PipelineBuilder().setReordering(true).setReorderInterval(10)
+                .filter("guarded", new NodeFilterBasedTripleFilter(null, null, o -> o.isURI()), 10.0, null)
+                .filter("ends with 1", t -> t.getObject().getURI().endsWith("1"), 1.0, null)
+                .build(new RDFStreamTripleConsumer(accepted::add));
+        send(triples, pipeline.getStream());
+        Assert.assertEquals(expected, accepted);
+    }
+
+    protected static void send(List<Triple> triples, StreamRDF stream) {
+        stream.start();
+        for (Triple t : triples) {
+            stream.triple(t);
+        }
+        stream.finish();
+    }
+
+    protected static List<Triple> createTriples() {
+        List<Triple> triples = new ArrayList<>(NUMBER_OF_TRIPLES);
+        for (int i = 0; i < NUMBER_OF_TRIPLES; ++i) {
+            triples.add(Triple.create(NodeFactory.createURI("http://example.org/s" + i),
+                    NodeFactory.createURI("http://example.org/p" + (i % 3)),
+                    (i % 5 == 0) ? NodeFactory.createLiteral(Integer.toString(i))
+                            : NodeFactory.createURI("http://example.org/o" + i)));
+        }
+        return triples;
+    }
+}
@@ -0,0 +1,98 @@
+package org.dice_group.rdf.stream.stats;
+
+import java.util.List;
+import java.util.Map.Entry;
+
+import org.apache.jena.datatypes.xsd.XSDDatatype;
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.NodeFactory;
+import org.apache.jena.graph.Triple;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.Resource;
+import org.apache.jena.riot.Lang;
+import org.apache.jena.riot.RDFParser;
+import org.apache.jena.vocabulary.RDF;
+import org.dice_research.rdf.stream.stats.DatasetStatisticsCollector;
+import org.dice_research.rdf.stream.stats.VOID;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class DatasetStatisticsCollectorTest {
+
+    private static final Node NAME = NodeFactory.createURI("http://example.org/name");
+    private static final Node AGE = NodeFactory.createURI("http://example.org/age");
+    private static final Node PERSON = NodeFactory.createURI("http://example.org/Person");
+    private static final Node CITY = NodeFactory.createURI("http://example.org/City");
+
+    /**
+     * Feeds the triples of 100 persons and 10 cities into the given collector.
+     * Every second person is sent to the second collector to simulate two
+     * threads.
+     */
+    protected void feed(DatasetStatisticsCollector collector1, DatasetStatisticsCollector collector2) {
+        for (int i = 0; i < 100; ++i) {
+            DatasetStatisticsCollector collector = ((i & 1) == 0) ? collector1 : collector2;
+            Node person = NodeFactory.createURI("http://example.org/person" + i);
+            collector.triple(Triple.create(person, RDF.type.asNode(), PERSON));
+            collector.triple(Triple.create(person, NAME, NodeFactory.createLiteral("Person " + i, "en")));
+            collector.triple(
+                    Triple.create(person, AGE, NodeFactory.createLiteral(Integer.toString(i), XSDDatatype.XSDinteger)));
+        }
+        for (int i = 0; i < 10; ++i) {
+            Node city = NodeFactory.createURI("http://example.org/city" + i);
+            collector1.triple(Triple.create(city, RDF.type.asNode(), CITY));
+        }
+    }
+
+    @Test
+    public void testStatistics() {
+        DatasetStatisticsCollector collector = new DatasetStatisticsCollector();
+        DatasetStatisticsCollector collector2 = new DatasetStatisticsCollector();
+        feed(collector, collector2);
+        collector.merge(collector2);
+
+        Assert.assertEquals(310, collector.getTriples());
+        Assert.assertEquals(110, collector.getDistinctSubjects(), 2);
+        Assert.assertEquals(3, collector.getDistinctPredicates());
+        // 2 classes, 100 names, 100 ages
+        Assert.assertEquals(202, collector.getDistinctObjects(), 4);
+        Assert.assertEquals(2, collector.getDistinctClasses());
+
+        Assert.assertEquals(100, collector.getPredicates().get(NAME).getTriples());
+        Assert.assertEquals(100, collector.getPredicates().get(NAME).getDistinctSubjects(), 2);
+        Assert.assertEquals(110, collector.getPredicates().get(RDF.type.asNode()).getTriples());
+        Assert.assertEquals(2, collector.getPredicates().get(RDF.type.asNode()).getDistinctObjects());
+
+        List<Entry<Node, Long>> classes = collector.getTopClasses();
+        Assert.assertEquals(2, classes.size());
+        Assert.assertEquals(PERSON, classes.get(0).getKey());
+        Assert.assertEquals(100L, classes.get(0).getValue().longValue());
+        Assert.assertEquals(CITY, classes.get(1).getKey());
+        Assert.assertEquals(10L, classes.get(1).getValue().longValue());
+
+        Assert.assertEquals(Long.valueOf(100), collector.getLanguageHistogram().get("en"));
+        Assert.assertEquals(Long.valueOf(100), collector.getDatatypeHistogram().get(XSDDatatype.XSDinteger.getURI()));
+        long[] lengths = collector.getLiteralLengthHistogram();
+        // Ages 0-9 have length 1, 10-99 have length 2
+        Assert.assertEquals(10, lengths[1]);
+        Assert.assertEquals(90, lengths[2]);
+        Assert.assertEquals(9, collector.getMaxLiteralLength());
+    }
+
+    @Test
+    public void testVoID() {
+        DatasetStatisticsCollector collector = new DatasetStatisticsCollector();
+        RDFParser.source(this.getClass().getClassLoader().getResource("Example.nt").toString()).lang(Lang.NT)
+                .parse(collector);
+        feed(collector, collector);
+
+        Model model = collector.toVoID("http://example.org/dataset");
+        Resource dataset = model.getResource("http://example.org/dataset");
+        Assert.assertTrue(model.contains(dataset, RDF.type, VOID.Dataset));
+        Assert.assertEquals(collector.getTriples(), dataset.getProperty(VOID.triples).getLong());
+        Assert.assertEquals(collector.getPredicates().size(),
+                model.listObjectsOfProperty(dataset, VOID.propertyPartition).toList().size());
+        Assert.assertEquals(collector.getTopClasses().size(),
+                model.listObjectsOfProperty(dataset, VOID.classPartition).toList().size());
+    }
+}
@@ -0,0 +1,99 @@
+package org.dice_research.java.io;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Random;
+
+import org.apache.commons.compress.compressors.bzip2.BZip2CompressorOutputStream;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class ParallelBZip2InputStreamTest {
+
+    private static byte[] createData(int lines, long seed) {
+        Random random = new Random(seed);
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < lines; ++i) {
+            builder.append("<http://example.org/s").append(random.nextInt(10000)).append("> <http://example.org/p")
+                    .append(random.nextInt(20)).append("> \"").append(random.nextLong()).append("\" .\n");
+        }
+        return builder.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static byte[] compress(byte[] data, int blockSize) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (BZip2CompressorOutputStream compressor = new BZip2CompressorOutputStream(out, blockSize)) {
+            compressor.write(data);
+        }
+        return out.toByteArray();
+    }
+
+    private static byte[] decompress(byte[] compressed, int numberOfThreads) throws IOException {
+        try (InputStream in = new ParallelBZip2InputStream(new ByteArrayInputStream(compressed), numberOfThreads)) {
+            return in.readAllBytes();
+        }
+    }
+
+    @Test
+    public void testSeveralBlocks() throws IOException {
+        byte[] data = createData(50000, 1);
+        // Use the smallest block size to get several blocks
+        byte[] compressed = compress(data, 1);
+        Assert.assertArrayEquals(data, decompress(compressed, 4));
+        Assert.assertArrayEquals(data, decompress(compressed, 1));
+
+        // Read the compressed data in small pieces
+        try (InputStream in = new ParallelBZip2InputStream(new ByteArrayInputStream(compressed) {
+            @Override
+            public synchronized int read(byte[] b, int off, int len) {
+                return super.read(b, off, Math.min(len, 13));
+            }
+        }, 2)) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            int b;
+            while ((b = in.read()) >= 0) {
+                out.write(b);
+            }
+            Assert.assertArrayEquals(data, out.toByteArray());
+        }
+    }
+
+    @Test
+    public void testConcatenatedStreams() throws IOException {
+        byte[] data1 = createData(30000, 2);
+        byte[] data2 = "<http://example.org/s> <http://example.org/p> <http://example.org/o> .\n"
+                .getBytes(StandardCharsets.UTF_8);
+        // Simulate a file that has been created by pbzip2 including an empty stream
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        compressed.write(compress(data1, 1));
+        compressed.write(compress(new byte[0], 9));
+        compressed.write(compress(data2, 9));
+        compressed.write(compress(data1, 2));
+        ByteArrayOutputStream expected = new ByteArrayOutputStream();
+        expected.write(data1);
+        expected.write(data2);
+        expected.write(data1);
+        Assert.assertArrayEquals(expected.toByteArray(), decompress(compressed.toByteArray(), 3));
+    }
+
+    @Test
+    public void testEmptyInput() throws IOException {
+        Assert.assertEquals(0, decompress(new byte[0], 2).length);
+        Assert.assertEquals(0, decompress(compress(new byte[0], 9), 2).length);
+    }
+
+    @Test(expected = IOException.class)
+    public void testInvalidInput() throws IOException {
+        decompress("This is not bzip2 data.".getBytes(StandardCharsets.UTF_8), 2);
+    }
+
+    @Test(expected = IOException.class)
+    public void testTruncatedInput() throws IOException {
+        byte[] compressed = compress(createData(10000, 3), 1);
+        decompress(Arrays.copyOf(compressed, compressed.length / 2), 2);
+    }
+}
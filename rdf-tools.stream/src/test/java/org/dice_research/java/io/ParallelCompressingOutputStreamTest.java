@@ -0,0 +1,125 @@
+package org.dice_research.java.io;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.zip.GZIPInputStream;
+
+import org.apache.commons.compress.compressors.bzip2.BZip2CompressorInputStream;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class ParallelCompressingOutputStreamTest {
+
+    private static byte[] createData(int lines, long seed) {
+        Random random = new Random(seed);
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < lines; ++i) {
+            builder.append("<http://example.org/s").append(i).append("> <http://example.org/p")
+                    .append(random.nextInt(20)).append("> \"").append(random.nextLong()).append("\" .\n");
+        }
+        return builder.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static byte[] compress(byte[] data, BlockCompression compression, int numberOfThreads, int blockSize,
+            int writeSize) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (ParallelCompressingOutputStream pout = new ParallelCompressingOutputStream(out, compression,
+                numberOfThreads, blockSize)) {
+            int pos = 0;
+            while (pos < data.length) {
+                int length = Math.min(writeSize, data.length - pos);
+                if (length == 1) {
+                    pout.write(data[pos]);
+                } else {
+                    pout.write(data, pos, length);
+                }
+                pos += length;
+            }
+        }
+        return out.toByteArray();
+    }
+
+    private static byte[] decompress(byte[] compressed, BlockCompression compression) throws IOException {
+        InputStream in = new ByteArrayInputStream(compressed);
+        switch (compression) {
+        case GZIP:
+            in = new GZIPInputStream(in);
+            break;
+        case BZIP2:
+            in = new BZip2CompressorInputStream(in, true);
+            break;
+        }
+        try {
+            return in.readAllBytes();
+        } finally {
+            in.close();
+        }
+    }
+
+    @Test
+    public void testRoundTrip() throws IOException {
+        byte[] data = createData(20000, 1);
+        for (BlockCompression compression : BlockCompression.values()) {
+            // Several blocks that are written in pieces of different sizes
+            Assert.assertArrayEquals(compression.name(), data,
+                    decompress(compress(data, compression, 4, 100000, 4096), compression));
+            Assert.assertArrayEquals(compression.name(), data,
+                    decompress(compress(data, compression, 2, 65536, 1000000), compression));
+            Assert.assertArrayEquals(compression.name(), data,
+                    decompress(compress(data, compression, 1, 77777, 333), compression));
+            // A single block
+            Assert.assertArrayEquals(compression.name(), data,
+                    decompress(compress(data, compression, 3, data.length + 1, 8192), compression));
+        }
+    }
+
+    @Test
+    public void testSmallBlocks() throws IOException {
+        byte[] data = createData(200, 2);
+        for (BlockCompression compression : BlockCompression.values()) {
+            // Many tiny blocks with single byte writes make sure that the order is kept
+            Assert.assertArrayEquals(compression.name(), data,
+                    decompress(compress(data, compression, 3, 17, 1), compression));
+        }
+    }
+
+    @Test
+    public void testEmptyStream() throws IOException {
+        for (BlockCompression compression : BlockCompression.values()) {
+            byte[] compressed = compress(new byte[0], compression, 2, 1024, 1);
+            Assert.assertTrue(compressed.length > 0);
+            Assert.assertEquals(0, decompress(compressed, compression).length);
+        }
+    }
+
+    @Test
+    public void testFlush() throws IOException {
+        byte[] data = createData(1000, 3);
+        for (BlockCompression compression : BlockCompression.values()) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            try (ParallelCompressingOutputStream pout = new ParallelCompressingOutputStream(out, compression, 2,
+                    1 << 20)) {
+                pout.write(data, 0, 1000);
+                pout.flush();
+                // After flushing, the written data has to be readable
+                Assert.assertArrayEquals(compression.name(), Arrays.copyOf(data, 1000),
+                        decompress(out.toByteArray(), compression));
+                pout.write(data, 1000, data.length - 1000);
+            }
+            Assert.assertArrayEquals(compression.name(), data, decompress(out.toByteArray(), compression));
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void testWriteAfterFinish() throws IOException {
+        ParallelCompressingOutputStream pout = new ParallelCompressingOutputStream(new ByteArrayOutputStream(),
+                BlockCompression.GZIP, 1, 1024);
+        pout.finish();
+        pout.write(1);
+    }
+}
@@ -0,0 +1,130 @@
+package org.dice_research.java.io;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class ReadAheadInputStreamTest {
+
+    /**
+     * A stream that returns the given data and fails afterwards with the given
+     * unchecked exception or error.
+     */
+    private static class FailingInputStream extends InputStream {
+        private final InputStream data;
+        private final Throwable exception;
+
+        public FailingInputStream(byte[] data, Throwable exception) {
+            this.data = new ByteArrayInputStream(data);
+            this.exception = exception;
+        }
+
+        private void fail() {
+            if (exception instanceof Error) {
+                throw (Error) exception;
+            } else {
+                throw (RuntimeException) exception;
+            }
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = data.read();
+            if (b < 0) {
+                fail();
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int count = data.read(b, off, len);
+            if (count < 0) {
+                fail();
+            }
+            return count;
+        }
+    }
+
+    private static byte[] createData(int length) {
+        byte[] data = new byte[length];
+        new Random(length).nextBytes(data);
+        return data;
+    }
+
+    @Test
+    public void testRead() throws IOException {
+        byte[] data = createData(10000);
+        try (ReadAheadInputStream in = new ReadAheadInputStream(new ByteArrayInputStream(data), 64, 3)) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] buffer = new byte[100];
+            int count;
+            while ((count = in.read(buffer)) >= 0) {
+                out.write(buffer, 0, count);
+            }
+            Assert.assertArrayEquals(data, out.toByteArray());
+            Assert.assertEquals(-1, in.read());
+        }
+    }
+
+    @Test
+    public void testUncheckedException() throws IOException {
+        checkFailure(new IllegalStateException("test"));
+    }
+
+    @Test
+    public void testError() throws IOException {
+        checkFailure(new UnsatisfiedLinkError("test"));
+    }
+
+    private void checkFailure(Throwable exception) throws IOException {
+        byte[] data = createData(1000);
+        try (ReadAheadInputStream in = new ReadAheadInputStream(new FailingInputStream(data, exception), 64, 3)) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] buffer = new byte[100];
+            int count;
+            try {
+                while ((count = in.read(buffer)) >= 0) {
+                    out.write(buffer, 0, count);
+                }
+                Assert.fail("Expected an exception.");
+            } catch (IOException e) {
+                Assert.assertSame(exception, e.getCause());
+            }
+            // The data that has been read before the error is not lost
+            Assert.assertArrayEquals(data, out.toByteArray());
+            // The error must not look like the end of the stream
+            try {
+                in.read();
+                Assert.fail("Expected an exception.");
+            } catch (IOException e) {
+                Assert.assertSame(exception, e.getCause());
+            }
+        }
+    }
+
+    @Test
+    public void testPartialBufferBeforeError() throws IOException {
+        // The error occurs while the last buffer is only partially filled
+        byte[] data = createData(100);
+        IllegalStateException exception = new IllegalStateException("test");
+        try (ReadAheadInputStream in = new ReadAheadInputStream(new FailingInputStream(data, exception), 64, 2)) {
+            byte[] buffer = new byte[200];
+            Assert.assertEquals(64, in.read(buffer));
+            Assert.assertEquals(36, in.read(buffer, 64, 136));
+            Assert.assertArrayEquals(data, Arrays.copyOf(buffer, 100));
+            try {
+                in.read(buffer);
+                Assert.fail("Expected an exception.");
+            } catch (IOException e) {
+                Assert.assertSame(exception, e.getCause());
+            }
+        }
+    }
+}
@@ -0,0 +1,230 @@
+package org.dice_research.java.sketch;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map.Entry;
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class SketchesTest {
+
+    @Test
+    public void testHyperLogLog() {
+        for (int n : new int[] { 10, 1000, 100000, 1000000 }) {
+            HyperLogLog sketch = new HyperLogLog();
+            for (int i = 0; i < n; ++i) {
+                sketch.add("http://example.org/" + i);
+                // Duplicates do not change the estimate
+                sketch.add("http://example.org/" + i);
+            }
+            // The standard error is 1.6%, so 6% is a very safe bound
+            Assert.assertEquals("Estimate for " + n + " elements", n, sketch.estimate(), Math.max(1, n * 0.06));
+        }
+    }
+
+    @Test
+    public void testHyperLogLogMerge() {
+        HyperLogLog all = new HyperLogLog(10);
+        HyperLogLog part1 = new HyperLogLog(10);
+        HyperLogLog part2 = new HyperLogLog(10);
+        for (int i = 0; i < 50000; ++i) {
+            long hash = Hashing.hash64(i);
+            all.add(hash);
+            // The parts overlap
+            if (i < 30000) {
+                part1.add(hash);
+            }
+            if (i >= 20000) {
+                part2.add(hash);
+            }
+        }
+        part1.merge(part2);
+        Assert.assertEquals(all, part1);
+        Assert.assertEquals(all.estimate(), part1.estimate());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testHyperLogLogMergeDifferentPrecisions() {
+        new HyperLogLog(10).merge(new HyperLogLog(11));
+    }
+
+    @Test
+    public void testCountMinSketch() {
+        CountMinSketch sketch = CountMinSketch.create(0.001, 0.01);
+        int[] counts = new int[10000];
+        Random random = new Random(1);
+        for (int i = 0; i < 200000; ++i) {
+            int element = (int) Math.abs(random.nextGaussian() * 1000) % counts.length;
+            ++counts[element];
+            sketch.add(Hashing.hash64(element), 1);
+        }
+        int outliers = 0;
+        for (int i = 0; i < counts.length; ++i) {
+            long estimate = sketch.estimate(Hashing.hash64(i));
+            // Count-Min never underestimates
+            Assert.assertTrue(estimate >= counts[i]);
+            if (estimate > counts[i] + 0.001 * sketch.getTotalCount()) {
+                ++outliers;
+            }
+        }
+        Assert.assertTrue("Too many estimates violate the error bound: " + outliers, outliers < 0.01 * counts.length);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testCountMinSketchTooLarge() {
+        // 4 * 2^30 counters would overflow an int
+        new CountMinSketch(4, 1 << 30);
+    }
+
+    @Test
+    public void testHeavyHitters() {
+        HeavyHitters<String> part1 = new HeavyHitters<>(3, new CountMinSketch(4, 1024), Hashing::hash64);
+        HeavyHitters<String> part2 = new HeavyHitters<>(3, new CountMinSketch(4, 1024), Hashing::hash64);
+        Random random = new Random(2);
+        for (int i = 0; i < 100000; ++i) {
+            HeavyHitters<String> target = ((i & 1) == 0) ? part1 : part2;
+            // 3 frequent elements within a lot of noise
+            if (random.nextInt(10) < 3) {
+                target.add("frequent" + (i % 3));
+            } else {
+                target.add("noise" + random.nextInt(50000));
+            }
+        }
+        part1.merge(part2);
+        List<Entry<String, Long>> topK = part1.getTopK();
+        Assert.assertEquals(3, topK.size());
+        for (Entry<String, Long> entry : topK) {
+            Assert.assertTrue(entry.getKey().startsWith("frequent"));
+            Assert.assertEquals(10000, entry.getValue(), 1000);
+        }
+    }
+
+    @Test
+    public void testHeavyHittersCandidates() {
+        // Element i occurs (200 - i) times in a shuffled stream, i.e., all counts
+        // are distinct and the 20 most frequent elements are 0 to 19
+        List<String> stream = new ArrayList<>();
+        for (int i = 0; i < 200; ++i) {
+            for (int j = i; j < 200; ++j) {
+                stream.add("e" + i);
+            }
+        }
+        Collections.shuffle(stream, new Random(3));
+        HeavyHitters<String> heavyHitters = new HeavyHitters<>(20, new CountMinSketch(4, 1 << 16), Hashing::hash64);
+        for (String element : stream) {
+            heavyHitters.add(element);
+        }
+        List<Entry<String, Long>> topK = heavyHitters.getTopK();
+        Assert.assertEquals(20, topK.size());
+        for (int i = 0; i < topK.size(); ++i) {
+            Assert.assertEquals("e" + i, topK.get(i).getKey());
+            Assert.assertEquals(200 - i, topK.get(i).getValue().longValue());
+        }
+    }
+
+    @Test
+    public void testReservoirSampleGrowth() {
+        ReservoirSample<Integer> sample = new ReservoirSample<>(1000, 4);
+        for (int i = 0; i < 3; ++i) {
+            sample.add(i);
+        }
+        Assert.assertEquals(3, sample.size());
+        Assert.assertTrue(sample.keys.length < 1000);
+        for (int i = 3; i < 5000; ++i) {
+            sample.add(i);
+        }
+        Assert.assertEquals(1000, sample.size());
+        Assert.assertEquals(1000, sample.keys.length);
+        Assert.assertEquals(1000, sample.getSample().stream().distinct().count());
+    }
+
+    @Test
+    public void testReservoirSampleUniformity() {
+        int n = 100;
+        int k = 10;
+        int trials = 20000;
+        int[] counts = new int[n];
+        for (int t = 0; t < trials; ++t) {
+            ReservoirSample<Integer> sample = new ReservoirSample<>(k, t);
+            for (int i = 0; i < n; ++i) {
+                sample.add(i);
+            }
+            Assert.assertEquals(k, sample.size());
+            for (int i : sample.getSample()) {
+                ++counts[i];
+            }
+        }
+        // Every element should be chosen with the probability k/n, independent of
+        // its position
+        double expected = (double) trials * k / n;
+        for (int i = 0; i < n; ++i) {
+            Assert.assertEquals("Count of element " + i, expected, counts[i], expected * 0.15);
+        }
+    }
+
+    @Test
+    public void testReservoirSampleWeighted() {
+        int trials = 20000;
+        int heavyCount = 0;
+        for (int t = 0; t < trials; ++t) {
+            ReservoirSample<String> sample = new ReservoirSample<>(1, t);
+            sample.add("light", 1);
+            sample.add("heavy", 3);
+            sample.add("never", 0);
+            if ("heavy".equals(sample.getSample().get(0))) {
+                ++heavyCount;
+            }
+        }
+        Assert.assertEquals(0.75, (double) heavyCount / trials, 0.02);
+    }
+
+    @Test
+    public void testReservoirSampleMerge() {
+        int n = 100;
+        int k = 10;
+        int trials = 20000;
+        int[] counts = new int[n];
+        for (int t = 0; t < trials; ++t) {
+            // The first part is much smaller than the second part
+            ReservoirSample<Integer> part1 = new ReservoirSample<>(k, 2 * t);
+            ReservoirSample<Integer> part2 = new ReservoirSample<>(k, 2 * t + 1);
+            for (int i = 0; i < n; ++i) {
+                if (i < 20) {
+                    part1.add(i);
+                } else {
+                    part2.add(i);
+                }
+            }
+            part1.merge(part2);
+            Assert.assertEquals(k, part1.size());
+            Assert.assertEquals(n, part1.getCount());
+            for (int i : part1.getSample()) {
+                ++counts[i];
+            }
+        }
+        double expected = (double) trials * k / n;
+        for (int i = 0; i < n; ++i) {
+            Assert.assertEquals("Count of element " + i, expected, counts[i], expected * 0.15);
+        }
+    }
+
+    @Test
+    public void testReservoirSampleReproducibility() {
+        ReservoirSample<Integer> sample1 = new ReservoirSample<>(5, 42);
+        ReservoirSample<Integer> sample2 = new ReservoirSample<>(5, 42);
+        for (int i = 0; i < 1000; ++i) {
+            sample1.add(i);
+            sample2.add(i);
+        }
+        Assert.assertEquals(sample1.getSample(), sample2.getSample());
+        // Short streams are kept completely
+        ReservoirSample<Integer> sample3 = new ReservoirSample<>(5, 42);
+        sample3.add(1);
+        sample3.add(2);
+        Assert.assertEquals(2, sample3.size());
+        Assert.assertTrue(sample3.getSample().containsAll(List.of(1, 2)));
+    }
+}
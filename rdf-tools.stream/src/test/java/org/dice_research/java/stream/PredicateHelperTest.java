@@ -0,0 +1,84 @@
+package org.dice_research.java.stream;
+
+import java.util.Random;
+import java.util.function.Predicate;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Compares the trie- and automaton-based predicates with the simple, linear
+ * implementations using random Strings over a small alphabet.
+ */
+public class PredicateHelperTest {
+
+    private static final int NUMBER_OF_ROUNDS = 200;
+    private static final int NUMBER_OF_STRINGS = 200;
+
+    @Test
+    public void testStartsWithAny() {
+        Random random = new Random(1);
+        for (int r = 0; r < NUMBER_OF_ROUNDS; ++r) {
+            String[] prefixes = randomStrings(random, random.nextInt(6), 4);
+            Predicate<String> predicate = PredicateHelper.startsWithAnyPredicate(prefixes);
+            for (int i = 0; i < NUMBER_OF_STRINGS; ++i) {
+                String s = randomString(random, 8);
+                Assert.assertEquals(s, PredicateHelper.startsWithAny(s, prefixes), predicate.test(s));
+            }
+        }
+    }
+
+    @Test
+    public void testContainsAny() {
+        Random random = new Random(2);
+        for (int r = 0; r < NUMBER_OF_ROUNDS; ++r) {
+            String[] patterns = randomStrings(random, random.nextInt(6), 4);
+            Predicate<String> predicate = PredicateHelper.containsAnyPredicate(patterns);
+            for (int i = 0; i < NUMBER_OF_STRINGS; ++i) {
+                String s = randomString(random, 12);
+                Assert.assertEquals(s, PredicateHelper.containsAny(s, patterns), predicate.test(s));
+            }
+        }
+    }
+
+    @Test
+    public void testContainsAll() {
+        Random random = new Random(3);
+        for (int r = 0; r < NUMBER_OF_ROUNDS; ++r) {
+            String[] patterns = randomStrings(random, random.nextInt(4), 3);
+            Predicate<String> predicate = PredicateHelper.containsAllPredicate(patterns);
+            for (int i = 0; i < NUMBER_OF_STRINGS; ++i) {
+                String s = randomString(random, 16);
+                Assert.assertEquals(s, PredicateHelper.containsAll(s, patterns), predicate.test(s));
+            }
+        }
+    }
+
+    @Test
+    public void testNamespaces() {
+        Predicate<String> predicate = PredicateHelper.startsWithAnyPredicate("http://dbpedia.org/ontology/",
+                "http://dbpedia.org/", "http://www.wikidata.org/entity/");
+        Assert.assertTrue(predicate.test("http://dbpedia.org/ontology/Person"));
+        Assert.assertTrue(predicate.test("http://dbpedia.org/resource/Paderborn"));
+        Assert.assertTrue(predicate.test("http://www.wikidata.org/entity/Q5"));
+        Assert.assertFalse(predicate.test("http://www.wikidata.org/prop/direct/P31"));
+        Assert.assertFalse(predicate.test("http://dbpedia.org"));
+    }
+
+    private static String[] randomStrings(Random random, int count, int maxLength) {
+        String[] strings = new String[count];
+        for (int i = 0; i < count; ++i) {
+            strings[i] = randomString(random, maxLength);
+        }
+        return strings;
+    }
+
+    private static String randomString(Random random, int maxLength) {
+        int length = random.nextInt(maxLength + 1);
+        StringBuilder builder = new StringBuilder(length);
+        for (int i = 0; i < length; ++i) {
+            builder.append((char) ('a' + random.nextInt(3)));
+        }
+        return builder.toString();
+    }
+}